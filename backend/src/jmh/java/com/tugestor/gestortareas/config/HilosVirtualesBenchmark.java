@@ -0,0 +1,137 @@
+package com.tugestor.gestortareas.config;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.tugestor.gestortareas.GestorTareasApplication;
+import com.tugestor.gestortareas.model.Categoria;
+import com.tugestor.gestortareas.model.Prioridad;
+import com.tugestor.gestortareas.model.Tarea;
+import com.tugestor.gestortareas.model.Usuario;
+import com.tugestor.gestortareas.repository.CategoriaRepository;
+import com.tugestor.gestortareas.repository.TareaRepository;
+import com.tugestor.gestortareas.repository.UsuarioRepository;
+import com.tugestor.gestortareas.security.JwtService;
+import com.tugestor.gestortareas.security.UsuarioDetalles;
+
+/* Prueba de carga de la aplicacion entera (Tomcat + seguridad + JPA) con hilos de plataforma y con hilos
+ * virtuales: 64 clientes concurrentes contra GET /api/tarea/pagina y un pool de Hikari de 5 conexiones,
+ * como en produccion. Throughput da peticiones/ms y SampleTime los percentiles (p0.99 = p99).
+ * Necesita JDK 21, como el resto del build (java.version=21): es el que da hilos virtuales a Tomcat con
+ * hilosVirtuales=true. Con hilos virtuales las respuestas 503 de LimitePeticionesBdFilter se
+ * cuentan aparte al final de cada prueba. La base es H2 en memoria, asi que la espera de red de Neon no
+ * aparece: la diferencia entre modos sale sobre todo de planificacion y de la cola del pool. */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(64)
+@Fork(1)
+public class HilosVirtualesBenchmark {
+	private static final String EMAIL = "carga@ejemplo.com";
+	private static final int TAREAS = 40;
+
+	@Param({ "false", "true" })
+	public boolean hilosVirtuales;
+
+	private final LongAdder rechazadas = new LongAdder();
+	private final LongAdder fallidas = new LongAdder();
+	private ConfigurableApplicationContext contexto;
+	private HttpClient cliente;
+	private HttpRequest peticion;
+
+	@Setup(Level.Trial)
+	public void arrancar() {
+		// Argumentos de linea de comandos para imponerse al application.properties de test
+		contexto = new SpringApplicationBuilder(GestorTareasApplication.class).run(
+				"--server.port=0",
+				"--spring.threads.virtual.enabled=" + hilosVirtuales,
+				"--spring.datasource.url=jdbc:h2:mem:carga-" + hilosVirtuales + ";DB_CLOSE_DELAY=-1",
+				"--spring.datasource.hikari.maximum-pool-size=5",
+				"--spring.jpa.show-sql=false",
+				"--logging.level.root=WARN",
+				"--logging.level.org.hibernate.SQL=WARN",
+				"--logging.level.org.hibernate.type.descriptor.sql=WARN",
+				"--app.tareas.estado.barrido-cron=-",
+				"--app.notificaciones.scheduler.recordatorios-initial-delay-ms=3600000",
+				"--app.notificaciones.scheduler.avisos24h-initial-delay-ms=3600000");
+		Usuario usuario = prepararDatos();
+		String token = contexto.getBean(JwtService.class).generateAccessToken(new UsuarioDetalles(usuario));
+		int puerto = Integer.parseInt(contexto.getEnvironment().getProperty("local.server.port"));
+
+		cliente = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+		peticion = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/api/tarea/pagina?orden=TITULO"))
+				.header("Authorization", "Bearer " + token)
+				.timeout(Duration.ofSeconds(30))
+				.GET()
+				.build();
+	}
+
+	@TearDown(Level.Trial)
+	public void parar() {
+		System.out.printf("%nhilosVirtuales=%s: %d respuestas 503, %d con otro error%n",
+				hilosVirtuales, rechazadas.sum(), fallidas.sum());
+		contexto.close();
+	}
+
+	@Benchmark
+	public int listarPagina() throws IOException, InterruptedException {
+		int status = cliente.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode();
+		if (status == 503) {
+			rechazadas.increment();
+		} else if (status != 200) {
+			fallidas.increment();
+		}
+		return status;
+	}
+
+	private Usuario prepararDatos() {
+		UsuarioRepository ur = contexto.getBean(UsuarioRepository.class);
+		CategoriaRepository cr = contexto.getBean(CategoriaRepository.class);
+		TareaRepository tr = contexto.getBean(TareaRepository.class);
+
+		Usuario usuario = new Usuario();
+		usuario.setNombre("Usuario carga");
+		usuario.setEmail(EMAIL);
+		usuario.setPassword("Password123");
+		usuario.setActivo(true);
+		usuario = ur.save(usuario);
+
+		Categoria categoria = new Categoria("Carga", "#00FF00", "icono", false);
+		categoria.setUsuario(usuario);
+		cr.save(categoria);
+		for (int i = 1; i <= TAREAS; i++) {
+			tr.save(new Tarea("Tarea " + i, 10 + i, Prioridad.values()[i % Prioridad.values().length],
+					LocalDateTime.now().plusDays(i), "Descripcion " + i, categoria, usuario));
+		}
+		return usuario;
+	}
+}
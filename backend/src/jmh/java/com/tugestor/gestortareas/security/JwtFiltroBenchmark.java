@@ -0,0 +1,97 @@
+package com.tugestor.gestortareas.security;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+
+/* Camino del filtro JWT con un cliente que repite el mismo access token.
+ * - validacionAnterior: las cinco verificaciones de firma que hacia el filtro antes de ValidatedToken.
+ * - validacionUnica: un solo parseo, sin la cache de tokens verificados (cliente nuevo).
+ * - validacionCacheada: token ya verificado, sin HMAC.
+ * - filtroCompleto: JwtAuthenticationFilter entero con UserDetails en cache, como en produccion. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFiltroBenchmark {
+	private static final String SECRETO = "CLAVESECRETAbenchmark123";
+	private static final String EMAIL = "benchmark@ejemplo.com";
+
+	private JwtService jwtService;
+	private JwtService jwtServiceSinCache;
+	private JwtAuthenticationFilter filtro;
+	private UserDetails userDetails;
+	private String token;
+
+	@Setup
+	public void preparar() {
+		jwtService = new JwtService(SECRETO, 900_000, 604_800_000, 1024);
+		jwtServiceSinCache = new JwtService(SECRETO, 900_000, 604_800_000, 0);
+		userDetails = User.builder().username(EMAIL).password("hash").roles("USER").build();
+		token = jwtService.generateAccessToken(userDetails);
+		UsuarioDetallesCache usuarioDetallesCache = new UsuarioDetallesCache(new SimpleMeterRegistry(),
+				Duration.ofMinutes(5), 100);
+		filtro = new JwtAuthenticationFilter(jwtService, username -> userDetails, usuarioDetallesCache);
+	}
+
+	@Benchmark
+	public boolean validacionAnterior(Blackhole bh) {
+		// isAccessToken + extractUsername + isAccessTokenValid (extractUsername, extractExpiration, extractTokenType)
+		boolean acceso = "access".equals(jwtServiceSinCache.extractTokenType(token));
+		String username = jwtServiceSinCache.extractUsername(token);
+		boolean propio = jwtServiceSinCache.extractUsername(token).equals(userDetails.getUsername());
+		Date expiracion = jwtServiceSinCache.extractExpiration(token);
+		bh.consume(username);
+		return acceso && propio && !expiracion.before(new Date())
+				&& "access".equals(jwtServiceSinCache.extractTokenType(token));
+	}
+
+	@Benchmark
+	public boolean validacionUnica() {
+		ValidatedToken validado = jwtServiceSinCache.validateToken(token);
+		return validado.isAccessToken() && jwtServiceSinCache.perteneceA(validado, userDetails);
+	}
+
+	@Benchmark
+	public boolean validacionCacheada() {
+		ValidatedToken validado = jwtService.validateToken(token);
+		return validado.isAccessToken() && jwtService.perteneceA(validado, userDetails);
+	}
+
+	@Benchmark
+	public int filtroCompleto() throws ServletException, IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tarea");
+		request.addHeader("Authorization", "Bearer " + token);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		try {
+			filtro.doFilter(request, response, new MockFilterChain());
+			return response.getStatus();
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package com.tugestor.gestortareas.service;
+
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Security;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sun.net.httpserver.HttpServer;
+import com.tugestor.gestortareas.config.WebPushProperties;
+
+import nl.martijndwars.webpush.AbstractPushService;
+import nl.martijndwars.webpush.Encoding;
+import nl.martijndwars.webpush.Encrypted;
+import nl.martijndwars.webpush.Notification;
+import nl.martijndwars.webpush.PushService;
+
+/* Envio Web Push contra un servicio push de pega en localhost que responde 201.
+ * - pushServiceLibreria: PushService.send como antes: comprueba el par VAPID, firma un JWT nuevo y
+ *   levanta un cliente HTTP (y una conexion) por envio.
+ * - clientePush: ClientePush con claves ya cargadas, JWT cacheado por audiencia y conexion keep-alive.
+ * - soloCifrado: el cifrado aesgcm por subscripcion (ECDH efimero), que pagan los dos y no se puede
+ *   cachear; la diferencia entre los otros dos y este es lo que cuesta el envio en si. El stub es HTTP
+ * sin TLS (HTTP/1.1 keep-alive; con TLS el cliente negocia HTTP/2 por ALPN): en produccion la conexion
+ * nueva tambien paga el handshake TLS, asi que la diferencia real con FCM o Mozilla es mayor. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientePushBenchmark {
+	private static final String PAYLOAD = "{\"title\":\"Tarea proxima a vencer\",\"body\":\"Quedan 24 horas\","
+			+ "\"url\":\"/app\",\"requireInteraction\":true}";
+
+	private HttpServer servidor;
+	private ExecutorService hilosServidor;
+	private String endpoint;
+	private String p256dh;
+	private String auth;
+	private PushService pushService;
+	private ClientePush clientePush;
+
+	@Setup(Level.Trial)
+	public void preparar() throws Exception {
+		if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+			Security.addProvider(new BouncyCastleProvider());
+		}
+		// Sin TCP_NODELAY el stub suma la espera del ACK retardado de TCP a cada respuesta
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		hilosServidor = Executors.newFixedThreadPool(4);
+		servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 128);
+		servidor.setExecutor(hilosServidor);
+		servidor.createContext("/push", intercambio -> {
+			intercambio.getRequestBody().readAllBytes();
+			intercambio.sendResponseHeaders(201, -1);
+			intercambio.close();
+		});
+		servidor.start();
+		endpoint = "http://localhost:" + servidor.getAddress().getPort() + "/push/subscripcion";
+
+		KeyPair vapid = generarClaves();
+		p256dh = codificar((ECPublicKey) generarClaves().getPublic());
+		auth = Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[16]);
+
+		WebPushProperties properties = new WebPushProperties();
+		properties.setVapidPublicKey(codificar((ECPublicKey) vapid.getPublic()));
+		properties.setVapidPrivateKey(codificar((ECPrivateKey) vapid.getPrivate()));
+		pushService = new PushService(properties.getVapidPublicKey(), properties.getVapidPrivateKey(),
+				properties.getVapidSubject());
+		clientePush = new ClientePush(properties, Clock.systemUTC());
+		if (clientePush.preparar() != null) {
+			throw new IllegalStateException("ClientePush no se pudo preparar");
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void parar() {
+		servidor.stop(0);
+		hilosServidor.shutdownNow();
+	}
+
+	@Benchmark
+	public int pushServiceLibreria() throws Exception {
+		return pushService.send(new Notification(endpoint, p256dh, auth, PAYLOAD))
+				.getStatusLine().getStatusCode();
+	}
+
+	@Benchmark
+	public int clientePush() throws Exception {
+		return clientePush.enviar(endpoint, p256dh, auth, PAYLOAD);
+	}
+
+	@Benchmark
+	public Encrypted soloCifrado() throws Exception {
+		Notification notificacion = new Notification(endpoint, p256dh, auth, PAYLOAD);
+		return AbstractPushService.encrypt(notificacion.getPayload(), notificacion.getUserPublicKey(),
+				notificacion.getUserAuth(), Encoding.AESGCM);
+	}
+
+	private static KeyPair generarClaves() throws Exception {
+		KeyPairGenerator generador = KeyPairGenerator.getInstance("EC");
+		generador.initialize(new ECGenParameterSpec("secp256r1"));
+		return generador.generateKeyPair();
+	}
+
+	private static String codificar(ECPublicKey clave) {
+		byte[] punto = new byte[65];
+		punto[0] = 0x04;
+		copiar(clave.getW().getAffineX(), punto, 1);
+		copiar(clave.getW().getAffineY(), punto, 33);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(punto);
+	}
+
+	private static String codificar(ECPrivateKey clave) {
+		byte[] d = new byte[32];
+		copiar(clave.getS(), d, 0);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(d);
+	}
+
+	private static void copiar(BigInteger valor, byte[] destino, int desde) {
+		byte[] bytes = valor.toByteArray();
+		int longitud = Math.min(bytes.length, 32);
+		System.arraycopy(bytes, bytes.length - longitud, destino, desde + 32 - longitud, longitud);
+	}
+}
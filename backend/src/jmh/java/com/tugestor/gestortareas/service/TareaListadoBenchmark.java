@@ -0,0 +1,139 @@
+package com.tugestor.gestortareas.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tugestor.gestortareas.GestorTareasApplication;
+import com.tugestor.gestortareas.dto.TareaResponse;
+import com.tugestor.gestortareas.model.Categoria;
+import com.tugestor.gestortareas.model.OrdenPaginaTarea;
+import com.tugestor.gestortareas.model.Prioridad;
+import com.tugestor.gestortareas.model.Tarea;
+import com.tugestor.gestortareas.model.Usuario;
+import com.tugestor.gestortareas.repository.CategoriaRepository;
+import com.tugestor.gestortareas.repository.TareaRepository;
+import com.tugestor.gestortareas.repository.UsuarioRepository;
+
+/* Listado completo de un usuario con 50.000 tareas, como GET /api/tarea y GET /api/tarea/titulo.
+ * - entidades: el camino anterior del controlador, List<Tarea> y despues crearTareaResponses. Va dentro
+ *   de una transaccion para imitar la sesion abierta de open-in-view, que mantiene las entidades y sus
+ *   copias para el dirty checking hasta el final de la peticion.
+ * - proyeccion: listarTareaResponses, que construye TareaResponse en la consulta sin cargar entidades.
+ * SampleTime da la latencia por listado (p0.50, p0.99) y -prof gc los bytes reservados por listado
+ * (gc.alloc.rate.norm). La base es H2 en memoria: la diferencia sale de Hibernate y no de la red. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = { "-Xms2g", "-Xmx2g" })
+public class TareaListadoBenchmark {
+	private static final String EMAIL = "listado@ejemplo.com";
+	private static final int TAREAS = 50_000;
+	private static final int LOTE = 2_000;
+
+	@Param({ "ID", "TITULO" })
+	public OrdenPaginaTarea orden;
+
+	private ConfigurableApplicationContext contexto;
+	private TareaService ts;
+	private TransactionTemplate transaccion;
+
+	@Setup(Level.Trial)
+	public void arrancar() {
+		// Argumentos de linea de comandos para imponerse al application.properties de test
+		contexto = new SpringApplicationBuilder(GestorTareasApplication.class).run(
+				"--server.port=0",
+				"--spring.datasource.url=jdbc:h2:mem:listado-" + orden + ";DB_CLOSE_DELAY=-1",
+				"--spring.jpa.show-sql=false",
+				"--logging.level.root=WARN",
+				"--logging.level.org.hibernate.SQL=WARN",
+				"--logging.level.org.hibernate.type.descriptor.sql=WARN",
+				"--app.tareas.estado.barrido-cron=-",
+				"--app.notificaciones.scheduler.recordatorios-initial-delay-ms=3600000",
+				"--app.notificaciones.scheduler.avisos24h-initial-delay-ms=3600000");
+		ts = contexto.getBean(TareaService.class);
+		transaccion = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+		prepararDatos();
+	}
+
+	@TearDown(Level.Trial)
+	public void parar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public List<TareaResponse> entidades() {
+		return transaccion.execute(estado -> {
+			List<Tarea> tareas = orden == OrdenPaginaTarea.TITULO
+					? ts.obtenerPorTitulo(EMAIL)
+					: ts.obtenerTodas(EMAIL);
+			return ts.crearTareaResponses(tareas, EMAIL);
+		});
+	}
+
+	@Benchmark
+	public List<TareaResponse> proyeccion() {
+		return ts.listarTareaResponses(orden, EMAIL);
+	}
+
+	// Un tercio con categoria, uno de cada diez completada por un companero y uno de cada siete sin fecha
+	private void prepararDatos() {
+		UsuarioRepository ur = contexto.getBean(UsuarioRepository.class);
+		CategoriaRepository cr = contexto.getBean(CategoriaRepository.class);
+		TareaRepository tr = contexto.getBean(TareaRepository.class);
+
+		Usuario usuario = guardarUsuario(ur, "Usuario listado", EMAIL);
+		Usuario companero = guardarUsuario(ur, "Companero listado", "companero-" + EMAIL);
+		Categoria categoria = new Categoria("Listado", "#00FF00", "icono", false);
+		categoria.setUsuario(usuario);
+		cr.save(categoria);
+
+		LocalDateTime base = LocalDateTime.now().plusDays(1);
+		for (int inicio = 0; inicio < TAREAS; inicio += LOTE) {
+			List<Tarea> lote = new ArrayList<>(LOTE);
+			for (int i = inicio; i < inicio + LOTE; i++) {
+				Tarea tarea = new Tarea("Tarea " + ((i * 7919) % TAREAS), 5 + i % 120,
+						Prioridad.values()[i % Prioridad.values().length],
+						i % 7 == 0 ? null : base.plusMinutes(i), "Descripcion de la tarea " + i,
+						i % 3 == 0 ? categoria : null, usuario);
+				if (i % 10 == 0) {
+					tarea.setCompletada(true);
+					tarea.setFechaCompletada(LocalDateTime.now());
+					tarea.setUsuarioQueCompleta(companero);
+				}
+				lote.add(tarea);
+			}
+			transaccion.executeWithoutResult(estado -> tr.saveAll(lote));
+		}
+	}
+
+	private static Usuario guardarUsuario(UsuarioRepository ur, String nombre, String email) {
+		Usuario usuario = new Usuario();
+		usuario.setNombre(nombre);
+		usuario.setEmail(email);
+		usuario.setPassword("Password123");
+		usuario.setActivo(true);
+		return ur.save(usuario);
+	}
+}
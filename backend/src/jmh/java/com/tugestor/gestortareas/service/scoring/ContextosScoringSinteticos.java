@@ -0,0 +1,75 @@
+package com.tugestor.gestortareas.service.scoring;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.tugestor.gestortareas.model.AsignacionGrupoMiembro;
+import com.tugestor.gestortareas.model.Categoria;
+import com.tugestor.gestortareas.model.EstadoRevisionAsignacion;
+import com.tugestor.gestortareas.model.Prioridad;
+import com.tugestor.gestortareas.model.Tarea;
+
+/* Genera mezclas reproducibles de contextos para los benchmarks del ranking inteligente:
+ * 25% vencidas, 35% con fecha futura, 20% sin fecha y 20% asignaciones de grupo reabiertas. */
+final class ContextosScoringSinteticos {
+	static final LocalDateTime AHORA = LocalDateTime.of(2026, 5, 21, 10, 0);
+	private static final long SEMILLA = 42L;
+	private static final Prioridad[] PRIORIDADES = Prioridad.values();
+
+	private ContextosScoringSinteticos() {
+	}
+
+	static Clock clockFijo() {
+		ZoneId zoneId = ZoneId.systemDefault();
+		return Clock.fixed(AHORA.atZone(zoneId).toInstant(), zoneId);
+	}
+
+	static List<TareaScoringContext> generar(int cantidad) {
+		SplittableRandom random = new SplittableRandom(SEMILLA);
+		List<Categoria> categorias = List.of(
+				categoria(1L, "Trabajo/Estudios", true),
+				categoria(2L, "Doméstico", true),
+				categoria(3L, "Ocio/Personal", true),
+				categoria(4L, "Gimnasio", false));
+		List<TareaScoringContext> contextos = new ArrayList<>(cantidad);
+		for (int i = 0; i < cantidad; i++) {
+			Tarea tarea = new Tarea((long) i + 1);
+			tarea.setTitulo("Tarea " + (i + 1));
+			tarea.setPrioridad(PRIORIDADES[random.nextInt(PRIORIDADES.length)]);
+			tarea.setTiempo(1 + random.nextInt(300));
+			tarea.setFechaAgregado(AHORA.minusMinutes(random.nextLong(100L * 24 * 60)));
+			tarea.setCategoria(random.nextInt(5) == 0 ? null : categorias.get(random.nextInt(categorias.size())));
+			tarea.setCompletada(false);
+
+			int tipo = random.nextInt(100);
+			if (tipo < 25) {
+				tarea.setFechaEntrega(AHORA.minusMinutes(1 + random.nextLong(70L * 24 * 60)));
+				contextos.add(TareaScoringContext.personal(tarea));
+			} else if (tipo < 60) {
+				tarea.setFechaEntrega(AHORA.plusMinutes(1 + random.nextLong(10L * 24 * 60)));
+				contextos.add(TareaScoringContext.personal(tarea));
+			} else if (tipo < 80) {
+				contextos.add(TareaScoringContext.personal(tarea));
+			} else {
+				// Reabiertas alrededor de la ventana critica (48 h antes / 24 h despues de la entrega)
+				tarea.setFechaEntrega(AHORA.plusMinutes(random.nextLong(-36L * 60, 72L * 60)));
+				AsignacionGrupoMiembro asignacion = new AsignacionGrupoMiembro();
+				asignacion.setTareaGenerada(tarea);
+				asignacion.setEstadoRevision(EstadoRevisionAsignacion.REABIERTA);
+				contextos.add(TareaScoringContext.grupo(asignacion));
+			}
+		}
+		return contextos;
+	}
+
+	private static Categoria categoria(Long id, String nombre, boolean protegida) {
+		Categoria categoria = new Categoria(id);
+		categoria.setNombre(nombre);
+		categoria.setProtegida(protegida);
+		return categoria;
+	}
+}
@@ -0,0 +1,53 @@
+package com.tugestor.gestortareas.service.scoring;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/* Compara el ranking secuencial con el paralelo para elegir app.tareas.ranking.umbral-paralelo:
+ * el punto de cruce es el primer tamanio en el que 'paralelo' tarda menos que 'secuencial'.
+ * Depende de los nucleos disponibles, asi que conviene medirlo en la maquina de despliegue. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TareaInteligenteRankingParaleloBenchmark {
+
+	@Param({ "500", "1000", "2000", "5000", "10000", "50000", "200000" })
+	public int tamanio;
+
+	private List<TareaScoringContext> contextos;
+	private TareaInteligenteRankingService rankingSecuencial;
+	private TareaInteligenteRankingService rankingParalelo;
+
+	@Setup
+	public void preparar() {
+		contextos = ContextosScoringSinteticos.generar(tamanio);
+		rankingSecuencial = new TareaInteligenteRankingService(ContextosScoringSinteticos.clockFijo(),
+				Integer.MAX_VALUE);
+		rankingParalelo = new TareaInteligenteRankingService(ContextosScoringSinteticos.clockFijo(), 0);
+	}
+
+	@Benchmark
+	public List<TareaScoringContext> secuencial() {
+		return rankingSecuencial.ordenarPorScoreDesc(contextos);
+	}
+
+	@Benchmark
+	public List<TareaScoringContext> paralelo() {
+		return rankingParalelo.ordenarPorScoreDesc(contextos);
+	}
+}
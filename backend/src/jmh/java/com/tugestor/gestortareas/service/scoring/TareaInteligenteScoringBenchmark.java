@@ -0,0 +1,70 @@
+package com.tugestor.gestortareas.service.scoring;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/* Linea base del ranking inteligente. Cada operacion recorre la lista completa, asi que el
+ * throughput es de listas por segundo; la tasa de asignacion se obtiene con -prof gc. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TareaInteligenteScoringBenchmark {
+
+	@Param({ "100", "10000", "1000000" })
+	public int tamanio;
+
+	private List<TareaScoringContext> contextos;
+	private TareaInteligenteScorer scorer;
+	private TareaInteligenteScorerOptimizado scorerOptimizado;
+	private TareaInteligenteRankingService rankingService;
+	private LocalDateTime ahora;
+
+	@Setup
+	public void preparar() {
+		contextos = ContextosScoringSinteticos.generar(tamanio);
+		scorer = new TareaInteligenteScorer();
+		scorerOptimizado = new TareaInteligenteScorerOptimizado();
+		rankingService = new TareaInteligenteRankingService(ContextosScoringSinteticos.clockFijo(),
+				Integer.MAX_VALUE);
+		ahora = ContextosScoringSinteticos.AHORA;
+	}
+
+	@Benchmark
+	public double calcularScore() {
+		double total = 0;
+		for (TareaScoringContext context : contextos) {
+			total += scorer.calcularScore(context, ahora);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double calcularScoreOptimizado() {
+		double total = 0;
+		for (TareaScoringContext context : contextos) {
+			total += scorerOptimizado.calcularScore(context, ahora);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public List<TareaScoringContext> ordenarPorScoreDesc() {
+		return rankingService.ordenarPorScoreDesc(contextos);
+	}
+}
@@ -0,0 +1,104 @@
+package com.tugestor.gestortareas.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/* Con hilos virtuales Tomcat deja de limitar las peticiones en curso (no hay maxThreads) y todas acaban
+ * esperando una de las pocas conexiones de Hikari hasta el connection-timeout. Este filtro deja pasar a la
+ * API como mucho peticiones-por-conexion * maximum-pool-size peticiones a la vez; el resto espera un poco
+ * y, si no hay hueco, recibe un 503 con Retry-After en lugar de un 500 tardio por timeout del pool.
+ * Solo se activa con spring.threads.virtual.enabled=true (y JRE 21+); con hilos de plataforma ya limita
+ * server.tomcat.threads.max. Va antes de la cadena de seguridad para no verificar JWT de lo que se rechaza. */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class LimitePeticionesBdFilter extends OncePerRequestFilter {
+	private static final Logger logger = LoggerFactory.getLogger(LimitePeticionesBdFilter.class);
+	static final String NOMBRE_METRICA = "http.peticiones.bd";
+	static final String REINTENTO_SEGUNDOS = "1";
+
+	private final Semaphore permisos;
+	private final int maximoPermisos;
+	private final long esperaMaximaNanos;
+	private final Counter rechazos;
+
+	public LimitePeticionesBdFilter(MeterRegistry meterRegistry,
+			@Value("${spring.datasource.hikari.maximum-pool-size:10}") int conexiones,
+			@Value("${app.hilos-virtuales.peticiones-por-conexion:4}") int peticionesPorConexion,
+			@Value("${app.hilos-virtuales.espera-max:500ms}") Duration esperaMaxima) {
+		if (conexiones < 1 || peticionesPorConexion < 1) {
+			throw new IllegalArgumentException("El pool y las peticiones por conexion deben ser al menos 1");
+		}
+		this.maximoPermisos = conexiones * peticionesPorConexion;
+		this.permisos = new Semaphore(maximoPermisos, true);
+		this.esperaMaximaNanos = Math.max(0, esperaMaxima.toNanos());
+		this.rechazos = Counter.builder(NOMBRE_METRICA + ".rechazos")
+				.description("Peticiones rechazadas con 503 por falta de hueco frente al pool de conexiones")
+				.register(meterRegistry);
+		Gauge.builder(NOMBRE_METRICA + ".en.curso", this, LimitePeticionesBdFilter::enCurso)
+				.description("Peticiones a la API en curso con hilos virtuales")
+				.register(meterRegistry);
+		logger.info("Hilos virtuales activos: maximo {} peticiones a la API en paralelo para {} conexiones",
+				maximoPermisos, conexiones);
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String ruta = request.getRequestURI().substring(request.getContextPath().length());
+		return !ruta.startsWith("/api/") || ruta.equals("/api/health")
+				|| HttpMethod.OPTIONS.matches(request.getMethod());
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		if (!adquirir()) {
+			rechazos.increment();
+			response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			response.setHeader("Retry-After", REINTENTO_SEGUNDOS);
+			response.setContentType("application/json");
+			response.setCharacterEncoding("UTF-8");
+			response.getWriter().write("{\"status\":503,\"error\":\"Servidor ocupado, inténtalo de nuevo en unos segundos.\"}");
+			return;
+		}
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			permisos.release();
+		}
+	}
+
+	int enCurso() {
+		return maximoPermisos - permisos.availablePermits();
+	}
+
+	private boolean adquirir() {
+		try {
+			return permisos.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+}
@@ -1,5 +1,10 @@
 package com.tugestor.gestortareas.config;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,18 +15,36 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import com.tugestor.gestortareas.security.JwtAuthenticationFilter;
 import com.tugestor.gestortareas.security.JwtService;
+import com.tugestor.gestortareas.security.PasswordEncoderAcotado;
+import com.tugestor.gestortareas.security.UsuarioDetallesCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 public class SeguridadConfig {	
+	private static final String ID_BCRYPT = "bcrypt";
+
+	/* Los hashes nuevos llevan prefijo {id} para poder cambiar de algoritmo o de coste; los antiguos sin
+	 * prefijo se siguen validando con BCrypt y se rehacen en el siguiente login (updatePassword de
+	 * CustomUserDetailsService). Todo encode/matches pasa por el pool acotado de PasswordEncoderAcotado. */
 	@Bean
-	PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+			@Value("${app.seguridad.bcrypt.coste:10}") int costeBcrypt,
+			@Value("${app.seguridad.hash.hilos:2}") int hilos,
+			@Value("${app.seguridad.hash.cola:64}") int cola,
+			@Value("${app.seguridad.hash.espera-max:5s}") Duration esperaMaxima) {
+		Map<String, PasswordEncoder> codificadores = new HashMap<>();
+		codificadores.put(ID_BCRYPT, new BCryptPasswordEncoder(costeBcrypt));
+		DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(ID_BCRYPT, codificadores);
+		delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(costeBcrypt));
+		return new PasswordEncoderAcotado(delegating, hilos, cola, esperaMaxima, meterRegistry);
 	}
 	
 	@Bean
@@ -76,8 +99,9 @@ public class SeguridadConfig {
 	}
 	
 	@Bean
-	public JwtAuthenticationFilter jwtAuthenticationFilter(JwtService jwtService, UserDetailsService uds) {
-		return new JwtAuthenticationFilter(jwtService, uds);
+	public JwtAuthenticationFilter jwtAuthenticationFilter(JwtService jwtService, UserDetailsService uds,
+			UsuarioDetallesCache usuarioDetallesCache) {
+		return new JwtAuthenticationFilter(jwtService, uds, usuarioDetallesCache);
 	}
 	
 }
@@ -1,5 +1,7 @@
 package com.tugestor.gestortareas.config;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -11,6 +13,19 @@ public class WebPushProperties {
 	private String vapidPrivateKey;
 	private String vapidSubject = "mailto:admin@example.com";
 	private String defaultUrl = "/app";
+	// Reintentos de la bandeja de salida: espera base * 2^(intento-1) con jitter, hasta reintentoMaximo
+	private int maxIntentos = 6;
+	private Duration reintentoBase = Duration.ofSeconds(30);
+	private Duration reintentoMaximo = Duration.ofHours(1);
+	// Tiempo que un envio reclamado queda reservado antes de que otra instancia pueda reintentarlo
+	private Duration bloqueoEnvio = Duration.ofMinutes(2);
+	// Cliente HTTP compartido (ClientePush): TTL del mensaje en el servicio push y timeouts de cada envio
+	private Duration ttl = Duration.ofDays(28);
+	private Duration timeoutConexion = Duration.ofSeconds(5);
+	private Duration timeoutRespuesta = Duration.ofSeconds(10);
+	// JWT VAPID por audiencia: validez (RFC 8292 admite hasta 24h) y margen con el que se renueva antes de caducar
+	private Duration vapidValidez = Duration.ofHours(12);
+	private Duration vapidRenovacion = Duration.ofHours(1);
 
 	public boolean isEnabled() {
 		return enabled;
@@ -42,4 +57,58 @@ public class WebPushProperties {
 	public void setDefaultUrl(String defaultUrl) {
 		this.defaultUrl = defaultUrl;
 	}
+	public int getMaxIntentos() {
+		return maxIntentos;
+	}
+	public void setMaxIntentos(int maxIntentos) {
+		this.maxIntentos = maxIntentos;
+	}
+	public Duration getReintentoBase() {
+		return reintentoBase;
+	}
+	public void setReintentoBase(Duration reintentoBase) {
+		this.reintentoBase = reintentoBase;
+	}
+	public Duration getReintentoMaximo() {
+		return reintentoMaximo;
+	}
+	public void setReintentoMaximo(Duration reintentoMaximo) {
+		this.reintentoMaximo = reintentoMaximo;
+	}
+	public Duration getBloqueoEnvio() {
+		return bloqueoEnvio;
+	}
+	public void setBloqueoEnvio(Duration bloqueoEnvio) {
+		this.bloqueoEnvio = bloqueoEnvio;
+	}
+	public Duration getTtl() {
+		return ttl;
+	}
+	public void setTtl(Duration ttl) {
+		this.ttl = ttl;
+	}
+	public Duration getTimeoutConexion() {
+		return timeoutConexion;
+	}
+	public void setTimeoutConexion(Duration timeoutConexion) {
+		this.timeoutConexion = timeoutConexion;
+	}
+	public Duration getTimeoutRespuesta() {
+		return timeoutRespuesta;
+	}
+	public void setTimeoutRespuesta(Duration timeoutRespuesta) {
+		this.timeoutRespuesta = timeoutRespuesta;
+	}
+	public Duration getVapidValidez() {
+		return vapidValidez;
+	}
+	public void setVapidValidez(Duration vapidValidez) {
+		this.vapidValidez = vapidValidez;
+	}
+	public Duration getVapidRenovacion() {
+		return vapidRenovacion;
+	}
+	public void setVapidRenovacion(Duration vapidRenovacion) {
+		this.vapidRenovacion = vapidRenovacion;
+	}
 }
@@ -3,6 +3,7 @@ package com.tugestor.gestortareas.controller;
 import java.security.Principal;
 import java.util.List;
 
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -10,8 +11,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.tugestor.gestortareas.dto.NotificacionCountResponse;
 import com.tugestor.gestortareas.dto.NotificacionResponse;
@@ -20,6 +23,7 @@ import com.tugestor.gestortareas.dto.PreferenciasNotificacionResponse;
 import com.tugestor.gestortareas.dto.PushSubscripcionDeleteRequest;
 import com.tugestor.gestortareas.dto.PushSubscripcionRequest;
 import com.tugestor.gestortareas.dto.PushSubscripcionResponse;
+import com.tugestor.gestortareas.service.EmisoresNotificaciones;
 import com.tugestor.gestortareas.service.NotificacionService;
 import com.tugestor.gestortareas.service.PreferenciasNotificacionService;
 import com.tugestor.gestortareas.service.PushSubscripcionService;
@@ -32,12 +36,14 @@ public class NotificacionController {
 	private final NotificacionService ns;
 	private final PreferenciasNotificacionService pns;
 	private final PushSubscripcionService pss;
+	private final EmisoresNotificaciones emisores;
 
 	public NotificacionController(NotificacionService ns, PreferenciasNotificacionService pns,
-			PushSubscripcionService pss) {
+			PushSubscripcionService pss, EmisoresNotificaciones emisores) {
 		this.ns = ns;
 		this.pns = pns;
 		this.pss = pss;
+		this.emisores = emisores;
 	}
 
 	@GetMapping
@@ -50,6 +56,13 @@ public class NotificacionController {
 		return new NotificacionCountResponse(ns.contarActivas(principal.getName()));
 	}
 
+	// Alternativa a sondear /count y el listado; el navegador reenvia Last-Event-ID al reconectar
+	@GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter suscribir(@RequestHeader(name = "Last-Event-ID", required = false) Long ultimoIdRecibido,
+			Principal principal) {
+		return emisores.suscribir(principal.getName(), ultimoIdRecibido);
+	}
+
 	@PatchMapping("/{id}/cerrar")
 	public NotificacionResponse cerrarNotificacion(@PathVariable Long id, Principal principal) {
 		return ns.cerrarNotificacion(id, principal.getName());
@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.*;
 
 import com.tugestor.gestortareas.dto.EstadoFiltroTareaResponse;
 import com.tugestor.gestortareas.dto.FiltroTareaCombinadoRequest;
+import com.tugestor.gestortareas.dto.PaginaTareasResponse;
 import com.tugestor.gestortareas.dto.RecordatorioInteligenteRequest;
 import com.tugestor.gestortareas.dto.RecordatorioTareaResponse;
 import com.tugestor.gestortareas.dto.TareaAsignadaGrupoResponse;
@@ -16,6 +17,7 @@ import com.tugestor.gestortareas.dto.TareaFiltroCombinadoResponse;
 import com.tugestor.gestortareas.dto.TareaRequest;
 import com.tugestor.gestortareas.dto.TareaResponse;
 import com.tugestor.gestortareas.model.Estado;
+import com.tugestor.gestortareas.model.OrdenPaginaTarea;
 import com.tugestor.gestortareas.model.Tarea;
 import com.tugestor.gestortareas.service.RecordatorioTareaService;
 import com.tugestor.gestortareas.service.TareaService;
@@ -57,8 +59,7 @@ public class TareaController {
 		@ApiResponse(responseCode = "401", description = "No autenticado o token inválido")
 	})
 	public List<TareaResponse> listarTareas(Principal principal){	// Principal es una interfaz que representa al usuario autenticado
-		List<Tarea> tareas = ts.obtenerTodas(principal.getName());
-		return ts.crearTareaResponses(tareas, principal.getName());
+		return ts.listarTareaResponses(OrdenPaginaTarea.ID, principal.getName());
 	}
 	
 	@PostMapping("/add")
@@ -141,8 +142,7 @@ public class TareaController {
 		@ApiResponse(responseCode = "401", description = "No autenticado o token inválido")
 	})
 	public List<TareaResponse> listarPorTitulo(Principal principal){
-		List<Tarea> tareas = ts.obtenerPorTitulo(principal.getName());
-		return ts.crearTareaResponses(tareas, principal.getName());
+		return ts.listarTareaResponses(OrdenPaginaTarea.TITULO, principal.getName());
 	}
 	
 	@GetMapping("/tiempo")
@@ -155,8 +155,7 @@ public class TareaController {
 		@ApiResponse(responseCode = "401", description = "No autenticado o token inválido")
 	})
 	public List<TareaResponse> listarPorTiempo(Principal principal){
-		List<Tarea> tareas = ts.obtenerPorTiempo(principal.getName());
-		return ts.crearTareaResponses(tareas, principal.getName());
+		return ts.listarTareaResponses(OrdenPaginaTarea.TIEMPO, principal.getName());
 	}
 	
 	@GetMapping("/prioridad")
@@ -169,8 +168,7 @@ public class TareaController {
 		@ApiResponse(responseCode = "401", description = "No autenticado o token inválido")
 	})
 	public List<TareaResponse> listarPorPrioridad(Principal principal){
-		List<Tarea> tareas = ts.obtenerPorPrioridad(principal.getName());
-		return ts.crearTareaResponses(tareas, principal.getName());
+		return ts.listarTareaResponses(OrdenPaginaTarea.PRIORIDAD, principal.getName());
 	}
 	
 	@GetMapping("/fecha")
@@ -183,8 +181,28 @@ public class TareaController {
 		@ApiResponse(responseCode = "401", description = "No autenticado o token inválido")
 	})
 	public List<TareaResponse> listarPorFechaEntrega(Principal principal){
-		List<Tarea> tareas = ts.obtenerPorFechaEntrega(principal.getName());
-		return ts.crearTareaResponses(tareas, principal.getName());
+		return ts.listarTareaResponses(OrdenPaginaTarea.FECHA_ENTREGA, principal.getName());
+	}
+	
+	@GetMapping("/pagina")
+	@Operation(
+			summary = "Listar tareas paginadas por cursor",
+			description = "Devuelve una página de tareas del usuario autenticado en el orden indicado. Para pedir la siguiente página se envía el cursor devuelto en la respuesta anterior."
+			)
+	@Parameters({
+		@Parameter(name = "orden", description = "Criterio de orden (ID, TITULO, TIEMPO, PRIORIDAD, FECHA_ENTREGA)", example = "TITULO"),
+		@Parameter(name = "cursor", description = "Cursor opaco devuelto en la página anterior"),
+		@Parameter(name = "tamanio", description = "Número de tareas por página (máximo 200)", example = "50")
+	})
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Página de tareas obtenida correctamente"),
+		@ApiResponse(responseCode = "400", description = "Cursor o tamaño de página inválidos"),
+		@ApiResponse(responseCode = "401", description = "No autenticado o token inválido")
+	})
+	public PaginaTareasResponse listarPagina(@RequestParam(defaultValue = "ID") OrdenPaginaTarea orden,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer tamanio,
+			Principal principal) {
+		return ts.obtenerPagina(orden, cursor, tamanio, principal.getName());
 	}
 	
 	@GetMapping("/proximas")
@@ -197,8 +215,7 @@ public class TareaController {
 		@ApiResponse(responseCode = "401", description = "No autenticado o token inválido")
 	})
 	public List<TareaResponse> listarTareasProximas(Principal principal) {
-		List<Tarea> tareas = ts.obtenerTareasProximas(principal.getName());
-		return ts.crearTareaResponses(tareas, principal.getName());
+		return ts.listarTareasProximasResponses(principal.getName());
 	}
 	
 	@GetMapping("/vencidas")
@@ -211,8 +228,7 @@ public class TareaController {
 		@ApiResponse(responseCode = "401", description = "No autenticado o token inválido")
 	})
 	public List<TareaResponse> listarTareasVencidas(Principal principal) {
-		List<Tarea> tareas = ts.obtenerTareasVencidas(principal.getName());
-		return ts.crearTareaResponses(tareas, principal.getName());
+		return ts.listarTareasVencidasResponses(principal.getName());
 	}
 	
 	@GetMapping("/asignadas-grupo")
@@ -265,14 +281,18 @@ public class TareaController {
 			summary = "Obtener tareas recomendadas",
 			description = "Devuelve tareas personales y de grupo recomendables del usuario autenticado, aplicando filtros opcionales y orden inteligente."
 			)
+	@Parameters({
+		@Parameter(name = "limite", description = "Número máximo de recomendaciones a devolver (todas si se omite)", example = "10")
+	})
 	@ApiResponses({
 		@ApiResponse(responseCode = "200", description = "Listado de tareas recomendadas obtenido correctamente"),
 		@ApiResponse(responseCode = "400", description = "Filtro de recomendadas invalido"),
 		@ApiResponse(responseCode = "401", description = "No autenticado o token invalido")
 	})
 	public List<TareaFiltroCombinadoResponse> obtenerTareasRecomendadas(
-			@RequestBody(required = false) FiltroTareaCombinadoRequest filtroRequest, Principal principal) {
-		return ts.obtenerTareasRecomendadas(filtroRequest, principal.getName());
+			@RequestBody(required = false) FiltroTareaCombinadoRequest filtroRequest,
+			@RequestParam(required = false) Integer limite, Principal principal) {
+		return ts.obtenerTareasRecomendadas(filtroRequest, limite, principal.getName());
 	}
 
 	@GetMapping("/filtro-combinado/save")
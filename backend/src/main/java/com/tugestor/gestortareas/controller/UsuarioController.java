@@ -26,6 +26,7 @@ import com.tugestor.gestortareas.exception.ErrorResponse;
 import com.tugestor.gestortareas.model.Usuario;
 import com.tugestor.gestortareas.repository.UsuarioRepository;
 import com.tugestor.gestortareas.security.JwtService;
+import com.tugestor.gestortareas.security.ValidatedToken;
 import com.tugestor.gestortareas.service.UsuarioService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -93,6 +94,20 @@ public class UsuarioController {
 		us.eliminarUsuarioActual();
 	}
 
+	@PostMapping("/me/cerrar-sesiones")
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	@Operation(
+			summary = "Cerrar todas las sesiones del usuario autenticado",
+			description = "Invalida todos los access y refresh token emitidos hasta ahora para la cuenta."
+			)
+	@ApiResponses({
+		@ApiResponse(responseCode = "204", description = "Sesiones cerradas correctamente"),
+		@ApiResponse(responseCode = "401", description = "No autenticado o token invalido")
+	})
+	public void cerrarMisSesiones() {
+		us.cerrarSesionesUsuarioActual();
+	}
+
 	@PostMapping("/login")
 	@Operation(
 			summary = "Autenticar usuario y obtener JWT",
@@ -136,9 +151,9 @@ public class UsuarioController {
 	public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest){
 		String refreshToken = refreshTokenRequest.getRefreshToken();
 		try {
-			String username = jwts.extractUsername(refreshToken);
-			UserDetails userDetails = uds.loadUserByUsername(username);
-			if (!jwts.isRefreshTokenValid(refreshToken, userDetails)) {
+			ValidatedToken token = jwts.validateToken(refreshToken);
+			UserDetails userDetails = uds.loadUserByUsername(token.getUsername());
+			if (!token.isRefreshToken() || !jwts.perteneceA(token, userDetails)) {
 				return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
 						.body(new ErrorResponse(HttpStatus.UNAUTHORIZED.value(), "Refresh token inválido o expirado."));
 			}
@@ -0,0 +1,53 @@
+package com.tugestor.gestortareas.dto;
+
+// Proyeccion JPQL (SELECT new) de NotificacionRepository: una tarea que necesita su aviso de 24h, solo con ids
+public class Aviso24hPendiente {
+
+	private Long idUsuario;
+	private Long idTarea;
+	private String tituloTarea;
+	private Long idAsignacionGrupoMiembro;
+	private Long idGrupo;
+
+	public Aviso24hPendiente() {
+	}
+	public Aviso24hPendiente(Long idUsuario, Long idTarea, String tituloTarea, Long idAsignacionGrupoMiembro,
+			Long idGrupo) {
+		this.idUsuario = idUsuario;
+		this.idTarea = idTarea;
+		this.tituloTarea = tituloTarea;
+		this.idAsignacionGrupoMiembro = idAsignacionGrupoMiembro;
+		this.idGrupo = idGrupo;
+	}
+
+	public Long getIdUsuario() {
+		return idUsuario;
+	}
+	public void setIdUsuario(Long idUsuario) {
+		this.idUsuario = idUsuario;
+	}
+	public Long getIdTarea() {
+		return idTarea;
+	}
+	public void setIdTarea(Long idTarea) {
+		this.idTarea = idTarea;
+	}
+	public String getTituloTarea() {
+		return tituloTarea;
+	}
+	public void setTituloTarea(String tituloTarea) {
+		this.tituloTarea = tituloTarea;
+	}
+	public Long getIdAsignacionGrupoMiembro() {
+		return idAsignacionGrupoMiembro;
+	}
+	public void setIdAsignacionGrupoMiembro(Long idAsignacionGrupoMiembro) {
+		this.idAsignacionGrupoMiembro = idAsignacionGrupoMiembro;
+	}
+	public Long getIdGrupo() {
+		return idGrupo;
+	}
+	public void setIdGrupo(Long idGrupo) {
+		this.idGrupo = idGrupo;
+	}
+}
@@ -0,0 +1,28 @@
+package com.tugestor.gestortareas.dto;
+
+// Proyeccion JPQL (SELECT new) de NotificacionRepository: notificaciones sin cerrar de un usuario, para ContadorNotificaciones
+public class NotificacionesActivasUsuario {
+
+	private Long idUsuario;
+	private long activas;
+
+	public NotificacionesActivasUsuario() {
+	}
+	public NotificacionesActivasUsuario(Long idUsuario, long activas) {
+		this.idUsuario = idUsuario;
+		this.activas = activas;
+	}
+
+	public Long getIdUsuario() {
+		return idUsuario;
+	}
+	public void setIdUsuario(Long idUsuario) {
+		this.idUsuario = idUsuario;
+	}
+	public long getActivas() {
+		return activas;
+	}
+	public void setActivas(long activas) {
+		this.activas = activas;
+	}
+}
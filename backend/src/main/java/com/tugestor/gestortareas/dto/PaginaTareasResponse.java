@@ -0,0 +1,44 @@
+package com.tugestor.gestortareas.dto;
+
+import java.util.List;
+
+public class PaginaTareasResponse {
+	private List<TareaResponse> tareas;
+	private String siguienteCursor;
+	private boolean hayMas;
+	private int tamanio;
+
+	public PaginaTareasResponse() {
+	}
+	public PaginaTareasResponse(List<TareaResponse> tareas, String siguienteCursor, boolean hayMas, int tamanio) {
+		this.tareas = tareas;
+		this.siguienteCursor = siguienteCursor;
+		this.hayMas = hayMas;
+		this.tamanio = tamanio;
+	}
+
+	public List<TareaResponse> getTareas() {
+		return tareas;
+	}
+	public void setTareas(List<TareaResponse> tareas) {
+		this.tareas = tareas;
+	}
+	public String getSiguienteCursor() {
+		return siguienteCursor;
+	}
+	public void setSiguienteCursor(String siguienteCursor) {
+		this.siguienteCursor = siguienteCursor;
+	}
+	public boolean isHayMas() {
+		return hayMas;
+	}
+	public void setHayMas(boolean hayMas) {
+		this.hayMas = hayMas;
+	}
+	public int getTamanio() {
+		return tamanio;
+	}
+	public void setTamanio(int tamanio) {
+		this.tamanio = tamanio;
+	}
+}
@@ -0,0 +1,30 @@
+package com.tugestor.gestortareas.dto;
+
+import java.time.LocalDateTime;
+
+// Proyeccion JPQL (SELECT new) de RecordatorioTareaRepository: lo minimo para programar la rueda de recordatorios
+public class RecordatorioProgramado {
+
+	private Long idRecordatorioTarea;
+	private LocalDateTime fechaProgramada;
+
+	public RecordatorioProgramado() {
+	}
+	public RecordatorioProgramado(Long idRecordatorioTarea, LocalDateTime fechaProgramada) {
+		this.idRecordatorioTarea = idRecordatorioTarea;
+		this.fechaProgramada = fechaProgramada;
+	}
+
+	public Long getIdRecordatorioTarea() {
+		return idRecordatorioTarea;
+	}
+	public void setIdRecordatorioTarea(Long idRecordatorioTarea) {
+		this.idRecordatorioTarea = idRecordatorioTarea;
+	}
+	public LocalDateTime getFechaProgramada() {
+		return fechaProgramada;
+	}
+	public void setFechaProgramada(LocalDateTime fechaProgramada) {
+		this.fechaProgramada = fechaProgramada;
+	}
+}
@@ -0,0 +1,55 @@
+package com.tugestor.gestortareas.dto;
+
+import java.time.LocalDateTime;
+
+// Proyeccion JPQL (SELECT new) de RecordatorioTareaRepository: un recordatorio reclamado, solo con lo que pide su notificacion
+public class RecordatorioVencido {
+
+	private Long idRecordatorioTarea;
+	private Long idUsuario;
+	private Long idTarea;
+	private String tituloTarea;
+	private LocalDateTime fechaProgramada;
+
+	public RecordatorioVencido() {
+	}
+	public RecordatorioVencido(Long idRecordatorioTarea, Long idUsuario, Long idTarea, String tituloTarea,
+			LocalDateTime fechaProgramada) {
+		this.idRecordatorioTarea = idRecordatorioTarea;
+		this.idUsuario = idUsuario;
+		this.idTarea = idTarea;
+		this.tituloTarea = tituloTarea;
+		this.fechaProgramada = fechaProgramada;
+	}
+
+	public Long getIdRecordatorioTarea() {
+		return idRecordatorioTarea;
+	}
+	public void setIdRecordatorioTarea(Long idRecordatorioTarea) {
+		this.idRecordatorioTarea = idRecordatorioTarea;
+	}
+	public Long getIdUsuario() {
+		return idUsuario;
+	}
+	public void setIdUsuario(Long idUsuario) {
+		this.idUsuario = idUsuario;
+	}
+	public Long getIdTarea() {
+		return idTarea;
+	}
+	public void setIdTarea(Long idTarea) {
+		this.idTarea = idTarea;
+	}
+	public String getTituloTarea() {
+		return tituloTarea;
+	}
+	public void setTituloTarea(String tituloTarea) {
+		this.tituloTarea = tituloTarea;
+	}
+	public LocalDateTime getFechaProgramada() {
+		return fechaProgramada;
+	}
+	public void setFechaProgramada(LocalDateTime fechaProgramada) {
+		this.fechaProgramada = fechaProgramada;
+	}
+}
@@ -44,6 +44,16 @@ public class TareaResponse {
 		this.estado = estado;
 		this.emailUsuarioQueCompleta = emailUsuarioQueCompleta;
 	}
+	// Proyeccion JPQL (SELECT new) de TareaRepository: se construye sin cargar la entidad Tarea
+	public TareaResponse(Long idTarea, String titulo, String descripcion, int tiempo, Prioridad prioridad,
+			LocalDateTime fechaEntrega, LocalDateTime fechaAgregado, boolean completada,
+			LocalDateTime fechaCompletada, Long idCategoria, String categoriaNombre, Long idUsuario,
+			String emailUsuarioQueCompleta) {
+		this(idTarea, titulo, descripcion, tiempo, prioridad, fechaEntrega, fechaAgregado, completada,
+				fechaCompletada, categoriaNombre, idCategoria, idUsuario,
+				Tarea.calcularEstado(fechaEntrega, completada, fechaCompletada, LocalDateTime.now()).name(),
+				emailUsuarioQueCompleta);
+	}
 	public TareaResponse(Tarea tarea) {
 		this(tarea, false);
 	}
@@ -3,6 +3,7 @@ package com.tugestor.gestortareas.exception;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -127,6 +128,13 @@ public class GlobalExceptionHandler {
 				.body(error(HttpStatus.CONFLICT, ex.getMessage(), "La categoría está protegida."));
 	}
 
+	@ExceptionHandler(HashSaturadoException.class)
+	public ResponseEntity<ErrorResponse> handleHashSaturado(HashSaturadoException ex) {
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+				.header(HttpHeaders.RETRY_AFTER, "2")
+				.body(error(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), "Demasiadas peticiones."));
+	}
+
 	@ExceptionHandler(Exception.class)
 	public ResponseEntity<ErrorResponse> handleException(Exception ex) {
 		return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
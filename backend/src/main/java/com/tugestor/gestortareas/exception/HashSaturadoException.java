@@ -0,0 +1,8 @@
+package com.tugestor.gestortareas.exception;
+
+// El pool de hash de contrasenas esta lleno: el handler responde 429 para que el cliente reintente
+public class HashSaturadoException extends RuntimeException {
+	public HashSaturadoException(String mensaje) {
+		super(mensaje);
+	}
+}
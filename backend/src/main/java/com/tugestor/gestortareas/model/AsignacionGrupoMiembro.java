@@ -11,10 +11,29 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToOne;
 
 @Entity
+// Grafo para los listados de tareas de grupo: tarea generada con su categoria y asignacion con su grupo
+@NamedEntityGraph(name = AsignacionGrupoMiembro.GRAFO_RESPUESTA,
+		attributeNodes = {
+				@NamedAttributeNode(value = "tareaGenerada", subgraph = "tarea"),
+				@NamedAttributeNode(value = "asignacionGrupo", subgraph = "asignacion")
+		},
+		subgraphs = {
+				@NamedSubgraph(name = "tarea", attributeNodes = {
+						@NamedAttributeNode("categoria"),
+						@NamedAttributeNode("usuario"),
+						@NamedAttributeNode("usuarioQueCompleta")
+				}),
+				@NamedSubgraph(name = "asignacion", attributeNodes = @NamedAttributeNode("grupo"))
+		})
 public class AsignacionGrupoMiembro {
+	public static final String GRAFO_RESPUESTA = "AsignacionGrupoMiembro.respuesta";
+	
 	@Id
 	@GeneratedValue(strategy= GenerationType.IDENTITY)
 	private Long idAsignacionGrupoMiembro;
@@ -0,0 +1,65 @@
+package com.tugestor.gestortareas.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/* Lease de una tarea programada compartida entre instancias: una fila por nombre de tarea (o de particion).
+ * La instancia que consigue poner su propietario con bloqueadoHasta en el futuro es la unica que la ejecuta;
+ * si cae sin liberarla, otra la retoma cuando bloqueadoHasta pasa. */
+@Entity
+public class BloqueoProgramado {
+	@Id
+	@Column(length = 100)
+	private String nombre;
+	@Column(nullable = false, length = 200)
+	private String propietario;
+	@Column(nullable = false)
+	private LocalDateTime bloqueadoHasta;
+	private LocalDateTime fechaBloqueo;
+
+	public BloqueoProgramado() {
+	}
+
+	public BloqueoProgramado(String nombre, String propietario, LocalDateTime fechaBloqueo,
+			LocalDateTime bloqueadoHasta) {
+		this.nombre = nombre;
+		this.propietario = propietario;
+		this.fechaBloqueo = fechaBloqueo;
+		this.bloqueadoHasta = bloqueadoHasta;
+	}
+
+	public String getNombre() {
+		return nombre;
+	}
+
+	public void setNombre(String nombre) {
+		this.nombre = nombre;
+	}
+
+	public String getPropietario() {
+		return propietario;
+	}
+
+	public void setPropietario(String propietario) {
+		this.propietario = propietario;
+	}
+
+	public LocalDateTime getBloqueadoHasta() {
+		return bloqueadoHasta;
+	}
+
+	public void setBloqueadoHasta(LocalDateTime bloqueadoHasta) {
+		this.bloqueadoHasta = bloqueadoHasta;
+	}
+
+	public LocalDateTime getFechaBloqueo() {
+		return fechaBloqueo;
+	}
+
+	public void setFechaBloqueo(LocalDateTime fechaBloqueo) {
+		this.fechaBloqueo = fechaBloqueo;
+	}
+}
@@ -0,0 +1,105 @@
+package com.tugestor.gestortareas.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/* Fila de la bandeja de salida Web Push: un envio por notificacion y subscripcion, escrito en la misma
+ * transaccion que la notificacion. Guarda ids y no relaciones para que borrar una notificacion, una
+ * subscripcion o un usuario no choque con envios pendientes; si ya no existen, el envio se descarta. */
+@Entity
+@Table(indexes = {
+		@Index(name = "idx_envio_push_pendientes", columnList = "estado, proximo_intento"),
+		@Index(name = "idx_envio_push_notificacion", columnList = "id_notificacion")
+})
+public class EnvioPush {
+	@Id
+	@GeneratedValue(strategy= GenerationType.IDENTITY)
+	private Long idEnvioPush;
+	@Column(nullable = false)
+	private Long idNotificacion;
+	@Column(nullable = false)
+	private Long idPushSubscripcion;
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 20)
+	private EstadoEnvioPush estado = EstadoEnvioPush.PENDIENTE;
+	@Column(nullable = false)
+	private int intentos;
+	// Siguiente momento en que se puede reclamar: reintento programado o fin del bloqueo del envio en curso
+	@Column(nullable = false)
+	private LocalDateTime proximoIntento;
+	@Column(length = 1000)
+	private String ultimoError;
+	private LocalDateTime fechaCreacion = LocalDateTime.now();
+	private LocalDateTime fechaEnvio;
+
+	public EnvioPush() {
+	}
+
+	public EnvioPush(Long idNotificacion, Long idPushSubscripcion, LocalDateTime proximoIntento) {
+		this.idNotificacion = idNotificacion;
+		this.idPushSubscripcion = idPushSubscripcion;
+		this.proximoIntento = proximoIntento;
+		this.fechaCreacion = proximoIntento;
+	}
+
+	public Long getIdEnvioPush() {
+		return idEnvioPush;
+	}
+	public Long getIdNotificacion() {
+		return idNotificacion;
+	}
+	public void setIdNotificacion(Long idNotificacion) {
+		this.idNotificacion = idNotificacion;
+	}
+	public Long getIdPushSubscripcion() {
+		return idPushSubscripcion;
+	}
+	public void setIdPushSubscripcion(Long idPushSubscripcion) {
+		this.idPushSubscripcion = idPushSubscripcion;
+	}
+	public EstadoEnvioPush getEstado() {
+		return estado;
+	}
+	public void setEstado(EstadoEnvioPush estado) {
+		this.estado = estado;
+	}
+	public int getIntentos() {
+		return intentos;
+	}
+	public void setIntentos(int intentos) {
+		this.intentos = intentos;
+	}
+	public LocalDateTime getProximoIntento() {
+		return proximoIntento;
+	}
+	public void setProximoIntento(LocalDateTime proximoIntento) {
+		this.proximoIntento = proximoIntento;
+	}
+	public String getUltimoError() {
+		return ultimoError;
+	}
+	public void setUltimoError(String ultimoError) {
+		this.ultimoError = ultimoError;
+	}
+	public LocalDateTime getFechaCreacion() {
+		return fechaCreacion;
+	}
+	public void setFechaCreacion(LocalDateTime fechaCreacion) {
+		this.fechaCreacion = fechaCreacion;
+	}
+	public LocalDateTime getFechaEnvio() {
+		return fechaEnvio;
+	}
+	public void setFechaEnvio(LocalDateTime fechaEnvio) {
+		this.fechaEnvio = fechaEnvio;
+	}
+}
@@ -0,0 +1,7 @@
+package com.tugestor.gestortareas.model;
+
+public enum EstadoEnvioPush {
+	PENDIENTE,
+	ENVIADO,
+	DESCARTADO
+}
@@ -9,10 +9,16 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 
 @Entity
+@Table(indexes = {
+		@Index(name = "idx_notificacion_usuario_cerrada", columnList = "usuario_id, cerrada"),
+		@Index(name = "idx_notificacion_cerrada_cierre", columnList = "cerrada, fecha_cierre")
+})
 public class Notificacion {
 	@Id
 	@GeneratedValue(strategy= GenerationType.IDENTITY)
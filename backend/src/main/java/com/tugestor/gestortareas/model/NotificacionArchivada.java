@@ -0,0 +1,66 @@
+package com.tugestor.gestortareas.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/* Copia compacta de una notificacion cerrada que ha superado la retencion, para que la tabla notificacion
+ * solo tenga lo que la bandeja puede mostrar. Guarda ids y no relaciones (como EnvioPush), asi que borrar
+ * la tarea o el grupo no choca con el archivo; el id es el de la notificacion original. */
+@Entity
+@Table(indexes = @Index(name = "idx_notificacion_archivada_usuario", columnList = "id_usuario"))
+public class NotificacionArchivada {
+	@Id
+	private Long idNotificacion;
+	@Column(nullable = false)
+	private Long idUsuario;
+	private Long idTarea;
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private TipoNotificacion tipo;
+	@Column(nullable = false, length = 150)
+	private String titulo;
+	@Column(nullable = false, length = 1000)
+	private String mensaje;
+	private LocalDateTime fechaCreacion;
+	private LocalDateTime fechaCierre;
+	@Column(nullable = false)
+	private LocalDateTime fechaArchivado;
+
+	public NotificacionArchivada() {
+	}
+
+	public Long getIdNotificacion() {
+		return idNotificacion;
+	}
+	public Long getIdUsuario() {
+		return idUsuario;
+	}
+	public Long getIdTarea() {
+		return idTarea;
+	}
+	public TipoNotificacion getTipo() {
+		return tipo;
+	}
+	public String getTitulo() {
+		return titulo;
+	}
+	public String getMensaje() {
+		return mensaje;
+	}
+	public LocalDateTime getFechaCreacion() {
+		return fechaCreacion;
+	}
+	public LocalDateTime getFechaCierre() {
+		return fechaCierre;
+	}
+	public LocalDateTime getFechaArchivado() {
+		return fechaArchivado;
+	}
+}
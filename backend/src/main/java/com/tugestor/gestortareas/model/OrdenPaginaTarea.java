@@ -0,0 +1,9 @@
+package com.tugestor.gestortareas.model;
+
+public enum OrdenPaginaTarea {
+	ID,
+	TITULO,
+	TIEMPO,
+	PRIORIDAD,
+	FECHA_ENTREGA
+}
@@ -1,14 +1,21 @@
 package com.tugestor.gestortareas.model;
 
 import java.time.LocalDateTime;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.Min;
@@ -16,7 +23,24 @@ import jakarta.validation.constraints.NotNull;
 
 
 @Entity	// Anotación de JPA para indicar que esta clase es una entidad
+// Grafo para los listados: trae en el mismo SELECT todo lo que leen TareaResponse y TareaFiltroCombinadoResponse
+@NamedEntityGraph(name = Tarea.GRAFO_RESPUESTA, attributeNodes = {
+		@NamedAttributeNode("categoria"),
+		@NamedAttributeNode("usuario"),
+		@NamedAttributeNode("usuarioQueCompleta")
+})
+@Table(indexes = {	// Indices compuestos por usuario para que la paginacion por keyset no recorra todas sus tareas
+		@Index(name = "idx_tarea_usuario_id", columnList = "usuario_id, id_tarea"),
+		@Index(name = "idx_tarea_usuario_titulo", columnList = "usuario_id, titulo, id_tarea"),
+		@Index(name = "idx_tarea_usuario_tiempo", columnList = "usuario_id, tiempo, id_tarea"),
+		@Index(name = "idx_tarea_usuario_prioridad", columnList = "usuario_id, prioridad, id_tarea"),
+		@Index(name = "idx_tarea_usuario_fecha_entrega", columnList = "usuario_id, fecha_entrega, id_tarea"),
+		@Index(name = "idx_tarea_usuario_estado_fecha", columnList = "usuario_id, estado, fecha_entrega"),
+		@Index(name = "idx_tarea_estado_fecha_entrega", columnList = "estado, fecha_entrega")	// Barrido EN_CURSO -> VENCIDA
+})
 public class Tarea {
+	public static final String GRAFO_RESPUESTA = "Tarea.respuesta";
+	
 	@Id // Anotación de JPA para indicar que este campo es la clave primaria
 	@GeneratedValue(strategy= GenerationType.IDENTITY) 
 	/* Generación automática del ID
@@ -45,6 +69,11 @@ public class Tarea {
 	@ManyToOne
 	@JoinColumn(name = "usuario_que_completa_id")
 	private Usuario usuarioQueCompleta;
+	/* Copia persistida de getEstado() para poder filtrar y contar por estado con indice.
+	 * Se recalcula en cada insert/update y un barrido programado pasa EN_CURSO a VENCIDA. */
+	@Enumerated(EnumType.STRING)
+	@Column(name = "estado", length = 32)
+	private Estado estadoPersistido;
 	
 	public Tarea() {
 		// Obligatorio para JPA
@@ -131,7 +160,26 @@ public class Tarea {
 	public void setUsuarioQueCompleta(Usuario usuarioQueCompleta) {
 		this.usuarioQueCompleta = usuarioQueCompleta;
 	}
+	public Estado getEstadoPersistido() {
+		return estadoPersistido;
+	}
 	public Estado getEstado() {
+		return calcularEstado(LocalDateTime.now());
+	}
+	
+	@PrePersist
+	@PreUpdate
+	void sincronizarEstado() {
+		this.estadoPersistido = calcularEstado(LocalDateTime.now());
+	}
+	
+	private Estado calcularEstado(LocalDateTime ahora) {
+		return calcularEstado(fechaEntrega, completada, fechaCompletada, ahora);
+	}
+	
+	// Regla de estado compartida con las proyecciones que no cargan la entidad (ver TareaResponse)
+	public static Estado calcularEstado(LocalDateTime fechaEntrega, boolean completada,
+			LocalDateTime fechaCompletada, LocalDateTime ahora) {
 		if (fechaEntrega == null) {
 			return completada ? Estado.COMPLETADA : Estado.SIN_FECHA;
 		}
@@ -141,7 +189,7 @@ public class Tarea {
 					? Estado.COMPLETADA_CON_RETRASO
 							: Estado.COMPLETADA;
 		}
-		return LocalDateTime.now().isAfter(fechaEntrega) ? Estado.VENCIDA : Estado.EN_CURSO;
+		return ahora.isAfter(fechaEntrega) ? Estado.VENCIDA : Estado.EN_CURSO;
 	}
 	
-}
\ No newline at end of file
+}
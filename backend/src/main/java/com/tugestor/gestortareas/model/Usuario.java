@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Objects;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -36,6 +37,9 @@ public class Usuario {
 	private LocalDateTime fechaRegistro = LocalDateTime.now();
 	private boolean activo;
 	private boolean verificado;
+	// Va en los JWT emitidos; al incrementarla dejan de valer todos los tokens anteriores del usuario
+	@Column(nullable = false)
+	private int versionToken = 0;
 	@OneToMany(mappedBy = "usuario", cascade = CascadeType.ALL, orphanRemoval = true)
 	/*	Mapeado por el atributo usuario en la clase Tarea
 		Si borras un usuario se borran las tareas asociadas
@@ -93,14 +97,20 @@ public class Usuario {
 	public void setVerificado(boolean verificado) {
 		this.verificado = verificado;
 	}
+	public int getVersionToken() {
+		return versionToken;
+	}
+	public void setVersionToken(int versionToken) {
+		this.versionToken = versionToken;
+	}
 	
 	// Estas funciones son para evitar problemas de serialización
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
-		if (o == null || getClass() != o.getClass()) return false;
-		Usuario usuario = (Usuario) o;
-		return Objects.equals(idUsuario, usuario.idUsuario);
+		// instanceof y getter para que un proxy de getReferenceById sea igual a la entidad cargada
+		if (!(o instanceof Usuario usuario)) return false;
+		return Objects.equals(getIdUsuario(), usuario.getIdUsuario());
 	}
 	@Override
 	public int hashCode() {
@@ -3,7 +3,10 @@ package com.tugestor.gestortareas.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -11,10 +14,12 @@ import com.tugestor.gestortareas.model.AsignacionGrupoMiembro;
 import com.tugestor.gestortareas.model.AsignacionGrupo;
 import com.tugestor.gestortareas.model.Tarea;
 
-public interface AsignacionGrupoMiembroRepository extends JpaRepository<AsignacionGrupoMiembro, Long> {
+public interface AsignacionGrupoMiembroRepository extends JpaRepository<AsignacionGrupoMiembro, Long>,
+		JpaSpecificationExecutor<AsignacionGrupoMiembro> {
 	Optional<AsignacionGrupoMiembro> findByTareaGenerada(Tarea tareaGenerada);
 	boolean existsByTareaGenerada(Tarea tareaGenerada);
 	List<AsignacionGrupoMiembro> findByAsignacionGrupo(AsignacionGrupo asignacionGrupo);
+	@EntityGraph(AsignacionGrupoMiembro.GRAFO_RESPUESTA)
 	@Query("""
 			SELECT agm FROM AsignacionGrupoMiembro agm
 			WHERE LOWER(agm.usuarioMiembro.email) = LOWER(:emailUsuario)
@@ -23,6 +28,7 @@ public interface AsignacionGrupoMiembroRepository extends JpaRepository<Asignaci
 				agm.tareaGenerada.fechaEntrega ASC
 			""")
 	List<AsignacionGrupoMiembro> findTareasAsignadasGrupoUsuario(@Param("emailUsuario") String emailUsuario);
+	@EntityGraph(AsignacionGrupoMiembro.GRAFO_RESPUESTA)
 	@Query("""
 			SELECT agm FROM AsignacionGrupoMiembro agm
 			WHERE LOWER(agm.usuarioMiembro.email) = LOWER(:emailUsuario)
@@ -33,5 +39,8 @@ public interface AsignacionGrupoMiembroRepository extends JpaRepository<Asignaci
 			""")
 	List<AsignacionGrupoMiembro> findTareasAsignadasGrupoUsuarioPorGrupo(
 			@Param("emailUsuario") String emailUsuario, @Param("idGrupo") Long idGrupo);
+	@Override
+	@EntityGraph(AsignacionGrupoMiembro.GRAFO_RESPUESTA)
+	List<AsignacionGrupoMiembro> findAll(Specification<AsignacionGrupoMiembro> spec);
 	long countByAsignacionGrupo(AsignacionGrupo asignacionGrupo);
 }
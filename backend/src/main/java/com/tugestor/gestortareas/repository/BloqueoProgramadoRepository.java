@@ -0,0 +1,31 @@
+package com.tugestor.gestortareas.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.tugestor.gestortareas.model.BloqueoProgramado;
+
+public interface BloqueoProgramadoRepository extends JpaRepository<BloqueoProgramado, String> {
+	// Un UPDATE condicional es atomico en cualquier BD: solo una instancia ve 1 fila actualizada
+	@Modifying
+	@Query("""
+			UPDATE BloqueoProgramado b SET b.propietario = :propietario, b.fechaBloqueo = :ahora,
+				b.bloqueadoHasta = :hasta
+			WHERE b.nombre = :nombre AND b.bloqueadoHasta <= :ahora
+			""")
+	int adquirir(@Param("nombre") String nombre, @Param("propietario") String propietario,
+			@Param("ahora") LocalDateTime ahora, @Param("hasta") LocalDateTime hasta);
+
+	// Deja el lease libre a partir de 'libreDesde': el momento actual para soltarlo ya o el final del periodo
+	@Modifying
+	@Query("""
+			UPDATE BloqueoProgramado b SET b.bloqueadoHasta = :libreDesde
+			WHERE b.nombre = :nombre AND b.propietario = :propietario
+			""")
+	int liberarEn(@Param("nombre") String nombre, @Param("propietario") String propietario,
+			@Param("libreDesde") LocalDateTime libreDesde);
+}
@@ -0,0 +1,46 @@
+package com.tugestor.gestortareas.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.tugestor.gestortareas.model.EnvioPush;
+import com.tugestor.gestortareas.model.EstadoEnvioPush;
+
+public interface EnvioPushRepository extends JpaRepository<EnvioPush, Long> {
+	/* Bloquea hasta 'lote' envios vencidos saltando los que ya tiene otra instancia (SKIP LOCKED), asi
+	 * varias instancias reclaman a la vez sin esperarse ni repartirse la misma fila. El bloqueo dura lo
+	 * que la transaccion de reclamo; durante el envio protege bloquearHasta. */
+	@Query(value = """
+			SELECT * FROM envio_push
+			WHERE estado = 'PENDIENTE' AND proximo_intento <= :ahora
+			ORDER BY proximo_intento
+			LIMIT :lote
+			FOR UPDATE SKIP LOCKED
+			""", nativeQuery = true)
+	List<EnvioPush> reclamarPendientes(@Param("ahora") LocalDateTime ahora, @Param("lote") int lote);
+
+	@Modifying
+	@Query("UPDATE EnvioPush e SET e.proximoIntento = :hasta, e.intentos = e.intentos + 1 WHERE e.idEnvioPush IN :ids")
+	int bloquearHasta(@Param("ids") Collection<Long> ids, @Param("hasta") LocalDateTime hasta);
+
+	@Modifying
+	@Query("""
+			UPDATE EnvioPush e SET e.estado = com.tugestor.gestortareas.model.EstadoEnvioPush.ENVIADO,
+				e.fechaEnvio = :fecha, e.ultimoError = null
+			WHERE e.idEnvioPush IN :ids
+			""")
+	int marcarEnviados(@Param("ids") Collection<Long> ids, @Param("fecha") LocalDateTime fecha);
+
+	long countByEstado(EstadoEnvioPush estado);
+
+	// Retencion de notificaciones: sus envios se borran con ellas
+	@Modifying
+	@Query("DELETE FROM EnvioPush e WHERE e.idNotificacion IN :ids")
+	int borrarPorNotificaciones(@Param("ids") Collection<Long> ids);
+}
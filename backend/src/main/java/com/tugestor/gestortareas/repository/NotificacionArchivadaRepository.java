@@ -0,0 +1,25 @@
+package com.tugestor.gestortareas.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.tugestor.gestortareas.model.NotificacionArchivada;
+
+public interface NotificacionArchivadaRepository extends JpaRepository<NotificacionArchivada, Long> {
+	// INSERT ... SELECT: copia el lote en una sentencia sin cargar las notificaciones
+	@Modifying
+	@Query("""
+			INSERT INTO NotificacionArchivada (idNotificacion, idUsuario, idTarea, tipo, titulo, mensaje,
+				fechaCreacion, fechaCierre, fechaArchivado)
+			SELECT n.idNotificacion, n.usuario.idUsuario, n.tarea.idTarea, n.tipo, n.titulo, n.mensaje,
+				n.fechaCreacion, n.fechaCierre, :fechaArchivado
+			FROM Notificacion n
+			WHERE n.idNotificacion IN :ids
+			""")
+	int archivar(@Param("ids") Collection<Long> ids, @Param("fechaArchivado") LocalDateTime fechaArchivado);
+}
@@ -1,23 +1,111 @@
 package com.tugestor.gestortareas.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.tugestor.gestortareas.dto.Aviso24hPendiente;
+import com.tugestor.gestortareas.dto.NotificacionesActivasUsuario;
+import com.tugestor.gestortareas.model.EstadoPushNotificacion;
 import com.tugestor.gestortareas.model.Notificacion;
 import com.tugestor.gestortareas.model.Tarea;
-import com.tugestor.gestortareas.model.TipoNotificacion;
-import com.tugestor.gestortareas.model.Usuario;
 
 public interface NotificacionRepository extends JpaRepository<Notificacion, Long> {
 	List<Notificacion> findByUsuarioEmailAndCerradaFalseOrderByFechaCreacionDesc(String emailUsuario);
-	List<Notificacion> findByUsuarioAndCerradaFalse(Usuario usuario);
-	long countByUsuarioEmailAndCerradaFalse(String emailUsuario);
-	boolean existsByUsuarioAndTareaAndTipo(Usuario usuario, Tarea tarea, TipoNotificacion tipo);
+	// Cierre de toda la bandeja en una sentencia; devuelve cuantas se han cerrado
+	@Modifying
+	@Query("""
+			UPDATE Notificacion n SET n.cerrada = true, n.fechaCierre = :fechaCierre
+			WHERE n.usuario.idUsuario = :idUsuario AND n.cerrada = false
+			""")
+	int cerrarTodas(@Param("idUsuario") Long idUsuario, @Param("fechaCierre") LocalDateTime fechaCierre);
+	// Retencion: ids de cerradas antes de 'limite', en lotes (el Pageable solo se usa como LIMIT)
+	@Query("""
+			SELECT n.idNotificacion FROM Notificacion n
+			WHERE n.cerrada = true AND n.fechaCierre < :limite
+			ORDER BY n.idNotificacion
+			""")
+	List<Long> findIdsCerradasAntesDe(@Param("limite") LocalDateTime limite, Pageable lote);
+	@Modifying
+	@Query("DELETE FROM Notificacion n WHERE n.idNotificacion IN :ids")
+	int borrarPorIds(@Param("ids") Collection<Long> ids);
+	long countByUsuario_IdUsuarioAndCerradaFalse(Long idUsuario);
+	// Reconciliacion de ContadorNotificaciones: los usuarios sin notificaciones activas no aparecen
+	@Query("""
+			SELECT new com.tugestor.gestortareas.dto.NotificacionesActivasUsuario(n.usuario.idUsuario, COUNT(n))
+			FROM Notificacion n
+			WHERE n.cerrada = false AND n.usuario.idUsuario IN :idsUsuarios
+			GROUP BY n.usuario.idUsuario
+			""")
+	List<NotificacionesActivasUsuario> contarActivasPorUsuarios(@Param("idsUsuarios") Collection<Long> idsUsuarios);
+	// Reanudacion del stream SSE: lo creado despues del ultimo evento que recibio el cliente (Last-Event-ID)
+	List<Notificacion> findByUsuario_IdUsuarioAndCerradaFalseAndIdNotificacionGreaterThanOrderByIdNotificacionAsc(
+			Long idUsuario, Long idNotificacion);
+	// Sondeo del stream SSE en cada latido: lo activo de los usuarios conectados a esta instancia tras 'desde'
+	@Query("""
+			SELECT n FROM Notificacion n
+			JOIN FETCH n.usuario u
+			LEFT JOIN FETCH n.tarea
+			LEFT JOIN FETCH n.grupo
+			LEFT JOIN FETCH n.asignacionGrupoMiembro
+			WHERE u.idUsuario IN :idsUsuarios AND n.cerrada = false AND n.idNotificacion > :desde
+			ORDER BY n.idNotificacion
+			""")
+	List<Notificacion> findActivasPosterioresPorUsuarios(@Param("idsUsuarios") Collection<Long> idsUsuarios,
+			@Param("desde") Long desde);
+	// Marca global del sondeo SSE: el maximo de la clave primaria sale del indice
+	@Query("SELECT COALESCE(MAX(n.idNotificacion), 0) FROM Notificacion n")
+	long findUltimoIdNotificacion();
 	@Modifying
 	@Query("UPDATE Notificacion n SET n.tarea = null WHERE n.tarea = :tarea")
 	int desvincularTarea(@Param("tarea") Tarea tarea);
+	// Un UPDATE por resultado para todo un lote de envios Web Push
+	@Modifying
+	@Query("""
+			UPDATE Notificacion n SET n.pushEstado = :estado, n.fechaEnvioPush = :fecha, n.errorPush = :error
+			WHERE n.idNotificacion IN :ids
+			""")
+	int actualizarEstadoPush(@Param("ids") Collection<Long> ids, @Param("estado") EstadoPushNotificacion estado,
+			@Param("fecha") LocalDateTime fecha, @Param("error") String error);
+	// FALLIDA solo cuando todos sus envios Web Push estan descartados; si queda alguno pendiente sigue PENDIENTE
+	@Modifying
+	@Query("""
+			UPDATE Notificacion n SET n.pushEstado = com.tugestor.gestortareas.model.EstadoPushNotificacion.FALLIDA,
+				n.fechaEnvioPush = :fecha, n.errorPush = :error
+			WHERE n.idNotificacion IN :ids
+			AND n.pushEstado = com.tugestor.gestortareas.model.EstadoPushNotificacion.PENDIENTE
+			AND NOT EXISTS (SELECT e FROM EnvioPush e WHERE e.idNotificacion = n.idNotificacion
+				AND e.estado <> com.tugestor.gestortareas.model.EstadoEnvioPush.DESCARTADO)
+			""")
+	int marcarFallidasSinEnviosVivos(@Param("ids") Collection<Long> ids, @Param("fecha") LocalDateTime fecha,
+			@Param("error") String error);
+	/* Avisos de 24h que faltan por crear, en una sola consulta: preferencias activas con la prioridad de la
+	 * tarea marcada, tareas sin completar que vencen entre desde y hasta, la asignacion de grupo si la tarea
+	 * viene de un grupo (y entonces el grupo tiene que estar en las preferencias) y sin aviso previo.
+	 * Solo los usuarios de la particion pedida (id de usuario modulo 'particiones'); con 1 son todos. */
+	@Query("""
+			SELECT new com.tugestor.gestortareas.dto.Aviso24hPendiente(
+				t.usuario.idUsuario, t.idTarea, t.titulo, agm.idAsignacionGrupoMiembro, g.idGrupo)
+			FROM PreferenciasNotificacion p
+			JOIN Tarea t ON t.usuario = p.usuario
+			LEFT JOIN AsignacionGrupoMiembro agm ON agm.tareaGenerada = t
+			LEFT JOIN agm.asignacionGrupo ag
+			LEFT JOIN ag.grupo g
+			WHERE p.notificacionesActivas = true AND p.aviso24hActivo = true
+			AND t.completada = false AND t.fechaEntrega BETWEEN :desde AND :hasta
+			AND MOD(t.usuario.idUsuario, :particiones) = :particion
+			AND t.prioridad MEMBER OF p.prioridadesAviso24h
+			AND (agm IS NULL OR g MEMBER OF p.gruposAviso24h)
+			AND NOT EXISTS (SELECT n FROM Notificacion n WHERE n.usuario = t.usuario AND n.tarea = t
+				AND n.tipo = com.tugestor.gestortareas.model.TipoNotificacion.AVISO_24H)
+			""")
+	List<Aviso24hPendiente> buscarAvisos24hPendientes(@Param("desde") LocalDateTime desde,
+			@Param("hasta") LocalDateTime hasta, @Param("particion") int particion,
+			@Param("particiones") int particiones);
 }
@@ -1,9 +1,14 @@
 package com.tugestor.gestortareas.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.tugestor.gestortareas.model.PushSubscripcion;
 import com.tugestor.gestortareas.model.Usuario;
@@ -11,4 +16,9 @@ import com.tugestor.gestortareas.model.Usuario;
 public interface PushSubscripcionRepository extends JpaRepository<PushSubscripcion, Long> {
 	Optional<PushSubscripcion> findByEndpoint(String endpoint);
 	List<PushSubscripcion> findByUsuarioAndActivaTrue(Usuario usuario);
+	@Query("SELECT s FROM PushSubscripcion s JOIN FETCH s.usuario WHERE s.usuario.idUsuario IN :idsUsuario AND s.activa = true")
+	List<PushSubscripcion> findActivasPorUsuarios(@Param("idsUsuario") Collection<Long> idsUsuario);
+	@Modifying
+	@Query("UPDATE PushSubscripcion s SET s.activa = false, s.fechaBaja = :fecha WHERE s.idPushSubscripcion IN :ids")
+	int darDeBaja(@Param("ids") Collection<Long> ids, @Param("fecha") LocalDateTime fecha);
 }
@@ -1,6 +1,7 @@
 package com.tugestor.gestortareas.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,6 +10,8 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.tugestor.gestortareas.dto.RecordatorioProgramado;
+import com.tugestor.gestortareas.dto.RecordatorioVencido;
 import com.tugestor.gestortareas.model.RecordatorioTarea;
 import com.tugestor.gestortareas.model.Tarea;
 import com.tugestor.gestortareas.model.TipoRecordatorioTarea;
@@ -17,8 +20,6 @@ import com.tugestor.gestortareas.model.Usuario;
 public interface RecordatorioTareaRepository extends JpaRepository<RecordatorioTarea, Long> {
 	Optional<RecordatorioTarea> findByUsuarioAndTareaAndTipo(Usuario usuario, Tarea tarea,
 			TipoRecordatorioTarea tipo);
-	List<RecordatorioTarea> findByTipoAndActivoTrueAndNotificacionGeneradaFalseAndFechaProgramadaLessThanEqual(
-			TipoRecordatorioTarea tipo, LocalDateTime fechaLimite);
 	@Query("""
 			SELECT r.tarea.idTarea FROM RecordatorioTarea r
 			WHERE LOWER(r.usuario.email) = LOWER(:emailUsuario)
@@ -32,4 +33,39 @@ public interface RecordatorioTareaRepository extends JpaRepository<RecordatorioT
 			@Param("idsTareas") List<Long> idsTareas);
 	@Modifying
 	int deleteByTarea(Tarea tarea);
+	// Carga de la rueda de recordatorios: solo id y fecha de los que aun tienen que generar notificacion
+	@Query("""
+			SELECT new com.tugestor.gestortareas.dto.RecordatorioProgramado(r.idRecordatorioTarea, r.fechaProgramada)
+			FROM RecordatorioTarea r
+			WHERE r.tipo = :tipo AND r.activo = true AND r.notificacionGenerada = false
+			""")
+	List<RecordatorioProgramado> findProgramados(@Param("tipo") TipoRecordatorioTarea tipo);
+
+	/* Bloquea hasta 'lote' recordatorios vencidos saltando los que ya procesa otra transaccion (SKIP LOCKED).
+	 * El bloqueo dura lo que la transaccion del lote, que los marca procesados con marcarProcesados. */
+	@Query(value = """
+			SELECT id_recordatorio_tarea FROM recordatorio_tarea
+			WHERE tipo = :tipo AND activo = true AND notificacion_generada = false AND fecha_programada <= :ahora
+			ORDER BY fecha_programada
+			LIMIT :lote
+			FOR UPDATE SKIP LOCKED
+			""", nativeQuery = true)
+	List<Long> reclamarVencidos(@Param("tipo") String tipo, @Param("ahora") LocalDateTime ahora,
+			@Param("lote") int lote);
+
+	@Query("""
+			SELECT new com.tugestor.gestortareas.dto.RecordatorioVencido(r.idRecordatorioTarea, r.usuario.idUsuario,
+				t.idTarea, t.titulo, r.fechaProgramada)
+			FROM RecordatorioTarea r JOIN r.tarea t
+			WHERE r.idRecordatorioTarea IN :ids
+			""")
+	List<RecordatorioVencido> findVencidosPorIds(@Param("ids") Collection<Long> ids);
+
+	@Modifying
+	@Query("""
+			UPDATE RecordatorioTarea r SET r.activo = false, r.notificacionGenerada = true,
+				r.fechaProcesado = :ahora, r.fechaActualizacion = :ahora
+			WHERE r.idRecordatorioTarea IN :ids
+			""")
+	int marcarProcesados(@Param("ids") Collection<Long> ids, @Param("ahora") LocalDateTime ahora);
 }
@@ -0,0 +1,132 @@
+package com.tugestor.gestortareas.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.tugestor.gestortareas.dto.FiltroTareaCombinadoRequest;
+import com.tugestor.gestortareas.model.AsignacionGrupoMiembro;
+import com.tugestor.gestortareas.model.Estado;
+import com.tugestor.gestortareas.model.Prioridad;
+import com.tugestor.gestortareas.model.Tarea;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+/* Traduce el filtro combinado a una unica consulta Criteria por origen (personal o grupo),
+ * para que solo salgan de la BBDD las tareas que cumplen el filtro. Las prioridades y estados
+ * llegan ya normalizados desde el servicio (lista nueva o valor legacy). */
+public final class TareaFiltroCombinadoSpecifications {
+	private static final char ESCAPE_LIKE = '\\';
+
+	private TareaFiltroCombinadoSpecifications() {
+	}
+
+	// Tareas propias del usuario que no proceden de una asignacion de grupo suya
+	public static Specification<Tarea> tareasPersonales(String emailUsuario, FiltroTareaCombinadoRequest filtro,
+			List<Prioridad> prioridades, List<Estado> estados, LocalDateTime ahora) {
+		return (root, query, cb) -> {
+			List<Predicate> predicados = new ArrayList<>();
+			predicados.add(cb.equal(root.get("usuario").get("email"), emailUsuario));
+
+			Subquery<Long> asignacion = query.subquery(Long.class);
+			Root<AsignacionGrupoMiembro> agm = asignacion.from(AsignacionGrupoMiembro.class);
+			asignacion.select(agm.get("idAsignacionGrupoMiembro"))
+					.where(cb.equal(agm.get("tareaGenerada"), root),
+							cb.equal(cb.lower(agm.get("usuarioMiembro").get("email")),
+									cb.lower(cb.literal(emailUsuario))));
+			predicados.add(cb.not(cb.exists(asignacion)));
+
+			predicados.addAll(predicadosFiltro(root, cb, filtro, prioridades, estados, ahora));
+			return cb.and(predicados.toArray(Predicate[]::new));
+		};
+	}
+
+	// Asignaciones de grupo del usuario cuya tarea generada cumple el filtro, opcionalmente de un solo grupo
+	public static Specification<AsignacionGrupoMiembro> asignacionesGrupo(String emailUsuario, Long idGrupo,
+			FiltroTareaCombinadoRequest filtro, List<Prioridad> prioridades, List<Estado> estados,
+			LocalDateTime ahora) {
+		return (root, query, cb) -> {
+			// La carga de la tarea y su grupo la resuelve el grafo del repositorio; aqui solo filtro
+			Join<AsignacionGrupoMiembro, Tarea> tarea = root.join("tareaGenerada");
+
+			List<Predicate> predicados = new ArrayList<>();
+			predicados.add(cb.equal(cb.lower(root.get("usuarioMiembro").get("email")),
+					cb.lower(cb.literal(emailUsuario))));
+			predicados.add(cb.equal(cb.lower(tarea.get("usuario").get("email")),
+					cb.lower(cb.literal(emailUsuario))));
+			if (idGrupo != null) {
+				predicados.add(cb.equal(root.get("asignacionGrupo").get("grupo").get("idGrupo"), idGrupo));
+			}
+			predicados.addAll(predicadosFiltro(tarea, cb, filtro, prioridades, estados, ahora));
+			return cb.and(predicados.toArray(Predicate[]::new));
+		};
+	}
+
+	private static List<Predicate> predicadosFiltro(From<?, Tarea> tarea, CriteriaBuilder cb,
+			FiltroTareaCombinadoRequest filtro, List<Prioridad> prioridades, List<Estado> estados,
+			LocalDateTime ahora) {
+		List<Predicate> predicados = new ArrayList<>();
+		if (estados.isEmpty() && Boolean.TRUE.equals(filtro.getSoloPorCompletar())) {
+			predicados.add(cb.isFalse(tarea.get("completada")));
+		}
+		if (!prioridades.isEmpty()) {
+			predicados.add(tarea.get("prioridad").in(prioridades));
+		}
+		if (!estados.isEmpty()) {
+			predicados.add(cb.or(estados.stream()
+					.map(estado -> estadoEs(tarea, cb, estado, ahora))
+					.toArray(Predicate[]::new)));
+		}
+		if (filtro.getTiempoMax() != null) {
+			predicados.add(cb.le(tarea.get("tiempo"), filtro.getTiempoMax()));
+		}
+		if (filtro.getIdCategoria() != null) {
+			predicados.add(cb.equal(tarea.get("categoria").get("idCategoria"), filtro.getIdCategoria()));
+		}
+		if (filtro.getPalabrasClave() != null && !filtro.getPalabrasClave().trim().isBlank()) {
+			String patron = "%" + escaparLike(filtro.getPalabrasClave().trim().toLowerCase(Locale.ROOT)) + "%";
+			predicados.add(cb.or(
+					cb.like(cb.lower(tarea.get("titulo")), patron, ESCAPE_LIKE),
+					cb.like(cb.lower(tarea.get("descripcion")), patron, ESCAPE_LIKE)));
+		}
+		Path<LocalDateTime> fechaEntrega = tarea.get("fechaEntrega");
+		if (filtro.getFechaEntregaExacta() != null) {
+			LocalDate dia = filtro.getFechaEntregaExacta();
+			predicados.add(cb.greaterThanOrEqualTo(fechaEntrega, dia.atStartOfDay()));
+			predicados.add(cb.lessThan(fechaEntrega, dia.plusDays(1).atStartOfDay()));
+		}
+		if (filtro.getFechaEntregaHasta() != null) {
+			predicados.add(cb.greaterThanOrEqualTo(fechaEntrega, ahora.toLocalDate().atStartOfDay()));
+			predicados.add(cb.lessThan(fechaEntrega, filtro.getFechaEntregaHasta().plusDays(1).atStartOfDay()));
+		}
+		return predicados;
+	}
+
+	/* Usa la columna estado (indexada). EN_CURSO/VENCIDA se cortan tambien por fechaEntrega para
+	 * dar el estado exacto aunque el barrido programado aun no haya pasado por la tarea. */
+	private static Predicate estadoEs(From<?, Tarea> tarea, CriteriaBuilder cb, Estado estado, LocalDateTime ahora) {
+		Path<Estado> estadoPersistido = tarea.get("estadoPersistido");
+		Path<LocalDateTime> fechaEntrega = tarea.get("fechaEntrega");
+		return switch (estado) {
+		case EN_CURSO -> cb.and(cb.equal(estadoPersistido, Estado.EN_CURSO),
+				cb.greaterThanOrEqualTo(fechaEntrega, ahora));
+		case VENCIDA -> cb.and(estadoPersistido.in(Estado.EN_CURSO, Estado.VENCIDA),
+				cb.lessThan(fechaEntrega, ahora));
+		default -> cb.equal(estadoPersistido, estado);
+		};
+	}
+
+	private static String escaparLike(String texto) {
+		return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+}
@@ -3,31 +3,193 @@ package com.tugestor.gestortareas.repository;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.tugestor.gestortareas.dto.TareaResponse;
+import com.tugestor.gestortareas.model.Estado;
 import com.tugestor.gestortareas.model.Prioridad;
 import com.tugestor.gestortareas.model.Tarea;
 import com.tugestor.gestortareas.model.Usuario;
 
-public interface TareaRepository extends JpaRepository<Tarea, Long> {
+public interface TareaRepository extends JpaRepository<Tarea, Long>, JpaSpecificationExecutor<Tarea> {
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
 	List<Tarea> findAllByUsuarioEmailOrderByTituloAsc(String emailUsuarioCreador);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
 	List<Tarea> findAllByUsuarioEmailOrderByTiempoAsc(String emailUsuarioCreador);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
 	List<Tarea> findAllByUsuarioEmailOrderByPrioridadAsc(String emailUsuarioCreador);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
 	List<Tarea> findAllByUsuarioEmailOrderByFechaEntregaAsc(String emailUsuarioCreador);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
 	List<Tarea> findByUsuarioEmailAndPrioridad(String emailUsuarioCreador, Prioridad prioridad);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
 	List<Tarea> findByUsuarioEmailAndTiempoLessThanEqual(String emailUsuarioCreador, int tiempo);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
 	List<Tarea> findByUsuarioEmailAndTituloContainingIgnoreCaseOrUsuarioEmailAndDescripcionContainingIgnoreCase(
 			String emailUsuarioCreador0, String titulo,String emailUsuarioCreador1, String descripcion);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
 	List<Tarea> findByUsuarioEmailAndCategoria_IdCategoria(String emailUsuarioCreador, Long idCategoria);// Con el "_" se indica que es un campo de la entidad Categoria (categoria.idCategoria)
 	List<Tarea> findByUsuario_IdUsuario(Long idUsuario);
 	List<Tarea> findByUsuarioQueCompleta_IdUsuario(Long idUsuario);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
 	List<Tarea> findByUsuarioEmail(String email);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
 	List<Tarea> findByUsuarioEmailAndFechaEntregaBetween(String emailUsuarioCreador, LocalDateTime inicio,LocalDateTime fin);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
 	List<Tarea> findByUsuarioEmailAndCompletadaFalseAndFechaEntregaAfterOrderByFechaEntregaAsc(String emailUsuarioCreador, LocalDateTime fechaActual);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
 	List<Tarea> findByUsuarioEmailAndCompletadaFalseAndFechaEntregaBeforeOrderByFechaEntregaAsc(String emailUsuarioCreador, LocalDateTime fechaActual);
-	List<Tarea> findByUsuarioAndCompletadaFalseAndFechaEntregaBetween(
-			Usuario usuario, LocalDateTime inicio, LocalDateTime fin);
 	List<Tarea> findByCategoria_IdCategoria(Long idCategoria);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
 	List<Tarea> findAllByUsuarioEmail(String emailUsuario);
 	
+	@Override
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
+	List<Tarea> findAll(Specification<Tarea> spec);
+	
+	/* Paginacion por keyset: cada consulta arranca justo despues de la clave (valor, idTarea) de la
+	 * ultima tarea devuelta, asi el coste no depende de cuantas paginas se hayan leido antes.
+	 * El Pageable solo se usa como LIMIT (siempre pagina 0). */
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
+	List<Tarea> findByUsuario_IdUsuarioAndIdTareaGreaterThanOrderByIdTareaAsc(
+			Long idUsuario, Long idTarea, Pageable limite);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
+	List<Tarea> findByUsuario_IdUsuarioOrderByTituloAscIdTareaAsc(Long idUsuario, Pageable limite);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
+	@Query("""
+			SELECT t FROM Tarea t
+			WHERE t.usuario.idUsuario = :idUsuario
+			AND (t.titulo, t.idTarea) > (:titulo, :idTarea)
+			ORDER BY t.titulo ASC, t.idTarea ASC
+			""")
+	List<Tarea> findPaginaPorTituloTrasCursor(@Param("idUsuario") Long idUsuario,
+			@Param("titulo") String titulo, @Param("idTarea") Long idTarea, Pageable limite);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
+	List<Tarea> findByUsuario_IdUsuarioOrderByTiempoAscIdTareaAsc(Long idUsuario, Pageable limite);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
+	@Query("""
+			SELECT t FROM Tarea t
+			WHERE t.usuario.idUsuario = :idUsuario
+			AND (t.tiempo, t.idTarea) > (:tiempo, :idTarea)
+			ORDER BY t.tiempo ASC, t.idTarea ASC
+			""")
+	List<Tarea> findPaginaPorTiempoTrasCursor(@Param("idUsuario") Long idUsuario,
+			@Param("tiempo") int tiempo, @Param("idTarea") Long idTarea, Pageable limite);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
+	List<Tarea> findByUsuario_IdUsuarioAndPrioridadAndIdTareaGreaterThanOrderByIdTareaAsc(
+			Long idUsuario, Prioridad prioridad, Long idTarea, Pageable limite);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
+	List<Tarea> findByUsuario_IdUsuarioAndFechaEntregaIsNotNullOrderByFechaEntregaAscIdTareaAsc(
+			Long idUsuario, Pageable limite);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
+	@Query("""
+			SELECT t FROM Tarea t
+			WHERE t.usuario.idUsuario = :idUsuario
+			AND t.fechaEntrega IS NOT NULL
+			AND (t.fechaEntrega, t.idTarea) > (:fechaEntrega, :idTarea)
+			ORDER BY t.fechaEntrega ASC, t.idTarea ASC
+			""")
+	List<Tarea> findPaginaPorFechaEntregaTrasCursor(@Param("idUsuario") Long idUsuario,
+			@Param("fechaEntrega") LocalDateTime fechaEntrega, @Param("idTarea") Long idTarea, Pageable limite);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
+	List<Tarea> findByUsuario_IdUsuarioAndFechaEntregaIsNullAndIdTareaGreaterThanOrderByIdTareaAsc(
+			Long idUsuario, Long idTarea, Pageable limite);
+	
+	/* Filtros por la columna estado. COMPLETADA, COMPLETADA_CON_RETRASO y SIN_FECHA solo cambian al
+	 * escribir la tarea; EN_CURSO/VENCIDA se cortan ademas por fechaEntrega para no depender de
+	 * que el barrido haya pasado ya por las tareas que acaban de vencer. */
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
+	List<Tarea> findByUsuarioEmailAndEstadoPersistido(String emailUsuario, Estado estado);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
+	@Query("""
+			SELECT t FROM Tarea t
+			WHERE t.usuario.email = :emailUsuario
+			AND t.estadoPersistido = com.tugestor.gestortareas.model.Estado.EN_CURSO
+			AND t.fechaEntrega >= :ahora
+			""")
+	List<Tarea> findEnCursoPorUsuarioEmail(@Param("emailUsuario") String emailUsuario,
+			@Param("ahora") LocalDateTime ahora);
+	@EntityGraph(Tarea.GRAFO_RESPUESTA)
+	@Query("""
+			SELECT t FROM Tarea t
+			WHERE t.usuario.email = :emailUsuario
+			AND t.estadoPersistido IN (com.tugestor.gestortareas.model.Estado.EN_CURSO,
+				com.tugestor.gestortareas.model.Estado.VENCIDA)
+			AND t.fechaEntrega < :ahora
+			""")
+	List<Tarea> findVencidasPorUsuarioEmail(@Param("emailUsuario") String emailUsuario,
+			@Param("ahora") LocalDateTime ahora);
+	
+	@Modifying
+	@Query("""
+			UPDATE Tarea t SET t.estadoPersistido = com.tugestor.gestortareas.model.Estado.VENCIDA
+			WHERE t.estadoPersistido = com.tugestor.gestortareas.model.Estado.EN_CURSO
+			AND t.fechaEntrega < :corte
+			""")
+	int marcarVencidasHasta(@Param("corte") LocalDateTime corte);
+	// Rellena la columna en filas anteriores a su creacion, con la misma regla que Tarea.getEstado()
+	@Modifying
+	@Query("""
+			UPDATE Tarea t SET t.estadoPersistido = CASE
+				WHEN t.completada = true AND t.fechaEntrega IS NOT NULL AND t.fechaCompletada IS NOT NULL
+					AND t.fechaCompletada > t.fechaEntrega
+					THEN com.tugestor.gestortareas.model.Estado.COMPLETADA_CON_RETRASO
+				WHEN t.completada = true THEN com.tugestor.gestortareas.model.Estado.COMPLETADA
+				WHEN t.fechaEntrega IS NULL THEN com.tugestor.gestortareas.model.Estado.SIN_FECHA
+				WHEN t.fechaEntrega < :ahora THEN com.tugestor.gestortareas.model.Estado.VENCIDA
+				ELSE com.tugestor.gestortareas.model.Estado.EN_CURSO
+			END
+			WHERE t.estadoPersistido IS NULL
+			""")
+	int inicializarEstadosSinCalcular(@Param("ahora") LocalDateTime ahora);
+	
+	/* Proyecciones para los listados de solo lectura: leen justo las columnas de TareaResponse
+	 * (categoria y email de quien completa por LEFT JOIN) sin gestionar entidades Tarea. */
+	String SELECT_TAREA_RESPONSE = """
+			SELECT new com.tugestor.gestortareas.dto.TareaResponse(
+				t.idTarea, t.titulo, t.descripcion, t.tiempo, t.prioridad, t.fechaEntrega, t.fechaAgregado,
+				t.completada, t.fechaCompletada, c.idCategoria, c.nombre, u.idUsuario, uc.email)
+			FROM Tarea t
+			JOIN t.usuario u
+			LEFT JOIN t.categoria c
+			LEFT JOIN t.usuarioQueCompleta uc
+			WHERE u.email = :emailUsuario
+			""";
+	@Query(SELECT_TAREA_RESPONSE + "ORDER BY t.idTarea ASC")
+	List<TareaResponse> findResponsesByUsuarioEmail(@Param("emailUsuario") String emailUsuario);
+	@Query(SELECT_TAREA_RESPONSE + "ORDER BY t.titulo ASC, t.idTarea ASC")
+	List<TareaResponse> findResponsesByUsuarioEmailOrderByTitulo(@Param("emailUsuario") String emailUsuario);
+	@Query(SELECT_TAREA_RESPONSE + "ORDER BY t.tiempo ASC, t.idTarea ASC")
+	List<TareaResponse> findResponsesByUsuarioEmailOrderByTiempo(@Param("emailUsuario") String emailUsuario);
+	// La prioridad se guarda como texto: el CASE reproduce el orden del enum de mayor a menor
+	@Query(SELECT_TAREA_RESPONSE + """
+			ORDER BY CASE t.prioridad
+				WHEN com.tugestor.gestortareas.model.Prioridad.IMPRESCINDIBLE THEN 0
+				WHEN com.tugestor.gestortareas.model.Prioridad.ALTA THEN 1
+				WHEN com.tugestor.gestortareas.model.Prioridad.MEDIA THEN 2
+				ELSE 3
+			END, t.idTarea ASC
+			""")
+	List<TareaResponse> findResponsesByUsuarioEmailOrderByPrioridad(@Param("emailUsuario") String emailUsuario);
+	@Query(SELECT_TAREA_RESPONSE + "ORDER BY t.fechaEntrega ASC, t.idTarea ASC")
+	List<TareaResponse> findResponsesByUsuarioEmailOrderByFechaEntrega(@Param("emailUsuario") String emailUsuario);
+	@Query(SELECT_TAREA_RESPONSE + """
+			AND t.completada = false AND t.fechaEntrega > :ahora
+			ORDER BY t.fechaEntrega ASC
+			""")
+	List<TareaResponse> findResponsesProximasByUsuarioEmail(@Param("emailUsuario") String emailUsuario,
+			@Param("ahora") LocalDateTime ahora);
+	@Query(SELECT_TAREA_RESPONSE + """
+			AND t.completada = false AND t.fechaEntrega < :ahora
+			ORDER BY t.fechaEntrega ASC
+			""")
+	List<TareaResponse> findResponsesVencidasByUsuarioEmail(@Param("emailUsuario") String emailUsuario,
+			@Param("ahora") LocalDateTime ahora);
 }
@@ -0,0 +1,55 @@
+package com.tugestor.gestortareas.security;
+
+import java.util.Optional;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/* Usuario de la peticion en curso, sacado de los claims firmados del access token. Es el principal
+ * que deja JwtAuthenticationFilter en el SecurityContext, que Spring limpia al acabar cada peticion,
+ * asi que vive lo mismo que la peticion. Con el id los servicios pueden usar
+ * UsuarioRepository.getReferenceById en lugar de volver a buscar el Usuario por email. */
+public final class AuthenticatedUser implements AuthenticatedPrincipal {
+	private final Long idUsuario;
+	private final String email;
+
+	public AuthenticatedUser(Long idUsuario, String email) {
+		this.idUsuario = idUsuario;
+		this.email = email;
+	}
+
+	// Vacio fuera de una peticion con JWT (schedulers, tests con otro principal, login...)
+	public static Optional<AuthenticatedUser> actual() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser usuario) {
+			return Optional.of(usuario);
+		}
+		return Optional.empty();
+	}
+
+	// Id del usuario autenticado solo si es el del email indicado; si no, el llamante busca por email
+	public static Optional<Long> idUsuarioSiEs(String email) {
+		return actual()
+				.filter(usuario -> usuario.email.equals(email))
+				.map(AuthenticatedUser::getIdUsuario);
+	}
+
+	public Long getIdUsuario() {
+		return idUsuario;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	@Override
+	public String getName() {
+		return email;
+	}
+
+	@Override
+	public String toString() {
+		return email;
+	}
+}
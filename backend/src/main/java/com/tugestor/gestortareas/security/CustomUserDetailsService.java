@@ -1,14 +1,17 @@
 package com.tugestor.gestortareas.security;
 
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.tugestor.gestortareas.model.Usuario;
 import com.tugestor.gestortareas.repository.UsuarioRepository;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 	private final UsuarioRepository ur;
 	public CustomUserDetailsService (UsuarioRepository ur) {
 		this.ur= ur;
@@ -18,12 +21,18 @@ public class CustomUserDetailsService implements UserDetailsService {
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 		
 		return ur.findByEmail(username)	// Devuelve un Optional<Usuario>
-				.map(usuario -> org.springframework.security.core.userdetails.User.builder()
-						.username(usuario.getEmail())	// Si existe construyo un User de Spring
-						.password(usuario.getPassword())
-						.roles("USER")
-						.build())						// Si no existe lanzamos excepcion
+				.map(UsuarioDetalles::new)		// Si existe construyo el UserDetails con su id y version de token
 				.orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + username));
 	}
 
+	/* Spring Security lo llama tras un login correcto cuando el hash guardado esta desfasado (sin prefijo
+	 * {bcrypt} o con un coste menor que app.seguridad.bcrypt.coste), con el hash nuevo ya calculado. */
+	@Override
+	@Transactional
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		Usuario usuario = ur.findByEmail(user.getUsername())
+				.orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + user.getUsername()));
+		usuario.setPassword(newPassword);
+		return new UsuarioDetalles(ur.save(usuario));
+	}
 }
@@ -17,9 +17,11 @@ import jakarta.servlet.http.HttpServletResponse;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 	private final JwtService jwtS;
 	private final UserDetailsService uds;
-	public JwtAuthenticationFilter (JwtService jwtS, UserDetailsService uds) {
+	private final UsuarioDetallesCache usuarioDetallesCache;
+	public JwtAuthenticationFilter (JwtService jwtS, UserDetailsService uds, UsuarioDetallesCache usuarioDetallesCache) {
 		this.jwtS = jwtS;
 		this.uds = uds;
+		this.usuarioDetallesCache = usuarioDetallesCache;
 	}
 
 	@Override
@@ -36,24 +38,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 		
 		try {
 			jwt = authHeader.substring(7);
-			if (!jwtS.isAccessToken(jwt)) {
+			// Una sola verificacion de firma por peticion (o ninguna si el token ya estaba verificado)
+			ValidatedToken token = jwtS.validateToken(jwt);
+			if (!token.isAccessToken()) {
 				responderNoAutorizado(response);
 				return;
 			}
-			username = jwtS.extractUsername(jwt);
+			username = token.getUsername();
 			
 			if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-				UserDetails userDetails = this.uds.loadUserByUsername(username);
-				if (jwtS.isAccessTokenValid(jwt, userDetails)) {
+				UserDetails userDetails = usuarioDetallesCache.obtener(username, uds::loadUserByUsername);
+				if (jwtS.perteneceA(token, userDetails)) {
 					UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-							userDetails,
+							principal(token, userDetails),
 							null,
 							userDetails.getAuthorities()
 							);
 					authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 					SecurityContextHolder.getContext().setAuthentication(authToken);
 				} else {
-					// Token invalido por firma incorrecta o expirado
+					// Token de otro usuario o revocado al subir su version
 					responderNoAutorizado(response);
 					return;
 				}
@@ -67,6 +71,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 		filterChain.doFilter(request, response);
 	}
 
+	// Los servicios leen el id del usuario de aqui (AuthenticatedUser.actual()) sin ir a la BBDD
+	private Object principal(ValidatedToken token, UserDetails userDetails) {
+		if (token.getIdUsuario() != null) {
+			return new AuthenticatedUser(token.getIdUsuario(), token.getUsername());
+		}
+		if (userDetails instanceof UsuarioDetalles detalles) {
+			return new AuthenticatedUser(detalles.getIdUsuario(), detalles.getUsername());
+		}
+		return userDetails;
+	}
+
 	private void responderNoAutorizado(HttpServletResponse response) throws IOException {
 		response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
 		response.setContentType("application/json");
@@ -6,21 +6,44 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 
 @Service
 public class JwtService {
-	@Value("${jwt.secret}")
-	private String secretKey;
-	@Value("${jwt.access-token-expiration-ms:900000}")
-	private long accessTokenExpirationMilliseconds;
-	@Value("${jwt.refresh-token-expiration-ms:604800000}")
-	private long refreshTokenExpirationMilliseconds;
+	private final String secretKey;
+	private final long accessTokenExpirationMilliseconds;
+	private final long refreshTokenExpirationMilliseconds;
+	/* Tokens ya verificados: un cliente que repite el mismo token se ahorra el base64, el JSON y el HMAC.
+	 * La clave es el token completo (su hash de String), asi que no hay colisiones posibles y no se
+	 * paga un SHA-256 extra que costaria casi lo mismo que la firma que queremos evitar. */
+	private final Cache<String, ValidatedToken> tokensVerificados;
 	private static final SignatureAlgorithm SIGNATURE_ALGORITHM = SignatureAlgorithm.HS256;
 	private static final String TOKEN_TYPE_CLAIM = "type";
-	private static final String ACCESS_TOKEN_TYPE = "access";
-	private static final String REFRESH_TOKEN_TYPE = "refresh";
+	private static final String USER_ID_CLAIM = "uid";
+	private static final String TOKEN_VERSION_CLAIM = "ver";
+	static final String ACCESS_TOKEN_TYPE = "access";
+	static final String REFRESH_TOKEN_TYPE = "refresh";
+
+	public JwtService(@Value("${jwt.secret}") String secretKey,
+			@Value("${jwt.access-token-expiration-ms:900000}") long accessTokenExpirationMilliseconds,
+			@Value("${jwt.refresh-token-expiration-ms:604800000}") long refreshTokenExpirationMilliseconds,
+			@Value("${jwt.tokens-verificados-max:1024}") long maxTokensVerificados) {
+		this.secretKey = secretKey;
+		this.accessTokenExpirationMilliseconds = accessTokenExpirationMilliseconds;
+		this.refreshTokenExpirationMilliseconds = refreshTokenExpirationMilliseconds;
+		// Mantenimiento en el propio hilo: con tamanio 0 la cache queda desactivada de verdad
+		this.tokensVerificados = Caffeine.newBuilder()
+				.maximumSize(maxTokensVerificados)
+				.executor(Runnable::run)
+				.build();
+	}
 
 	public String generateToken(UserDetails userDetails) {
 		return generateAccessToken(userDetails);
@@ -37,15 +60,49 @@ public class JwtService {
 	private String generateToken(UserDetails userDetails, String tokenType, long expirationMilliseconds) {
 		Date issuedAt = new Date();
 		Date expiration = new Date(issuedAt.getTime() + expirationMilliseconds);
-		return Jwts.builder()
+		JwtBuilder builder = Jwts.builder()
 				.setSubject(userDetails.getUsername())	// Identificador del usuario
 				.claim(TOKEN_TYPE_CLAIM, tokenType)
 				.setIssuedAt(issuedAt)					// Cuando se ha creado
-				.setExpiration(expiration)				// Cuando expira
+				.setExpiration(expiration);				// Cuando expira
+		if (userDetails instanceof UsuarioDetalles detalles) {
+			builder.claim(USER_ID_CLAIM, detalles.getIdUsuario())
+					.claim(TOKEN_VERSION_CLAIM, detalles.getVersionToken());
+		}
+		return builder
 				.signWith(SIGNATURE_ALGORITHM, secretKey)//Firmo el token con HS256 y mi clave secreta
 				.compact();								// Creo el String dinal
 	}
 	
+	/* Parsea y verifica la firma una sola vez y devuelve los claims que usa la aplicacion.
+	 * Lanza JwtException si la firma no es valida o el token ha expirado. */
+	public ValidatedToken validateToken(String token) {
+		long ahora = System.currentTimeMillis();
+		ValidatedToken verificado = tokensVerificados.getIfPresent(token);
+		if (verificado != null) {
+			if (!verificado.isExpired(ahora)) {
+				return verificado;
+			}
+			tokensVerificados.invalidate(token);
+			throw new ExpiredJwtException(null, null, "Token expirado.");
+		}
+		Claims claims = parseClaims(token);
+		Number idUsuario = claims.get(USER_ID_CLAIM, Number.class);
+		Number versionToken = claims.get(TOKEN_VERSION_CLAIM, Number.class);
+		verificado = new ValidatedToken(claims.getSubject(), claims.get(TOKEN_TYPE_CLAIM, String.class),
+				claims.getExpiration(), idUsuario != null ? idUsuario.longValue() : null,
+				versionToken != null ? versionToken.intValue() : 0);
+		tokensVerificados.put(token, verificado);
+		return verificado;
+	}
+
+	private Claims parseClaims(String token) {
+		return Jwts.parser()
+				.setSigningKey(secretKey)
+				.parseClaimsJws(token)
+				.getBody();
+	}
+
 	public String extractUsername(String token) {
 		return Jwts.parser()				// Inicia la lectura
 				.setSigningKey(secretKey)	// Indica la variable que valida la firma
@@ -70,30 +127,38 @@ public class JwtService {
 				.get(TOKEN_TYPE_CLAIM, String.class);
 	}
 
-	private boolean isTokenExpired(String token) {
-		return extractExpiration(token).before(new Date());
-	}
-
 	public boolean isTokenValid(String token, UserDetails userDetails) {
-		final String username = extractUsername(token);
-		return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+		return perteneceA(validateToken(token), userDetails);
 	}
 
 	public boolean isAccessToken(String token) {
-		return ACCESS_TOKEN_TYPE.equals(extractTokenType(token));
+		return validateToken(token).isAccessToken();
 	}
 
 	public boolean isRefreshToken(String token) {
-		return REFRESH_TOKEN_TYPE.equals(extractTokenType(token));
+		return validateToken(token).isRefreshToken();
 	}
 
 	public boolean isAccessTokenValid(String token, UserDetails userDetails) {
-		return isTokenValid(token, userDetails) && isAccessToken(token);
+		ValidatedToken validado = validateToken(token);
+		return perteneceA(validado, userDetails) && validado.isAccessToken();
 	}
 
 	public boolean isRefreshTokenValid(String token, UserDetails userDetails) {
-		return isTokenValid(token, userDetails) && isRefreshToken(token);
+		ValidatedToken validado = validateToken(token);
+		return perteneceA(validado, userDetails) && validado.isRefreshToken();
 	}
 
-
+	/* La expiracion ya la comprueba validateToken; aqui queda el propietario y, si conocemos el usuario,
+	 * su id y su version de token. Un token sin version (emitido antes de existir) cuenta como version 0. */
+	public boolean perteneceA(ValidatedToken token, UserDetails userDetails) {
+		if (token.getUsername() == null || !token.getUsername().equals(userDetails.getUsername())) {
+			return false;
+		}
+		if (userDetails instanceof UsuarioDetalles detalles) {
+			return token.getVersionToken() == detalles.getVersionToken()
+					&& (token.getIdUsuario() == null || token.getIdUsuario().equals(detalles.getIdUsuario()));
+		}
+		return true;
+	}
 }
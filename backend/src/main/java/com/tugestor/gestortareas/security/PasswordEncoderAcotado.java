@@ -0,0 +1,106 @@
+package com.tugestor.gestortareas.security;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.tugestor.gestortareas.exception.HashSaturadoException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/* Ejecuta encode y matches (BCrypt, caros a proposito) en un pool propio y acotado. Una rafaga de
+ * logins o registros ya no se come la CPU de todos los hilos de Tomcat: como mucho hay 'hilos' hashes
+ * en paralelo, 'cola' esperando, y el resto recibe un 429 al momento. upgradeEncoding es barato y se
+ * delega tal cual. */
+public class PasswordEncoderAcotado implements PasswordEncoder, DisposableBean {
+	static final String NOMBRE_METRICA = "seguridad.hash";
+
+	private final PasswordEncoder delegado;
+	private final ThreadPoolExecutor executor;
+	private final long esperaMaximaNanos;
+	private final Counter rechazos;
+	private final Timer duracion;
+
+	public PasswordEncoderAcotado(PasswordEncoder delegado, int hilos, int cola, Duration esperaMaxima,
+			MeterRegistry meterRegistry) {
+		this.delegado = delegado;
+		AtomicInteger secuencia = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(cola), tarea -> {
+					Thread hilo = new Thread(tarea, "hash-contrasena-" + secuencia.incrementAndGet());
+					hilo.setDaemon(true);
+					return hilo;
+				}, new ThreadPoolExecutor.AbortPolicy());
+		this.esperaMaximaNanos = esperaMaxima.toNanos();
+		ExecutorServiceMetrics.monitor(meterRegistry, executor, NOMBRE_METRICA);
+		this.rechazos = Counter.builder(NOMBRE_METRICA + ".rechazos")
+				.description("Hashes rechazados con 429 por pool lleno o espera agotada")
+				.register(meterRegistry);
+		this.duracion = Timer.builder(NOMBRE_METRICA + ".duracion")
+				.description("Cola mas calculo de cada encode/matches")
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return ejecutar(() -> delegado.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return ejecutar(() -> delegado.matches(rawPassword, encodedPassword));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegado.upgradeEncoding(encodedPassword);
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	private <T> T ejecutar(Callable<T> calculo) {
+		long inicio = System.nanoTime();
+		Future<T> futuro;
+		try {
+			futuro = executor.submit(calculo);
+		} catch (RejectedExecutionException ex) {
+			rechazos.increment();
+			throw new HashSaturadoException("Demasiadas peticiones de autenticacion, intentalo de nuevo en unos segundos.");
+		}
+		try {
+			return futuro.get(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+		} catch (TimeoutException ex) {
+			futuro.cancel(true);
+			rechazos.increment();
+			throw new HashSaturadoException("Demasiadas peticiones de autenticacion, intentalo de nuevo en unos segundos.");
+		} catch (InterruptedException ex) {
+			futuro.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Hash de contrasena interrumpido.", ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException causa) {
+				throw causa;
+			}
+			throw new IllegalStateException("Error al calcular el hash de la contrasena.", ex.getCause());
+		} finally {
+			duracion.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+		}
+	}
+}
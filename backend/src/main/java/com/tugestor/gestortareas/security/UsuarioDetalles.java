@@ -0,0 +1,30 @@
+package com.tugestor.gestortareas.security;
+
+import java.util.List;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import com.tugestor.gestortareas.model.Usuario;
+
+/* UserDetails con el id y la version de token del usuario, para firmarlos en el JWT al emitirlo
+ * y comprobar la version al recibirlo sin volver a leer el Usuario. */
+public class UsuarioDetalles extends User {
+	private static final long serialVersionUID = 1L;
+	private final Long idUsuario;
+	private final int versionToken;
+
+	public UsuarioDetalles(Usuario usuario) {
+		super(usuario.getEmail(), usuario.getPassword(), List.of(new SimpleGrantedAuthority("ROLE_USER")));
+		this.idUsuario = usuario.getIdUsuario();
+		this.versionToken = usuario.getVersionToken();
+	}
+
+	public Long getIdUsuario() {
+		return idUsuario;
+	}
+
+	public int getVersionToken() {
+		return versionToken;
+	}
+}
@@ -0,0 +1,74 @@
+package com.tugestor.gestortareas.security;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/* Cache de UserDetails para el filtro JWT: con la entrada caliente una peticion autenticada no toca
+ * la BBDD. Solo la usa el filtro; el login y el refresh siguen leyendo siempre de la BBDD. El TTL es
+ * corto porque es el retraso maximo con el que se nota un cambio de usuario que no pase por
+ * invalidarUsuario (por ejemplo una edicion directa en la BBDD). */
+@Component
+public class UsuarioDetallesCache {
+	static final String NOMBRE_METRICA = "seguridad.usuarios";
+
+	private final Cache<String, UserDetails> cache;
+
+	public UsuarioDetallesCache(MeterRegistry meterRegistry,
+			@Value("${app.seguridad.usuarios.cache-ttl:30s}") Duration ttl,
+			@Value("${app.seguridad.usuarios.cache-max-entradas:10000}") long maxEntradas) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxEntradas)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, NOMBRE_METRICA);
+		Gauge.builder("cache.ratio.aciertos", cache, c -> c.stats().hitRate())
+				.tag("cache", NOMBRE_METRICA)
+				.description("Proporcion de peticiones autenticadas resueltas sin consultar la BBDD")
+				.register(meterRegistry);
+	}
+
+	// Si cargar lanza UsernameNotFoundException no se guarda nada y la excepcion llega al filtro
+	public UserDetails obtener(String username, Function<String, UserDetails> cargar) {
+		return cache.get(username, cargar);
+	}
+
+	/* Se invalida al momento y otra vez tras el commit, para que una peticion concurrente que aun
+	 * leyo el usuario antiguo no lo deje en cache despues del cambio. */
+	public void invalidarUsuario(String email) {
+		if (email == null) {
+			return;
+		}
+		borrarEntradas(email);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					borrarEntradas(email);
+				}
+			});
+		}
+	}
+
+	double ratioAciertos() {
+		return cache.stats().hitRate();
+	}
+
+	// El subject del token es el email tal cual se guardo; se borra cualquier variante de mayusculas
+	private void borrarEntradas(String email) {
+		cache.asMap().keySet().removeIf(username -> username.equalsIgnoreCase(email));
+	}
+}
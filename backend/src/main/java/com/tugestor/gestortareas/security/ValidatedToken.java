@@ -0,0 +1,54 @@
+package com.tugestor.gestortareas.security;
+
+import java.util.Date;
+
+/* Resultado de verificar un JWT una sola vez: firma comprobada y claims ya leidos.
+ * Inmutable, se puede compartir entre peticiones desde la cache de tokens verificados. */
+public final class ValidatedToken {
+	private final String username;
+	private final String tokenType;
+	private final long expirationMillis;
+	private final Long idUsuario;
+	private final int versionToken;
+
+	ValidatedToken(String username, String tokenType, Date expiration, Long idUsuario, int versionToken) {
+		this.username = username;
+		this.tokenType = tokenType;
+		this.expirationMillis = expiration != null ? expiration.getTime() : Long.MAX_VALUE;
+		this.idUsuario = idUsuario;
+		this.versionToken = versionToken;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public String getTokenType() {
+		return tokenType;
+	}
+
+	// Null en tokens emitidos antes de incluir el id
+	public Long getIdUsuario() {
+		return idUsuario;
+	}
+
+	public int getVersionToken() {
+		return versionToken;
+	}
+
+	public Date getExpiration() {
+		return new Date(expirationMillis);
+	}
+
+	public boolean isAccessToken() {
+		return JwtService.ACCESS_TOKEN_TYPE.equals(tokenType);
+	}
+
+	public boolean isRefreshToken() {
+		return JwtService.REFRESH_TOKEN_TYPE.equals(tokenType);
+	}
+
+	boolean isExpired(long ahoraMillis) {
+		return expirationMillis < ahoraMillis;
+	}
+}
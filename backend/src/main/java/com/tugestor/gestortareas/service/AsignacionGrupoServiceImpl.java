@@ -31,6 +31,7 @@ import com.tugestor.gestortareas.repository.GrupoMiembroRepository;
 import com.tugestor.gestortareas.repository.GrupoRepository;
 import com.tugestor.gestortareas.repository.TareaRepository;
 import com.tugestor.gestortareas.repository.UsuarioRepository;
+import com.tugestor.gestortareas.security.AuthenticatedUser;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ValidationException;
@@ -44,10 +45,11 @@ public class AsignacionGrupoServiceImpl implements AsignacionGrupoService {
 	private final TareaRepository tr;
 	private final UsuarioRepository ur;
 	private final NotificacionService ns;
+	private final RecomendacionesCache recomendacionesCache;
 
 	public AsignacionGrupoServiceImpl(AsignacionGrupoRepository agr, AsignacionGrupoMiembroRepository agmr,
 			GrupoRepository gr, GrupoMiembroRepository gmr, TareaRepository tr, UsuarioRepository ur,
-			NotificacionService ns) {
+			NotificacionService ns, RecomendacionesCache recomendacionesCache) {
 		this.agr = agr;
 		this.agmr = agmr;
 		this.gr = gr;
@@ -55,6 +57,7 @@ public class AsignacionGrupoServiceImpl implements AsignacionGrupoService {
 		this.tr = tr;
 		this.ur = ur;
 		this.ns = ns;
+		this.recomendacionesCache = recomendacionesCache;
 	}
 
 	@Transactional
@@ -99,6 +102,7 @@ public class AsignacionGrupoServiceImpl implements AsignacionGrupoService {
 			asignacionMiembro.setFechaEntregaActual(asignacionGrupoRequest.getFechaEntrega());
 			AsignacionGrupoMiembro miembroGuardado = agmr.save(asignacionMiembro);
 			ns.crearDesdeAsignacionGrupo(miembroGuardado);
+			recomendacionesCache.invalidarUsuario(destinatario.getEmail());
 			miembrosAsignados.add(miembroGuardado);
 		}
 
@@ -141,6 +145,7 @@ public class AsignacionGrupoServiceImpl implements AsignacionGrupoService {
 		asignacionMiembro.setComentarioRevision(normalizarComentario(
 				revisionRequest != null ? revisionRequest.getComentarioRevision() : null));
 		asignacionMiembro.setFechaRevision(LocalDateTime.now());
+		recomendacionesCache.invalidarUsuario(asignacionMiembro.getUsuarioMiembro().getEmail());
 		return new AsignacionGrupoMiembroResponse(agmr.save(asignacionMiembro));
 	}
 
@@ -164,6 +169,7 @@ public class AsignacionGrupoServiceImpl implements AsignacionGrupoService {
 		asignacionMiembro.setEstadoRevision(EstadoRevisionAsignacion.REABIERTA);
 		asignacionMiembro.setComentarioRevision(reopenRequest.getComentarioRevision().trim());
 		asignacionMiembro.setFechaRevision(LocalDateTime.now());
+		recomendacionesCache.invalidarUsuario(asignacionMiembro.getUsuarioMiembro().getEmail());
 		return new AsignacionGrupoMiembroResponse(agmr.save(asignacionMiembro));
 	}
 
@@ -237,8 +243,10 @@ public class AsignacionGrupoServiceImpl implements AsignacionGrupoService {
 	}
 
 	private Usuario obtenerUsuarioPorEmail(String emailUsuario) {
-		return ur.findByEmailIgnoreCase(emailUsuario)
-				.orElseThrow(() -> new EntityNotFoundException("Usuario autenticado no encontrado."));
+		return AuthenticatedUser.idUsuarioSiEs(emailUsuario)
+				.map(ur::getReferenceById)
+				.orElseGet(() -> ur.findByEmailIgnoreCase(emailUsuario)
+						.orElseThrow(() -> new EntityNotFoundException("Usuario autenticado no encontrado.")));
 	}
 
 	private AsignacionGrupo obtenerAsignacionDelGrupo(Long idAsignacion, Grupo grupo) {
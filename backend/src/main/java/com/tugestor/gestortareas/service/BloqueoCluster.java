@@ -0,0 +1,98 @@
+package com.tugestor.gestortareas.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tugestor.gestortareas.model.BloqueoProgramado;
+import com.tugestor.gestortareas.repository.BloqueoProgramadoRepository;
+
+/* Exclusion entre instancias para tareas programadas con una tabla de leases (bloqueo_programado) en vez de
+ * pg_try_advisory_lock: el advisory lock de sesion va atado a una conexion del pool y no existe en H2 ni
+ * MariaDB, mientras que un UPDATE condicional funciona igual en todas. Mientras corre, el lease dura como
+ * mucho 'bloqueoMaximo' (si la instancia cae a mitad, otra retoma la tarea al expirar). Al terminar bien se
+ * queda hasta el final del periodo de la tarea, contado desde que se adquirio: las demas instancias que
+ * lleguen en ese mismo ciclo la saltan en vez de repetirla. Si la tarea falla se suelta en el acto para que
+ * otra la reintente. Las horas salen del reloj de cada instancia, asi que el desfase entre relojes acorta
+ * el periodo en lo que se desvien. Adquirir y soltar van en transacciones propias y cortas, fuera de la de
+ * la tarea. */
+@Component
+public class BloqueoCluster {
+	private final BloqueoProgramadoRepository bpr;
+	private final TransactionTemplate transaccion;
+	private final Clock clock;
+	private final Duration bloqueoMaximo;
+	private final String propietario;
+
+	public BloqueoCluster(BloqueoProgramadoRepository bpr, PlatformTransactionManager transactionManager, Clock clock,
+			@Value("${app.cluster.bloqueo-maximo:5m}") Duration bloqueoMaximo) {
+		this.bpr = bpr;
+		this.transaccion = new TransactionTemplate(transactionManager);
+		this.transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.clock = clock;
+		this.bloqueoMaximo = bloqueoMaximo;
+		this.propietario = nombreHost() + ":" + UUID.randomUUID();
+	}
+
+	// Ejecuta 'tarea' si esta instancia consigue el lease 'nombre'; vacio si lo tiene otra o ya corrio este periodo
+	public <T> Optional<T> ejecutar(String nombre, Duration periodo, Supplier<T> tarea) {
+		LocalDateTime inicio = LocalDateTime.now(clock);
+		if (!adquirir(nombre, inicio)) {
+			return Optional.empty();
+		}
+		boolean completada = false;
+		try {
+			T resultado = tarea.get();
+			completada = true;
+			return Optional.ofNullable(resultado);
+		} finally {
+			LocalDateTime libreDesde = completada ? inicio.plus(periodo) : LocalDateTime.now(clock);
+			transaccion.executeWithoutResult(estado -> bpr.liberarEn(nombre, propietario, libreDesde));
+		}
+	}
+
+	String getPropietario() {
+		return propietario;
+	}
+
+	private boolean adquirir(String nombre, LocalDateTime ahora) {
+		LocalDateTime hasta = ahora.plus(bloqueoMaximo);
+		Integer adquiridos = transaccion.execute(estado -> bpr.adquirir(nombre, propietario, ahora, hasta));
+		if (adquiridos != null && adquiridos > 0) {
+			return true;
+		}
+		// Primera ejecucion de esta tarea: la fila todavia no existe
+		try {
+			return Boolean.TRUE.equals(transaccion.execute(estado -> {
+				if (bpr.existsById(nombre)) {
+					return false;
+				}
+				bpr.saveAndFlush(new BloqueoProgramado(nombre, propietario, ahora, hasta));
+				return true;
+			}));
+		} catch (DataIntegrityViolationException ex) {
+			// Otra instancia la ha creado a la vez y el lease es suyo
+			return false;
+		}
+	}
+
+	private static String nombreHost() {
+		try {
+			return InetAddress.getLocalHost().getHostName();
+		} catch (UnknownHostException ex) {
+			return "desconocido";
+		}
+	}
+}
@@ -17,6 +17,7 @@ import com.tugestor.gestortareas.model.Usuario;
 import com.tugestor.gestortareas.repository.CategoriaRepository;
 import com.tugestor.gestortareas.repository.TareaRepository;
 import com.tugestor.gestortareas.repository.UsuarioRepository;
+import com.tugestor.gestortareas.security.AuthenticatedUser;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -26,17 +27,25 @@ public class CategoriaServiceImpl implements CategoriaService {
 	private final CategoriaRepository cr;
 	private final TareaRepository tr;
 	private final UsuarioRepository ur;
-	public CategoriaServiceImpl(CategoriaRepository cr, TareaRepository tr, UsuarioRepository ur) {
+	private final RecomendacionesCache recomendacionesCache;
+	public CategoriaServiceImpl(CategoriaRepository cr, TareaRepository tr, UsuarioRepository ur,
+			RecomendacionesCache recomendacionesCache) {
 		this.cr = cr;
 		this.tr = tr;
 		this.ur = ur;
+		this.recomendacionesCache = recomendacionesCache;
 	}
 
 	private Usuario getUsuarioActual() {	//Metodo helper para el resto
-		//Obtengo el email del usuario autenticado desde Spring Security (SecurityContext > Authentication > username)
-		String email = SecurityContextHolder.getContext().getAuthentication().getName();
-		return ur.findByEmailIgnoreCase(email)
-				.orElseThrow(() -> new EntityNotFoundException("Usuario autenticado no encontrado."));
+		// Si el principal viene del JWT ya tengo el id y me vale una referencia sin consulta
+		return AuthenticatedUser.actual()
+				.map(usuario -> ur.getReferenceById(usuario.getIdUsuario()))
+				.orElseGet(() -> {
+					//Obtengo el email del usuario autenticado desde Spring Security (SecurityContext > Authentication > username)
+					String email = SecurityContextHolder.getContext().getAuthentication().getName();
+					return ur.findByEmailIgnoreCase(email)
+							.orElseThrow(() -> new EntityNotFoundException("Usuario autenticado no encontrado."));
+				});
 	}
 	
 	@Deprecated(since="2.0", forRemoval=false)
@@ -71,6 +80,9 @@ public class CategoriaServiceImpl implements CategoriaService {
 			tarea.setCategoria(null);
 			tr.save(tarea);
 		}
+		// Las recomendaciones cacheadas aun llevan la categoria en esas tareas. El nombre de la
+		// autenticacion es el email en los dos caminos de getUsuarioActual y no obliga a cargar el proxy
+		recomendacionesCache.invalidarUsuario(SecurityContextHolder.getContext().getAuthentication().getName());
 
 		cr.delete(categoria);
 	}
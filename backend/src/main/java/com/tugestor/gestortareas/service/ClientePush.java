@@ -0,0 +1,180 @@
+package com.tugestor.gestortareas.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Security;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bouncycastle.jce.interfaces.ECPublicKey;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.jose4j.jws.AlgorithmIdentifiers;
+import org.jose4j.jws.JsonWebSignature;
+import org.jose4j.jwt.JwtClaims;
+import org.jose4j.jwt.NumericDate;
+import org.jose4j.lang.JoseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.tugestor.gestortareas.config.WebPushProperties;
+
+import nl.martijndwars.webpush.AbstractPushService;
+import nl.martijndwars.webpush.Base64Encoder;
+import nl.martijndwars.webpush.Encoding;
+import nl.martijndwars.webpush.Encrypted;
+import nl.martijndwars.webpush.Notification;
+import nl.martijndwars.webpush.Utils;
+
+/* Cliente Web Push reutilizable. PushService de la libreria comprueba el par de claves VAPID y firma un JWT
+ * ES256 en cada envio, y abre un cliente HTTP nuevo (y su conexion TLS) por notificacion. Aqui:
+ * - las claves VAPID se decodifican y se comprueban una sola vez (preparar);
+ * - un unico HttpClient del JDK mantiene conexiones keep-alive por origen (fcm.googleapis.com,
+ *   updates.push.services.mozilla.com...) y con HTTP/2 multiplexa los envios del lote sobre ellas;
+ * - el JWT VAPID se firma una vez por audiencia (el origen del endpoint) y se reutiliza hasta
+ *   'vapidRenovacion' antes de su caducidad.
+ * El cifrado del mensaje sigue siendo por subscripcion y usa la misma codificacion (aesgcm) y cabeceras que
+ * PushService.send, asi que los servicios push reciben lo mismo que antes. */
+@Component
+public class ClientePush {
+	private static final Logger logger = LoggerFactory.getLogger(ClientePush.class);
+
+	private final WebPushProperties properties;
+	private final Clock clock;
+	private final HttpClient http;
+	private final Map<String, CabeceraVapid> cabecerasVapid = new ConcurrentHashMap<>();
+	private volatile ClavesVapid claves;
+
+	public ClientePush(WebPushProperties properties, Clock clock) {
+		this.properties = properties;
+		this.clock = clock;
+		this.http = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_2)
+				.connectTimeout(properties.getTimeoutConexion())
+				.followRedirects(HttpClient.Redirect.NEVER)
+				.build();
+	}
+
+	// Devuelve el motivo si las claves VAPID no sirven; null si el cliente esta listo para enviar
+	public String preparar() {
+		if (claves != null) {
+			return null;
+		}
+		if (!tieneTexto(properties.getVapidPublicKey()) || !tieneTexto(properties.getVapidPrivateKey())
+				|| !tieneTexto(properties.getVapidSubject())) {
+			logger.error("Web Push esta habilitado, pero faltan claves VAPID o subject.");
+			return "Configuracion Web Push incompleta.";
+		}
+		try {
+			if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+				Security.addProvider(new BouncyCastleProvider());
+			}
+			PublicKey publica = Utils.loadPublicKey(properties.getVapidPublicKey().trim());
+			PrivateKey privada = Utils.loadPrivateKey(properties.getVapidPrivateKey().trim());
+			if (!Utils.verifyKeyPair(privada, publica)) {
+				logger.error("Las claves VAPID publica y privada no forman pareja.");
+				return "No se pudo inicializar Web Push.";
+			}
+			claves = new ClavesVapid(privada,
+					Base64Encoder.encodeUrlWithoutPadding(Utils.encode((ECPublicKey) publica)),
+					properties.getVapidSubject().trim());
+			return null;
+		} catch (LinkageError error) {
+			logger.error("No se pudo inicializar Web Push por un problema de dependencias: {}",
+					error.getClass().getSimpleName());
+		} catch (Exception ex) {
+			logger.error("No se pudo inicializar Web Push con la configuracion VAPID.", ex);
+		}
+		return "No se pudo inicializar Web Push.";
+	}
+
+	// Cifra y envia un mensaje a una subscripcion; devuelve el estado HTTP del servicio push
+	public int enviar(String endpoint, String p256dh, String auth, String payload)
+			throws GeneralSecurityException, JoseException, IOException, InterruptedException {
+		ClavesVapid vapid = claves;
+		if (vapid == null) {
+			throw new IllegalStateException("ClientePush.preparar() no se ha completado");
+		}
+		Notification notificacion = new Notification(endpoint, p256dh, auth,
+				payload.getBytes(StandardCharsets.UTF_8), (int) properties.getTtl().toSeconds());
+		Encrypted cifrado = AbstractPushService.encrypt(notificacion.getPayload(),
+				notificacion.getUserPublicKey(), notificacion.getUserAuth(), Encoding.AESGCM);
+		byte[] dh = Utils.encode((ECPublicKey) cifrado.getPublicKey());
+
+		HttpRequest peticion = HttpRequest.newBuilder(URI.create(endpoint))
+				.timeout(properties.getTimeoutRespuesta())
+				.header("TTL", String.valueOf(notificacion.getTTL()))
+				.header("Content-Type", "application/octet-stream")
+				.header("Content-Encoding", "aesgcm")
+				.header("Encryption", "salt=" + Base64Encoder.encodeUrlWithoutPadding(cifrado.getSalt()))
+				.header("Crypto-Key", "dh=" + Base64Encoder.encodeUrl(dh) + ";p256ecdsa=" + vapid.clavePublica)
+				.header("Authorization", "WebPush " + cabeceraVapid(vapid, notificacion.getOrigin()))
+				.POST(HttpRequest.BodyPublishers.ofByteArray(cifrado.getCiphertext()))
+				.build();
+		return http.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+
+	// JWT VAPID firmado para 'audiencia'; se vuelve a firmar al entrar en el margen de renovacion
+	private String cabeceraVapid(ClavesVapid vapid, String audiencia) throws JoseException {
+		Instant ahora = clock.instant();
+		CabeceraVapid actual = cabecerasVapid.get(audiencia);
+		if (actual != null && ahora.isBefore(actual.renovarEn)) {
+			return actual.jwt;
+		}
+		// Varios hilos pueden llegar aqui a la vez al caducar: firmar dos veces es inocuo y no bloquea a nadie
+		Instant caducidad = ahora.plus(properties.getVapidValidez());
+		CabeceraVapid nueva = new CabeceraVapid(firmar(vapid, audiencia, caducidad),
+				caducidad.minus(properties.getVapidRenovacion()));
+		cabecerasVapid.put(audiencia, nueva);
+		return nueva.jwt;
+	}
+
+	private static String firmar(ClavesVapid vapid, String audiencia, Instant caducidad) throws JoseException {
+		JwtClaims claims = new JwtClaims();
+		claims.setAudience(audiencia);
+		claims.setExpirationTime(NumericDate.fromMilliseconds(caducidad.toEpochMilli()));
+		claims.setSubject(vapid.subject);
+
+		JsonWebSignature jws = new JsonWebSignature();
+		jws.setHeader("typ", "JWT");
+		jws.setPayload(claims.toJson());
+		jws.setKey(vapid.clavePrivada);
+		jws.setAlgorithmHeaderValue(AlgorithmIdentifiers.ECDSA_USING_P256_CURVE_AND_SHA256);
+		return jws.getCompactSerialization();
+	}
+
+	private static boolean tieneTexto(String valor) {
+		return valor != null && !valor.isBlank();
+	}
+
+	private static final class ClavesVapid {
+		private final PrivateKey clavePrivada;
+		private final String clavePublica;
+		private final String subject;
+
+		private ClavesVapid(PrivateKey clavePrivada, String clavePublica, String subject) {
+			this.clavePrivada = clavePrivada;
+			this.clavePublica = clavePublica;
+			this.subject = subject;
+		}
+	}
+
+	private static final class CabeceraVapid {
+		private final String jwt;
+		private final Instant renovarEn;
+
+		private CabeceraVapid(String jwt, Instant renovarEn) {
+			this.jwt = jwt;
+			this.renovarEn = renovarEn;
+		}
+	}
+}
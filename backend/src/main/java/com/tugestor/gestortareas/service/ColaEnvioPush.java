@@ -0,0 +1,94 @@
+package com.tugestor.gestortareas.service;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/* Consumidores de la bandeja de salida Web Push (tabla envio_push). avisar() se llama tras el commit de
+ * una notificacion y nunca bloquea: solo despierta a un consumidor para que el envio salga enseguida.
+ * Aunque no llegue ningun aviso, cada consumidor revisa la tabla cada 'intervalo', que es lo que recoge
+ * reintentos, envios de otra instancia que cayo y lo que quedo pendiente tras un reinicio. Los consumidores
+ * reclaman lotes de 'lote' envios hasta vaciar lo vencido. */
+@Component
+public class ColaEnvioPush implements DisposableBean {
+	private static final Logger logger = LoggerFactory.getLogger(ColaEnvioPush.class);
+
+	private final WebPushService webPushService;
+	private final Semaphore avisos = new Semaphore(0);
+	private final int hilos;
+	private final int tamanioLote;
+	private final long intervaloNanos;
+	private final ExecutorService consumidores;
+	private volatile boolean activa = true;
+
+	public ColaEnvioPush(WebPushService webPushService,
+			@Value("${app.webpush.cola.hilos:2}") int hilos,
+			@Value("${app.webpush.cola.lote:50}") int tamanioLote,
+			@Value("${app.webpush.cola.intervalo:15s}") Duration intervalo) {
+		if (hilos < 1 || tamanioLote < 1) {
+			throw new IllegalArgumentException("La cola Web Push necesita hilos y lote de al menos 1");
+		}
+		this.webPushService = webPushService;
+		this.hilos = hilos;
+		this.tamanioLote = tamanioLote;
+		this.intervaloNanos = intervalo.toNanos();
+		AtomicInteger secuencia = new AtomicInteger();
+		this.consumidores = Executors.newFixedThreadPool(hilos, tarea -> {
+			Thread hilo = new Thread(tarea, "envio-push-" + secuencia.incrementAndGet());
+			hilo.setDaemon(true);
+			return hilo;
+		});
+	}
+
+	@PostConstruct
+	void iniciar() {
+		for (int i = 0; i < hilos; i++) {
+			consumidores.execute(this::consumir);
+		}
+	}
+
+	// Como mucho un aviso pendiente por consumidor: mas no adelantan nada, el lote ya recoge todo lo vencido
+	public void avisar() {
+		if (avisos.availablePermits() < hilos) {
+			avisos.release();
+		}
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		activa = false;
+		consumidores.shutdownNow();
+		consumidores.awaitTermination(5, TimeUnit.SECONDS);
+	}
+
+	private void consumir() {
+		while (activa) {
+			try {
+				avisos.tryAcquire(intervaloNanos, TimeUnit.NANOSECONDS);
+				int procesados;
+				do {
+					procesados = webPushService.procesarPendientes(tamanioLote);
+				} while (activa && procesados >= tamanioLote);	// Lote completo: puede quedar mas vencido
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (LinkageError error) {
+				logger.error("Web Push no se pudo completar por un problema de dependencias: {}",
+						error.getClass().getSimpleName());
+			} catch (RuntimeException ex) {
+				logger.error("Web Push no se pudo completar para un lote pendiente: {}", ex.getClass().getSimpleName());
+			}
+		}
+	}
+}
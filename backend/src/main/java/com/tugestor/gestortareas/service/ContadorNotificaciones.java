@@ -0,0 +1,109 @@
+package com.tugestor.gestortareas.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tugestor.gestortareas.dto.NotificacionesActivasUsuario;
+import com.tugestor.gestortareas.repository.NotificacionRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/* Notificaciones sin cerrar por usuario en memoria, para que el contador del badge no haga un COUNT por
+ * peticion. Cada usuario tiene un LongAdder que se siembra con un COUNT la primera vez que se pide y desde
+ * ahi se mantiene con los eventos de alta (NotificacionCreadaEvent) y cierre (NotificacionesCerradasEvent)
+ * tras el commit, asi que un rollback no lo toca. Solo se mantienen los usuarios ya sembrados: el alta de
+ * otro usuario no hace nada porque su siembra ya la contara. Un usuario que no pide su contador en
+ * 'inactividad' sale de memoria; si vuelve, se siembra de nuevo.
+ * El COUNT de la siembra va fuera del mapa y despues se registra con putIfAbsent: dentro de
+ * computeIfAbsent la consulta se haria con el lock del bin tomado, bloqueando a otros usuarios del mismo
+ * bin y fijando el hilo portador si la peticion corre en un hilo virtual.
+ * Puede desviarse (un alta entre la siembra y su registro, altas o cierres en otra instancia, borrados de
+ * usuarios o tareas), por eso reconciliar() vuelve a contar a los usuarios en memoria cada
+ * 'reconciliacion-ms' con una consulta agrupada por bloques. Los eventos y la reconciliacion leen la
+ * entrada sin contar como acceso, asi que no mantienen en memoria a quien ya no mira el contador. */
+@Component
+public class ContadorNotificaciones {
+	private static final int USUARIOS_POR_CONSULTA = 500;
+
+	private final NotificacionRepository nr;
+	private final Cache<Long, LongAdder> activasPorUsuario;
+
+	public ContadorNotificaciones(NotificacionRepository nr, MeterRegistry meterRegistry,
+			@Value("${app.notificaciones.contador.inactividad:30m}") Duration inactividad) {
+		this.nr = nr;
+		this.activasPorUsuario = Caffeine.newBuilder()
+				.expireAfterAccess(inactividad)
+				.build();
+		Gauge.builder("notificaciones.contador.usuarios", activasPorUsuario, Cache::estimatedSize)
+				.description("Usuarios con contador de notificaciones activas en memoria")
+				.register(meterRegistry);
+	}
+
+	public long contar(Long idUsuario) {
+		LongAdder activas = activasPorUsuario.getIfPresent(idUsuario);
+		if (activas == null) {
+			LongAdder sembrado = adder(nr.countByUsuario_IdUsuarioAndCerradaFalse(idUsuario));
+			// Si otra peticion lo ha sembrado a la vez gana la primera y esta siembra se descarta
+			LongAdder anterior = activasPorUsuario.asMap().putIfAbsent(idUsuario, sembrado);
+			activas = anterior != null ? anterior : sembrado;
+		}
+		return Math.max(0, activas.sum());
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void sumarTrasCommit(NotificacionCreadaEvent event) {
+		LongAdder activas = activasPorUsuario.policy().getIfPresentQuietly(event.getIdUsuario());
+		if (activas != null) {
+			activas.increment();
+		}
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void restarTrasCommit(NotificacionesCerradasEvent event) {
+		LongAdder activas = activasPorUsuario.policy().getIfPresentQuietly(event.getIdUsuario());
+		if (activas != null) {
+			activas.add(-event.getCantidad());
+		}
+	}
+
+	@Scheduled(
+			initialDelayString = "${app.notificaciones.contador.reconciliacion-ms:60000}",
+			fixedDelayString = "${app.notificaciones.contador.reconciliacion-ms:60000}"
+	)
+	public void reconciliar() {
+		List<Long> usuarios = new ArrayList<>(activasPorUsuario.asMap().keySet());
+		for (int desde = 0; desde < usuarios.size(); desde += USUARIOS_POR_CONSULTA) {
+			List<Long> bloque = usuarios.subList(desde, Math.min(desde + USUARIOS_POR_CONSULTA, usuarios.size()));
+			Map<Long, Long> activas = nr.contarActivasPorUsuarios(bloque).stream()
+					.collect(Collectors.toMap(NotificacionesActivasUsuario::getIdUsuario,
+							NotificacionesActivasUsuario::getActivas));
+			/* Se ajusta con la diferencia en vez de reemplazar la entrada: reemplazarla contaria como acceso y
+			 * nadie caducaria. Un evento entre sum() y add() deja una desviacion de uno hasta la siguiente pasada. */
+			for (Long idUsuario : bloque) {
+				LongAdder actual = activasPorUsuario.policy().getIfPresentQuietly(idUsuario);
+				if (actual != null) {
+					actual.add(activas.getOrDefault(idUsuario, 0L) - actual.sum());
+				}
+			}
+		}
+	}
+
+	private static LongAdder adder(long valor) {
+		LongAdder adder = new LongAdder();
+		adder.add(valor);
+		return adder;
+	}
+}
@@ -0,0 +1,101 @@
+package com.tugestor.gestortareas.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.tugestor.gestortareas.model.OrdenPaginaTarea;
+import com.tugestor.gestortareas.model.Prioridad;
+import com.tugestor.gestortareas.model.Tarea;
+
+import jakarta.validation.ValidationException;
+
+/* Cursor opaco para la paginacion por keyset. Guarda el orden, el id de la ultima tarea devuelta
+ * y el valor de la clave de orden de esa tarea. Se serializa como "ORDEN:id:valor" en Base64 URL,
+ * con el valor al final para que un titulo con ':' no rompa el formato. */
+final class CursorPaginaTarea {
+	private static final String SEPARADOR = ":";
+	private static final String MENSAJE_CURSOR_INVALIDO = "El cursor de paginacion no es valido.";
+
+	private final OrdenPaginaTarea orden;
+	private final Long idTarea;
+	private final String valor;
+
+	private CursorPaginaTarea(OrdenPaginaTarea orden, Long idTarea, String valor) {
+		this.orden = orden;
+		this.idTarea = idTarea;
+		this.valor = valor;
+	}
+
+	static CursorPaginaTarea desde(OrdenPaginaTarea orden, Tarea ultima) {
+		String valor = switch (orden) {
+		case ID -> "";
+		case TITULO -> ultima.getTitulo();
+		case TIEMPO -> String.valueOf(ultima.getTiempo());
+		case PRIORIDAD -> ultima.getPrioridad().name();
+		case FECHA_ENTREGA -> ultima.getFechaEntrega() != null ? ultima.getFechaEntrega().toString() : "";
+		};
+		return new CursorPaginaTarea(orden, ultima.getIdTarea(), valor);
+	}
+
+	static CursorPaginaTarea decodificar(String token, OrdenPaginaTarea ordenEsperado) {
+		if (token == null || token.isBlank()) {
+			return null;
+		}
+		String[] partes;
+		try {
+			String texto = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+			partes = texto.split(SEPARADOR, 3);
+		} catch (IllegalArgumentException ex) {
+			throw new ValidationException(MENSAJE_CURSOR_INVALIDO);
+		}
+		if (partes.length != 3 || !ordenEsperado.name().equals(partes[0])) {
+			throw new ValidationException(MENSAJE_CURSOR_INVALIDO);
+		}
+		CursorPaginaTarea cursor;
+		try {
+			cursor = new CursorPaginaTarea(ordenEsperado, Long.valueOf(partes[1]), partes[2]);
+			cursor.validarValor();
+		} catch (IllegalArgumentException | DateTimeParseException ex) {
+			throw new ValidationException(MENSAJE_CURSOR_INVALIDO);
+		}
+		return cursor;
+	}
+
+	String codificar() {
+		String texto = orden.name() + SEPARADOR + idTarea + SEPARADOR + valor;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+	}
+
+	Long getIdTarea() {
+		return idTarea;
+	}
+
+	String getTitulo() {
+		return valor;
+	}
+
+	int getTiempo() {
+		return Integer.parseInt(valor);
+	}
+
+	Prioridad getPrioridad() {
+		return Prioridad.valueOf(valor);
+	}
+
+	// null indica que la ultima tarea devuelta ya estaba en el tramo de tareas sin fecha de entrega
+	LocalDateTime getFechaEntrega() {
+		return valor.isEmpty() ? null : LocalDateTime.parse(valor);
+	}
+
+	private void validarValor() {
+		switch (orden) {
+		case TIEMPO -> getTiempo();
+		case PRIORIDAD -> getPrioridad();
+		case FECHA_ENTREGA -> getFechaEntrega();
+		default -> {
+		}
+		}
+	}
+}
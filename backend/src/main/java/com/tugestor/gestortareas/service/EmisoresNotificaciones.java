@@ -0,0 +1,283 @@
+package com.tugestor.gestortareas.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.tugestor.gestortareas.dto.NotificacionCountResponse;
+import com.tugestor.gestortareas.dto.NotificacionResponse;
+import com.tugestor.gestortareas.model.Notificacion;
+import com.tugestor.gestortareas.repository.NotificacionRepository;
+import com.tugestor.gestortareas.repository.UsuarioRepository;
+import com.tugestor.gestortareas.security.AuthenticatedUser;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+
+/* Stream SSE de notificaciones (GET /api/notificaciones/stream) para no sondear /count y el listado.
+ * Cada conexion es un SseEmitter asincrono: mientras esta ociosa no ocupa hilo ni conexion de BD. Al
+ * conectar se manda el contador (o, con Last-Event-ID, las notificaciones creadas despues de ese id) y
+ * luego cada notificacion nueva, con su id como id del evento. Llegan por dos caminos:
+ * - Tras el commit de NotificacionCreadaEvent en esta instancia, al momento. Solo se consulta la BD si el
+ *   destinatario tiene emisores abiertos aqui.
+ * - En cada latido, una consulta agrupada por los usuarios conectados a esta instancia trae lo activo con id
+ *   mayor que lo ya revisado de cada conexion. Asi lo creado en otra instancia (avisos de 24h y recordatorios
+ *   los genera la que tenga el lease o la fila) llega en como mucho un 'latido'.
+ * Cada conexion recuerda los ids enviados para no repetir lo que llega por los dos caminos. Su marca de
+ * revisado sigue al id mas alto de toda la tabla leido antes de cada sondeo, no solo a lo que ha recibido: asi
+ * una conexion sin notificaciones no deja el 'desde' de la consulta en el id con el que se abrio. La marca va
+ * un latido por detras: una notificacion con id menor que confirma un poco despues que otra de id mayor
+ * todavia la recoge el siguiente sondeo.
+ * Los envios van en applicationTaskExecutor (hilos virtuales con spring.threads.virtual.enabled) para no
+ * retrasar al hilo que hizo el commit ni al del latido. El latido tambien manda un comentario para que
+ * proxies y balanceadores no corten las conexiones ociosas. */
+@Component
+public class EmisoresNotificaciones implements DisposableBean {
+	private static final Logger logger = LoggerFactory.getLogger(EmisoresNotificaciones.class);
+	static final String EVENTO_NOTIFICACION = "notificacion";
+	static final String EVENTO_CONTADOR = "contador";
+	private static final int USUARIOS_POR_CONSULTA = 500;
+
+	private final NotificacionRepository nr;
+	private final UsuarioRepository ur;
+	private final ContadorNotificaciones contadorNotificaciones;
+	private final Executor envios;
+	private final long timeoutMillis;
+	private final long latidoMillis;
+	private final Map<Long, Set<Conexion>> conexionesPorUsuario = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService latidos;
+
+	public EmisoresNotificaciones(NotificacionRepository nr, UsuarioRepository ur,
+			ContadorNotificaciones contadorNotificaciones, @Qualifier("applicationTaskExecutor") Executor envios, MeterRegistry meterRegistry,
+			@Value("${app.notificaciones.sse.timeout:30m}") Duration timeout,
+			@Value("${app.notificaciones.sse.latido:25s}") Duration latido) {
+		if (latido.toMillis() < 1) {
+			throw new IllegalArgumentException("El latido SSE debe ser de al menos 1 ms");
+		}
+		this.nr = nr;
+		this.ur = ur;
+		this.contadorNotificaciones = contadorNotificaciones;
+		this.envios = envios;
+		this.timeoutMillis = timeout.toMillis();
+		this.latidoMillis = latido.toMillis();
+		this.latidos = Executors.newSingleThreadScheduledExecutor(tarea -> {
+			Thread hilo = new Thread(tarea, "notificaciones-sse-latido");
+			hilo.setDaemon(true);
+			return hilo;
+		});
+		Gauge.builder("notificaciones.sse.conexiones", this, EmisoresNotificaciones::conexiones)
+				.description("Streams SSE de notificaciones abiertos en esta instancia")
+				.register(meterRegistry);
+	}
+
+	@PostConstruct
+	void iniciar() {
+		latidos.scheduleAtFixedRate(this::latir, latidoMillis, latidoMillis, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		latidos.shutdownNow();
+		latidos.awaitTermination(5, TimeUnit.SECONDS);
+		conexionesPorUsuario.values().forEach(conexiones -> conexiones.forEach(conexion -> conexion.emisor.complete()));
+		conexionesPorUsuario.clear();
+	}
+
+	public SseEmitter suscribir(String emailUsuario, Long ultimoIdRecibido) {
+		Long idUsuario = AuthenticatedUser.idUsuarioSiEs(emailUsuario)
+				.orElseGet(() -> ur.findByEmail(emailUsuario)
+						.orElseThrow(() -> new EntityNotFoundException("Usuario autenticado no encontrado."))
+						.getIdUsuario());
+		SseEmitter emisor = new SseEmitter(timeoutMillis);
+		// Una conexion nueva solo recibe lo posterior a la ultima notificacion que ya existe, sea de quien sea
+		Conexion conexion = new Conexion(emisor,
+				ultimoIdRecibido != null ? ultimoIdRecibido : nr.findUltimoIdNotificacion());
+		// Dentro de compute para no anadirla a un conjunto que quitar() acaba de descartar por vacio
+		conexionesPorUsuario.compute(idUsuario, (id, conexiones) -> {
+			Set<Conexion> conjunto = conexiones != null ? conexiones : new CopyOnWriteArraySet<>();
+			conjunto.add(conexion);
+			return conjunto;
+		});
+		emisor.onCompletion(() -> quitar(idUsuario, conexion));
+		emisor.onTimeout(emisor::complete);
+		emisor.onError(error -> quitar(idUsuario, conexion));
+		// Lo anterior a la conexion: lo que falto desde el ultimo evento o, si es nueva, el contador
+		if (ultimoIdRecibido != null) {
+			nr.findByUsuario_IdUsuarioAndCerradaFalseAndIdNotificacionGreaterThanOrderByIdNotificacionAsc(
+					idUsuario, ultimoIdRecibido).forEach(notificacion -> enviar(idUsuario, conexion, notificacion));
+		} else {
+			enviar(idUsuario, conexion, SseEmitter.event().name(EVENTO_CONTADOR)
+					.data(new NotificacionCountResponse(contadorNotificaciones.contar(idUsuario))));
+		}
+		return emisor;
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void publicarTrasCommit(NotificacionCreadaEvent event) {
+		Set<Conexion> conexiones = conexionesPorUsuario.get(event.getIdUsuario());
+		if (conexiones == null || conexiones.isEmpty()) {
+			return;
+		}
+		envios.execute(() -> nr.findById(event.getIdNotificacion()).ifPresent(
+				notificacion -> conexiones.forEach(conexion -> enviar(event.getIdUsuario(), conexion, notificacion))));
+	}
+
+	int conexiones() {
+		return conexionesPorUsuario.values().stream().mapToInt(Set::size).sum();
+	}
+
+	private void latir() {
+		if (!conexionesPorUsuario.isEmpty()) {
+			envios.execute(this::sondearYLatir);
+		}
+	}
+
+	/* Se fotografian las conexiones antes de consultar: solo a esas se les avanza la marca de revisado,
+	 * porque solo para ellas cubre la consulta todo lo posterior a su marca. Avanza en todas, hayan recibido
+	 * algo o no, porque para todos sus usuarios la consulta llega hasta la marca global. Si la consulta
+	 * falla se manda el latido igualmente y la marca no se mueve. */
+	void sondearYLatir() {
+		Map<Long, List<Conexion>> conectadas = new HashMap<>();
+		conexionesPorUsuario.forEach((idUsuario, conexiones) -> conectadas.put(idUsuario, List.copyOf(conexiones)));
+		Optional<Sondeo> sondeo;
+		try {
+			sondeo = Optional.of(buscarNuevas(conectadas));
+		} catch (RuntimeException ex) {
+			logger.warn("No se pudieron sondear las notificaciones nuevas para los streams SSE.", ex);
+			sondeo = Optional.empty();
+		}
+		Optional<Sondeo> resultado = sondeo;
+		conectadas.forEach((idUsuario, conexiones) -> envios.execute(() -> conexiones.forEach(conexion -> {
+			resultado.ifPresent(nuevas -> {
+				nuevas.porUsuario.getOrDefault(idUsuario, List.of())
+						.forEach(notificacion -> enviar(idUsuario, conexion, notificacion));
+				conexion.avanzarRevisado(nuevas.cubiertoHasta);
+			});
+			enviar(idUsuario, conexion, SseEmitter.event().comment("latido"));
+		})));
+	}
+
+	// La marca global se lee antes de la consulta: lo confirmado hasta ella lo trae la consulta
+	private Sondeo buscarNuevas(Map<Long, List<Conexion>> conectadas) {
+		long cubiertoHasta = nr.findUltimoIdNotificacion();
+		List<Long> usuarios = new ArrayList<>(conectadas.keySet());
+		long desde = conectadas.values().stream()
+				.flatMap(List::stream)
+				.mapToLong(Conexion::getRevisadoHasta)
+				.min()
+				.orElse(0L);
+		List<Notificacion> notificaciones = new ArrayList<>();
+		for (int inicio = 0; inicio < usuarios.size(); inicio += USUARIOS_POR_CONSULTA) {
+			notificaciones.addAll(nr.findActivasPosterioresPorUsuarios(
+					usuarios.subList(inicio, Math.min(inicio + USUARIOS_POR_CONSULTA, usuarios.size())), desde));
+		}
+		return new Sondeo(cubiertoHasta, notificaciones.stream()
+				.collect(Collectors.groupingBy(notificacion -> notificacion.getUsuario().getIdUsuario())));
+	}
+
+	// Manda la notificacion si esta conexion no la ha recibido ya por el otro camino
+	private void enviar(Long idUsuario, Conexion conexion, Notificacion notificacion) {
+		Long idNotificacion = notificacion.getIdNotificacion();
+		conexion.cerrojo.lock();
+		try {
+			if (idNotificacion <= conexion.revisadoHasta || !conexion.enviados.add(idNotificacion)) {
+				return;
+			}
+		} finally {
+			conexion.cerrojo.unlock();
+		}
+		enviar(idUsuario, conexion, SseEmitter.event()
+				.id(String.valueOf(idNotificacion))
+				.name(EVENTO_NOTIFICACION)
+				.data(new NotificacionResponse(notificacion)));
+	}
+
+	// Un cliente que se ha ido solo se nota al escribir: se cierra su emisor y se olvida
+	private void enviar(Long idUsuario, Conexion conexion, SseEmitter.SseEventBuilder evento) {
+		try {
+			conexion.emisor.send(evento);
+		} catch (IOException | IllegalStateException ex) {
+			logger.debug("Stream SSE cerrado para el usuario {}: {}", idUsuario, ex.getClass().getSimpleName());
+			quitar(idUsuario, conexion);
+			conexion.emisor.completeWithError(ex);
+		}
+	}
+
+	private void quitar(Long idUsuario, Conexion conexion) {
+		conexionesPorUsuario.computeIfPresent(idUsuario, (id, conexiones) -> {
+			conexiones.remove(conexion);
+			return conexiones.isEmpty() ? null : conexiones;
+		});
+	}
+
+	private static final class Sondeo {
+		private final long cubiertoHasta;
+		private final Map<Long, List<Notificacion>> porUsuario;
+
+		private Sondeo(long cubiertoHasta, Map<Long, List<Notificacion>> porUsuario) {
+			this.cubiertoHasta = cubiertoHasta;
+			this.porUsuario = porUsuario;
+		}
+	}
+
+	/* Estado de una conexion. Todo lo anterior o igual a 'revisadoHasta' ya lo ha cubierto un sondeo;
+	 * 'enviados' guarda lo mandado por encima para no repetirlo. Los ids se reservan antes de confirmar,
+	 * asi que la marca avanza con un latido de retraso: en cada sondeo pasa a lo que cubria el sondeo
+	 * anterior (su marca global o lo enviado, lo que sea mayor). */
+	private static final class Conexion {
+		private final SseEmitter emisor;
+		private final ReentrantLock cerrojo = new ReentrantLock();
+		private final NavigableSet<Long> enviados = new TreeSet<>();
+		private volatile long revisadoHasta;
+		private long revisadoPendiente;
+
+		private Conexion(SseEmitter emisor, long revisadoHasta) {
+			this.emisor = emisor;
+			this.revisadoHasta = revisadoHasta;
+			this.revisadoPendiente = revisadoHasta;
+		}
+
+		private long getRevisadoHasta() {
+			return revisadoHasta;
+		}
+
+		private void avanzarRevisado(long cubiertoHasta) {
+			cerrojo.lock();
+			try {
+				revisadoHasta = Math.max(revisadoHasta, revisadoPendiente);
+				enviados.headSet(revisadoHasta, true).clear();
+				revisadoPendiente = Math.max(Math.max(revisadoHasta, cubiertoHasta),
+						enviados.isEmpty() ? revisadoHasta : enviados.last());
+			} finally {
+				cerrojo.unlock();
+			}
+		}
+	}
+}
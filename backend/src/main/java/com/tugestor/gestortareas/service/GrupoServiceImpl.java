@@ -25,6 +25,7 @@ import com.tugestor.gestortareas.repository.AsignacionGrupoRepository;
 import com.tugestor.gestortareas.repository.GrupoMiembroRepository;
 import com.tugestor.gestortareas.repository.GrupoRepository;
 import com.tugestor.gestortareas.repository.UsuarioRepository;
+import com.tugestor.gestortareas.security.AuthenticatedUser;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -49,9 +50,13 @@ public class GrupoServiceImpl implements GrupoService {
 	}
 
 	private Usuario getUsuarioActual() {
-		String email = SecurityContextHolder.getContext().getAuthentication().getName();
-		return ur.findByEmailIgnoreCase(email)
-				.orElseThrow(() -> new EntityNotFoundException("Usuario autenticado no encontrado."));
+		return AuthenticatedUser.actual()
+				.map(usuario -> ur.getReferenceById(usuario.getIdUsuario()))
+				.orElseGet(() -> {
+					String email = SecurityContextHolder.getContext().getAuthentication().getName();
+					return ur.findByEmailIgnoreCase(email)
+							.orElseThrow(() -> new EntityNotFoundException("Usuario autenticado no encontrado."));
+				});
 	}
 
 	@Transactional
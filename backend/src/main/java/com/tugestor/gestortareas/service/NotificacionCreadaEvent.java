@@ -2,12 +2,19 @@ package com.tugestor.gestortareas.service;
 
 public class NotificacionCreadaEvent {
 	private final Long idNotificacion;
+	// Destinatario: EmisoresNotificaciones solo va a la BD si tiene conectado a este usuario
+	private final Long idUsuario;
 
-	public NotificacionCreadaEvent(Long idNotificacion) {
+	public NotificacionCreadaEvent(Long idNotificacion, Long idUsuario) {
 		this.idNotificacion = idNotificacion;
+		this.idUsuario = idUsuario;
 	}
 
 	public Long getIdNotificacion() {
 		return idNotificacion;
 	}
+
+	public Long getIdUsuario() {
+		return idUsuario;
+	}
 }
@@ -3,15 +3,16 @@ package com.tugestor.gestortareas.service;
 import java.util.List;
 
 import com.tugestor.gestortareas.dto.NotificacionResponse;
+import com.tugestor.gestortareas.dto.RecordatorioVencido;
 import com.tugestor.gestortareas.model.AsignacionGrupoMiembro;
-import com.tugestor.gestortareas.model.RecordatorioTarea;
 
 public interface NotificacionService {
 	List<NotificacionResponse> obtenerActivas(String emailUsuario);
 	long contarActivas(String emailUsuario);
 	NotificacionResponse cerrarNotificacion(Long idNotificacion, String emailUsuario);
-	void cerrarTodas(String emailUsuario);
-	int procesarAvisos24hPendientes();
-	void crearDesdeRecordatorioInteligente(RecordatorioTarea recordatorio, java.time.LocalDateTime fechaCreacion);
+	int cerrarTodas(String emailUsuario);
+	int archivarLoteCerradas(java.time.LocalDateTime cerradasAntesDe, int lote);
+	int procesarAvisos24hPendientes(int particion, int particiones);
+	int crearDesdeRecordatoriosInteligentes(List<RecordatorioVencido> recordatorios, java.time.LocalDateTime fechaCreacion);
 	void crearDesdeAsignacionGrupo(AsignacionGrupoMiembro asignacionGrupoMiembro);
 }
@@ -2,29 +2,33 @@ package com.tugestor.gestortareas.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Set;
 
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.tugestor.gestortareas.dto.Aviso24hPendiente;
 import com.tugestor.gestortareas.dto.NotificacionResponse;
+import com.tugestor.gestortareas.dto.RecordatorioVencido;
 import com.tugestor.gestortareas.model.AsignacionGrupo;
 import com.tugestor.gestortareas.model.AsignacionGrupoMiembro;
 import com.tugestor.gestortareas.model.EstadoPushNotificacion;
 import com.tugestor.gestortareas.model.Grupo;
 import com.tugestor.gestortareas.model.Notificacion;
 import com.tugestor.gestortareas.model.PreferenciasNotificacion;
-import com.tugestor.gestortareas.model.RecordatorioTarea;
-import com.tugestor.gestortareas.model.Tarea;
 import com.tugestor.gestortareas.model.TipoNotificacion;
 import com.tugestor.gestortareas.model.Usuario;
 import com.tugestor.gestortareas.repository.AsignacionGrupoMiembroRepository;
+import com.tugestor.gestortareas.repository.EnvioPushRepository;
+import com.tugestor.gestortareas.repository.GrupoRepository;
+import com.tugestor.gestortareas.repository.NotificacionArchivadaRepository;
 import com.tugestor.gestortareas.repository.NotificacionRepository;
 import com.tugestor.gestortareas.repository.PreferenciasNotificacionRepository;
 import com.tugestor.gestortareas.repository.TareaRepository;
 import com.tugestor.gestortareas.repository.UsuarioRepository;
+import com.tugestor.gestortareas.security.AuthenticatedUser;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -35,17 +39,29 @@ public class NotificacionServiceImpl implements NotificacionService {
 	private final PreferenciasNotificacionRepository pnr;
 	private final TareaRepository tr;
 	private final AsignacionGrupoMiembroRepository agmr;
+	private final GrupoRepository gr;
 	private final ApplicationEventPublisher eventPublisher;
+	private final WebPushService webPushService;
+	private final ContadorNotificaciones contadorNotificaciones;
+	private final NotificacionArchivadaRepository nar;
+	private final EnvioPushRepository epr;
 
 	public NotificacionServiceImpl(NotificacionRepository nr, UsuarioRepository ur,
 			PreferenciasNotificacionRepository pnr, TareaRepository tr, AsignacionGrupoMiembroRepository agmr,
-			ApplicationEventPublisher eventPublisher) {
+			GrupoRepository gr, ApplicationEventPublisher eventPublisher, WebPushService webPushService,
+			ContadorNotificaciones contadorNotificaciones, NotificacionArchivadaRepository nar,
+			EnvioPushRepository epr) {
 		this.nr = nr;
 		this.ur = ur;
 		this.pnr = pnr;
 		this.tr = tr;
 		this.agmr = agmr;
+		this.gr = gr;
 		this.eventPublisher = eventPublisher;
+		this.webPushService = webPushService;
+		this.contadorNotificaciones = contadorNotificaciones;
+		this.nar = nar;
+		this.epr = epr;
 	}
 
 	@Override
@@ -56,10 +72,10 @@ public class NotificacionServiceImpl implements NotificacionService {
 				.toList();
 	}
 
+	// Sin transaccion: con JWT es una lectura en memoria; solo la primera vez por usuario cuenta en la BD
 	@Override
-	@Transactional(readOnly = true)
 	public long contarActivas(String emailUsuario) {
-		return nr.countByUsuarioEmailAndCerradaFalse(emailUsuario);
+		return contadorNotificaciones.contar(obtenerIdUsuarioAutenticado(emailUsuario));
 	}
 
 	@Override
@@ -73,61 +89,70 @@ public class NotificacionServiceImpl implements NotificacionService {
 			notificacion.setCerrada(true);
 			notificacion.setFechaCierre(LocalDateTime.now());
 			notificacion = nr.save(notificacion);
+			eventPublisher.publishEvent(new NotificacionesCerradasEvent(notificacion.getUsuario().getIdUsuario(), 1));
 		}
 		return new NotificacionResponse(notificacion);
 	}
 
 	@Override
 	@Transactional
-	public void cerrarTodas(String emailUsuario) {
-		Usuario usuario = obtenerUsuarioAutenticado(emailUsuario);
-		LocalDateTime fechaCierre = LocalDateTime.now();
-		List<Notificacion> notificaciones = nr.findByUsuarioAndCerradaFalse(usuario);
-		notificaciones.forEach(notificacion -> {
-			notificacion.setCerrada(true);
-			notificacion.setFechaCierre(fechaCierre);
-		});
-		nr.saveAll(notificaciones);
+	public int cerrarTodas(String emailUsuario) {
+		Long idUsuario = obtenerIdUsuarioAutenticado(emailUsuario);
+		int cerradas = nr.cerrarTodas(idUsuario, LocalDateTime.now());
+		if (cerradas > 0) {
+			eventPublisher.publishEvent(new NotificacionesCerradasEvent(idUsuario, cerradas));
+		}
+		return cerradas;
+	}
+
+	/* Un lote de la retencion: copia a notificacion_archivada con un INSERT ... SELECT y borra las
+	 * notificaciones y sus envios Web Push, todo en la misma transaccion. */
+	@Override
+	@Transactional
+	public int archivarLoteCerradas(LocalDateTime cerradasAntesDe, int lote) {
+		List<Long> ids = nr.findIdsCerradasAntesDe(cerradasAntesDe, PageRequest.of(0, lote));
+		if (ids.isEmpty()) {
+			return 0;
+		}
+		nar.archivar(ids, LocalDateTime.now());
+		epr.borrarPorNotificaciones(ids);
+		return nr.borrarPorIds(ids);
 	}
 
+	/* Una sola consulta encuentra todos los avisos que faltan (ver buscarAvisos24hPendientes) y se insertan
+	 * juntos; usuario, tarea, grupo y asignacion van como referencias sin cargar, solo aportan la clave ajena. */
 	@Override
 	@Transactional
-	public int procesarAvisos24hPendientes() {
+	public int procesarAvisos24hPendientes(int particion, int particiones) {
 		LocalDateTime ahora = LocalDateTime.now();
-		LocalDateTime limite = ahora.plusHours(24);
-		int generadas = 0;
-		for (PreferenciasNotificacion preferencias : pnr.findByNotificacionesActivasTrueAndAviso24hActivoTrue()) {
-			if (preferencias.getPrioridadesAviso24h().isEmpty()) {
-				continue;
-			}
-			Usuario usuario = preferencias.getUsuario();
-			List<Tarea> tareas = tr.findByUsuarioAndCompletadaFalseAndFechaEntregaBetween(usuario, ahora, limite);
-			for (Tarea tarea : tareas) {
-				if (debeCrearAviso24h(preferencias, tarea)) {
-					crearAviso24h(preferencias, tarea, ahora);
-					generadas++;
-				}
-			}
+		List<Aviso24hPendiente> pendientes = nr.buscarAvisos24hPendientes(ahora, ahora.plusHours(24),
+				particion, particiones);
+		if (pendientes.isEmpty()) {
+			return 0;
 		}
-		return generadas;
+		List<Notificacion> avisos = nr.saveAll(pendientes.stream()
+				.map(pendiente -> crearAviso24h(pendiente, ahora))
+				.toList());
+		webPushService.registrarEnvios(avisos);
+		avisos.forEach(aviso -> eventPublisher.publishEvent(new NotificacionCreadaEvent(aviso.getIdNotificacion(),
+				aviso.getUsuario().getIdUsuario())));
+		return avisos.size();
 	}
 
 	@Override
 	@Transactional
-	public void crearDesdeRecordatorioInteligente(RecordatorioTarea recordatorio, LocalDateTime fechaCreacion) {
-		Tarea tarea = recordatorio.getTarea();
-		String tituloTarea = tarea != null ? tarea.getTitulo() : "la tarea";
-		Notificacion notificacion = new Notificacion();
-		notificacion.setUsuario(recordatorio.getUsuario());
-		notificacion.setTarea(tarea);
-		notificacion.setTipo(TipoNotificacion.RECORDATORIO_INTELIGENTE);
-		notificacion.setTitulo("Recordatorio inteligente");
-		notificacion.setMensaje("La tarea \"" + tituloTarea + "\" vence pronto.");
-		notificacion.setFechaProgramada(recordatorio.getFechaProgramada());
-		notificacion.setFechaCreacion(fechaCreacion);
-		notificacion.setCerrada(false);
-		notificacion.setPushEstado(EstadoPushNotificacion.NO_APLICA);
-		guardarYPublicar(notificacion);
+	public int crearDesdeRecordatoriosInteligentes(List<RecordatorioVencido> recordatorios,
+			LocalDateTime fechaCreacion) {
+		if (recordatorios.isEmpty()) {
+			return 0;
+		}
+		List<Notificacion> notificaciones = nr.saveAll(recordatorios.stream()
+				.map(recordatorio -> crearRecordatorioInteligente(recordatorio, fechaCreacion))
+				.toList());
+		webPushService.registrarEnvios(notificaciones);
+		notificaciones.forEach(notificacion -> eventPublisher.publishEvent(
+				new NotificacionCreadaEvent(notificacion.getIdNotificacion(), notificacion.getUsuario().getIdUsuario())));
+		return notificaciones.size();
 	}
 
 	@Override
@@ -157,59 +182,44 @@ public class NotificacionServiceImpl implements NotificacionService {
 		guardarYPublicar(notificacion);
 	}
 
-	private boolean debeCrearAviso24h(PreferenciasNotificacion preferencias, Tarea tarea) {
-		if (!preferencias.getPrioridadesAviso24h().contains(tarea.getPrioridad())) {
-			return false;
-		}
-		if (nr.existsByUsuarioAndTareaAndTipo(preferencias.getUsuario(), tarea, TipoNotificacion.AVISO_24H)) {
-			return false;
-		}
-		return agmr.findByTareaGenerada(tarea)
-				.map(asignacion -> grupoPermitidoParaAviso24h(preferencias, asignacion))
-				.orElse(true);
-	}
-
-	private boolean grupoPermitidoParaAviso24h(PreferenciasNotificacion preferencias,
-			AsignacionGrupoMiembro asignacionGrupoMiembro) {
-		if (preferencias.getGruposAviso24h().isEmpty()) {
-			return false;
-		}
-		AsignacionGrupo asignacionGrupo = asignacionGrupoMiembro.getAsignacionGrupo();
-		Grupo grupo = asignacionGrupo != null ? asignacionGrupo.getGrupo() : null;
-		return grupo != null && contieneGrupo(preferencias.getGruposAviso24h(), grupo);
-	}
-
-	private boolean contieneGrupo(Set<Grupo> grupos, Grupo grupoBuscado) {
-		return grupos.stream()
-				.anyMatch(grupo -> grupo.getIdGrupo() != null
-						&& grupo.getIdGrupo().equals(grupoBuscado.getIdGrupo()));
+	private Notificacion crearRecordatorioInteligente(RecordatorioVencido recordatorio, LocalDateTime fechaCreacion) {
+		Notificacion notificacion = new Notificacion();
+		notificacion.setUsuario(ur.getReferenceById(recordatorio.getIdUsuario()));
+		notificacion.setTarea(tr.getReferenceById(recordatorio.getIdTarea()));
+		notificacion.setTipo(TipoNotificacion.RECORDATORIO_INTELIGENTE);
+		notificacion.setTitulo("Recordatorio inteligente");
+		notificacion.setMensaje("La tarea \"" + recordatorio.getTituloTarea() + "\" vence pronto.");
+		notificacion.setFechaProgramada(recordatorio.getFechaProgramada());
+		notificacion.setFechaCreacion(fechaCreacion);
+		notificacion.setCerrada(false);
+		notificacion.setPushEstado(EstadoPushNotificacion.NO_APLICA);
+		return notificacion;
 	}
 
-	private void crearAviso24h(PreferenciasNotificacion preferencias, Tarea tarea, LocalDateTime ahora) {
-		AsignacionGrupoMiembro asignacionGrupoMiembro = agmr.findByTareaGenerada(tarea).orElse(null);
-		AsignacionGrupo asignacionGrupo = asignacionGrupoMiembro != null
-				? asignacionGrupoMiembro.getAsignacionGrupo()
-				: null;
-		Grupo grupo = asignacionGrupo != null ? asignacionGrupo.getGrupo() : null;
-
+	private Notificacion crearAviso24h(Aviso24hPendiente pendiente, LocalDateTime ahora) {
 		Notificacion notificacion = new Notificacion();
-		notificacion.setUsuario(preferencias.getUsuario());
-		notificacion.setTarea(tarea);
-		notificacion.setGrupo(grupo);
-		notificacion.setAsignacionGrupoMiembro(asignacionGrupoMiembro);
+		notificacion.setUsuario(ur.getReferenceById(pendiente.getIdUsuario()));
+		notificacion.setTarea(tr.getReferenceById(pendiente.getIdTarea()));
+		if (pendiente.getIdAsignacionGrupoMiembro() != null) {
+			notificacion.setAsignacionGrupoMiembro(agmr.getReferenceById(pendiente.getIdAsignacionGrupoMiembro()));
+			notificacion.setGrupo(gr.getReferenceById(pendiente.getIdGrupo()));
+		}
 		notificacion.setTipo(TipoNotificacion.AVISO_24H);
 		notificacion.setTitulo("Tarea proxima a vencer");
-		notificacion.setMensaje("La tarea \"" + tarea.getTitulo() + "\" vence en menos de 24 horas.");
+		notificacion.setMensaje("La tarea \"" + pendiente.getTituloTarea() + "\" vence en menos de 24 horas.");
 		notificacion.setFechaProgramada(ahora);
 		notificacion.setFechaCreacion(ahora);
 		notificacion.setCerrada(false);
 		notificacion.setPushEstado(EstadoPushNotificacion.NO_APLICA);
-		guardarYPublicar(notificacion);
+		return notificacion;
 	}
 
+	// Los envios Web Push entran en la bandeja de salida en esta misma transaccion; el evento solo adelanta el envio
 	private Notificacion guardarYPublicar(Notificacion notificacion) {
 		Notificacion guardada = nr.save(notificacion);
-		eventPublisher.publishEvent(new NotificacionCreadaEvent(guardada.getIdNotificacion()));
+		webPushService.registrarEnvios(guardada);
+		eventPublisher.publishEvent(new NotificacionCreadaEvent(guardada.getIdNotificacion(),
+				guardada.getUsuario().getIdUsuario()));
 		return guardada;
 	}
 
@@ -220,9 +230,11 @@ public class NotificacionServiceImpl implements NotificacionService {
 		}
 	}
 
-	private Usuario obtenerUsuarioAutenticado(String emailUsuario) {
-		return ur.findByEmail(emailUsuario)
-				.orElseThrow(() -> new EntityNotFoundException("Usuario autenticado no encontrado."));
+	private Long obtenerIdUsuarioAutenticado(String emailUsuario) {
+		return AuthenticatedUser.idUsuarioSiEs(emailUsuario)
+				.orElseGet(() -> ur.findByEmail(emailUsuario)
+						.orElseThrow(() -> new EntityNotFoundException("Usuario autenticado no encontrado."))
+						.getIdUsuario());
 	}
 
 	private boolean debeNotificarAsignacionGrupo(Usuario usuario) {
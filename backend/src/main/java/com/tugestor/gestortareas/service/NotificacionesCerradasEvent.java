@@ -0,0 +1,20 @@
+package com.tugestor.gestortareas.service;
+
+// Cierre de una o varias notificaciones de un usuario; ContadorNotificaciones lo descuenta tras el commit
+public class NotificacionesCerradasEvent {
+	private final Long idUsuario;
+	private final int cantidad;
+
+	public NotificacionesCerradasEvent(Long idUsuario, int cantidad) {
+		this.idUsuario = idUsuario;
+		this.cantidad = cantidad;
+	}
+
+	public Long getIdUsuario() {
+		return idUsuario;
+	}
+
+	public int getCantidad() {
+		return cantidad;
+	}
+}
@@ -1,49 +1,143 @@
 package com.tugestor.gestortareas.service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Service
 public class NotificationSchedulerService {
 	private static final Logger logger = LoggerFactory.getLogger(NotificationSchedulerService.class);
+	static final String NOMBRE_METRICA = "notificaciones.avisos24h";
+	// El cron de retencion es diario; una hora de lease cubre el desfase con que lo disparan las instancias
+	private static final Duration PERIODO_RETENCION = Duration.ofHours(1);
 
-	private final RecordatorioTareaService recordatorioTareaService;
+	private final PlanificadorRecordatorios planificadorRecordatorios;
 	private final NotificacionService notificacionService;
+	private final BloqueoCluster bloqueoCluster;
+	private final Timer cicloAvisos24h;
+	private final int particionesAvisos24h;
+	private final Duration periodoAvisos24h;
+	// Cada instancia empieza por una particion distinta para que varias se repartan el ciclo en vez de esperarse
+	private final int primeraParticion;
+	private final Duration retencion;
+	private final int loteRetencion;
 
-	public NotificationSchedulerService(RecordatorioTareaService recordatorioTareaService,
-			NotificacionService notificacionService) {
-		this.recordatorioTareaService = recordatorioTareaService;
+	public NotificationSchedulerService(PlanificadorRecordatorios planificadorRecordatorios,
+			NotificacionService notificacionService, BloqueoCluster bloqueoCluster, MeterRegistry meterRegistry,
+			@Value("${app.notificaciones.avisos24h.particiones:1}") int particionesAvisos24h,
+			@Value("${app.notificaciones.scheduler.avisos24h-fixed-delay-ms:60000}") long periodoAvisos24hMs,
+			@Value("${app.notificaciones.retencion.edad:90d}") Duration retencion,
+			@Value("${app.notificaciones.retencion.lote:1000}") int loteRetencion) {
+		if (particionesAvisos24h < 1) {
+			throw new IllegalArgumentException("Los avisos de 24h necesitan al menos 1 particion");
+		}
+		if (loteRetencion < 1) {
+			throw new IllegalArgumentException("El lote de retencion de notificaciones debe ser de al menos 1");
+		}
+		this.planificadorRecordatorios = planificadorRecordatorios;
 		this.notificacionService = notificacionService;
+		this.bloqueoCluster = bloqueoCluster;
+		this.particionesAvisos24h = particionesAvisos24h;
+		this.periodoAvisos24h = Duration.ofMillis(periodoAvisos24hMs);
+		this.primeraParticion = ThreadLocalRandom.current().nextInt(particionesAvisos24h);
+		this.retencion = retencion;
+		this.loteRetencion = loteRetencion;
+		// Latencia del ciclo de avisos de 24h con el commit incluido; percentiles en /actuator/metrics
+		this.cicloAvisos24h = Timer.builder(NOMBRE_METRICA + ".ciclo")
+				.description("Duracion de cada ciclo de avisos de 24h (consulta, inserciones y commit)")
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
 	}
 
 	@EventListener(ApplicationReadyEvent.class)
 	public void procesarRecordatoriosAlArrancar() {
-		ejecutarProcesamiento("arranque");
+		reconciliarRecordatorios("arranque");
+		procesarAvisos24h("arranque");
 	}
 
+	/* Los recordatorios los dispara la rueda de PlanificadorRecordatorios; este barrido lento solo reconcilia
+	 * la rueda con la BD (recordatorios creados en otra instancia, fallos al procesar) y genera lo vencido.
+	 * Corre en todas las instancias: cada una tiene su rueda y el reclamo con SKIP LOCKED ya reparte lo vencido
+	 * sin duplicar. */
 	@Scheduled(
 			initialDelayString = "${app.notificaciones.scheduler.recordatorios-initial-delay-ms:30000}",
-			fixedDelayString = "${app.notificaciones.scheduler.recordatorios-fixed-delay-ms:60000}"
+			fixedDelayString = "${app.notificaciones.scheduler.recordatorios-fixed-delay-ms:600000}"
 	)
 	public void procesarRecordatoriosProgramados() {
-		// Uso esta tarea programada para revisar recordatorios pendientes sin depender de una peticion del usuario.
-		ejecutarProcesamiento("programado");
+		reconciliarRecordatorios("programado");
 	}
 
-	private void ejecutarProcesamiento(String origen) {
+	/* Los avisos de 24h dependen de la fecha de entrega de cualquier tarea, no de un recordatorio; siguen por
+	 * sondeo. Cada particion de usuarios tiene su lease en BloqueoCluster, que se queda hasta el final del
+	 * periodo: en cada periodo cada particion la procesa una sola instancia y las demas la saltan. Con varias
+	 * particiones, las instancias cuyos ciclos se solapan se reparten las que queden libres. */
+	@Scheduled(
+			initialDelayString = "${app.notificaciones.scheduler.avisos24h-initial-delay-ms:30000}",
+			fixedDelayString = "${app.notificaciones.scheduler.avisos24h-fixed-delay-ms:60000}"
+	)
+	public void procesarAvisos24hProgramados() {
+		procesarAvisos24h("programado");
+	}
+
+	/* Retencion: las notificaciones cerradas hace mas de 'retencion' pasan a notificacion_archivada y salen
+	 * de la tabla caliente, por lotes de 'loteRetencion' en transacciones cortas. Una sola instancia por ejecucion del cron. */
+	@Scheduled(cron = "${app.notificaciones.retencion.cron:0 30 3 * * *}")
+	public void archivarNotificacionesCerradas() {
 		try {
-			int recordatoriosProcesados = recordatorioTareaService.procesarRecordatoriosInteligentesVencidos();
-			int avisos24hGenerados = notificacionService.procesarAvisos24hPendientes();
-			if (recordatoriosProcesados > 0 || avisos24hGenerados > 0) {
-				logger.info("Notificaciones procesadas en ciclo {}. Recordatorios: {}, avisos 24h: {}",
-						origen, recordatoriosProcesados, avisos24hGenerados);
+			LocalDateTime limite = LocalDateTime.now().minus(retencion);
+			bloqueoCluster.ejecutar("notificaciones.retencion", PERIODO_RETENCION, () -> {
+				int total = 0;
+				int archivadas;
+				do {
+					archivadas = notificacionService.archivarLoteCerradas(limite, loteRetencion);
+					total += archivadas;
+				} while (archivadas >= loteRetencion);	// Lote completo: puede quedar mas
+				return total;
+			})
+					.filter(archivadas -> archivadas > 0)
+					.ifPresent(archivadas -> logger.info("Notificaciones cerradas archivadas: {}", archivadas));
+		} catch (Exception ex) {
+			logger.error("Error archivando notificaciones cerradas.", ex);
+		}
+	}
+
+	private void reconciliarRecordatorios(String origen) {
+		try {
+			int programados = planificadorRecordatorios.recargar();
+			int recordatoriosProcesados = planificadorRecordatorios.procesarVencidos();
+			if (recordatoriosProcesados > 0) {
+				logger.info("Recordatorios procesados en ciclo {}: {} (pendientes en la rueda: {})",
+						origen, recordatoriosProcesados, programados);
 			}
 		} catch (Exception ex) {
-			logger.error("Error procesando notificaciones pendientes en ciclo {}.", origen, ex);
+			logger.error("Error reconciliando recordatorios pendientes en ciclo {}.", origen, ex);
+		}
+	}
+
+	private void procesarAvisos24h(String origen) {
+		for (int i = 0; i < particionesAvisos24h; i++) {
+			int particion = (primeraParticion + i) % particionesAvisos24h;
+			try {
+				bloqueoCluster.ejecutar(NOMBRE_METRICA + "-" + particion, periodoAvisos24h,
+						() -> cicloAvisos24h.record(
+								() -> notificacionService.procesarAvisos24hPendientes(particion, particionesAvisos24h)))
+						.filter(avisos24hGenerados -> avisos24hGenerados > 0)
+						.ifPresent(avisos24hGenerados -> logger.info(
+								"Avisos 24h generados en ciclo {}, particion {}: {}", origen, particion, avisos24hGenerados));
+			} catch (Exception ex) {
+				logger.error("Error procesando avisos 24h pendientes en ciclo {}, particion {}.", origen, particion, ex);
+			}
 		}
 	}
 }
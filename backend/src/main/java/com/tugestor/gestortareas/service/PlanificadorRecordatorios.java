@@ -0,0 +1,123 @@
+package com.tugestor.gestortareas.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.tugestor.gestortareas.dto.RecordatorioProgramado;
+import com.tugestor.gestortareas.model.TipoRecordatorioTarea;
+import com.tugestor.gestortareas.repository.RecordatorioTareaRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/* Recordatorios inteligentes en memoria: una rueda temporal con el id de cada recordatorio pendiente,
+ * cargada desde la BD con recargar() y actualizada tras el commit de configurarRecordatorioInteligente.
+ * Un hilo avanza la rueda cada 'tick' y solo va a la BD cuando algo vence, asi que la latencia del
+ * recordatorio es de un tick y sin vencimientos no hay consultas. La BD sigue siendo la fuente de verdad:
+ * procesarVencidos() genera lo vencido segun la BD, no segun la rueda, y el barrido lento de
+ * NotificationSchedulerService recoge lo que la rueda no sabe (altas en otra instancia, fallos, reinicios). */
+@Component
+public class PlanificadorRecordatorios implements DisposableBean {
+	private static final Logger logger = LoggerFactory.getLogger(PlanificadorRecordatorios.class);
+
+	private final RecordatorioTareaRepository rtr;
+	private final RecordatorioTareaService recordatorioTareaService;
+	private final Clock clock;
+	private final long tickMillis;
+	private final RuedaTemporizadora<Long> rueda;
+	// Rueda y barrido pueden coincidir; dos procesamientos a la vez generarian la misma notificacion
+	private final ReentrantLock procesando = new ReentrantLock();
+	private final ScheduledExecutorService reloj;
+
+	public PlanificadorRecordatorios(RecordatorioTareaRepository rtr, RecordatorioTareaService recordatorioTareaService,
+			Clock clock, MeterRegistry meterRegistry,
+			@Value("${app.notificaciones.rueda.tick:1s}") Duration tick) {
+		if (tick.toMillis() < 1) {
+			throw new IllegalArgumentException("El tick de la rueda de recordatorios debe ser de al menos 1 ms");
+		}
+		this.rtr = rtr;
+		this.recordatorioTareaService = recordatorioTareaService;
+		this.clock = clock;
+		this.tickMillis = tick.toMillis();
+		this.rueda = new RuedaTemporizadora<>(tickMillis, clock.millis());
+		this.reloj = Executors.newSingleThreadScheduledExecutor(tarea -> {
+			Thread hilo = new Thread(tarea, "recordatorios-rueda");
+			hilo.setDaemon(true);
+			return hilo;
+		});
+		Gauge.builder("recordatorios.rueda.pendientes", rueda, RuedaTemporizadora::tamanio)
+				.description("Recordatorios inteligentes programados en la rueda de esta instancia")
+				.register(meterRegistry);
+	}
+
+	@PostConstruct
+	void iniciar() {
+		reloj.scheduleAtFixedRate(this::avanzar, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		reloj.shutdownNow();
+		reloj.awaitTermination(5, TimeUnit.SECONDS);
+	}
+
+	// Vuelve a programar todo lo pendiente en la BD; lo que ya estaba solo se reprograma a su fecha actual
+	public int recargar() {
+		List<RecordatorioProgramado> programados = rtr.findProgramados(TipoRecordatorioTarea.RECORDATORIO_INTELIGENTE);
+		for (RecordatorioProgramado programado : programados) {
+			rueda.programar(programado.getIdRecordatorioTarea(), aMillis(programado.getFechaProgramada()));
+		}
+		return programados.size();
+	}
+
+	public int procesarVencidos() {
+		procesando.lock();
+		try {
+			return recordatorioTareaService.procesarRecordatoriosInteligentesVencidos();
+		} finally {
+			procesando.unlock();
+		}
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void actualizarTrasCommit(RecordatorioProgramadoEvent event) {
+		if (event.isActivo() && event.getFechaProgramada() != null) {
+			rueda.programar(event.getIdRecordatorioTarea(), aMillis(event.getFechaProgramada()));
+		} else {
+			rueda.cancelar(event.getIdRecordatorioTarea());
+		}
+	}
+
+	private void avanzar() {
+		// Una excepcion aqui cancelaria el scheduleAtFixedRate; lo que falle lo recoge el barrido
+		try {
+			List<Long> vencidos = rueda.avanzar(clock.millis());
+			if (!vencidos.isEmpty()) {
+				int procesados = procesarVencidos();
+				logger.info("Recordatorios vencidos en la rueda: {}, notificaciones generadas: {}",
+						vencidos.size(), procesados);
+			}
+		} catch (RuntimeException ex) {
+			logger.error("Error procesando recordatorios vencidos desde la rueda.", ex);
+		}
+	}
+
+	private long aMillis(LocalDateTime fecha) {
+		return fecha.atZone(clock.getZone()).toInstant().toEpochMilli();
+	}
+}
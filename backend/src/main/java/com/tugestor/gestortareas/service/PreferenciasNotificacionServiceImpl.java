@@ -18,6 +18,7 @@ import com.tugestor.gestortareas.repository.GrupoMiembroRepository;
 import com.tugestor.gestortareas.repository.GrupoRepository;
 import com.tugestor.gestortareas.repository.PreferenciasNotificacionRepository;
 import com.tugestor.gestortareas.repository.UsuarioRepository;
+import com.tugestor.gestortareas.security.AuthenticatedUser;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -95,7 +96,9 @@ public class PreferenciasNotificacionServiceImpl implements PreferenciasNotifica
 	}
 
 	private Usuario obtenerUsuarioAutenticado(String emailUsuario) {
-		return ur.findByEmail(emailUsuario)
-				.orElseThrow(() -> new EntityNotFoundException("Usuario autenticado no encontrado."));
+		return AuthenticatedUser.idUsuarioSiEs(emailUsuario)
+				.map(ur::getReferenceById)
+				.orElseGet(() -> ur.findByEmail(emailUsuario)
+						.orElseThrow(() -> new EntityNotFoundException("Usuario autenticado no encontrado.")));
 	}
 }
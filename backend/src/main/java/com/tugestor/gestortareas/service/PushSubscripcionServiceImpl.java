@@ -13,6 +13,7 @@ import com.tugestor.gestortareas.model.PushSubscripcion;
 import com.tugestor.gestortareas.model.Usuario;
 import com.tugestor.gestortareas.repository.PushSubscripcionRepository;
 import com.tugestor.gestortareas.repository.UsuarioRepository;
+import com.tugestor.gestortareas.security.AuthenticatedUser;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -70,8 +71,10 @@ public class PushSubscripcionServiceImpl implements PushSubscripcionService {
 	}
 
 	private Usuario obtenerUsuarioAutenticado(String emailUsuario) {
-		return ur.findByEmail(emailUsuario)
-				.orElseThrow(() -> new EntityNotFoundException("Usuario autenticado no encontrado."));
+		return AuthenticatedUser.idUsuarioSiEs(emailUsuario)
+				.map(ur::getReferenceById)
+				.orElseGet(() -> ur.findByEmail(emailUsuario)
+						.orElseThrow(() -> new EntityNotFoundException("Usuario autenticado no encontrado.")));
 	}
 
 	private String normalizarOpcional(String valor) {
@@ -0,0 +1,173 @@
+package com.tugestor.gestortareas.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tugestor.gestortareas.dto.FiltroTareaCombinadoRequest;
+import com.tugestor.gestortareas.dto.TareaFiltroCombinadoResponse;
+import com.tugestor.gestortareas.model.CriterioOrdenTareaCombinado;
+import com.tugestor.gestortareas.model.Estado;
+import com.tugestor.gestortareas.model.OrigenTareaFiltro;
+import com.tugestor.gestortareas.model.Prioridad;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/* Cache por usuario de /api/tarea/recomendadas. La clave es el email y el filtro ya normalizado,
+ * asi que dos peticiones equivalentes comparten entrada. Las mutaciones de tareas invalidan todas
+ * las entradas del usuario, pero solo en la instancia que las atiende: con varias replicas, otra
+ * puede servir recomendaciones anteriores a la mutacion (incluido el flag de recordatorio
+ * inteligente) hasta que caduque su entrada. Ese desfase y el paso del tiempo los acota el TTL,
+ * que por eso nunca supera TTL_MAXIMO aunque se configure mas (en produccion son 60s). */
+@Component
+public class RecomendacionesCache {
+	static final Duration TTL_MAXIMO = Duration.ofMinutes(5);
+	static final String NOMBRE_METRICA = "tareas.recomendaciones";
+
+	private final Cache<ClaveRecomendaciones, List<TareaFiltroCombinadoResponse>> cache;
+
+	public RecomendacionesCache(MeterRegistry meterRegistry,
+			@Value("${app.tareas.recomendaciones.cache-ttl:60s}") Duration ttl,
+			@Value("${app.tareas.recomendaciones.cache-max-entradas:2000}") long maxEntradas) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxEntradas)
+				.expireAfterWrite(ttl.compareTo(TTL_MAXIMO) > 0 ? TTL_MAXIMO : ttl)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, NOMBRE_METRICA);
+	}
+
+	/* No uso cache.get(clave, funcion) para no bloquear la entrada mientras se consulta la BBDD:
+	 * dos peticiones simultaneas pueden calcular lo mismo, pero ninguna espera a la otra. */
+	public List<TareaFiltroCombinadoResponse> obtener(String emailUsuario, FiltroTareaCombinadoRequest filtro,
+			Integer limite, Supplier<List<TareaFiltroCombinadoResponse>> calcular) {
+		ClaveRecomendaciones clave = new ClaveRecomendaciones(emailUsuario, filtro, limite);
+		List<TareaFiltroCombinadoResponse> cacheadas = cache.getIfPresent(clave);
+		if (cacheadas != null) {
+			return cacheadas;
+		}
+		List<TareaFiltroCombinadoResponse> calculadas = List.copyOf(calcular.get());
+		cache.put(clave, calculadas);
+		return calculadas;
+	}
+
+	/* Se invalida al momento y otra vez tras el commit: una lectura concurrente que aun veia los
+	 * datos antiguos no puede dejar en cache un resultado anterior a la mutacion. */
+	public void invalidarUsuario(String emailUsuario) {
+		if (emailUsuario == null) {
+			return;
+		}
+		String email = normalizarEmail(emailUsuario);
+		borrarEntradas(email);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					borrarEntradas(email);
+				}
+			});
+		}
+	}
+
+	public void invalidarTodo() {
+		cache.invalidateAll();
+	}
+
+	long tamanioEstimado() {
+		cache.cleanUp();
+		return cache.estimatedSize();
+	}
+
+	private void borrarEntradas(String email) {
+		cache.asMap().keySet().removeIf(clave -> clave.email.equals(email));
+	}
+
+	private static String normalizarEmail(String email) {
+		return email.trim().toLowerCase(Locale.ROOT);
+	}
+
+	private static final class ClaveRecomendaciones {
+		private final String email;
+		private final OrigenTareaFiltro origen;
+		private final Long idGrupo;
+		private final List<Prioridad> prioridades;
+		private final List<Estado> estados;
+		private final CriterioOrdenTareaCombinado criterio;
+		private final String palabrasClave;
+		private final Integer tiempoMax;
+		private final Long idCategoria;
+		private final LocalDate fechaEntregaExacta;
+		private final LocalDate fechaEntregaHasta;
+		private final Boolean soloPorCompletar;
+		private final Integer limite;
+		private final int hash;
+
+		private ClaveRecomendaciones(String email, FiltroTareaCombinadoRequest filtro, Integer limite) {
+			this.email = normalizarEmail(email);
+			this.origen = filtro.getOrigen();
+			this.idGrupo = filtro.getIdGrupo();
+			// Mismo criterio que normalizarPrioridades/normalizarEstados del servicio: la lista manda sobre el valor legacy
+			this.prioridades = normalizarLista(filtro.getPrioridades(), filtro.getPrioridad());
+			this.estados = normalizarLista(filtro.getEstados(), filtro.getEstado());
+			this.criterio = filtro.getCriterioOrdenActivo();
+			this.palabrasClave = filtro.getPalabrasClave() != null && !filtro.getPalabrasClave().isBlank()
+					? filtro.getPalabrasClave().trim().toLowerCase(Locale.ROOT)
+					: null;
+			this.tiempoMax = filtro.getTiempoMax();
+			this.idCategoria = filtro.getIdCategoria();
+			this.fechaEntregaExacta = filtro.getFechaEntregaExacta();
+			this.fechaEntregaHasta = filtro.getFechaEntregaHasta();
+			this.soloPorCompletar = filtro.getSoloPorCompletar();
+			this.limite = limite;
+			this.hash = Objects.hash(this.email, origen, idGrupo, prioridades, estados, criterio, palabrasClave,
+					tiempoMax, idCategoria, fechaEntregaExacta, fechaEntregaHasta, soloPorCompletar, limite);
+		}
+
+		private static <T> List<T> normalizarLista(List<T> valores, T legacy) {
+			if (valores != null && !valores.isEmpty()) {
+				return List.copyOf(valores);
+			}
+			return legacy != null ? List.of(legacy) : List.of();
+		}
+
+		@Override
+		public boolean equals(Object otro) {
+			if (this == otro) {
+				return true;
+			}
+			if (!(otro instanceof ClaveRecomendaciones clave)) {
+				return false;
+			}
+			return hash == clave.hash
+					&& email.equals(clave.email)
+					&& origen == clave.origen
+					&& Objects.equals(idGrupo, clave.idGrupo)
+					&& prioridades.equals(clave.prioridades)
+					&& estados.equals(clave.estados)
+					&& criterio == clave.criterio
+					&& Objects.equals(palabrasClave, clave.palabrasClave)
+					&& Objects.equals(tiempoMax, clave.tiempoMax)
+					&& Objects.equals(idCategoria, clave.idCategoria)
+					&& Objects.equals(fechaEntregaExacta, clave.fechaEntregaExacta)
+					&& Objects.equals(fechaEntregaHasta, clave.fechaEntregaHasta)
+					&& Objects.equals(soloPorCompletar, clave.soloPorCompletar)
+					&& Objects.equals(limite, clave.limite);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
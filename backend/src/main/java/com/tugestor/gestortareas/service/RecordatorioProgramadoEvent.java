@@ -0,0 +1,28 @@
+package com.tugestor.gestortareas.service;
+
+import java.time.LocalDateTime;
+
+// Alta, cambio o baja de un recordatorio; PlanificadorRecordatorios lo aplica a la rueda tras el commit
+public class RecordatorioProgramadoEvent {
+	private final Long idRecordatorioTarea;
+	private final LocalDateTime fechaProgramada;
+	private final boolean activo;
+
+	public RecordatorioProgramadoEvent(Long idRecordatorioTarea, LocalDateTime fechaProgramada, boolean activo) {
+		this.idRecordatorioTarea = idRecordatorioTarea;
+		this.fechaProgramada = fechaProgramada;
+		this.activo = activo;
+	}
+
+	public Long getIdRecordatorioTarea() {
+		return idRecordatorioTarea;
+	}
+
+	public LocalDateTime getFechaProgramada() {
+		return fechaProgramada;
+	}
+
+	public boolean isActivo() {
+		return activo;
+	}
+}
@@ -3,9 +3,13 @@ package com.tugestor.gestortareas.service;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.tugestor.gestortareas.dto.RecordatorioInteligenteRequest;
 import com.tugestor.gestortareas.dto.RecordatorioTareaResponse;
@@ -23,12 +27,25 @@ public class RecordatorioTareaServiceImpl implements RecordatorioTareaService {
 	private final RecordatorioTareaRepository rtr;
 	private final TareaRepository tr;
 	private final NotificacionService ns;
+	private final RecomendacionesCache recomendacionesCache;
+	private final ApplicationEventPublisher eventPublisher;
+	private final TransactionTemplate transaccion;
+	private final int tamanioLote;
 
 	public RecordatorioTareaServiceImpl(RecordatorioTareaRepository rtr, TareaRepository tr,
-			NotificacionService ns) {
+			NotificacionService ns, RecomendacionesCache recomendacionesCache,
+			ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+			@Value("${app.notificaciones.recordatorios.lote:500}") int tamanioLote) {
+		if (tamanioLote < 1) {
+			throw new IllegalArgumentException("El lote de recordatorios debe ser de al menos 1");
+		}
 		this.rtr = rtr;
 		this.tr = tr;
 		this.ns = ns;
+		this.recomendacionesCache = recomendacionesCache;
+		this.eventPublisher = eventPublisher;
+		this.transaccion = new TransactionTemplate(transactionManager);
+		this.tamanioLote = tamanioLote;
 	}
 
 	@Override
@@ -38,27 +55,37 @@ public class RecordatorioTareaServiceImpl implements RecordatorioTareaService {
 		Tarea tarea = tr.findById(idTarea)
 				.orElseThrow(() -> new EntityNotFoundException("Tarea no encontrada con id: " + idTarea));
 		validarPropietario(tarea, emailUsuario);
+		// Las recomendadas llevan el indicador de recordatorio activo
+		recomendacionesCache.invalidarUsuario(emailUsuario);
 		return Boolean.TRUE.equals(request.getActivo())
 				? activarRecordatorioInteligente(tarea)
 				: desactivarRecordatorioInteligente(tarea);
 	}
 
+	/* Por lotes de 'tamanioLote', cada uno en su transaccion: reclamo (FOR UPDATE SKIP LOCKED), notificaciones
+	 * con sus envios Web Push y un unico UPDATE que marca el lote procesado. Un atraso grande tras una caida
+	 * se vacia en transacciones cortas y lo ya confirmado no se repite si un lote falla. */
 	@Override
-	@Transactional
 	public int procesarRecordatoriosInteligentesVencidos() {
 		LocalDateTime ahora = LocalDateTime.now();
-		List<RecordatorioTarea> pendientes = rtr
-				.findByTipoAndActivoTrueAndNotificacionGeneradaFalseAndFechaProgramadaLessThanEqual(
-						TipoRecordatorioTarea.RECORDATORIO_INTELIGENTE, ahora);
-		for (RecordatorioTarea recordatorio : pendientes) {
-			ns.crearDesdeRecordatorioInteligente(recordatorio, ahora);
-			recordatorio.setActivo(false);
-			recordatorio.setFechaProcesado(ahora);
-			recordatorio.setNotificacionGenerada(true);
-			recordatorio.setFechaActualizacion(ahora);
+		int total = 0;
+		int procesados;
+		do {
+			procesados = transaccion.execute(estado -> procesarLote(ahora));
+			total += procesados;
+		} while (procesados >= tamanioLote);	// Lote completo: puede quedar mas vencido
+		return total;
+	}
+
+	private int procesarLote(LocalDateTime ahora) {
+		List<Long> ids = rtr.reclamarVencidos(TipoRecordatorioTarea.RECORDATORIO_INTELIGENTE.name(), ahora,
+				tamanioLote);
+		if (ids.isEmpty()) {
+			return 0;
 		}
-		rtr.saveAll(pendientes);
-		return pendientes.size();
+		ns.crearDesdeRecordatoriosInteligentes(rtr.findVencidosPorIds(ids), ahora);
+		rtr.marcarProcesados(ids, ahora);
+		return ids.size();
 	}
 
 	private RecordatorioTareaResponse activarRecordatorioInteligente(Tarea tarea) {
@@ -84,7 +111,10 @@ public class RecordatorioTareaServiceImpl implements RecordatorioTareaService {
 		recordatorio.setFechaActualizacion(ahora);
 		recordatorio.setFechaProcesado(null);
 		recordatorio.setNotificacionGenerada(false);
-		return new RecordatorioTareaResponse(rtr.save(recordatorio));
+		RecordatorioTarea guardado = rtr.save(recordatorio);
+		eventPublisher.publishEvent(new RecordatorioProgramadoEvent(
+				guardado.getIdRecordatorioTarea(), fechaProgramada, true));
+		return new RecordatorioTareaResponse(guardado);
 	}
 
 	private RecordatorioTareaResponse desactivarRecordatorioInteligente(Tarea tarea) {
@@ -93,7 +123,10 @@ public class RecordatorioTareaServiceImpl implements RecordatorioTareaService {
 				.map(recordatorio -> {
 					recordatorio.setActivo(false);
 					recordatorio.setFechaActualizacion(LocalDateTime.now());
-					return new RecordatorioTareaResponse(rtr.save(recordatorio));
+					RecordatorioTarea guardado = rtr.save(recordatorio);
+					eventPublisher.publishEvent(new RecordatorioProgramadoEvent(
+							guardado.getIdRecordatorioTarea(), guardado.getFechaProgramada(), false));
+					return new RecordatorioTareaResponse(guardado);
 				})
 				.orElseGet(() -> new RecordatorioTareaResponse(
 						tarea.getIdTarea(), TipoRecordatorioTarea.RECORDATORIO_INTELIGENTE, false));
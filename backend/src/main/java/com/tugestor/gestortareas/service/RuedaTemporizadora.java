@@ -0,0 +1,111 @@
+package com.tugestor.gestortareas.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/* Rueda temporal jerarquica (hashed hierarchical timing wheel): NIVELES ruedas de 64 ranuras donde la
+ * ranura de un nivel dura 64 veces la del anterior. Con tick de 1 s el nivel 0 cubre un minuto, el 1 unas
+ * horas, el 2 unos dias y el 3 unos 194 dias; lo que venza mas tarde espera en 'lejanos' y se recoloca
+ * cada vez que gira el nivel superior. Programar y cancelar son O(1); avanzar un tick solo toca una ranura
+ * (mas las de los niveles que dan la vuelta, que bajan sus elementos un nivel).
+ * Un elemento nunca vence antes de su hora: el vencimiento se redondea al tick siguiente.
+ * No es concurrente por dentro; todos los metodos se sincronizan sobre la rueda. */
+final class RuedaTemporizadora<T> {
+	private static final int BITS = 6;
+	private static final int RANURAS = 1 << BITS;
+	private static final int NIVELES = 4;
+
+	private final long tickMillis;
+	private final List<Map<T, Long>> ranuras = new ArrayList<>(NIVELES * RANURAS);
+	private final Map<T, Long> lejanos = new HashMap<>();
+	private final Map<T, Long> vencidos = new HashMap<>();
+	// Donde esta cada elemento, para cancelarlo o reprogramarlo sin recorrer la rueda
+	private final Map<T, Map<T, Long>> ubicacion = new HashMap<>();
+	private long tickActual;
+
+	RuedaTemporizadora(long tickMillis, long ahoraMillis) {
+		if (tickMillis < 1) {
+			throw new IllegalArgumentException("El tick de la rueda debe ser de al menos 1 ms");
+		}
+		this.tickMillis = tickMillis;
+		this.tickActual = Math.floorDiv(ahoraMillis, tickMillis);
+		for (int i = 0; i < NIVELES * RANURAS; i++) {
+			ranuras.add(new HashMap<>());
+		}
+	}
+
+	// Programa o reprograma 'elemento' para 'vencimientoMillis' (epoch ms); en el pasado vence en el proximo avance
+	synchronized void programar(T elemento, long vencimientoMillis) {
+		cancelar(elemento);
+		colocar(elemento, Math.floorDiv(vencimientoMillis + tickMillis - 1, tickMillis));
+	}
+
+	synchronized boolean cancelar(T elemento) {
+		Map<T, Long> donde = ubicacion.remove(elemento);
+		if (donde == null) {
+			return false;
+		}
+		donde.remove(elemento);
+		return true;
+	}
+
+	// Avanza hasta 'ahoraMillis' y devuelve (y olvida) lo que ha vencido por el camino
+	synchronized List<T> avanzar(long ahoraMillis) {
+		long objetivo = Math.floorDiv(ahoraMillis, tickMillis);
+		while (tickActual < objetivo) {
+			tickActual++;
+			// De arriba abajo: lo que baja de un nivel puede caer en la ranura que gira en el de debajo
+			for (int nivel = NIVELES - 1; nivel > 0; nivel--) {
+				if ((tickActual & ((1L << (BITS * nivel)) - 1)) == 0) {
+					if (nivel == NIVELES - 1) {
+						recolocar(lejanos);
+					}
+					recolocar(ranura(nivel, tickActual));
+				}
+			}
+			recolocar(ranura(0, tickActual));
+		}
+		if (vencidos.isEmpty()) {
+			return List.of();
+		}
+		List<T> resultado = new ArrayList<>(vencidos.keySet());
+		resultado.forEach(ubicacion::remove);
+		vencidos.clear();
+		return resultado;
+	}
+
+	synchronized int tamanio() {
+		return ubicacion.size();
+	}
+
+	private void colocar(T elemento, long vencimientoTick) {
+		long espera = vencimientoTick - tickActual;
+		Map<T, Long> destino;
+		if (espera <= 0) {
+			destino = vencidos;
+		} else {
+			int nivel = 0;
+			while (nivel < NIVELES && espera >= 1L << (BITS * (nivel + 1))) {
+				nivel++;
+			}
+			destino = nivel == NIVELES ? lejanos : ranura(nivel, vencimientoTick);
+		}
+		destino.put(elemento, vencimientoTick);
+		ubicacion.put(elemento, destino);
+	}
+
+	private void recolocar(Map<T, Long> origen) {
+		if (origen.isEmpty()) {
+			return;
+		}
+		Map<T, Long> copia = new HashMap<>(origen);
+		origen.clear();
+		copia.forEach(this::colocar);
+	}
+
+	private Map<T, Long> ranura(int nivel, long tick) {
+		return ranuras.get(nivel * RANURAS + (int) ((tick >>> (BITS * nivel)) & (RANURAS - 1)));
+	}
+}
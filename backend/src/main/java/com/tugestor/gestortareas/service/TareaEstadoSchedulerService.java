@@ -0,0 +1,46 @@
+package com.tugestor.gestortareas.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+public class TareaEstadoSchedulerService {
+	private static final Logger logger = LoggerFactory.getLogger(TareaEstadoSchedulerService.class);
+
+	private final TareaService tareaService;
+
+	public TareaEstadoSchedulerService(TareaService tareaService) {
+		this.tareaService = tareaService;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void sincronizarEstadosAlArrancar() {
+		try {
+			// Filas creadas antes de existir la columna estado o mientras la app estaba parada
+			int inicializadas = tareaService.inicializarEstadosPersistidos();
+			int vencidas = tareaService.marcarTareasVencidas();
+			if (inicializadas > 0 || vencidas > 0) {
+				logger.info("Estados de tareas sincronizados al arrancar. Inicializadas: {}, vencidas: {}",
+						inicializadas, vencidas);
+			}
+		} catch (Exception ex) {
+			logger.error("Error sincronizando el estado de las tareas al arrancar.", ex);
+		}
+	}
+
+	@Scheduled(cron = "${app.tareas.estado.barrido-cron:0 * * * * *}")
+	public void marcarTareasVencidas() {
+		try {
+			int vencidas = tareaService.marcarTareasVencidas();
+			if (vencidas > 0) {
+				logger.debug("Barrido de estados: {} tareas pasan a VENCIDA.", vencidas);
+			}
+		} catch (Exception ex) {
+			logger.error("Error en el barrido de tareas vencidas.", ex);
+		}
+	}
+}
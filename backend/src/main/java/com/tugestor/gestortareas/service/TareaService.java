@@ -4,11 +4,13 @@ import java.util.List;
 
 import com.tugestor.gestortareas.dto.EstadoFiltroTareaResponse;
 import com.tugestor.gestortareas.dto.FiltroTareaCombinadoRequest;
+import com.tugestor.gestortareas.dto.PaginaTareasResponse;
 import com.tugestor.gestortareas.dto.TareaAsignadaGrupoResponse;
 import com.tugestor.gestortareas.dto.TareaFiltroCombinadoResponse;
 import com.tugestor.gestortareas.dto.TareaRequest;
 import com.tugestor.gestortareas.dto.TareaResponse;
 import com.tugestor.gestortareas.model.Estado;
+import com.tugestor.gestortareas.model.OrdenPaginaTarea;
 import com.tugestor.gestortareas.model.Tarea;
 
 public interface TareaService {
@@ -26,12 +28,19 @@ public interface TareaService {
 	List<Tarea> obtenerPorTiempo(String emailUsuarioCreador);
 	List<Tarea> obtenerPorPrioridad(String emailUsuarioCreador);
 	List<Tarea> obtenerPorFechaEntrega(String emailUsuarioCreador);
+	List<TareaResponse> listarTareaResponses(OrdenPaginaTarea orden, String emailUsuarioCreador);
+	List<TareaResponse> listarTareasProximasResponses(String emailUsuarioCreador);
+	List<TareaResponse> listarTareasVencidasResponses(String emailUsuarioCreador);
+	PaginaTareasResponse obtenerPagina(OrdenPaginaTarea orden, String cursor, Integer tamanio,
+			String emailUsuarioCreador);
 	List<Tarea> filtrarPorPrioridad(String prioridad, String emailUsuarioCreador);
 	List<Tarea> filtrarPorTiempo(int tiempo, String emailUsuarioCreador);
 	List<Tarea> filtrarPorPalabrasClave(String palabrasClave, String emailUsuarioCreador);
 	List<Tarea> filtrarPorCategoria(Long idCategoria, String emailUsuarioCreador);
 	List<Tarea> filtrarPorUsuario(Long idUsuario);
 	List<Tarea> filtrarPorEstado(Estado estado, String emailUsuarioCreador);
+	int marcarTareasVencidas();
+	int inicializarEstadosPersistidos();
 	Estado obtenerEstado(Long id, String emailUsuarioCreador);
 	TareaResponse marcarTareaCompletada(Long idTarea, String emailUsuarioQueCompleta);
 	List<Tarea> obtenerTareasHoy(String emailUsuarioCreador);
@@ -42,7 +51,7 @@ public interface TareaService {
 	List<TareaFiltroCombinadoResponse> filtrarCombinado(FiltroTareaCombinadoRequest filtro,
 			String emailUsuarioCreador);
 	List<TareaFiltroCombinadoResponse> obtenerTareasRecomendadas(FiltroTareaCombinadoRequest filtro,
-			String emailUsuarioCreador);
+			Integer limite, String emailUsuarioCreador);
 	EstadoFiltroTareaResponse obtenerEstadoFiltroCombinadoGuardado(String emailUsuario);
 	EstadoFiltroTareaResponse guardarEstadoFiltroCombinado(FiltroTareaCombinadoRequest filtro, String emailUsuario);
 }
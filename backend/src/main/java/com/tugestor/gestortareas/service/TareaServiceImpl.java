@@ -2,14 +2,17 @@ package com.tugestor.gestortareas.service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.tugestor.gestortareas.dto.EstadoFiltroTareaResponse;
 import com.tugestor.gestortareas.dto.FiltroTareaCombinadoRequest;
+import com.tugestor.gestortareas.dto.PaginaTareasResponse;
 import com.tugestor.gestortareas.dto.TareaAsignadaGrupoResponse;
 import com.tugestor.gestortareas.dto.TareaFiltroCombinadoResponse;
 import com.tugestor.gestortareas.dto.TareaRequest;
@@ -21,6 +24,7 @@ import com.tugestor.gestortareas.model.EstadoRevisionAsignacion;
 import com.tugestor.gestortareas.model.Estado;
 import com.tugestor.gestortareas.model.EstadoFiltroTarea;
 import com.tugestor.gestortareas.model.Grupo;
+import com.tugestor.gestortareas.model.OrdenPaginaTarea;
 import com.tugestor.gestortareas.model.OrigenTareaFiltro;
 import com.tugestor.gestortareas.model.Prioridad;
 import com.tugestor.gestortareas.model.Tarea;
@@ -33,16 +37,24 @@ import com.tugestor.gestortareas.repository.GrupoMiembroRepository;
 import com.tugestor.gestortareas.repository.GrupoRepository;
 import com.tugestor.gestortareas.repository.NotificacionRepository;
 import com.tugestor.gestortareas.repository.RecordatorioTareaRepository;
+import com.tugestor.gestortareas.repository.TareaFiltroCombinadoSpecifications;
 import com.tugestor.gestortareas.repository.TareaRepository;
 import com.tugestor.gestortareas.repository.UsuarioRepository;
 import com.tugestor.gestortareas.service.scoring.TareaInteligenteRankingService;
 import com.tugestor.gestortareas.service.scoring.TareaScoringContext;
+import com.tugestor.gestortareas.security.AuthenticatedUser;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ValidationException;
 
 @Service
 public class TareaServiceImpl implements TareaService{
+	private static final int TAMANIO_PAGINA_POR_DEFECTO = 50;
+	private static final int TAMANIO_PAGINA_MAXIMO = 200;
+	// Mismo orden que obtenerPorPrioridad: de mas a menos prioritaria
+	private static final List<Prioridad> PRIORIDADES_DESC = List.of(
+			Prioridad.IMPRESCINDIBLE, Prioridad.ALTA, Prioridad.MEDIA, Prioridad.BAJA);
+	
 	// Inyección de dependencias a través de @Autowired
 	// @Autowired
 	// private TareaRepository tr;
@@ -60,10 +72,11 @@ public class TareaServiceImpl implements TareaService{
 	private final RecordatorioTareaRepository rtr;
 	private final NotificacionRepository nr;
 	private final TareaInteligenteRankingService rankingInteligenteService;
+	private final RecomendacionesCache recomendacionesCache;
 	public TareaServiceImpl(TareaRepository tr, CategoriaRepository cr, UsuarioRepository ur,
 			AsignacionGrupoMiembroRepository agmr, GrupoRepository gr, GrupoMiembroRepository gmr,
 			EstadoFiltroTareaRepository eftr, RecordatorioTareaRepository rtr, NotificacionRepository nr,
-			TareaInteligenteRankingService rankingInteligenteService) {
+			TareaInteligenteRankingService rankingInteligenteService, RecomendacionesCache recomendacionesCache) {
 		this.tr = tr;
 		this.cr = cr;
 		this.ur = ur;
@@ -74,6 +87,7 @@ public class TareaServiceImpl implements TareaService{
 		this.rtr = rtr;
 		this.nr = nr;
 		this.rankingInteligenteService = rankingInteligenteService;
+		this.recomendacionesCache = recomendacionesCache;
 	}
 	
 	@Override
@@ -102,7 +116,9 @@ public class TareaServiceImpl implements TareaService{
 		if (tarea.getFechaEntrega() != null && tarea.getFechaEntrega().isBefore(LocalDateTime.now())) {
 			throw new ValidationException("La fecha de entrega no puede haber pasado.");
 		}
-		return tr.save(tarea);
+		Tarea guardada = tr.save(tarea);
+		recomendacionesCache.invalidarUsuario(emailUsuario);
+		return guardada;
 	}
 
 	@Override
@@ -151,6 +167,7 @@ public class TareaServiceImpl implements TareaService{
 		nr.desvincularTarea(tarea);
 		rtr.deleteByTarea(tarea);
 		tr.delete(tarea);
+		recomendacionesCache.invalidarUsuario(emailUsuario);
 	}
 	
 	@Override
@@ -196,7 +213,9 @@ public class TareaServiceImpl implements TareaService{
 				throw new ValidationException("La fecha de completado no puede ser anterior a la fecha de creación.");
 			}
 			
-			return tr.save(existente);
+			Tarea actualizada = tr.save(existente);
+			recomendacionesCache.invalidarUsuario(emailUsuario);
+			return actualizada;
 		} else {
 			throw new EntityNotFoundException("Tarea no encontrada con id: " + idTarea);
 		}
@@ -224,6 +243,69 @@ public class TareaServiceImpl implements TareaService{
 		return tr.findAllByUsuarioEmailOrderByFechaEntregaAsc(emailUsuario);
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public List<TareaResponse> listarTareaResponses(OrdenPaginaTarea orden, String emailUsuario) {
+		OrdenPaginaTarea ordenListado = orden != null ? orden : OrdenPaginaTarea.ID;
+		List<TareaResponse> responses = switch (ordenListado) {
+		case ID -> tr.findResponsesByUsuarioEmail(emailUsuario);
+		case TITULO -> tr.findResponsesByUsuarioEmailOrderByTitulo(emailUsuario);
+		case TIEMPO -> tr.findResponsesByUsuarioEmailOrderByTiempo(emailUsuario);
+		case PRIORIDAD -> tr.findResponsesByUsuarioEmailOrderByPrioridad(emailUsuario);
+		case FECHA_ENTREGA -> tr.findResponsesByUsuarioEmailOrderByFechaEntrega(emailUsuario);
+		};
+		return marcarRecordatoriosInteligentes(responses, emailUsuario);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public List<TareaResponse> listarTareasProximasResponses(String emailUsuario) {
+		return marcarRecordatoriosInteligentes(
+				tr.findResponsesProximasByUsuarioEmail(emailUsuario, LocalDateTime.now()), emailUsuario);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public List<TareaResponse> listarTareasVencidasResponses(String emailUsuario) {
+		return marcarRecordatoriosInteligentes(
+				tr.findResponsesVencidasByUsuarioEmail(emailUsuario, LocalDateTime.now()), emailUsuario);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public PaginaTareasResponse obtenerPagina(OrdenPaginaTarea orden, String cursor, Integer tamanio,
+			String emailUsuario) {
+		OrdenPaginaTarea ordenPagina = orden != null ? orden : OrdenPaginaTarea.ID;
+		int tamanioPagina = normalizarTamanioPagina(tamanio);
+		CursorPaginaTarea cursorActual = CursorPaginaTarea.decodificar(cursor, ordenPagina);
+		Long idUsuario = obtenerUsuarioAutenticado(emailUsuario).getIdUsuario();
+		// Pido una tarea de mas para saber si existe pagina siguiente sin lanzar un COUNT
+		int limite = tamanioPagina + 1;
+		
+		List<Tarea> tareas = switch (ordenPagina) {
+		case ID -> tr.findByUsuario_IdUsuarioAndIdTareaGreaterThanOrderByIdTareaAsc(
+				idUsuario, cursorActual != null ? cursorActual.getIdTarea() : 0L, PageRequest.of(0, limite));
+		case TITULO -> cursorActual == null
+				? tr.findByUsuario_IdUsuarioOrderByTituloAscIdTareaAsc(idUsuario, PageRequest.of(0, limite))
+				: tr.findPaginaPorTituloTrasCursor(idUsuario, cursorActual.getTitulo(),
+						cursorActual.getIdTarea(), PageRequest.of(0, limite));
+		case TIEMPO -> cursorActual == null
+				? tr.findByUsuario_IdUsuarioOrderByTiempoAscIdTareaAsc(idUsuario, PageRequest.of(0, limite))
+				: tr.findPaginaPorTiempoTrasCursor(idUsuario, cursorActual.getTiempo(),
+						cursorActual.getIdTarea(), PageRequest.of(0, limite));
+		case PRIORIDAD -> paginaPorPrioridad(idUsuario, cursorActual, limite);
+		case FECHA_ENTREGA -> paginaPorFechaEntrega(idUsuario, cursorActual, limite);
+		};
+		
+		boolean hayMas = tareas.size() > tamanioPagina;
+		List<Tarea> pagina = hayMas ? tareas.subList(0, tamanioPagina) : tareas;
+		String siguienteCursor = hayMas
+				? CursorPaginaTarea.desde(ordenPagina, pagina.get(pagina.size() - 1)).codificar()
+				: null;
+		return new PaginaTareasResponse(crearTareaResponses(pagina, emailUsuario), siguienteCursor, hayMas,
+				tamanioPagina);
+	}
+
 	@Override
 	public List<Tarea> filtrarPorPrioridad(String prioridad, String emailUsuario) {
 		// Convierto la cadena de prioridad a un enum Prioridad
@@ -284,15 +366,32 @@ public class TareaServiceImpl implements TareaService{
 		tarea.setUsuarioQueCompleta(usuarioAutenticado);
 		tr.save(tarea);
 		actualizarRevisionSiEsAsignacionGrupo(tarea);
+		recomendacionesCache.invalidarUsuario(emailUsuarioQueCompleta);
 		return crearTareaResponse(tarea, emailUsuarioQueCompleta);
 	}
 	
 	@Override
+	@Transactional(readOnly = true)
 	public List<Tarea> filtrarPorEstado(Estado estado, String emailUsuario) {
-		List<Tarea> tareasUsuario = tr.findByUsuarioEmail(emailUsuario);
-		return tareasUsuario.stream()
-				.filter(t -> t.getEstado() == estado)
-				.toList();
+		LocalDateTime ahora = LocalDateTime.now();
+		return switch (estado) {
+		case EN_CURSO -> tr.findEnCursoPorUsuarioEmail(emailUsuario, ahora);
+		case VENCIDA -> tr.findVencidasPorUsuarioEmail(emailUsuario, ahora);
+		default -> tr.findByUsuarioEmailAndEstadoPersistido(emailUsuario, estado);
+		};
+	}
+	
+	@Override
+	@Transactional
+	public int marcarTareasVencidas() {
+		// Corto al inicio del minuto: cada pasada vence de golpe el tramo de fechas ya cumplido
+		return tr.marcarVencidasHasta(LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES));
+	}
+	
+	@Override
+	@Transactional
+	public int inicializarEstadosPersistidos() {
+		return tr.inicializarEstadosSinCalcular(LocalDateTime.now());
 	}
 	
 	@Override
@@ -331,6 +430,12 @@ public class TareaServiceImpl implements TareaService{
 	@Override
 	public List<TareaFiltroCombinadoResponse> filtrarCombinado(FiltroTareaCombinadoRequest filtro,
 			String emailUsuarioCreador) {
+		return filtrarCombinado(filtro, null, emailUsuarioCreador);
+	}
+	
+	// limiteInteligente solo aplica al orden INTELIGENTE: ranking top-k en vez de ordenar todas las candidatas
+	private List<TareaFiltroCombinadoResponse> filtrarCombinado(FiltroTareaCombinadoRequest filtro,
+			Integer limiteInteligente, String emailUsuarioCreador) {
 		FiltroTareaCombinadoRequest filtroNormalizado = filtro != null ? filtro : new FiltroTareaCombinadoRequest();
 		Usuario usuario = obtenerUsuarioAutenticado(emailUsuarioCreador);
 		OrigenTareaFiltro origen = filtroNormalizado.getOrigen() != null
@@ -342,22 +447,14 @@ public class TareaServiceImpl implements TareaService{
 		
 		validarFiltroCombinado(filtroNormalizado, usuario, origen);
 		
-		List<AsignacionGrupoMiembro> asignacionesGrupo = filtroNormalizado.getIdGrupo() != null
-				? agmr.findTareasAsignadasGrupoUsuarioPorGrupo(emailUsuarioCreador, filtroNormalizado.getIdGrupo())
-				: agmr.findTareasAsignadasGrupoUsuario(emailUsuarioCreador);
-		
-		Set<Long> idsTareasGrupo = asignacionesGrupo.stream()
-				.map(AsignacionGrupoMiembro::getTareaGenerada)
-				.filter(Objects::nonNull)
-				.map(Tarea::getIdTarea)
-				.collect(java.util.stream.Collectors.toSet());
-		
 		List<TareaScoringContext> contextos = construirContextosFiltroCombinado(
-				filtroNormalizado, emailUsuarioCreador, origen, asignacionesGrupo, idsTareasGrupo);
+				filtroNormalizado, emailUsuarioCreador, origen);
 		
 		if (criterioOrden == CriterioOrdenTareaCombinado.INTELIGENTE) {
-			return mapearContextosFiltroCombinado(
-					rankingInteligenteService.ordenarPorScoreDesc(contextos), emailUsuarioCreador);
+			List<TareaScoringContext> ordenados = limiteInteligente != null
+					? rankingInteligenteService.mejoresPorScore(contextos, limiteInteligente)
+					: rankingInteligenteService.ordenarPorScoreDesc(contextos);
+			return mapearContextosFiltroCombinado(ordenados, emailUsuarioCreador);
 		}
 		
 		List<TareaFiltroCombinadoResponse> resultado = new ArrayList<>(
@@ -368,8 +465,13 @@ public class TareaServiceImpl implements TareaService{
 
 	@Override
 	public List<TareaFiltroCombinadoResponse> obtenerTareasRecomendadas(FiltroTareaCombinadoRequest filtro,
-			String emailUsuarioCreador) {
-		return filtrarCombinado(normalizarFiltroRecomendadas(filtro), emailUsuarioCreador);
+			Integer limite, String emailUsuarioCreador) {
+		if (limite != null && limite < 1) {
+			throw new ValidationException("El limite de recomendaciones debe ser mayor que 0.");
+		}
+		FiltroTareaCombinadoRequest recomendado = normalizarFiltroRecomendadas(filtro);
+		return recomendacionesCache.obtener(emailUsuarioCreador, recomendado, limite,
+				() -> filtrarCombinado(recomendado, limite, emailUsuarioCreador));
 	}
 
 	@Override
@@ -416,6 +518,49 @@ public class TareaServiceImpl implements TareaService{
 	}
 	
 	
+	private int normalizarTamanioPagina(Integer tamanio) {
+		if (tamanio == null) {
+			return TAMANIO_PAGINA_POR_DEFECTO;
+		}
+		if (tamanio < 1) {
+			throw new ValidationException("El tamaño de pagina debe ser mayor que 0.");
+		}
+		return Math.min(tamanio, TAMANIO_PAGINA_MAXIMO);
+	}
+	
+	/* La prioridad se guarda como texto, asi que ordenar por la columna no respeta el orden del enum.
+	 * Recorro cada prioridad como un tramo propio ordenado por id y paso al siguiente tramo cuando
+	 * el actual se agota. */
+	private List<Tarea> paginaPorPrioridad(Long idUsuario, CursorPaginaTarea cursor, int limite) {
+		List<Tarea> resultado = new ArrayList<>();
+		int inicio = cursor != null ? PRIORIDADES_DESC.indexOf(cursor.getPrioridad()) : 0;
+		for (int i = inicio; i < PRIORIDADES_DESC.size() && resultado.size() < limite; i++) {
+			Long idDesde = cursor != null && i == inicio ? cursor.getIdTarea() : 0L;
+			resultado.addAll(tr.findByUsuario_IdUsuarioAndPrioridadAndIdTareaGreaterThanOrderByIdTareaAsc(
+					idUsuario, PRIORIDADES_DESC.get(i), idDesde, PageRequest.of(0, limite - resultado.size())));
+		}
+		return resultado;
+	}
+	
+	// Primero las tareas con fecha de entrega y despues las que no tienen fecha, ordenadas por id
+	private List<Tarea> paginaPorFechaEntrega(Long idUsuario, CursorPaginaTarea cursor, int limite) {
+		List<Tarea> resultado = new ArrayList<>();
+		boolean enTramoSinFecha = cursor != null && cursor.getFechaEntrega() == null;
+		if (!enTramoSinFecha) {
+			resultado.addAll(cursor == null
+					? tr.findByUsuario_IdUsuarioAndFechaEntregaIsNotNullOrderByFechaEntregaAscIdTareaAsc(
+							idUsuario, PageRequest.of(0, limite))
+					: tr.findPaginaPorFechaEntregaTrasCursor(idUsuario, cursor.getFechaEntrega(),
+							cursor.getIdTarea(), PageRequest.of(0, limite)));
+		}
+		if (resultado.size() < limite) {
+			Long idDesde = enTramoSinFecha ? cursor.getIdTarea() : 0L;
+			resultado.addAll(tr.findByUsuario_IdUsuarioAndFechaEntregaIsNullAndIdTareaGreaterThanOrderByIdTareaAsc(
+					idUsuario, idDesde, PageRequest.of(0, limite - resultado.size())));
+		}
+		return resultado;
+	}
+	
 	private void validarCoherenciaCompletado(boolean completada, LocalDateTime fechaCompletada) {
 		if (completada && fechaCompletada == null) {
 			throw new ValidationException("Una tarea completada debe incluir la fecha de finalización.");
@@ -435,62 +580,6 @@ public class TareaServiceImpl implements TareaService{
 		});
 	}
 	
-	private boolean cumpleFiltrosTarea(Tarea tarea, FiltroTareaCombinadoRequest filtro) {
-		if (tarea == null) {
-			return false;
-		}
-		List<Prioridad> prioridades = normalizarPrioridades(filtro);
-		List<Estado> estados = normalizarEstados(filtro);
-		if (estados.isEmpty() && Boolean.TRUE.equals(filtro.getSoloPorCompletar())
-				&& esEstadoCompletado(tarea.getEstado())) {
-			return false;
-		}
-		if (!prioridades.isEmpty() && !prioridades.contains(tarea.getPrioridad())) {
-			return false;
-		}
-		if (!estados.isEmpty() && !estados.contains(tarea.getEstado())) {
-			return false;
-		}
-		if (filtro.getTiempoMax() != null && tarea.getTiempo() > filtro.getTiempoMax()) {
-			return false;
-		}
-		if (filtro.getIdCategoria() != null
-				&& (tarea.getCategoria() == null
-						|| !filtro.getIdCategoria().equals(tarea.getCategoria().getIdCategoria()))) {
-			return false;
-		}
-		if (tienePalabrasClave(filtro)
-				&& !contienePalabrasClave(tarea, filtro.getPalabrasClave().trim().toLowerCase(Locale.ROOT))) {
-			return false;
-		}
-		if (filtro.getFechaEntregaExacta() != null
-				&& (tarea.getFechaEntrega() == null
-						|| !tarea.getFechaEntrega().toLocalDate().equals(filtro.getFechaEntregaExacta()))) {
-			return false;
-		}
-		if (filtro.getFechaEntregaHasta() != null) {
-			if (tarea.getFechaEntrega() == null) {
-				return false;
-			}
-			LocalDate fechaEntrega = tarea.getFechaEntrega().toLocalDate();
-			LocalDate hoy = LocalDate.now();
-			if (fechaEntrega.isBefore(hoy) || fechaEntrega.isAfter(filtro.getFechaEntregaHasta())) {
-				return false;
-			}
-		}
-		return true;
-	}
-	
-	private boolean tienePalabrasClave(FiltroTareaCombinadoRequest filtro) {
-		return filtro.getPalabrasClave() != null && !filtro.getPalabrasClave().trim().isBlank();
-	}
-	
-	private boolean contienePalabrasClave(Tarea tarea, String palabrasClave) {
-		String titulo = tarea.getTitulo() != null ? tarea.getTitulo().toLowerCase(Locale.ROOT) : "";
-		String descripcion = tarea.getDescripcion() != null ? tarea.getDescripcion().toLowerCase(Locale.ROOT) : "";
-		return titulo.contains(palabrasClave) || descripcion.contains(palabrasClave);
-	}
-	
 	private void validarFiltroCombinado(FiltroTareaCombinadoRequest filtro, Usuario usuario, OrigenTareaFiltro origen) {
 		if (origen == OrigenTareaFiltro.PERSONAL && filtro.getIdGrupo() != null) {
 			throw new ValidationException("No se puede filtrar por grupo cuando el origen es PERSONAL.");
@@ -553,10 +642,6 @@ public class TareaServiceImpl implements TareaService{
 		}
 	}
 	
-	private boolean esEstadoCompletado(Estado estado) {
-		return estado == Estado.COMPLETADA || estado == Estado.COMPLETADA_CON_RETRASO;
-	}
-
 	private FiltroTareaCombinadoRequest normalizarFiltroRecomendadas(FiltroTareaCombinadoRequest filtro) {
 		FiltroTareaCombinadoRequest origen = filtro != null ? filtro : new FiltroTareaCombinadoRequest();
 		FiltroTareaCombinadoRequest recomendado = new FiltroTareaCombinadoRequest();
@@ -577,20 +662,21 @@ public class TareaServiceImpl implements TareaService{
 	}
 	
 	private List<TareaScoringContext> construirContextosFiltroCombinado(FiltroTareaCombinadoRequest filtro,
-			String emailUsuarioCreador, OrigenTareaFiltro origen, List<AsignacionGrupoMiembro> asignacionesGrupo,
-			Set<Long> idsTareasGrupo) {
+			String emailUsuarioCreador, OrigenTareaFiltro origen) {
+		List<Prioridad> prioridades = normalizarPrioridades(filtro);
+		List<Estado> estados = normalizarEstados(filtro);
+		LocalDateTime ahora = LocalDateTime.now();
 		List<TareaScoringContext> contextos = new ArrayList<>();
 		if (filtro.getIdGrupo() == null
 				&& (origen == OrigenTareaFiltro.TODAS || origen == OrigenTareaFiltro.PERSONAL)) {
-			tr.findByUsuarioEmail(emailUsuarioCreador).stream()
-					.filter(tarea -> !idsTareasGrupo.contains(tarea.getIdTarea()))
-					.filter(tarea -> cumpleFiltrosTarea(tarea, filtro))
+			tr.findAll(TareaFiltroCombinadoSpecifications.tareasPersonales(
+					emailUsuarioCreador, filtro, prioridades, estados, ahora)).stream()
 					.map(TareaScoringContext::personal)
 					.forEach(contextos::add);
 		}
 		if (origen == OrigenTareaFiltro.TODAS || origen == OrigenTareaFiltro.GRUPO) {
-			asignacionesGrupo.stream()
-					.filter(asignacion -> cumpleFiltrosTarea(asignacion.getTareaGenerada(), filtro))
+			agmr.findAll(TareaFiltroCombinadoSpecifications.asignacionesGrupo(
+					emailUsuarioCreador, filtro.getIdGrupo(), filtro, prioridades, estados, ahora)).stream()
 					.map(TareaScoringContext::grupo)
 					.forEach(contextos::add);
 		}
@@ -661,9 +747,21 @@ public class TareaServiceImpl implements TareaService{
 				emailUsuarioCreador, TipoRecordatorioTarea.RECORDATORIO_INTELIGENTE, idsNormalizados));
 	}
 	
+	private List<TareaResponse> marcarRecordatoriosInteligentes(List<TareaResponse> responses,
+			String emailUsuarioCreador) {
+		Set<Long> idsConRecordatorio = obtenerIdsTareasConRecordatorioInteligenteActivo(
+				responses.stream().map(TareaResponse::getIdTarea).toList(), emailUsuarioCreador);
+		responses.forEach(response -> response.setRecordatorioInteligenteActivo(
+				idsConRecordatorio.contains(response.getIdTarea())));
+		return responses;
+	}
+	
+	// Con el id firmado en el JWT basta una referencia: no se consulta la BBDD salvo que se lea otro campo
 	private Usuario obtenerUsuarioAutenticado(String emailUsuario) {
-		return ur.findByEmail(emailUsuario)
-				.orElseThrow(() -> new EntityNotFoundException("Usuario autenticado no encontrado."));
+		return AuthenticatedUser.idUsuarioSiEs(emailUsuario)
+				.map(ur::getReferenceById)
+				.orElseGet(() -> ur.findByEmail(emailUsuario)
+						.orElseThrow(() -> new EntityNotFoundException("Usuario autenticado no encontrado.")));
 	}
 	
 	private Comparator<TareaFiltroCombinadoResponse> comparadorFiltroCombinado(
@@ -14,5 +14,6 @@ public interface UsuarioService {
 	Usuario guardarUsuario(UsuarioRequest usuarioRequest);
 	Usuario obtenerUsuarioActual();
 	void eliminarUsuarioActual();
+	void cerrarSesionesUsuarioActual();
 	LoginResponse login (LoginRequest login);
 }
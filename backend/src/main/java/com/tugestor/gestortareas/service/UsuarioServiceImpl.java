@@ -19,6 +19,7 @@ import com.tugestor.gestortareas.model.Usuario;
 import com.tugestor.gestortareas.repository.CategoriaRepository;
 import com.tugestor.gestortareas.repository.TareaRepository;
 import com.tugestor.gestortareas.repository.UsuarioRepository;
+import com.tugestor.gestortareas.security.UsuarioDetallesCache;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -28,11 +29,14 @@ public class UsuarioServiceImpl implements UsuarioService{
 	private final PasswordEncoder pe;
 	private final CategoriaRepository cr;
 	private final TareaRepository tr;
-	public UsuarioServiceImpl(UsuarioRepository ur, PasswordEncoder pe, CategoriaRepository cr, TareaRepository tr) {
+	private final UsuarioDetallesCache usuarioDetallesCache;
+	public UsuarioServiceImpl(UsuarioRepository ur, PasswordEncoder pe, CategoriaRepository cr, TareaRepository tr,
+			UsuarioDetallesCache usuarioDetallesCache) {
 		this.ur = ur;
 		this.pe = pe;
 		this.cr = cr;
 		this.tr = tr;
+		this.usuarioDetallesCache = usuarioDetallesCache;
 	}
 	
 	@Deprecated(since="2.0", forRemoval=false)
@@ -72,6 +76,17 @@ public class UsuarioServiceImpl implements UsuarioService{
 			cr.deleteAll(categoriasUsuario);
 		}
 		ur.delete(usuario);
+		usuarioDetallesCache.invalidarUsuario(usuario.getEmail());
+	}
+
+	// Sube la version de token: los access y refresh token emitidos hasta ahora dejan de ser validos
+	@Transactional
+	@Override
+	public void cerrarSesionesUsuarioActual() {
+		Usuario usuario = obtenerUsuarioActual();
+		usuario.setVersionToken(usuario.getVersionToken() + 1);
+		ur.save(usuario);
+		usuarioDetallesCache.invalidarUsuario(usuario.getEmail());
 	}
 
 	@Override
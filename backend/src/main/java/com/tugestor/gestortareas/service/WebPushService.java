@@ -1,5 +1,12 @@
 package com.tugestor.gestortareas.service;
 
+import java.util.Collection;
+
+import com.tugestor.gestortareas.model.Notificacion;
+
 public interface WebPushService {
-	void enviarPushNotificacion(Long idNotificacion);
+	void registrarEnvios(Notificacion notificacion);
+	// Igual que registrarEnvios para muchas notificaciones ya guardadas, con una sola consulta de subscripciones
+	void registrarEnvios(Collection<Notificacion> notificaciones);
+	int procesarPendientes(int tamanioLote);
 }
@@ -1,113 +1,289 @@
 package com.tugestor.gestortareas.service;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-import org.apache.http.HttpResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tugestor.gestortareas.config.WebPushProperties;
+import com.tugestor.gestortareas.model.EnvioPush;
+import com.tugestor.gestortareas.model.EstadoEnvioPush;
 import com.tugestor.gestortareas.model.EstadoPushNotificacion;
 import com.tugestor.gestortareas.model.Notificacion;
 import com.tugestor.gestortareas.model.PushSubscripcion;
+import com.tugestor.gestortareas.repository.EnvioPushRepository;
 import com.tugestor.gestortareas.repository.NotificacionRepository;
 import com.tugestor.gestortareas.repository.PushSubscripcionRepository;
 
-import nl.martijndwars.webpush.Notification;
-import nl.martijndwars.webpush.PushService;
-
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+/* Web Push con bandeja de salida (tabla envio_push). registrarEnvios escribe un envio por subscripcion
+ * activa en la misma transaccion que la notificacion, asi que un reinicio tras el commit no pierde nada.
+ * procesarPendientes trabaja por lotes en tres fases, sin conexion de BD abierta durante el HTTP:
+ * 1. reclamo: SELECT ... FOR UPDATE SKIP LOCKED de los envios vencidos, que quedan reservados
+ *    'bloqueoEnvio' (si la instancia cae a mitad, otra los retoma al expirar; entrega al menos una vez);
+ * 2. envio: todas las subscripciones a la vez en applicationTaskExecutor;
+ * 3. resultado: ENVIADO, reintento con espera exponencial por subscripcion o DESCARTADO (dead letter)
+ *    al agotar maxIntentos o ante un error definitivo. La notificacion pasa a ENVIADA con un envio
+ *    correcto y a FALLIDA cuando todos sus envios estan descartados.
+ * El envio HTTP va por ClientePush: claves VAPID decodificadas una vez, conexiones reutilizadas por origen
+ * y JWT VAPID cacheado por audiencia. */
 @Service
 public class WebPushServiceImpl implements WebPushService {
 	private static final Logger logger = LoggerFactory.getLogger(WebPushServiceImpl.class);
+	static final String NOMBRE_METRICA = "notificaciones.push";
+	private static final String ERROR_ENVIO = "No se pudo enviar Web Push.";
 
 	private final WebPushProperties properties;
 	private final PushSubscripcionRepository psr;
 	private final NotificacionRepository nr;
+	private final EnvioPushRepository epr;
 	private final ObjectMapper objectMapper;
+	private final TransactionTemplate transaccion;
+	private final Executor envios;
+	private final Clock clock;
+	private final Counter enviados;
+	private final Counter reintentos;
+	private final Counter descartados;
+	private final ClientePush clientePush;
 
-	public WebPushServiceImpl(WebPushProperties properties, PushSubscripcionRepository psr,
-			NotificacionRepository nr, ObjectMapper objectMapper) {
+	public WebPushServiceImpl(WebPushProperties properties, ClientePush clientePush, PushSubscripcionRepository psr,
+			NotificacionRepository nr, EnvioPushRepository epr, ObjectMapper objectMapper,
+			PlatformTransactionManager transactionManager, @Qualifier("applicationTaskExecutor") Executor envios,
+			Clock clock, MeterRegistry meterRegistry) {
 		this.properties = properties;
+		this.clientePush = clientePush;
 		this.psr = psr;
 		this.nr = nr;
+		this.epr = epr;
 		this.objectMapper = objectMapper;
+		this.transaccion = new TransactionTemplate(transactionManager);
+		this.envios = envios;
+		this.clock = clock;
+		this.enviados = Counter.builder(NOMBRE_METRICA + ".enviados").register(meterRegistry);
+		this.reintentos = Counter.builder(NOMBRE_METRICA + ".reintentos").register(meterRegistry);
+		this.descartados = Counter.builder(NOMBRE_METRICA + ".descartados")
+				.description("Envios Web Push movidos a DESCARTADO (dead letter)")
+				.register(meterRegistry);
 	}
 
 	@Override
 	@Transactional
-	public void enviarPushNotificacion(Long idNotificacion) {
-		Notificacion notificacion = nr.findById(idNotificacion).orElse(null);
-		if (notificacion == null) {
-			return;
-		}
+	public void registrarEnvios(Notificacion notificacion) {
 		if (!properties.isEnabled()) {
-			marcarNoAplica(notificacion);
-			return;
-		}
-		if (!configuracionValida()) {
-			marcarFallida(notificacion, "Configuracion Web Push incompleta.");
-			logger.error("Web Push esta habilitado, pero faltan claves VAPID o subject.");
+			notificacion.setPushEstado(EstadoPushNotificacion.NO_APLICA);
 			return;
 		}
 		List<PushSubscripcion> subscripciones = psr.findByUsuarioAndActivaTrue(notificacion.getUsuario());
 		if (subscripciones.isEmpty()) {
-			marcarNoAplica(notificacion);
+			notificacion.setPushEstado(EstadoPushNotificacion.NO_APLICA);
 			return;
 		}
+		LocalDateTime ahora = LocalDateTime.now(clock);
+		notificacion.setPushEstado(EstadoPushNotificacion.PENDIENTE);
+		notificacion.setErrorPush(null);
+		epr.saveAll(subscripciones.stream()
+				.map(subscripcion -> new EnvioPush(notificacion.getIdNotificacion(),
+						subscripcion.getIdPushSubscripcion(), ahora))
+				.toList());
+	}
+
+	@Override
+	@Transactional
+	public void registrarEnvios(Collection<Notificacion> notificaciones) {
+		if (notificaciones.isEmpty()) {
+			return;
+		}
+		Map<Long, List<PushSubscripcion>> porUsuario = properties.isEnabled()
+				? psr.findActivasPorUsuarios(notificaciones.stream()
+						.map(notificacion -> notificacion.getUsuario().getIdUsuario())
+						.collect(Collectors.toSet())).stream()
+						.collect(Collectors.groupingBy(subscripcion -> subscripcion.getUsuario().getIdUsuario()))
+				: Map.of();
+		LocalDateTime ahora = LocalDateTime.now(clock);
+		List<EnvioPush> envios = new ArrayList<>();
+		for (Notificacion notificacion : notificaciones) {
+			List<PushSubscripcion> subscripciones = porUsuario.getOrDefault(
+					notificacion.getUsuario().getIdUsuario(), List.of());
+			if (subscripciones.isEmpty()) {
+				notificacion.setPushEstado(EstadoPushNotificacion.NO_APLICA);
+				continue;
+			}
+			notificacion.setPushEstado(EstadoPushNotificacion.PENDIENTE);
+			notificacion.setErrorPush(null);
+			subscripciones.forEach(subscripcion -> envios.add(new EnvioPush(notificacion.getIdNotificacion(),
+					subscripcion.getIdPushSubscripcion(), ahora)));
+		}
+		if (!envios.isEmpty()) {
+			epr.saveAll(envios);
+		}
+	}
+
+	@Override
+	public int procesarPendientes(int tamanioLote) {
+		// Deshabilitado no descarta nada: los envios esperan en la tabla hasta que se vuelva a habilitar
+		if (!properties.isEnabled()) {
+			return 0;
+		}
+		LotePush lote = transaccion.execute(estado -> reclamar(tamanioLote));
+		if (lote == null || lote.envios.isEmpty()) {
+			return 0;
+		}
+		enviarTodos(lote);
+		transaccion.executeWithoutResult(estado -> guardarResultados(lote));
+		return lote.envios.size();
+	}
+
+	private LotePush reclamar(int tamanioLote) {
+		LotePush lote = new LotePush();
+		LocalDateTime ahora = LocalDateTime.now(clock);
+		List<EnvioPush> filas = epr.reclamarPendientes(ahora, tamanioLote);
+		if (filas.isEmpty()) {
+			return lote;
+		}
+		epr.bloquearHasta(filas.stream().map(EnvioPush::getIdEnvioPush).toList(),
+				ahora.plus(properties.getBloqueoEnvio()));
+
+		Map<Long, Notificacion> notificaciones = nr.findAllById(filas.stream()
+				.map(EnvioPush::getIdNotificacion).collect(Collectors.toSet())).stream()
+				.collect(Collectors.toMap(Notificacion::getIdNotificacion, Function.identity()));
+		Map<Long, PushSubscripcion> subscripciones = psr.findAllById(filas.stream()
+				.map(EnvioPush::getIdPushSubscripcion).collect(Collectors.toSet())).stream()
+				.collect(Collectors.toMap(PushSubscripcion::getIdPushSubscripcion, Function.identity()));
+		String errorConfiguracion = clientePush.preparar();
+		Map<Long, String> payloads = new LinkedHashMap<>();
+
+		for (EnvioPush fila : filas) {
+			EnvioEnCurso envio = new EnvioEnCurso(fila.getIdEnvioPush(), fila.getIdNotificacion(),
+					fila.getIdPushSubscripcion());
+			lote.envios.add(envio);
+			Notificacion notificacion = notificaciones.get(fila.getIdNotificacion());
+			PushSubscripcion subscripcion = subscripciones.get(fila.getIdPushSubscripcion());
+			if (notificacion == null || subscripcion == null || !subscripcion.isActiva()) {
+				envio.fallar("La notificacion o la subscripcion ya no existen.", false);
+			} else if (errorConfiguracion != null) {
+				// Error de configuracion: se reintenta por si se corrige antes de agotar los intentos
+				envio.fallar(errorConfiguracion, true);
+			} else {
+				envio.preparar(subscripcion.getEndpoint(), subscripcion.getP256dh(), subscripcion.getAuth(),
+						payloads.computeIfAbsent(notificacion.getIdNotificacion(),
+								id -> construirPayload(notificacion)));
+			}
+		}
+		return lote;
+	}
+
+	private void enviarTodos(LotePush lote) {
+		List<CompletableFuture<Void>> pendientes = new ArrayList<>(lote.envios.size());
+		for (EnvioEnCurso envio : lote.envios) {
+			if (envio.listoParaEnviar()) {
+				pendientes.add(CompletableFuture.runAsync(() -> enviar(envio), envios));
+			}
+		}
+		CompletableFuture.allOf(pendientes.toArray(CompletableFuture[]::new)).join();
+	}
 
-		PushService pushService;
+	private void enviar(EnvioEnCurso envio) {
 		try {
-			pushService = new PushService(
-					properties.getVapidPublicKey().trim(),
-					properties.getVapidPrivateKey().trim(),
-					properties.getVapidSubject().trim());
+			int statusCode = clientePush.enviar(envio.endpoint, envio.p256dh, envio.auth, envio.payload);
+			if (statusCode >= 200 && statusCode < 300) {
+				envio.enviada = true;
+			} else {
+				// 404/410: subscripcion caducada; 429 y 5xx son transitorios; el resto de 4xx no mejora reintentando
+				envio.darDeBaja = statusCode == 404 || statusCode == 410;
+				envio.fallar("Servicio push respondio con estado " + statusCode + ".",
+						statusCode == 429 || statusCode >= 500);
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			envio.fallar(ERROR_ENVIO, true);
 		} catch (LinkageError error) {
-			marcarFallida(notificacion, "Dependencia Web Push no disponible.");
-			logger.error("No se pudo inicializar Web Push por un problema de dependencias: {}",
+			envio.fallar("Dependencia Web Push no disponible.", true);
+			logger.error("Fallo enviando Web Push por un problema de dependencias: {}",
 					error.getClass().getSimpleName());
-			return;
 		} catch (Exception ex) {
-			marcarFallida(notificacion, "No se pudo inicializar Web Push.");
-			logger.error("No se pudo inicializar Web Push con la configuracion VAPID.", ex);
-			return;
+			envio.fallar(ERROR_ENVIO, true);
+			logger.warn("Fallo enviando Web Push para una subscripcion activa: {}", ex.getClass().getSimpleName());
 		}
+	}
 
-		int enviadas = 0;
-		String ultimoError = null;
-		String payload = construirPayload(notificacion);
-		for (PushSubscripcion subscripcion : subscripciones) {
-			try {
-				Notification push = new Notification(
-						subscripcion.getEndpoint(),
-						subscripcion.getP256dh(),
-						subscripcion.getAuth(),
-						payload);
-				HttpResponse response = pushService.send(push);
-				int statusCode = response.getStatusLine().getStatusCode();
-				if (statusCode >= 200 && statusCode < 300) {
-					enviadas++;
-				} else {
-					ultimoError = "Servicio push respondio con estado " + statusCode + ".";
-					if (statusCode == 404 || statusCode == 410) {
-						darDeBajaSubscripcion(subscripcion);
-					}
-				}
-			} catch (LinkageError error) {
-				ultimoError = "Dependencia Web Push no disponible.";
-				logger.error("Fallo enviando Web Push por un problema de dependencias: {}",
-						error.getClass().getSimpleName());
-			} catch (Exception ex) {
-				ultimoError = "No se pudo enviar Web Push.";
-				logger.warn("Fallo enviando Web Push para una subscripcion activa: {}", ex.getClass().getSimpleName());
+	private void guardarResultados(LotePush lote) {
+		LocalDateTime ahora = LocalDateTime.now(clock);
+		List<Long> idsEnviados = new ArrayList<>();
+		Set<Long> notificacionesEnviadas = new LinkedHashSet<>();
+		List<Long> bajas = new ArrayList<>();
+		Map<Long, EnvioEnCurso> fallidos = new LinkedHashMap<>();
+		for (EnvioEnCurso envio : lote.envios) {
+			if (envio.enviada) {
+				idsEnviados.add(envio.idEnvioPush);
+				notificacionesEnviadas.add(envio.idNotificacion);
+			} else {
+				fallidos.put(envio.idEnvioPush, envio);
+			}
+			if (envio.darDeBaja) {
+				bajas.add(envio.idPushSubscripcion);
+			}
+		}
+
+		if (!idsEnviados.isEmpty()) {
+			epr.marcarEnviados(idsEnviados, ahora);
+			nr.actualizarEstadoPush(notificacionesEnviadas, EstadoPushNotificacion.ENVIADA, ahora, null);
+			enviados.increment(idsEnviados.size());
+		}
+		Map<String, List<Long>> descartadasPorError = new LinkedHashMap<>();
+		for (EnvioPush fila : epr.findAllById(fallidos.keySet())) {
+			EnvioEnCurso envio = fallidos.get(fila.getIdEnvioPush());
+			fila.setUltimoError(envio.error);
+			// intentos ya incluye este, sumado al reclamar
+			if (envio.reintentable && fila.getIntentos() < properties.getMaxIntentos()) {
+				fila.setProximoIntento(ahora.plus(calcularEspera(fila.getIntentos(), properties.getReintentoBase(),
+						properties.getReintentoMaximo(), ThreadLocalRandom.current().nextDouble())));
+				reintentos.increment();
+			} else {
+				fila.setEstado(EstadoEnvioPush.DESCARTADO);
+				descartadasPorError.computeIfAbsent(envio.error, error -> new ArrayList<>()).add(envio.idNotificacion);
+				descartados.increment();
 			}
 		}
-		actualizarEstadoFinal(notificacion, enviadas, ultimoError);
+		if (!bajas.isEmpty()) {
+			psr.darDeBaja(bajas, ahora);
+		}
+		if (!descartadasPorError.isEmpty()) {
+			// Los cambios de las filas tienen que estar en BD antes del NOT EXISTS de la notificacion
+			epr.flush();
+			descartadasPorError.forEach((error, ids) -> nr.marcarFallidasSinEnviosVivos(ids, ahora, error));
+		}
+	}
+
+	// Espera exponencial con jitter: la mitad fija y la otra mitad aleatoria para no reintentar en manada
+	static Duration calcularEspera(int intento, Duration base, Duration maximo, double azar) {
+		int exponente = Math.min(Math.max(intento - 1, 0), 30);
+		long millis = Math.min(base.toMillis() << exponente, maximo.toMillis());
+		if (millis < 0) {
+			millis = maximo.toMillis();
+		}
+		return Duration.ofMillis(millis / 2 + (long) (millis / 2 * azar));
 	}
 
 	private String construirPayload(Notificacion notificacion) {
@@ -124,48 +300,52 @@ public class WebPushServiceImpl implements WebPushService {
 		}
 	}
 
-	private void actualizarEstadoFinal(Notificacion notificacion, int enviadas, String ultimoError) {
-		notificacion.setFechaEnvioPush(LocalDateTime.now());
-		if (enviadas > 0) {
-			notificacion.setPushEstado(EstadoPushNotificacion.ENVIADA);
-			notificacion.setErrorPush(null);
-		} else {
-			notificacion.setPushEstado(EstadoPushNotificacion.FALLIDA);
-			notificacion.setErrorPush(ultimoError != null ? ultimoError : "No se pudo enviar Web Push.");
-		}
-		nr.save(notificacion);
+	private boolean tieneTexto(String valor) {
+		return valor != null && !valor.isBlank();
 	}
 
-	private void marcarNoAplica(Notificacion notificacion) {
-		notificacion.setPushEstado(EstadoPushNotificacion.NO_APLICA);
-		notificacion.setErrorPush(null);
-		nr.save(notificacion);
+	private String normalizarUrl() {
+		return tieneTexto(properties.getDefaultUrl()) ? properties.getDefaultUrl().trim() : "/app";
 	}
 
-	private void marcarFallida(Notificacion notificacion, String error) {
-		notificacion.setPushEstado(EstadoPushNotificacion.FALLIDA);
-		notificacion.setFechaEnvioPush(LocalDateTime.now());
-		notificacion.setErrorPush(error);
-		nr.save(notificacion);
+	private static final class LotePush {
+		private final List<EnvioEnCurso> envios = new ArrayList<>();
 	}
 
-	private void darDeBajaSubscripcion(PushSubscripcion subscripcion) {
-		subscripcion.setActiva(false);
-		subscripcion.setFechaBaja(LocalDateTime.now());
-		psr.save(subscripcion);
-	}
+	// Datos copiados fuera de la sesion de JPA; cada envio lo escribe un solo hilo y se lee tras el join
+	private static final class EnvioEnCurso {
+		private final Long idEnvioPush;
+		private final Long idNotificacion;
+		private final Long idPushSubscripcion;
+		private String endpoint;
+		private String p256dh;
+		private String auth;
+		private String payload;
+		private boolean enviada;
+		private boolean darDeBaja;
+		private boolean reintentable;
+		private String error;
 
-	private boolean configuracionValida() {
-		return tieneTexto(properties.getVapidPublicKey())
-				&& tieneTexto(properties.getVapidPrivateKey())
-				&& tieneTexto(properties.getVapidSubject());
-	}
+		private EnvioEnCurso(Long idEnvioPush, Long idNotificacion, Long idPushSubscripcion) {
+			this.idEnvioPush = idEnvioPush;
+			this.idNotificacion = idNotificacion;
+			this.idPushSubscripcion = idPushSubscripcion;
+		}
 
-	private boolean tieneTexto(String valor) {
-		return valor != null && !valor.isBlank();
-	}
+		private void preparar(String endpoint, String p256dh, String auth, String payload) {
+			this.endpoint = endpoint;
+			this.p256dh = p256dh;
+			this.auth = auth;
+			this.payload = payload;
+		}
 
-	private String normalizarUrl() {
-		return tieneTexto(properties.getDefaultUrl()) ? properties.getDefaultUrl().trim() : "/app";
+		private boolean listoParaEnviar() {
+			return endpoint != null && error == null;
+		}
+
+		private void fallar(String error, boolean reintentable) {
+			this.error = error;
+			this.reintentable = reintentable;
+		}
 	}
 }
@@ -2,9 +2,14 @@ package com.tugestor.gestortareas.service.scoring;
 
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.tugestor.gestortareas.model.Estado;
@@ -14,19 +19,27 @@ import com.tugestor.gestortareas.model.Tarea;
 @Service
 public class TareaInteligenteRankingService {
 	private final Clock clock;
-	private final TareaInteligenteScorer scorer;
+	private final TareaInteligenteScorerOptimizado scorer;
+	// A partir de cuantas candidatas se puntua y ordena en paralelo (ForkJoinPool comun)
+	private final int umbralParalelo;
 	
-	public TareaInteligenteRankingService(Clock clock) {
+	public TareaInteligenteRankingService(Clock clock,
+			@Value("${app.tareas.ranking.umbral-paralelo:5000}") int umbralParalelo) {
 		this.clock = clock;
-		this.scorer = new TareaInteligenteScorer();
+		this.scorer = new TareaInteligenteScorerOptimizado();
+		this.umbralParalelo = umbralParalelo;
 	}
 	
 	public boolean esCandidata(TareaScoringContext context) {
+		return esCandidata(context, ahora());
+	}
+	
+	private boolean esCandidata(TareaScoringContext context, LocalDateTime ahora) {
 		if (context == null || context.getTarea() == null) {
 			return false;
 		}
 		Tarea tarea = context.getTarea();
-		Estado estado = calcularEstado(tarea, ahora());
+		Estado estado = calcularEstado(tarea, ahora);
 		if (estado == Estado.COMPLETADA || estado == Estado.COMPLETADA_CON_RETRASO) {
 			return false;
 		}
@@ -37,16 +50,41 @@ public class TareaInteligenteRankingService {
 		return scorer.calcularScore(context, ahora());
 	}
 	
+	/* Decorar-ordenar-desdecorar: cada candidata se puntua una sola vez en un double[] y se ordenan
+	 * indices, en lugar de recalcular el score en cada comparacion (O(n log n) scores). */
 	public List<TareaScoringContext> ordenarPorScoreDesc(List<TareaScoringContext> contextos) {
 		if (contextos == null) {
 			return List.of();
 		}
-		return contextos.stream()
-				.filter(this::esCandidata)
-				.sorted(comparadorInteligente())
-				.toList();
+		return puntuarCandidatas(contextos, ahora()).ordenarTodas();
+	}
+	
+	// Top-k con un monticulo acotado: mismo orden que ordenarPorScoreDesc, cortado a las primeras 'limite'
+	public List<TareaScoringContext> mejoresPorScore(List<TareaScoringContext> contextos, int limite) {
+		if (contextos == null || limite <= 0) {
+			return List.of();
+		}
+		ContextosPuntuados puntuados = puntuarCandidatas(contextos, ahora());
+		if (limite >= puntuados.tamanio()) {
+			return puntuados.ordenarTodas();
+		}
+		// La cabeza del monticulo es la peor de las k mejores vistas hasta ahora
+		PriorityQueue<Integer> mejores = new PriorityQueue<>(limite, (a, b) -> puntuados.comparar(b, a));
+		for (int i = 0; i < puntuados.tamanio(); i++) {
+			if (mejores.size() < limite) {
+				mejores.offer(i);
+			} else if (puntuados.comparar(i, mejores.peek()) < 0) {
+				mejores.poll();
+				mejores.offer(i);
+			}
+		}
+		Integer[] orden = mejores.toArray(Integer[]::new);
+		Arrays.sort(orden, puntuados::comparar);
+		return puntuados.enOrden(orden);
 	}
 	
+	/* Orden de referencia (score, fecha de entrega, prioridad e id). Recalcula el score en cada
+	 * comparacion; los listados usan ordenarPorScoreDesc, que produce el mismo orden. */
 	public Comparator<TareaScoringContext> comparadorInteligente() {
 		LocalDateTime ahora = ahora();
 		Comparator<TareaScoringContext> porScore = Comparator
@@ -64,6 +102,28 @@ public class TareaInteligenteRankingService {
 		return porScore.thenComparing(porFechaEntrega).thenComparing(porPrioridad).thenComparing(porId);
 	}
 	
+	private ContextosPuntuados puntuarCandidatas(List<TareaScoringContext> contextos, LocalDateTime ahora) {
+		List<TareaScoringContext> candidatas = new ArrayList<>(contextos.size());
+		for (TareaScoringContext context : contextos) {
+			if (esCandidata(context, ahora)) {
+				candidatas.add(context);
+			}
+		}
+		TareaScoringContext[] ordenables = candidatas.toArray(TareaScoringContext[]::new);
+		double[] scores = new double[ordenables.length];
+		boolean paralelo = ordenables.length >= umbralParalelo;
+		if (paralelo) {
+			// Cada tarea escribe solo su posicion del array, asi que el resultado no depende del reparto
+			IntStream.range(0, ordenables.length).parallel()
+					.forEach(i -> scores[i] = scorer.calcularScore(ordenables[i], ahora));
+		} else {
+			for (int i = 0; i < ordenables.length; i++) {
+				scores[i] = scorer.calcularScore(ordenables[i], ahora);
+			}
+		}
+		return new ContextosPuntuados(ordenables, scores, paralelo);
+	}
+	
 	private LocalDateTime ahora() {
 		return LocalDateTime.now(clock);
 	}
@@ -92,4 +152,73 @@ public class TareaInteligenteRankingService {
 	private Long idTarea(TareaScoringContext context) {
 		return context.getTarea() != null ? context.getTarea().getIdTarea() : null;
 	}
+	
+	/* Contextos candidatos con su score precalculado en la misma posicion. El ultimo desempate es
+	 * la posicion de entrada: el orden es total, asi que secuencial y paralelo dan la misma lista y
+	 * coincide con un ordenamiento estable. */
+	private final class ContextosPuntuados {
+		private final TareaScoringContext[] contextos;
+		private final double[] scores;
+		private final boolean paralelo;
+		
+		private ContextosPuntuados(TareaScoringContext[] contextos, double[] scores, boolean paralelo) {
+			this.contextos = contextos;
+			this.scores = scores;
+			this.paralelo = paralelo;
+		}
+		
+		private int tamanio() {
+			return contextos.length;
+		}
+		
+		private List<TareaScoringContext> ordenarTodas() {
+			Integer[] orden = new Integer[contextos.length];
+			for (int i = 0; i < orden.length; i++) {
+				orden[i] = i;
+			}
+			if (paralelo) {
+				Arrays.parallelSort(orden, this::comparar);
+			} else {
+				Arrays.sort(orden, this::comparar);
+			}
+			return enOrden(orden);
+		}
+		
+		private int comparar(int a, int b) {
+			int resultado = Double.compare(scores[b], scores[a]);
+			if (resultado != 0) {
+				return resultado;
+			}
+			LocalDateTime fechaA = fechaEntrega(contextos[a]);
+			LocalDateTime fechaB = fechaEntrega(contextos[b]);
+			if (fechaA == null || fechaB == null) {
+				resultado = fechaA == null ? (fechaB == null ? 0 : 1) : -1;
+			} else {
+				resultado = fechaA.compareTo(fechaB);
+			}
+			if (resultado != 0) {
+				return resultado;
+			}
+			resultado = Integer.compare(prioridadOrden(contextos[b]), prioridadOrden(contextos[a]));
+			if (resultado != 0) {
+				return resultado;
+			}
+			Long idA = idTarea(contextos[a]);
+			Long idB = idTarea(contextos[b]);
+			if (idA == null || idB == null) {
+				resultado = idA == null ? (idB == null ? 0 : 1) : -1;
+			} else {
+				resultado = idA.compareTo(idB);
+			}
+			return resultado != 0 ? resultado : Integer.compare(a, b);
+		}
+		
+		private List<TareaScoringContext> enOrden(Integer[] orden) {
+			List<TareaScoringContext> resultado = new ArrayList<>(orden.length);
+			for (Integer indice : orden) {
+				resultado.add(contextos[indice]);
+			}
+			return resultado;
+		}
+	}
 }
@@ -0,0 +1,399 @@
+package com.tugestor.gestortareas.service.scoring;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.tugestor.gestortareas.model.Categoria;
+import com.tugestor.gestortareas.model.Prioridad;
+import com.tugestor.gestortareas.model.Tarea;
+
+/* Version sin asignaciones de TareaInteligenteScorer para el ranking: trabaja con segundos y nanos
+ * de epoch en vez de Duration, busca el tramo de interpolacion por busqueda binaria, tabula por
+ * minutos los factores escalonados de tiempo y cachea el peso de cada categoria protegida por id.
+ * Cada operacion se hace en el mismo orden que en TareaInteligenteScorer, que sigue siendo la
+ * referencia: el score debe coincidir bit a bit (TareaInteligenteScorerOptimizadoTest). */
+public class TareaInteligenteScorerOptimizado {
+	private static final TablaTramos FUTURE_F_POINTS = new TablaTramos(new double[][] {
+			{ 0, 1.00 }, { 4, 0.99 }, { 9, 0.98 }, { 13, 0.97 }, { 18, 0.96 },
+			{ 24, 0.95 }, { 30, 0.90 }, { 36, 0.85 }, { 42, 0.80 }, { 48, 0.75 },
+			{ 54, 0.68 }, { 60, 0.61 }, { 66, 0.54 }, { 72, 0.47 }, { 96, 0.40 },
+			{ 120, 0.33 }, { 144, 0.26 }, { 168, 0.20 }, { 192, 0.10 }
+	});
+	private static final TablaTramos OVERDUE_F_POINTS = new TablaTramos(new double[][] {
+			{ 1, 0.90 }, { 2, 0.78 }, { 3, 0.68 }, { 7, 0.36 }, { 15, 0.08 },
+			{ 20, 0.00 }, { 30, -0.05 }, { 60, -0.10 }
+	});
+	private static final TablaTramos AGE_POINTS = new TablaTramos(new double[][] {
+			{ 0, 0.00 }, { 1, 0.01 }, { 2, 0.03 }, { 3, 0.04 }, { 4, 0.06 },
+			{ 5, 0.07 }, { 6, 0.09 }, { 7, 0.10 }, { 10, 0.14 }, { 14, 0.19 },
+			{ 18, 0.24 }, { 22, 0.30 }, { 26, 0.35 }, { 30, 0.40 }, { 40, 0.33 },
+			{ 50, 0.27 }, { 60, 0.20 }, { 70, 0.13 }, { 80, 0.07 }, { 90, 0.00 }
+	});
+	// Por encima de 240 minutos todos los factores escalonados de tiempo son constantes
+	private static final int MINUTOS_TABULADOS = 241;
+	private static final double[] FACTOR_TIEMPO = new double[MINUTOS_TABULADOS + 1];
+	private static final double[] FACTOR_TIEMPO_SIN_FECHA = new double[MINUTOS_TABULADOS + 1];
+	private static final double[] BONUS_RESCATE_RAPIDO = new double[MINUTOS_TABULADOS + 1];
+	private static final int MAX_CATEGORIAS_CACHEADAS = 10_000;
+
+	static {
+		for (int minutos = 0; minutos <= MINUTOS_TABULADOS; minutos++) {
+			FACTOR_TIEMPO[minutos] = factorTiempoEscalonado(minutos);
+			FACTOR_TIEMPO_SIN_FECHA[minutos] = factorTiempoSinFechaEscalonado(minutos);
+			BONUS_RESCATE_RAPIDO[minutos] = bonusRescateRapidoEscalonado(minutos);
+		}
+	}
+
+	private final Map<Long, PesoCategoria> pesosCategoria = new ConcurrentHashMap<>();
+
+	public double calcularScore(TareaScoringContext context, LocalDateTime ahora) {
+		if (context == null || context.getTarea() == null || ahora == null) {
+			return 0.0;
+		}
+		Tarea tarea = context.getTarea();
+		long segundosAhora = ahora.toEpochSecond(ZoneOffset.UTC);
+		int nanosAhora = ahora.getNano();
+		Prioridad prioridad = tarea.getPrioridad() != null ? tarea.getPrioridad() : Prioridad.BAJA;
+		int tiempoMinutos = tarea.getTiempo() > 0 ? tarea.getTiempo() : 241;
+		int indiceMinutos = Math.min(tiempoMinutos, MINUTOS_TABULADOS);
+
+		LocalDateTime fechaEntrega = tarea.getFechaEntrega();
+		boolean conFecha = fechaEntrega != null;
+		double horasHastaEntrega = conFecha
+				? horasEntre(segundosAhora, nanosAhora, fechaEntrega.toEpochSecond(ZoneOffset.UTC),
+						fechaEntrega.getNano())
+				: 0.0;
+
+		double factorFecha = conFecha ? factorFecha(horasHastaEntrega) : 0.0;
+		double factorPrioridad = factorPrioridad(prioridad);
+		double factorTiempo = FACTOR_TIEMPO[indiceMinutos];
+		double factorAntiguedad = factorAntiguedad(tarea.getFechaAgregado(), ahora, segundosAhora, nanosAhora);
+		double factorCategoria = factorCategoria(tarea.getCategoria());
+		double mpf = 1 + Math.max(factorFecha, 0) * bonusPrioridadFecha(prioridad);
+		double duracionHoras = tiempoMinutos / 60.0;
+		double mpt = multiplicadorPrioridadTiempo(conFecha && fechaEntrega.isAfter(ahora), horasHastaEntrega,
+				duracionHoras, prioridad, factorTiempo);
+		double mrg = multiplicadorRevisionGrupo(context, conFecha, horasHastaEntrega, factorFecha);
+		double bvc = conFecha ? bonusVentanaCritica(horasHastaEntrega, duracionHoras, indiceMinutos) : 0.0;
+		double bsf = conFecha ? 0.0 : bonusSinFecha(prioridad) * FACTOR_TIEMPO_SIN_FECHA[indiceMinutos];
+
+		return 100 * (factorFecha * 0.45
+				+ factorPrioridad * 0.35
+				+ factorTiempo * 0.12
+				+ factorAntiguedad * 0.05
+				+ factorCategoria * 0.03)
+				* mpf * mpt * mrg + bvc + bsf;
+	}
+
+	private double factorFecha(double horas) {
+		if (horas >= 0) {
+			if (horas >= 192) {
+				return 0.10;
+			}
+			return FUTURE_F_POINTS.interpolar(horas);
+		}
+		double diasVencida = Math.abs(horas) / 24.0;
+		if (diasVencida <= 1) {
+			return 0.90;
+		}
+		if (diasVencida >= 60) {
+			return -0.10;
+		}
+		return OVERDUE_F_POINTS.interpolar(diasVencida);
+	}
+
+	private double factorPrioridad(Prioridad prioridad) {
+		return switch (prioridad) {
+		case IMPRESCINDIBLE -> 1.00;
+		case ALTA -> 0.75;
+		case MEDIA -> 0.40;
+		case BAJA -> 0.20;
+		};
+	}
+
+	private double factorAntiguedad(LocalDateTime fechaAgregado, LocalDateTime ahora, long segundosAhora,
+			int nanosAhora) {
+		if (fechaAgregado == null || fechaAgregado.isAfter(ahora)) {
+			return 0.0;
+		}
+		double dias = horasEntre(fechaAgregado.toEpochSecond(ZoneOffset.UTC), fechaAgregado.getNano(),
+				segundosAhora, nanosAhora) / 24.0;
+		if (dias >= 90) {
+			return 0.0;
+		}
+		return AGE_POINTS.interpolar(dias);
+	}
+
+	private double factorCategoria(Categoria categoria) {
+		if (categoria == null || !categoria.isProtegida()) {
+			return 0.0;
+		}
+		Long idCategoria = categoria.getIdCategoria();
+		String nombre = categoria.getNombre();
+		if (idCategoria == null) {
+			return pesoCategoria(nombre);
+		}
+		// Se guarda tambien el nombre para no servir un peso viejo si la categoria se renombra
+		PesoCategoria cacheado = pesosCategoria.get(idCategoria);
+		if (cacheado != null && cacheado.esDe(nombre)) {
+			return cacheado.peso;
+		}
+		double peso = pesoCategoria(nombre);
+		if (pesosCategoria.size() >= MAX_CATEGORIAS_CACHEADAS) {
+			pesosCategoria.clear();
+		}
+		pesosCategoria.put(idCategoria, new PesoCategoria(nombre, peso));
+		return peso;
+	}
+
+	private double bonusPrioridadFecha(Prioridad prioridad) {
+		return switch (prioridad) {
+		case IMPRESCINDIBLE -> 0.35;
+		case ALTA -> 0.22;
+		case MEDIA -> 0.10;
+		case BAJA -> 0.00;
+		};
+	}
+
+	private double multiplicadorPrioridadTiempo(boolean entregaFutura, double horasHastaEntrega,
+			double duracionHoras, Prioridad prioridad, double factorTiempo) {
+		double tMpt = Math.min(factorTiempo, 1.00);
+		double costeTiempo = Math.max(0, 1 - tMpt);
+		double bonusRapidez = bonusRapidez(prioridad);
+		double penalizacionLarga = penalizacionLarga(prioridad);
+		if (entregaFutura) {
+			double margenReal = horasHastaEntrega - duracionHoras;
+			if (margenReal > 48) {
+				return 1 - costeTiempo * penalizacionLarga;
+			}
+		}
+		return 1 + tMpt * bonusRapidez - costeTiempo * penalizacionLarga;
+	}
+
+	private double multiplicadorRevisionGrupo(TareaScoringContext context, boolean conFecha,
+			double horasHastaEntrega, double factorFecha) {
+		if (!context.estaReabierta() || !conFecha) {
+			return 1.00;
+		}
+		boolean ventanaProxima = (horasHastaEntrega >= 0 && horasHastaEntrega <= 48)
+				|| (horasHastaEntrega < 0 && Math.abs(horasHastaEntrega) <= 24);
+		if (!ventanaProxima || factorFecha < 0) {
+			return 1.00;
+		}
+		return 1 + Math.max(factorFecha, 0) * 0.10;
+	}
+
+	private double bonusVentanaCritica(double horasHastaEntrega, double duracionHoras, int indiceMinutos) {
+		if (horasHastaEntrega >= 0) {
+			double margenReal = horasHastaEntrega - duracionHoras;
+			return Math.min(30, bonusVentanaFecha(horasHastaEntrega) + bonusMargenReal(margenReal));
+		}
+		double horasVencida = Math.abs(horasHastaEntrega);
+		double bonusVencimiento = bonusVencimientoReciente(horasVencida);
+		if (horasVencida <= 24) {
+			return Math.min(24, bonusVencimiento + BONUS_RESCATE_RAPIDO[indiceMinutos]);
+		}
+		return bonusVencimiento;
+	}
+
+	private double bonusSinFecha(Prioridad prioridad) {
+		return switch (prioridad) {
+		case IMPRESCINDIBLE -> 12;
+		case ALTA -> 6;
+		case MEDIA -> 2;
+		case BAJA -> 0;
+		};
+	}
+
+	private double bonusRapidez(Prioridad prioridad) {
+		return switch (prioridad) {
+		case BAJA -> 0.10;
+		case MEDIA -> 0.08;
+		case ALTA -> 0.04;
+		case IMPRESCINDIBLE -> 0.05;
+		};
+	}
+
+	private double penalizacionLarga(Prioridad prioridad) {
+		return switch (prioridad) {
+		case BAJA -> 0.20;
+		case MEDIA -> 0.12;
+		case ALTA -> 0.05;
+		case IMPRESCINDIBLE -> 0.00;
+		};
+	}
+
+	private double bonusVentanaFecha(double horas) {
+		if (horas <= 1) return 12;
+		if (horas <= 3) return 11;
+		if (horas <= 6) return 10;
+		if (horas <= 12) return 9;
+		if (horas <= 18) return 6;
+		if (horas <= 24) return 4;
+		if (horas <= 30) return 2;
+		if (horas <= 36) return 1;
+		return 0;
+	}
+
+	private double bonusMargenReal(double margenReal) {
+		if (margenReal <= 0) return 20;
+		if (margenReal <= 1) return 18;
+		if (margenReal <= 3) return 16;
+		if (margenReal <= 6) return 10;
+		if (margenReal <= 12) return 6;
+		if (margenReal <= 24) return 3;
+		return 0;
+	}
+
+	private double bonusVencimientoReciente(double horasVencida) {
+		if (horasVencida <= 3) return 14;
+		if (horasVencida <= 6) return 12;
+		if (horasVencida <= 12) return 9;
+		if (horasVencida <= 24) return 6;
+		if (horasVencida <= 36) return 3;
+		if (horasVencida <= 48) return 1;
+		return 0;
+	}
+
+	/* Equivale a Duration.between(inicio, fin).toMillis() / 3_600_000.0 sin crear la Duration. Se
+	 * normaliza como Duration (nanos en [0, 1e9)) y se trunca hacia cero igual que toMillis; restar
+	 * epoch millis ya truncados daria otro milisegundo cuando las fechas traen microsegundos. */
+	private static double horasEntre(long segundosInicio, int nanosInicio, long segundosFin, int nanosFin) {
+		long segundos = segundosFin - segundosInicio;
+		long nanos = nanosFin - nanosInicio;
+		if (nanos < 0) {
+			nanos += 1_000_000_000L;
+			segundos--;
+		}
+		if (segundos < 0) {
+			segundos++;
+			nanos -= 1_000_000_000L;
+		}
+		long milis = Math.addExact(Math.multiplyExact(segundos, 1000L), nanos / 1_000_000);
+		return milis / 3_600_000.0;
+	}
+
+	private static double pesoCategoria(String nombreCategoria) {
+		return switch (normalizar(nombreCategoria)) {
+		case "TRABAJO/ESTUDIOS" -> 1.00;
+		case "DOMESTICO" -> 0.60;
+		case "OCIO/PERSONAL" -> 0.30;
+		default -> 0.0;
+		};
+	}
+
+	private static String normalizar(String texto) {
+		if (texto == null) {
+			return "";
+		}
+		String sinAcentos = Normalizer.normalize(texto, Normalizer.Form.NFD)
+				.replaceAll("\\p{M}", "");
+		return sinAcentos.trim().toUpperCase(Locale.ROOT);
+	}
+
+	private static double factorTiempoEscalonado(int minutos) {
+		if (minutos == 1) return 1.15;
+		if (minutos <= 5) return 1.05;
+		if (minutos <= 10) return 1.00;
+		if (minutos <= 15) return 0.95;
+		if (minutos <= 20) return 0.88;
+		if (minutos <= 30) return 0.80;
+		if (minutos <= 45) return 0.68;
+		if (minutos <= 60) return 0.60;
+		if (minutos <= 75) return 0.54;
+		if (minutos <= 90) return 0.49;
+		if (minutos <= 105) return 0.46;
+		if (minutos <= 120) return 0.44;
+		if (minutos <= 150) return 0.36;
+		if (minutos <= 180) return 0.29;
+		if (minutos <= 240) return 0.22;
+		return 0.16;
+	}
+
+	private static double bonusRescateRapidoEscalonado(int tiempoMinutos) {
+		if (tiempoMinutos <= 15) return 8;
+		if (tiempoMinutos <= 30) return 6;
+		if (tiempoMinutos <= 60) return 4;
+		if (tiempoMinutos <= 120) return 2;
+		return 0;
+	}
+
+	private static double factorTiempoSinFechaEscalonado(int tiempoMinutos) {
+		if (tiempoMinutos <= 15) return 1.00;
+		if (tiempoMinutos <= 30) return 0.90;
+		if (tiempoMinutos <= 45) return 0.80;
+		if (tiempoMinutos <= 60) return 0.70;
+		if (tiempoMinutos <= 75) return 0.60;
+		if (tiempoMinutos <= 90) return 0.50;
+		if (tiempoMinutos <= 105) return 0.42;
+		if (tiempoMinutos <= 120) return 0.35;
+		if (tiempoMinutos <= 150) return 0.28;
+		if (tiempoMinutos <= 180) return 0.22;
+		if (tiempoMinutos <= 210) return 0.18;
+		if (tiempoMinutos <= 240) return 0.15;
+		return 0.10;
+	}
+
+	// Puntos de una funcion lineal a tramos con los anchos y saltos de cada tramo ya restados
+	private static final class TablaTramos {
+		private final double[] x;
+		private final double[] y;
+		private final double[] anchoTramo;
+		private final double[] saltoTramo;
+
+		private TablaTramos(double[][] puntos) {
+			x = new double[puntos.length];
+			y = new double[puntos.length];
+			anchoTramo = new double[puntos.length];
+			saltoTramo = new double[puntos.length];
+			for (int i = 0; i < puntos.length; i++) {
+				x[i] = puntos[i][0];
+				y[i] = puntos[i][1];
+				if (i > 0) {
+					anchoTramo[i] = x[i] - x[i - 1];
+					saltoTramo[i] = y[i] - y[i - 1];
+				}
+			}
+		}
+
+		private double interpolar(double valor) {
+			if (valor <= x[0]) {
+				return y[0];
+			}
+			// Primer punto i >= 1 con valor <= x[i], igual que el recorrido lineal del scorer original
+			int bajo = 1;
+			int alto = x.length;
+			while (bajo < alto) {
+				int medio = (bajo + alto) >>> 1;
+				if (valor <= x[medio]) {
+					alto = medio;
+				} else {
+					bajo = medio + 1;
+				}
+			}
+			if (bajo == x.length) {
+				return y[x.length - 1];
+			}
+			double proporcion = (valor - x[bajo - 1]) / anchoTramo[bajo];
+			return y[bajo - 1] + proporcion * saltoTramo[bajo];
+		}
+	}
+
+	private static final class PesoCategoria {
+		private final String nombre;
+		private final double peso;
+
+		private PesoCategoria(String nombre, double peso) {
+			this.nombre = nombre;
+			this.peso = peso;
+		}
+
+		private boolean esDe(String nombreCategoria) {
+			return nombre == null ? nombreCategoria == null : nombre.equals(nombreCategoria);
+		}
+	}
+}
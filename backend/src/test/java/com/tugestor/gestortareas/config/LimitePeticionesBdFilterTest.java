@@ -0,0 +1,92 @@
+package com.tugestor.gestortareas.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LimitePeticionesBdFilterTest {
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final ExecutorService clientes = Executors.newCachedThreadPool();
+	private final LimitePeticionesBdFilter filtro = new LimitePeticionesBdFilter(registry, 1, 1,
+			Duration.ofMillis(20));
+
+	@AfterEach
+	void tearDown() {
+		clientes.shutdownNow();
+	}
+
+	@Test
+	void doFilter_sinHueco_devuelve503ConRetryAfterYCuentaElRechazo() throws Exception {
+		// Arrange: una peticion ocupa el unico permiso
+		CountDownLatch dentro = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		Future<?> ocupada = clientes.submit(() -> {
+			filtro.doFilter(peticion("/api/tarea"), new MockHttpServletResponse(), (req, resp) -> esperar(dentro, liberar));
+			return null;
+		});
+		assertTrue(dentro.await(5, TimeUnit.SECONDS));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		// Act
+		filtro.doFilter(peticion("/api/tarea"), response, new MockFilterChain());
+
+		// Assert
+		assertEquals(503, response.getStatus());
+		assertEquals(LimitePeticionesBdFilter.REINTENTO_SEGUNDOS, response.getHeader("Retry-After"));
+		assertEquals(1.0, registry.get(LimitePeticionesBdFilter.NOMBRE_METRICA + ".rechazos").counter().count());
+		assertEquals(1, filtro.enCurso());
+		liberar.countDown();
+		ocupada.get(5, TimeUnit.SECONDS);
+		assertEquals(0, filtro.enCurso());
+	}
+
+	@Test
+	void doFilter_healthYRutasFueraDeLaApi_noConsumenPermisos() throws Exception {
+		// Arrange
+		CountDownLatch dentro = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		clientes.submit(() -> {
+			filtro.doFilter(peticion("/api/tarea"), new MockHttpServletResponse(), (req, resp) -> esperar(dentro, liberar));
+			return null;
+		});
+		assertTrue(dentro.await(5, TimeUnit.SECONDS));
+		MockHttpServletResponse health = new MockHttpServletResponse();
+		MockHttpServletResponse spa = new MockHttpServletResponse();
+
+		// Act
+		filtro.doFilter(peticion("/api/health"), health, new MockFilterChain());
+		filtro.doFilter(peticion("/app/tareas"), spa, new MockFilterChain());
+
+		// Assert
+		assertEquals(200, health.getStatus());
+		assertEquals(200, spa.getStatus());
+		liberar.countDown();
+	}
+
+	private static void esperar(CountDownLatch dentro, CountDownLatch liberar) {
+		dentro.countDown();
+		try {
+			liberar.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static MockHttpServletRequest peticion(String ruta) {
+		return new MockHttpServletRequest("GET", ruta);
+	}
+}
@@ -29,6 +29,7 @@ import com.tugestor.gestortareas.dto.TareaRequest;
 import com.tugestor.gestortareas.dto.TareaResponse;
 import com.tugestor.gestortareas.model.Categoria;
 import com.tugestor.gestortareas.model.Estado;
+import com.tugestor.gestortareas.model.OrdenPaginaTarea;
 import com.tugestor.gestortareas.model.Prioridad;
 import com.tugestor.gestortareas.model.Tarea;
 import com.tugestor.gestortareas.model.Usuario;
@@ -64,8 +65,8 @@ class TareaControllerTest {
 		tarea.setFechaAgregado(LocalDateTime.now());
 		tarea.setFechaEntrega(LocalDateTime.now().plusDays(1));
 
-		when(tareaService.obtenerTodas(anyString()))
-		.thenReturn(List.of(tarea));
+		when(tareaService.listarTareaResponses(eq(OrdenPaginaTarea.ID), anyString()))
+		.thenReturn(List.of(new TareaResponse(tarea)));
 
 		// Act & Assert
 		mockMvc.perform(get("/api/tarea")
@@ -77,7 +78,7 @@ class TareaControllerTest {
 	@Test
 	void listarTareas_listaVacia() throws Exception {
 		// Arrange
-		when(tareaService.obtenerTodas(anyString()))
+		when(tareaService.listarTareaResponses(eq(OrdenPaginaTarea.ID), anyString()))
 		.thenReturn(List.of());
 
 		// Act & Assert
@@ -291,8 +292,8 @@ class TareaControllerTest {
 		tarea.setFechaAgregado(LocalDateTime.now());
 		tarea.setFechaEntrega(LocalDateTime.now().plusDays(1));
 
-		when(tareaService.obtenerPorTitulo(anyString()))
-		.thenReturn(List.of(tarea));
+		when(tareaService.listarTareaResponses(eq(OrdenPaginaTarea.TITULO), anyString()))
+		.thenReturn(List.of(new TareaResponse(tarea)));
 
 		// Act & Assert
 		mockMvc.perform(get("/api/tarea/titulo")
@@ -304,7 +305,7 @@ class TareaControllerTest {
 	@Test
 	void listarPorTitulo_listaVacia() throws Exception {
 		// Arrange
-		when(tareaService.obtenerPorTitulo(anyString()))
+		when(tareaService.listarTareaResponses(eq(OrdenPaginaTarea.TITULO), anyString()))
 		.thenReturn(List.of());
 
 		// Act & Assert
@@ -331,8 +332,8 @@ class TareaControllerTest {
 		tarea.setFechaAgregado(LocalDateTime.now());
 		tarea.setFechaEntrega(LocalDateTime.now().plusDays(1));
 
-		when(tareaService.obtenerPorTiempo(anyString()))
-		.thenReturn(List.of(tarea));
+		when(tareaService.listarTareaResponses(eq(OrdenPaginaTarea.TIEMPO), anyString()))
+		.thenReturn(List.of(new TareaResponse(tarea)));
 
 		// Act & Assert
 		mockMvc.perform(get("/api/tarea/tiempo")
@@ -344,7 +345,7 @@ class TareaControllerTest {
 	@Test
 	void listarPorTiempo_listaVacia() throws Exception {
 		// Arrange
-		when(tareaService.obtenerPorTiempo(anyString()))
+		when(tareaService.listarTareaResponses(eq(OrdenPaginaTarea.TIEMPO), anyString()))
 		.thenReturn(List.of());
 
 		// Act & Assert
@@ -371,8 +372,8 @@ class TareaControllerTest {
 		tarea.setFechaAgregado(LocalDateTime.now());
 		tarea.setFechaEntrega(LocalDateTime.now().plusDays(1));
 
-		when(tareaService.obtenerPorPrioridad(anyString()))
-		.thenReturn(List.of(tarea));
+		when(tareaService.listarTareaResponses(eq(OrdenPaginaTarea.PRIORIDAD), anyString()))
+		.thenReturn(List.of(new TareaResponse(tarea)));
 
 		// Act & Assert
 		mockMvc.perform(get("/api/tarea/prioridad")
@@ -384,7 +385,7 @@ class TareaControllerTest {
 	@Test
 	void listarPorPrioridad_listaVacia() throws Exception {
 		// Arrange
-		when(tareaService.obtenerPorPrioridad(anyString()))
+		when(tareaService.listarTareaResponses(eq(OrdenPaginaTarea.PRIORIDAD), anyString()))
 		.thenReturn(List.of());
 
 		// Act & Assert
@@ -411,8 +412,8 @@ class TareaControllerTest {
 		tarea.setFechaAgregado(LocalDateTime.now());
 		tarea.setFechaEntrega(LocalDateTime.now().plusDays(1));
 
-		when(tareaService.obtenerPorFechaEntrega(anyString()))
-		.thenReturn(List.of(tarea));
+		when(tareaService.listarTareaResponses(eq(OrdenPaginaTarea.FECHA_ENTREGA), anyString()))
+		.thenReturn(List.of(new TareaResponse(tarea)));
 
 		// Act & Assert
 		mockMvc.perform(get("/api/tarea/fecha")
@@ -424,7 +425,7 @@ class TareaControllerTest {
 	@Test
 	void listarPorFechaEntrega_listaVacia() throws Exception {
 		// Arrange
-		when(tareaService.obtenerPorFechaEntrega(anyString()))
+		when(tareaService.listarTareaResponses(eq(OrdenPaginaTarea.FECHA_ENTREGA), anyString()))
 		.thenReturn(List.of());
 
 		// Act & Assert
@@ -34,4 +34,9 @@ public class DummyExceptionController {
 	public void typeMismatch() {
 		throw new MethodArgumentTypeMismatchException("valor", String.class, "param", null, new IllegalArgumentException("Tipo incorrecto"));
 	}
-}
\ No newline at end of file
+
+	@GetMapping("/hash-saturado")
+	public void hashSaturado() {
+		throw new HashSaturadoException("Demasiadas peticiones de autenticacion");
+	}
+}
@@ -51,6 +51,14 @@ class GlobalExceptionHandlerTest {
 		.andExpect(jsonPath("$.error").value("Credenciales inválidas."));
 	}
 
+	@Test
+	void handleHashSaturado_tooManyRequests() throws Exception {
+		mockMvc.perform(get("/hash-saturado"))
+		.andExpect(status().isTooManyRequests())
+		.andExpect(header().exists("Retry-After"))
+		.andExpect(jsonPath("$.error").value("Demasiadas peticiones de autenticacion"));
+	}
+
 	@Test
 	void handleTypeMismatch_badRequest() throws Exception {
 		mockMvc.perform(get("/type-mismatch"))
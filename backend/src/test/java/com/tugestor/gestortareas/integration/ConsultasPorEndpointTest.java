@@ -0,0 +1,192 @@
+package com.tugestor.gestortareas.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.tugestor.gestortareas.model.AsignacionGrupo;
+import com.tugestor.gestortareas.model.AsignacionGrupoMiembro;
+import com.tugestor.gestortareas.model.Categoria;
+import com.tugestor.gestortareas.model.Grupo;
+import com.tugestor.gestortareas.model.Prioridad;
+import com.tugestor.gestortareas.model.Tarea;
+import com.tugestor.gestortareas.model.TipoAsignacionGrupo;
+import com.tugestor.gestortareas.model.Usuario;
+import com.tugestor.gestortareas.repository.AsignacionGrupoMiembroRepository;
+import com.tugestor.gestortareas.repository.AsignacionGrupoRepository;
+import com.tugestor.gestortareas.repository.CategoriaRepository;
+import com.tugestor.gestortareas.repository.GrupoRepository;
+import com.tugestor.gestortareas.repository.TareaRepository;
+import com.tugestor.gestortareas.repository.UsuarioRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/* Cuenta las sentencias SQL de cada listado con las Statistics de Hibernate. El numero de consultas
+ * debe ser el mismo con 2 que con 10 tareas: si crece con las filas hay un N+1 y el test falla.
+ * Las Statistics son de toda la SessionFactory, asi que se apagan los jobs programados para que
+ * sus consultas no se cuelen en la medida. */
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"app.tareas.estado.barrido-cron=-",
+		"app.notificaciones.scheduler.recordatorios-initial-delay-ms=3600000",
+		"app.notificaciones.scheduler.avisos24h-initial-delay-ms=3600000" })
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class ConsultasPorEndpointTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private EntityManagerFactory emf;
+	@Autowired
+	private UsuarioRepository ur;
+	@Autowired
+	private CategoriaRepository cr;
+	@Autowired
+	private TareaRepository tr;
+	@Autowired
+	private GrupoRepository gr;
+	@Autowired
+	private AsignacionGrupoRepository agr;
+	@Autowired
+	private AsignacionGrupoMiembroRepository agmr;
+
+	private Statistics statistics;
+	private int secuencia;
+
+	@BeforeEach
+	void prepararEstadisticas() {
+		statistics = emf.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void listarTareas_consultasConstantes() throws Exception {
+		comprobarConsultasConstantes("todas@consultas.com", () -> get("/api/tarea"), 4);
+	}
+
+	@Test
+	void listarPorTitulo_consultasConstantes() throws Exception {
+		comprobarConsultasConstantes("titulo@consultas.com", () -> get("/api/tarea/titulo"), 4);
+	}
+
+	@Test
+	void listarPagina_consultasConstantes() throws Exception {
+		comprobarConsultasConstantes("pagina@consultas.com",
+				() -> get("/api/tarea/pagina").param("orden", "TITULO"), 5);
+	}
+
+	@Test
+	void listarAsignadasGrupo_consultasConstantes() throws Exception {
+		comprobarConsultasConstantes("grupo@consultas.com", () -> get("/api/tarea/asignadas-grupo"), 4);
+	}
+
+	@Test
+	void filtrarCombinado_consultasConstantes() throws Exception {
+		comprobarConsultasConstantes("filtro@consultas.com",
+				() -> post("/api/tarea/filtrar-combinado")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"soloPorCompletar\": false}"),
+				6);
+	}
+
+	private void comprobarConsultasConstantes(String email, Supplier<MockHttpServletRequestBuilder> peticion,
+			long maximo) throws Exception {
+		// Arrange
+		Usuario usuario = guardarUsuario(email);
+		Usuario companero = guardarUsuario("companero-" + email);
+		Grupo grupo = guardarGrupo(companero);
+		anadirTareas(usuario, companero, grupo, 2);
+		long consultasConPocas = contarConsultas(email, peticion);
+
+		anadirTareas(usuario, companero, grupo, 8);
+
+		// Act
+		long consultasConMuchas = contarConsultas(email, peticion);
+
+		// Assert
+		assertEquals(consultasConPocas, consultasConMuchas,
+				"El numero de consultas crece con las tareas (N+1)");
+		assertTrue(consultasConMuchas <= maximo,
+				"Se esperaban como maximo " + maximo + " consultas y hubo " + consultasConMuchas);
+	}
+
+	private long contarConsultas(String email, Supplier<MockHttpServletRequestBuilder> peticion) throws Exception {
+		statistics.clear();
+		mockMvc.perform(peticion.get().with(user(email)))
+				.andExpect(status().isOk());
+		return statistics.getPrepareStatementCount();
+	}
+
+	// Cada tarea con su propia categoria, la mitad completadas por otro usuario y la mitad asignadas por grupo
+	private void anadirTareas(Usuario usuario, Usuario companero, Grupo grupo, int cantidad) {
+		for (int i = 0; i < cantidad; i++) {
+			int n = ++secuencia;
+			Categoria categoria = new Categoria("Categoria " + n, "#00FF00", "icono", false);
+			categoria.setUsuario(usuario);
+			cr.save(categoria);
+
+			Tarea tarea = new Tarea("Tarea " + n, 10 + n, Prioridad.MEDIA,
+					LocalDateTime.now().plusDays(n), "Descripcion " + n, categoria, usuario);
+			if (n % 2 == 0) {
+				tarea.setCompletada(true);
+				tarea.setFechaCompletada(LocalDateTime.now());
+				tarea.setUsuarioQueCompleta(companero);
+			}
+			tr.save(tarea);
+
+			if (n % 2 == 1) {
+				AsignacionGrupo asignacion = new AsignacionGrupo();
+				asignacion.setGrupo(grupo);
+				asignacion.setCreadorAsignacion(companero);
+				asignacion.setTitulo(tarea.getTitulo());
+				asignacion.setPrioridad(tarea.getPrioridad());
+				asignacion.setTiempo(tarea.getTiempo());
+				asignacion.setTipoAsignacion(TipoAsignacionGrupo.SELECCION_MANUAL);
+				agr.save(asignacion);
+
+				AsignacionGrupoMiembro asignacionMiembro = new AsignacionGrupoMiembro();
+				asignacionMiembro.setAsignacionGrupo(asignacion);
+				asignacionMiembro.setUsuarioMiembro(usuario);
+				asignacionMiembro.setTareaGenerada(tarea);
+				agmr.save(asignacionMiembro);
+			}
+		}
+	}
+
+	private Usuario guardarUsuario(String email) {
+		Usuario usuario = new Usuario();
+		usuario.setNombre("Usuario consultas");
+		usuario.setEmail(email);
+		usuario.setPassword("Password123");
+		usuario.setActivo(true);
+		return ur.save(usuario);
+	}
+
+	private Grupo guardarGrupo(Usuario creador) {
+		int n = ++secuencia;
+		Grupo grupo = new Grupo();
+		grupo.setNombre("Grupo " + n);
+		grupo.setCodigoPublico("CONS" + n + "-" + creador.getIdUsuario());
+		grupo.setCodigoInvitacion("INV-CONS-" + n + "-" + creador.getIdUsuario());
+		grupo.setCreador(creador);
+		return gr.save(grupo);
+	}
+}
@@ -0,0 +1,159 @@
+package com.tugestor.gestortareas.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tugestor.gestortareas.model.EstadoPushNotificacion;
+import com.tugestor.gestortareas.model.Notificacion;
+import com.tugestor.gestortareas.model.TipoNotificacion;
+import com.tugestor.gestortareas.model.Usuario;
+import com.tugestor.gestortareas.repository.NotificacionRepository;
+import com.tugestor.gestortareas.repository.UsuarioRepository;
+import com.tugestor.gestortareas.service.NotificacionCreadaEvent;
+
+/* Stream SSE de notificaciones de punta a punta: contador al conectar, notificacion tras el commit,
+ * notificacion creada en otra instancia (sin evento aqui) por el sondeo del latido y reanudacion con
+ * Last-Event-ID. Los envios son asincronos, asi que se espera a que lleguen. */
+@SpringBootTest(properties = {
+		"app.tareas.estado.barrido-cron=-",
+		"app.notificaciones.scheduler.recordatorios-initial-delay-ms=3600000",
+		"app.notificaciones.scheduler.avisos24h-initial-delay-ms=3600000",
+		"app.notificaciones.sse.latido=200ms" })
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class NotificacionesSseTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private UsuarioRepository ur;
+	@Autowired
+	private NotificacionRepository nr;
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void stream_mandaContadorYLuegoLaNotificacionTrasElCommit() throws Exception {
+		// Arrange
+		Usuario usuario = guardarUsuario("sse@ejemplo.com");
+		MvcResult stream = mockMvc.perform(get("/api/notificaciones/stream").with(user(usuario.getEmail())))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		// Act
+		Notificacion notificacion = crearYPublicar(usuario, "Nueva");
+
+		// Assert
+		// El evento se escribe por partes: espero a los datos, que van al final
+		String contenido = esperarContenido(stream, "\"titulo\":\"Nueva\"");
+		assertTrue(contenido.contains("event:contador"));
+		assertTrue(contenido.contains("\"count\":0"));
+		assertTrue(contenido.contains("id:" + notificacion.getIdNotificacion()));
+		assertTrue(contenido.contains("event:notificacion"));
+		assertTrue(contenido.contains("\"titulo\":\"Nueva\""));
+	}
+
+	@Test
+	void stream_notificacionDeOtraInstancia_llegaConElLatidoSinRepetirse() throws Exception {
+		// Arrange
+		Usuario usuario = guardarUsuario("sse-otra-instancia@ejemplo.com");
+		Notificacion anterior = crearYPublicar(usuario, "Anterior");
+		MvcResult stream = mockMvc.perform(get("/api/notificaciones/stream").with(user(usuario.getEmail())))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		// Act – guardada sin NotificacionCreadaEvent en esta instancia, como si la hubiera creado otra
+		Notificacion remota = crear(usuario, "Remota");
+		Notificacion local = crearYPublicar(usuario, "Local");
+
+		// Assert
+		esperarContenido(stream, "\"titulo\":\"Remota\"");
+		esperarContenido(stream, "\"titulo\":\"Local\"");
+		Thread.sleep(600);	// Varios latidos mas: ni el sondeo ni el evento repiten lo ya enviado
+		String contenido = stream.getResponse().getContentAsString();
+		assertFalse(contenido.contains("id:" + anterior.getIdNotificacion() + "\n"));
+		assertEquals(1, contenido.split("id:" + remota.getIdNotificacion() + "\n", -1).length - 1);
+		assertEquals(1, contenido.split("id:" + local.getIdNotificacion() + "\n", -1).length - 1);
+		assertTrue(contenido.contains(":latido"));
+	}
+
+	@Test
+	void stream_conLastEventId_reenviaSoloLoPosterior() throws Exception {
+		// Arrange
+		Usuario usuario = guardarUsuario("sse-reanudar@ejemplo.com");
+		Notificacion recibida = crearYPublicar(usuario, "Recibida");
+		Notificacion perdida = crearYPublicar(usuario, "Perdida");
+
+		// Act
+		MvcResult stream = mockMvc.perform(get("/api/notificaciones/stream")
+						.with(user(usuario.getEmail()))
+						.header("Last-Event-ID", recibida.getIdNotificacion()))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		// Assert
+		String contenido = stream.getResponse().getContentAsString();
+		assertTrue(contenido.contains("id:" + perdida.getIdNotificacion()));
+		assertFalse(contenido.contains("id:" + recibida.getIdNotificacion() + "\n"));
+		assertFalse(contenido.contains("event:contador"));
+	}
+
+	private Usuario guardarUsuario(String email) {
+		Usuario usuario = new Usuario();
+		usuario.setNombre("Usuario SSE");
+		usuario.setEmail(email);
+		usuario.setPassword("Password123");
+		return ur.save(usuario);
+	}
+
+	// Igual que NotificacionServiceImpl: el evento se publica dentro de la transaccion que guarda
+	private Notificacion crearYPublicar(Usuario usuario, String titulo) {
+		return new TransactionTemplate(transactionManager).execute(estado -> {
+			Notificacion guardada = crear(usuario, titulo);
+			eventPublisher.publishEvent(new NotificacionCreadaEvent(guardada.getIdNotificacion(),
+					usuario.getIdUsuario()));
+			return guardada;
+		});
+	}
+
+	private Notificacion crear(Usuario usuario, String titulo) {
+		Notificacion notificacion = new Notificacion();
+		notificacion.setUsuario(usuario);
+		notificacion.setTipo(TipoNotificacion.ASIGNACION_GRUPO);
+		notificacion.setTitulo(titulo);
+		notificacion.setMensaje("Mensaje");
+		notificacion.setFechaProgramada(LocalDateTime.now());
+		notificacion.setFechaCreacion(LocalDateTime.now());
+		notificacion.setPushEstado(EstadoPushNotificacion.NO_APLICA);
+		return nr.save(notificacion);
+	}
+
+	private static String esperarContenido(MvcResult stream, String esperado) throws Exception {
+		long limite = System.nanoTime() + 5_000_000_000L;
+		String contenido = stream.getResponse().getContentAsString();
+		while (!contenido.contains(esperado) && System.nanoTime() < limite) {
+			Thread.sleep(20);
+			contenido = stream.getResponse().getContentAsString();
+		}
+		return contenido;
+	}
+}
@@ -0,0 +1,60 @@
+package com.tugestor.gestortareas.repository;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.tugestor.gestortareas.model.BloqueoProgramado;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class BloqueoProgramadoRepositoryTest {
+	private static final LocalDateTime AHORA = LocalDateTime.of(2026, 3, 1, 10, 0);
+
+	@Autowired
+	private BloqueoProgramadoRepository bpr;
+	@Autowired
+	private TestEntityManager em;
+
+	@Test
+	void adquirir_soloCuandoElLeaseHaExpirado() {
+		// Arrange
+		em.persist(new BloqueoProgramado("avisos", "nodo-a", AHORA, AHORA.plusMinutes(5)));
+		em.flush();
+
+		// Act
+		int mientrasVigente = bpr.adquirir("avisos", "nodo-b", AHORA.plusMinutes(1), AHORA.plusMinutes(6));
+		int trasExpirar = bpr.adquirir("avisos", "nodo-b", AHORA.plusMinutes(5), AHORA.plusMinutes(10));
+		em.clear();
+
+		// Assert
+		assertEquals(0, mientrasVigente);
+		assertEquals(1, trasExpirar);
+		BloqueoProgramado bloqueo = em.find(BloqueoProgramado.class, "avisos");
+		assertEquals("nodo-b", bloqueo.getPropietario());
+		assertEquals(AHORA.plusMinutes(10), bloqueo.getBloqueadoHasta());
+	}
+
+	@Test
+	void liberarEn_soloElPropietarioYDejaAdquirirDesdeEseMomento() {
+		// Arrange
+		em.persist(new BloqueoProgramado("avisos", "nodo-a", AHORA, AHORA.plusMinutes(5)));
+		em.flush();
+
+		// Act
+		int liberadoPorOtro = bpr.liberarEn("avisos", "nodo-b", AHORA.plusMinutes(1));
+		int liberadoPorPropietario = bpr.liberarEn("avisos", "nodo-a", AHORA.plusMinutes(1));
+		int adquirido = bpr.adquirir("avisos", "nodo-b", AHORA.plusMinutes(1), AHORA.plusMinutes(6));
+
+		// Assert
+		assertEquals(0, liberadoPorOtro);
+		assertEquals(1, liberadoPorPropietario);
+		assertEquals(1, adquirido);
+	}
+}
@@ -0,0 +1,117 @@
+package com.tugestor.gestortareas.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.tugestor.gestortareas.model.EnvioPush;
+import com.tugestor.gestortareas.model.EstadoEnvioPush;
+import com.tugestor.gestortareas.model.EstadoPushNotificacion;
+import com.tugestor.gestortareas.model.Notificacion;
+import com.tugestor.gestortareas.model.TipoNotificacion;
+import com.tugestor.gestortareas.model.Usuario;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class EnvioPushRepositoryTest {
+	private static final LocalDateTime AHORA = LocalDateTime.of(2026, 3, 1, 10, 0);
+
+	@Autowired
+	private EnvioPushRepository epr;
+	@Autowired
+	private NotificacionRepository nr;
+	@Autowired
+	private TestEntityManager em;
+
+	@Test
+	void reclamarPendientes_soloVencidosPendientesEnOrdenYHastaElLote() {
+		// Arrange
+		EnvioPush tardio = epr.save(new EnvioPush(1L, 10L, AHORA.minusMinutes(1)));
+		EnvioPush antiguo = epr.save(new EnvioPush(1L, 11L, AHORA.minusMinutes(5)));
+		EnvioPush intermedio = epr.save(new EnvioPush(2L, 10L, AHORA.minusMinutes(3)));
+		epr.save(new EnvioPush(3L, 10L, AHORA.plusMinutes(1)));	// reintento aun no vencido
+		EnvioPush enviado = new EnvioPush(4L, 10L, AHORA.minusMinutes(9));
+		enviado.setEstado(EstadoEnvioPush.ENVIADO);
+		epr.save(enviado);
+
+		// Act
+		List<EnvioPush> reclamados = epr.reclamarPendientes(AHORA, 2);
+		List<EnvioPush> todos = epr.reclamarPendientes(AHORA, 10);
+
+		// Assert
+		assertEquals(List.of(antiguo.getIdEnvioPush(), intermedio.getIdEnvioPush()),
+				reclamados.stream().map(EnvioPush::getIdEnvioPush).toList());
+		assertEquals(3, todos.size());
+		assertTrue(todos.stream().anyMatch(e -> e.getIdEnvioPush().equals(tardio.getIdEnvioPush())));
+	}
+
+	@Test
+	void bloquearHasta_sumaElIntentoYAplazaElEnvio() {
+		// Arrange
+		EnvioPush envio = epr.save(new EnvioPush(1L, 10L, AHORA));
+
+		// Act
+		epr.bloquearHasta(List.of(envio.getIdEnvioPush()), AHORA.plusMinutes(2));
+		em.clear();
+
+		// Assert
+		EnvioPush recargado = epr.findById(envio.getIdEnvioPush()).orElseThrow();
+		assertEquals(1, recargado.getIntentos());
+		assertTrue(epr.reclamarPendientes(AHORA.plusMinutes(1), 10).isEmpty());
+	}
+
+	@Test
+	void marcarFallidasSinEnviosVivos_soloCuandoTodosSusEnviosEstanDescartados() {
+		// Arrange
+		Usuario usuario = guardarUsuario();
+		Notificacion todosDescartados = guardarNotificacion(usuario);
+		Notificacion conUnoPendiente = guardarNotificacion(usuario);
+		guardarEnvio(todosDescartados, EstadoEnvioPush.DESCARTADO);
+		guardarEnvio(todosDescartados, EstadoEnvioPush.DESCARTADO);
+		guardarEnvio(conUnoPendiente, EstadoEnvioPush.DESCARTADO);
+		guardarEnvio(conUnoPendiente, EstadoEnvioPush.PENDIENTE);
+
+		// Act
+		int actualizadas = nr.marcarFallidasSinEnviosVivos(
+				List.of(todosDescartados.getIdNotificacion(), conUnoPendiente.getIdNotificacion()), AHORA, "410");
+		em.clear();
+
+		// Assert
+		assertEquals(1, actualizadas);
+		assertEquals(EstadoPushNotificacion.FALLIDA,
+				nr.findById(todosDescartados.getIdNotificacion()).orElseThrow().getPushEstado());
+		assertEquals(EstadoPushNotificacion.PENDIENTE,
+				nr.findById(conUnoPendiente.getIdNotificacion()).orElseThrow().getPushEstado());
+	}
+
+	private Usuario guardarUsuario() {
+		Usuario usuario = new Usuario();
+		usuario.setNombre("Usuario push");
+		usuario.setEmail("push@ejemplo.com");
+		usuario.setPassword("Password123");
+		return em.persist(usuario);
+	}
+
+	private Notificacion guardarNotificacion(Usuario usuario) {
+		Notificacion notificacion = new Notificacion();
+		notificacion.setUsuario(usuario);
+		notificacion.setTipo(TipoNotificacion.ASIGNACION_GRUPO);
+		notificacion.setTitulo("Nueva tarea de grupo");
+		notificacion.setMensaje("Mensaje");
+		notificacion.setPushEstado(EstadoPushNotificacion.PENDIENTE);
+		return nr.save(notificacion);
+	}
+
+	private void guardarEnvio(Notificacion notificacion, EstadoEnvioPush estado) {
+		EnvioPush envio = new EnvioPush(notificacion.getIdNotificacion(), 10L, AHORA);
+		envio.setEstado(estado);
+		epr.save(envio);
+	}
+}
@@ -0,0 +1,246 @@
+package com.tugestor.gestortareas.repository;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.tugestor.gestortareas.dto.Aviso24hPendiente;
+import com.tugestor.gestortareas.model.AsignacionGrupo;
+import com.tugestor.gestortareas.model.AsignacionGrupoMiembro;
+import com.tugestor.gestortareas.model.EstadoPushNotificacion;
+import com.tugestor.gestortareas.model.Grupo;
+import com.tugestor.gestortareas.model.Notificacion;
+import com.tugestor.gestortareas.model.NotificacionArchivada;
+import com.tugestor.gestortareas.model.PreferenciasNotificacion;
+import com.tugestor.gestortareas.model.Prioridad;
+import com.tugestor.gestortareas.model.Tarea;
+import com.tugestor.gestortareas.model.TipoAsignacionGrupo;
+import com.tugestor.gestortareas.model.TipoNotificacion;
+import com.tugestor.gestortareas.model.Usuario;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class NotificacionRepositoryTest {
+	private static final LocalDateTime AHORA = LocalDateTime.of(2026, 3, 1, 10, 0);
+
+	@Autowired
+	private NotificacionRepository nr;
+	@Autowired
+	private NotificacionArchivadaRepository nar;
+	@Autowired
+	private TestEntityManager em;
+
+	@Test
+	void buscarAvisos24hPendientes_filtraPorPrioridadVentanaAvisoPrevioYGrupo() {
+		// Arrange
+		Usuario usuario = guardarUsuario("avisos@ejemplo.com");
+		Grupo grupoElegido = guardarGrupo(usuario, "A");
+		Grupo grupoOtro = guardarGrupo(usuario, "B");
+		guardarPreferencias(usuario, true, Set.of(Prioridad.ALTA), Set.of(grupoElegido));
+
+		Tarea personal = guardarTarea(usuario, "Personal", Prioridad.ALTA, AHORA.plusHours(5));
+		guardarTarea(usuario, "Prioridad baja", Prioridad.BAJA, AHORA.plusHours(5));
+		guardarTarea(usuario, "Lejana", Prioridad.ALTA, AHORA.plusHours(30));
+		Tarea yaAvisada = guardarTarea(usuario, "Ya avisada", Prioridad.ALTA, AHORA.plusHours(3));
+		guardarAviso(usuario, yaAvisada);
+		Tarea deGrupo = guardarTarea(usuario, "De grupo", Prioridad.ALTA, AHORA.plusHours(8));
+		AsignacionGrupoMiembro asignacion = asignar(deGrupo, grupoElegido, usuario);
+		asignar(guardarTarea(usuario, "Otro grupo", Prioridad.ALTA, AHORA.plusHours(8)), grupoOtro, usuario);
+		em.flush();
+		em.clear();
+
+		// Act
+		List<Aviso24hPendiente> pendientes = nr.buscarAvisos24hPendientes(AHORA, AHORA.plusHours(24), 0, 1);
+
+		// Assert
+		assertEquals(2, pendientes.size());
+		Aviso24hPendiente avisoPersonal = buscar(pendientes, personal);
+		assertEquals(usuario.getIdUsuario(), avisoPersonal.getIdUsuario());
+		assertEquals("Personal", avisoPersonal.getTituloTarea());
+		assertNull(avisoPersonal.getIdAsignacionGrupoMiembro());
+		Aviso24hPendiente avisoGrupo = buscar(pendientes, deGrupo);
+		assertEquals(asignacion.getIdAsignacionGrupoMiembro(), avisoGrupo.getIdAsignacionGrupoMiembro());
+		assertEquals(grupoElegido.getIdGrupo(), avisoGrupo.getIdGrupo());
+	}
+
+	@Test
+	void buscarAvisos24hPendientes_preferenciasDesactivadas_noDevuelveNada() {
+		// Arrange
+		Usuario usuario = guardarUsuario("sinavisos@ejemplo.com");
+		guardarPreferencias(usuario, false, Set.of(Prioridad.ALTA), Set.of());
+		guardarTarea(usuario, "Personal", Prioridad.ALTA, AHORA.plusHours(5));
+		em.flush();
+		em.clear();
+
+		// Act
+		List<Aviso24hPendiente> pendientes = nr.buscarAvisos24hPendientes(AHORA, AHORA.plusHours(24), 0, 1);
+
+		// Assert
+		assertTrue(pendientes.isEmpty());
+	}
+
+	@Test
+	void buscarAvisos24hPendientes_porParticion_soloDevuelveSusUsuarios() {
+		// Arrange
+		Usuario primero = guardarUsuario("particion1@ejemplo.com");
+		Usuario segundo = guardarUsuario("particion2@ejemplo.com");
+		for (Usuario usuario : List.of(primero, segundo)) {
+			guardarPreferencias(usuario, true, Set.of(Prioridad.ALTA), Set.of());
+			guardarTarea(usuario, "Personal", Prioridad.ALTA, AHORA.plusHours(5));
+		}
+		em.flush();
+		em.clear();
+		int particionPrimero = (int) (primero.getIdUsuario() % 2);
+
+		// Act
+		List<Aviso24hPendiente> suya = nr.buscarAvisos24hPendientes(AHORA, AHORA.plusHours(24), particionPrimero, 2);
+		List<Aviso24hPendiente> otra = nr.buscarAvisos24hPendientes(AHORA, AHORA.plusHours(24), 1 - particionPrimero, 2);
+
+		// Assert
+		assertEquals(1, suya.size());
+		assertEquals(primero.getIdUsuario(), suya.get(0).getIdUsuario());
+		assertEquals(1, otra.size());
+		assertEquals(segundo.getIdUsuario(), otra.get(0).getIdUsuario());
+	}
+
+	@Test
+	void cerrarTodas_cierraSoloLasAbiertasDelUsuarioEnUnaSentencia() {
+		// Arrange
+		Usuario usuario = guardarUsuario("cerrar@ejemplo.com");
+		Usuario otro = guardarUsuario("otro-cerrar@ejemplo.com");
+		Tarea tarea = guardarTarea(usuario, "Tarea", Prioridad.ALTA, AHORA.plusHours(5));
+		guardarAviso(usuario, tarea);
+		guardarAviso(usuario, tarea);
+		Notificacion yaCerrada = guardarAviso(usuario, tarea);
+		yaCerrada.setCerrada(true);
+		yaCerrada.setFechaCierre(AHORA.minusDays(1));
+		Notificacion ajena = guardarAviso(otro, guardarTarea(otro, "Ajena", Prioridad.ALTA, AHORA.plusHours(5)));
+		em.flush();
+		em.clear();
+
+		// Act
+		int cerradas = nr.cerrarTodas(usuario.getIdUsuario(), AHORA);
+		em.clear();
+
+		// Assert
+		assertEquals(2, cerradas);
+		assertEquals(AHORA.minusDays(1), em.find(Notificacion.class, yaCerrada.getIdNotificacion()).getFechaCierre());
+		assertFalse(em.find(Notificacion.class, ajena.getIdNotificacion()).isCerrada());
+	}
+
+	@Test
+	void retencion_archivaYBorraSoloLasCerradasAntiguas() {
+		// Arrange
+		Usuario usuario = guardarUsuario("retencion@ejemplo.com");
+		Tarea tarea = guardarTarea(usuario, "Tarea", Prioridad.ALTA, AHORA.plusHours(5));
+		Notificacion antigua = guardarAviso(usuario, tarea);
+		antigua.setCerrada(true);
+		antigua.setFechaCierre(AHORA.minusDays(100));
+		Notificacion reciente = guardarAviso(usuario, tarea);
+		reciente.setCerrada(true);
+		reciente.setFechaCierre(AHORA.minusDays(1));
+		Notificacion abierta = guardarAviso(usuario, tarea);
+		em.flush();
+		em.clear();
+
+		// Act
+		List<Long> ids = nr.findIdsCerradasAntesDe(AHORA.minusDays(90), PageRequest.of(0, 10));
+		int archivadas = nar.archivar(ids, AHORA);
+		int borradas = nr.borrarPorIds(ids);
+		em.clear();
+
+		// Assert
+		assertEquals(List.of(antigua.getIdNotificacion()), ids);
+		assertEquals(1, archivadas);
+		assertEquals(1, borradas);
+		NotificacionArchivada archivada = em.find(NotificacionArchivada.class, antigua.getIdNotificacion());
+		assertEquals(usuario.getIdUsuario(), archivada.getIdUsuario());
+		assertEquals(tarea.getIdTarea(), archivada.getIdTarea());
+		assertEquals(AHORA.minusDays(100), archivada.getFechaCierre());
+		assertNull(em.find(Notificacion.class, antigua.getIdNotificacion()));
+		assertNotNull(em.find(Notificacion.class, reciente.getIdNotificacion()));
+		assertNotNull(em.find(Notificacion.class, abierta.getIdNotificacion()));
+	}
+
+	private static Aviso24hPendiente buscar(List<Aviso24hPendiente> pendientes, Tarea tarea) {
+		return pendientes.stream()
+				.filter(pendiente -> pendiente.getIdTarea().equals(tarea.getIdTarea()))
+				.findFirst()
+				.orElseThrow();
+	}
+
+	private Usuario guardarUsuario(String email) {
+		Usuario usuario = new Usuario();
+		usuario.setNombre("Usuario avisos");
+		usuario.setEmail(email);
+		usuario.setPassword("Password123");
+		return em.persist(usuario);
+	}
+
+	private Grupo guardarGrupo(Usuario creador, String sufijo) {
+		Grupo grupo = new Grupo();
+		grupo.setNombre("Grupo " + sufijo);
+		grupo.setCodigoPublico("PUB-" + sufijo);
+		grupo.setCodigoInvitacion("INV-" + sufijo);
+		grupo.setCreador(creador);
+		return em.persist(grupo);
+	}
+
+	private void guardarPreferencias(Usuario usuario, boolean aviso24hActivo, Set<Prioridad> prioridades,
+			Set<Grupo> grupos) {
+		PreferenciasNotificacion preferencias = new PreferenciasNotificacion();
+		preferencias.setUsuario(usuario);
+		preferencias.setAviso24hActivo(aviso24hActivo);
+		preferencias.setPrioridadesAviso24h(new HashSet<>(prioridades));
+		preferencias.setGruposAviso24h(new HashSet<>(grupos));
+		em.persist(preferencias);
+	}
+
+	private Tarea guardarTarea(Usuario usuario, String titulo, Prioridad prioridad, LocalDateTime fechaEntrega) {
+		Tarea tarea = new Tarea();
+		tarea.setTitulo(titulo);
+		tarea.setTiempo(30);
+		tarea.setPrioridad(prioridad);
+		tarea.setFechaEntrega(fechaEntrega);
+		tarea.setUsuario(usuario);
+		return em.persist(tarea);
+	}
+
+	private AsignacionGrupoMiembro asignar(Tarea tarea, Grupo grupo, Usuario usuario) {
+		AsignacionGrupo asignacionGrupo = new AsignacionGrupo();
+		asignacionGrupo.setGrupo(grupo);
+		asignacionGrupo.setCreadorAsignacion(usuario);
+		asignacionGrupo.setTitulo(tarea.getTitulo());
+		asignacionGrupo.setPrioridad(tarea.getPrioridad());
+		asignacionGrupo.setTiempo(30);
+		asignacionGrupo.setTipoAsignacion(TipoAsignacionGrupo.TODO_GRUPO);
+		em.persist(asignacionGrupo);
+
+		AsignacionGrupoMiembro asignacion = new AsignacionGrupoMiembro();
+		asignacion.setAsignacionGrupo(asignacionGrupo);
+		asignacion.setUsuarioMiembro(usuario);
+		asignacion.setTareaGenerada(tarea);
+		return em.persist(asignacion);
+	}
+
+	private Notificacion guardarAviso(Usuario usuario, Tarea tarea) {
+		Notificacion notificacion = new Notificacion();
+		notificacion.setUsuario(usuario);
+		notificacion.setTarea(tarea);
+		notificacion.setTipo(TipoNotificacion.AVISO_24H);
+		notificacion.setTitulo("Tarea proxima a vencer");
+		notificacion.setMensaje("Mensaje");
+		notificacion.setPushEstado(EstadoPushNotificacion.NO_APLICA);
+		return em.persist(notificacion);
+	}
+}
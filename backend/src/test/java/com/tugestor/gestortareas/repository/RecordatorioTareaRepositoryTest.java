@@ -0,0 +1,107 @@
+package com.tugestor.gestortareas.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.tugestor.gestortareas.dto.RecordatorioVencido;
+import com.tugestor.gestortareas.model.Prioridad;
+import com.tugestor.gestortareas.model.RecordatorioTarea;
+import com.tugestor.gestortareas.model.Tarea;
+import com.tugestor.gestortareas.model.TipoRecordatorioTarea;
+import com.tugestor.gestortareas.model.Usuario;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class RecordatorioTareaRepositoryTest {
+	private static final LocalDateTime AHORA = LocalDateTime.of(2026, 3, 1, 10, 0);
+	private static final String TIPO = TipoRecordatorioTarea.RECORDATORIO_INTELIGENTE.name();
+
+	@Autowired
+	private RecordatorioTareaRepository rtr;
+	@Autowired
+	private TestEntityManager em;
+
+	@Test
+	void reclamarVencidos_devuelveLosVencidosPendientesPorFechaHastaElLote() {
+		// Arrange
+		Usuario usuario = guardarUsuario("recordatorios@ejemplo.com");
+		RecordatorioTarea masAntiguo = guardarRecordatorio(usuario, "Antiguo", AHORA.minusHours(2), true, false);
+		RecordatorioTarea reciente = guardarRecordatorio(usuario, "Reciente", AHORA.minusMinutes(5), true, false);
+		guardarRecordatorio(usuario, "Futuro", AHORA.plusMinutes(5), true, false);
+		guardarRecordatorio(usuario, "Inactivo", AHORA.minusHours(1), false, false);
+		guardarRecordatorio(usuario, "Ya generado", AHORA.minusHours(1), true, true);
+		em.flush();
+		em.clear();
+
+		// Act
+		List<Long> todos = rtr.reclamarVencidos(TIPO, AHORA, 10);
+		List<Long> lote = rtr.reclamarVencidos(TIPO, AHORA, 1);
+
+		// Assert
+		assertEquals(List.of(masAntiguo.getIdRecordatorioTarea(), reciente.getIdRecordatorioTarea()), todos);
+		assertEquals(List.of(masAntiguo.getIdRecordatorioTarea()), lote);
+	}
+
+	@Test
+	void marcarProcesados_actualizaElLoteYLoSacaDeLosVencidos() {
+		// Arrange
+		Usuario usuario = guardarUsuario("procesados@ejemplo.com");
+		RecordatorioTarea recordatorio = guardarRecordatorio(usuario, "Entrega", AHORA.minusMinutes(1), true, false);
+		em.flush();
+		em.clear();
+		List<Long> ids = rtr.reclamarVencidos(TIPO, AHORA, 10);
+		List<RecordatorioVencido> vencidos = rtr.findVencidosPorIds(ids);
+
+		// Act
+		int marcados = rtr.marcarProcesados(ids, AHORA);
+		em.clear();
+
+		// Assert
+		assertEquals(1, vencidos.size());
+		assertEquals(usuario.getIdUsuario(), vencidos.get(0).getIdUsuario());
+		assertEquals(recordatorio.getTarea().getIdTarea(), vencidos.get(0).getIdTarea());
+		assertEquals("Entrega", vencidos.get(0).getTituloTarea());
+		assertEquals(1, marcados);
+		RecordatorioTarea procesado = em.find(RecordatorioTarea.class, recordatorio.getIdRecordatorioTarea());
+		assertFalse(procesado.isActivo());
+		assertTrue(procesado.isNotificacionGenerada());
+		assertEquals(AHORA, procesado.getFechaProcesado());
+		assertTrue(rtr.reclamarVencidos(TIPO, AHORA, 10).isEmpty());
+	}
+
+	private Usuario guardarUsuario(String email) {
+		Usuario usuario = new Usuario();
+		usuario.setNombre("Usuario recordatorios");
+		usuario.setEmail(email);
+		usuario.setPassword("Password123");
+		return em.persist(usuario);
+	}
+
+	private RecordatorioTarea guardarRecordatorio(Usuario usuario, String titulo, LocalDateTime fechaProgramada,
+			boolean activo, boolean notificacionGenerada) {
+		Tarea tarea = new Tarea();
+		tarea.setTitulo(titulo);
+		tarea.setTiempo(30);
+		tarea.setPrioridad(Prioridad.MEDIA);
+		tarea.setFechaEntrega(fechaProgramada.plusHours(2));
+		tarea.setUsuario(usuario);
+		em.persist(tarea);
+
+		RecordatorioTarea recordatorio = new RecordatorioTarea();
+		recordatorio.setUsuario(usuario);
+		recordatorio.setTarea(tarea);
+		recordatorio.setTipo(TipoRecordatorioTarea.RECORDATORIO_INTELIGENTE);
+		recordatorio.setActivo(activo);
+		recordatorio.setFechaProgramada(fechaProgramada);
+		recordatorio.setNotificacionGenerada(notificacionGenerada);
+		return em.persist(recordatorio);
+	}
+}
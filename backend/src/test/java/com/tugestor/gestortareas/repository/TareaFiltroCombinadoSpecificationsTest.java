@@ -0,0 +1,291 @@
+package com.tugestor.gestortareas.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.tugestor.gestortareas.dto.FiltroTareaCombinadoRequest;
+import com.tugestor.gestortareas.model.AsignacionGrupo;
+import com.tugestor.gestortareas.model.AsignacionGrupoMiembro;
+import com.tugestor.gestortareas.model.Categoria;
+import com.tugestor.gestortareas.model.Estado;
+import com.tugestor.gestortareas.model.Grupo;
+import com.tugestor.gestortareas.model.Prioridad;
+import com.tugestor.gestortareas.model.Tarea;
+import com.tugestor.gestortareas.model.TipoAsignacionGrupo;
+import com.tugestor.gestortareas.model.Usuario;
+
+/* Comprueba que las Specifications del filtro combinado devuelven exactamente las mismas tareas
+ * que el filtrado en memoria que usaba antes TareaServiceImpl (reproducido aqui como referencia). */
+@DataJpaTest
+@ActiveProfiles("test")
+public class TareaFiltroCombinadoSpecificationsTest {
+
+	@Autowired
+	private TareaRepository tr;
+	@Autowired
+	private UsuarioRepository ur;
+	@Autowired
+	private CategoriaRepository cr;
+	@Autowired
+	private GrupoRepository gr;
+	@Autowired
+	private AsignacionGrupoRepository agr;
+	@Autowired
+	private AsignacionGrupoMiembroRepository agmr;
+
+	private static final String EMAIL = "filtro@example.com";
+	private Categoria categoria;
+	private Tarea tareaGrupo;
+
+	@BeforeEach
+	void prepararDatos() {
+		LocalDateTime ahora = LocalDateTime.now();
+		Usuario usuario = guardarUsuario("Usuario Filtro", EMAIL);
+		Usuario otro = guardarUsuario("Usuario Ajeno", "ajeno@example.com");
+
+		categoria = new Categoria("Trabajo", "#FF0000", "work", false);
+		categoria.setUsuario(usuario);
+		cr.save(categoria);
+
+		guardarTarea(usuario, "Informe trimestral", "Revisar cifras", Prioridad.ALTA, 30,
+				ahora.plusDays(1), null, categoria);
+		guardarTarea(usuario, "Compra semanal", null, Prioridad.BAJA, 10, null, null, null);
+		guardarTarea(usuario, "Llamar al banco", "Informe pendiente", Prioridad.MEDIA, 60,
+				ahora.minusDays(2), null, null);
+		guardarTarea(usuario, "Entrega final", "Descuento 50% aplicado", Prioridad.IMPRESCINDIBLE, 45,
+				ahora.plusDays(5), ahora.minusHours(1), categoria);
+		guardarTarea(usuario, "Revision a_b", "Fuera de plazo", Prioridad.ALTA, 20,
+				ahora.minusDays(3), ahora.minusDays(1), null);
+		guardarTarea(usuario, "Ordenar archivo", "axb", Prioridad.MEDIA, 15, null, ahora, null);
+		guardarTarea(usuario, "Plan del mes", "Objetivos", Prioridad.BAJA, 90, ahora.plusDays(2), null, categoria);
+		guardarTarea(otro, "Informe ajeno", "No debe salir", Prioridad.ALTA, 30, ahora.plusDays(1), null, null);
+
+		tareaGrupo = guardarTarea(usuario, "Informe de grupo", "Asignada por el grupo", Prioridad.ALTA, 30,
+				ahora.plusDays(1), null, null);
+		asignarEnGrupo(otro, usuario, tareaGrupo);
+	}
+
+	@Test
+	void tareasPersonales_devuelveLoMismoQueElFiltradoEnMemoria() {
+		// Arrange – tareas personales: las del usuario menos la que viene de una asignacion de grupo
+		List<Tarea> personales = tr.findByUsuarioEmail(EMAIL).stream()
+				.filter(tarea -> !tarea.getIdTarea().equals(tareaGrupo.getIdTarea()))
+				.toList();
+
+		for (FiltroTareaCombinadoRequest filtro : filtrosDePrueba()) {
+			// Act
+			Set<Long> obtenidas = ids(tr.findAll(TareaFiltroCombinadoSpecifications.tareasPersonales(
+					EMAIL, filtro, prioridades(filtro), estados(filtro), LocalDateTime.now())));
+
+			// Assert
+			Set<Long> esperadas = ids(personales.stream().filter(tarea -> cumpleFiltrosEnMemoria(tarea, filtro)).toList());
+			assertEquals(esperadas, obtenidas, () -> "Filtro con resultado distinto: " + describir(filtro));
+		}
+	}
+
+	@Test
+	void asignacionesGrupo_devuelveLoMismoQueElFiltradoEnMemoria() {
+		for (FiltroTareaCombinadoRequest filtro : filtrosDePrueba()) {
+			// Act
+			Set<Long> obtenidas = agmr.findAll(TareaFiltroCombinadoSpecifications.asignacionesGrupo(
+					EMAIL, null, filtro, prioridades(filtro), estados(filtro), LocalDateTime.now())).stream()
+					.map(asignacion -> asignacion.getTareaGenerada().getIdTarea())
+					.collect(Collectors.toSet());
+
+			// Assert
+			Set<Long> esperadas = cumpleFiltrosEnMemoria(tareaGrupo, filtro)
+					? Set.of(tareaGrupo.getIdTarea())
+					: Set.of();
+			assertEquals(esperadas, obtenidas, () -> "Filtro con resultado distinto: " + describir(filtro));
+		}
+	}
+
+	@Test
+	void tareasPersonales_palabraClaveConComodin_seTrataComoTextoLiteral() {
+		// Arrange
+		FiltroTareaCombinadoRequest filtro = new FiltroTareaCombinadoRequest();
+		filtro.setPalabrasClave("a_b");
+
+		// Act
+		List<Tarea> resultado = tr.findAll(TareaFiltroCombinadoSpecifications.tareasPersonales(
+				EMAIL, filtro, List.of(), List.of(), LocalDateTime.now()));
+
+		// Assert – "axb" no debe coincidir: el guion bajo no actua como comodin
+		assertEquals(1, resultado.size());
+		assertEquals("Revision a_b", resultado.get(0).getTitulo());
+	}
+
+	private List<FiltroTareaCombinadoRequest> filtrosDePrueba() {
+		List<FiltroTareaCombinadoRequest> filtros = new ArrayList<>();
+		filtros.add(new FiltroTareaCombinadoRequest());
+		filtros.add(filtro(f -> f.setSoloPorCompletar(true)));
+		filtros.add(filtro(f -> f.setPrioridad(Prioridad.ALTA)));
+		filtros.add(filtro(f -> f.setPrioridades(List.of(Prioridad.ALTA, Prioridad.IMPRESCINDIBLE))));
+		filtros.add(filtro(f -> {
+			f.setPrioridades(List.of());
+			f.setEstados(List.of());
+		}));
+		for (Estado estado : Estado.values()) {
+			filtros.add(filtro(f -> f.setEstado(estado)));
+		}
+		filtros.add(filtro(f -> f.setEstados(List.of(Estado.EN_CURSO, Estado.VENCIDA, Estado.SIN_FECHA))));
+		filtros.add(filtro(f -> {
+			f.setEstados(List.of(Estado.COMPLETADA, Estado.COMPLETADA_CON_RETRASO));
+			f.setSoloPorCompletar(true);
+		}));
+		filtros.add(filtro(f -> f.setTiempoMax(30)));
+		filtros.add(filtro(f -> f.setIdCategoria(categoria.getIdCategoria())));
+		filtros.add(filtro(f -> f.setPalabrasClave("informe")));
+		filtros.add(filtro(f -> f.setPalabrasClave("  INFORME ")));
+		filtros.add(filtro(f -> f.setPalabrasClave("50%")));
+		filtros.add(filtro(f -> f.setPalabrasClave("   ")));
+		filtros.add(filtro(f -> f.setFechaEntregaExacta(LocalDate.now().plusDays(1))));
+		filtros.add(filtro(f -> f.setFechaEntregaHasta(LocalDate.now().plusDays(3))));
+		filtros.add(filtro(f -> {
+			f.setPrioridades(List.of(Prioridad.ALTA, Prioridad.MEDIA));
+			f.setEstados(List.of(Estado.EN_CURSO, Estado.VENCIDA));
+			f.setTiempoMax(60);
+			f.setPalabrasClave("informe");
+		}));
+		filtros.add(filtro(f -> {
+			f.setSoloPorCompletar(true);
+			f.setIdCategoria(categoria.getIdCategoria());
+			f.setFechaEntregaHasta(LocalDate.now().plusDays(7));
+		}));
+		return filtros;
+	}
+
+	// Copia del filtrado en memoria previo a las Specifications, usada como referencia
+	private boolean cumpleFiltrosEnMemoria(Tarea tarea, FiltroTareaCombinadoRequest filtro) {
+		List<Prioridad> prioridades = prioridades(filtro);
+		List<Estado> estados = estados(filtro);
+		Estado estado = tarea.getEstado();
+		if (estados.isEmpty() && Boolean.TRUE.equals(filtro.getSoloPorCompletar())
+				&& (estado == Estado.COMPLETADA || estado == Estado.COMPLETADA_CON_RETRASO)) {
+			return false;
+		}
+		if (!prioridades.isEmpty() && !prioridades.contains(tarea.getPrioridad())) {
+			return false;
+		}
+		if (!estados.isEmpty() && !estados.contains(estado)) {
+			return false;
+		}
+		if (filtro.getTiempoMax() != null && tarea.getTiempo() > filtro.getTiempoMax()) {
+			return false;
+		}
+		if (filtro.getIdCategoria() != null
+				&& (tarea.getCategoria() == null
+						|| !filtro.getIdCategoria().equals(tarea.getCategoria().getIdCategoria()))) {
+			return false;
+		}
+		if (filtro.getPalabrasClave() != null && !filtro.getPalabrasClave().trim().isBlank()) {
+			String palabrasClave = filtro.getPalabrasClave().trim().toLowerCase(Locale.ROOT);
+			String titulo = tarea.getTitulo() != null ? tarea.getTitulo().toLowerCase(Locale.ROOT) : "";
+			String descripcion = tarea.getDescripcion() != null ? tarea.getDescripcion().toLowerCase(Locale.ROOT) : "";
+			if (!titulo.contains(palabrasClave) && !descripcion.contains(palabrasClave)) {
+				return false;
+			}
+		}
+		if (filtro.getFechaEntregaExacta() != null
+				&& (tarea.getFechaEntrega() == null
+						|| !tarea.getFechaEntrega().toLocalDate().equals(filtro.getFechaEntregaExacta()))) {
+			return false;
+		}
+		if (filtro.getFechaEntregaHasta() != null) {
+			if (tarea.getFechaEntrega() == null) {
+				return false;
+			}
+			LocalDate fechaEntrega = tarea.getFechaEntrega().toLocalDate();
+			if (fechaEntrega.isBefore(LocalDate.now()) || fechaEntrega.isAfter(filtro.getFechaEntregaHasta())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private List<Prioridad> prioridades(FiltroTareaCombinadoRequest filtro) {
+		if (filtro.getPrioridades() != null && !filtro.getPrioridades().isEmpty()) {
+			return filtro.getPrioridades();
+		}
+		return filtro.getPrioridad() != null ? List.of(filtro.getPrioridad()) : List.of();
+	}
+
+	private List<Estado> estados(FiltroTareaCombinadoRequest filtro) {
+		if (filtro.getEstados() != null && !filtro.getEstados().isEmpty()) {
+			return filtro.getEstados();
+		}
+		return filtro.getEstado() != null ? List.of(filtro.getEstado()) : List.of();
+	}
+
+	private FiltroTareaCombinadoRequest filtro(Consumer<FiltroTareaCombinadoRequest> ajustes) {
+		FiltroTareaCombinadoRequest filtro = new FiltroTareaCombinadoRequest();
+		ajustes.accept(filtro);
+		return filtro;
+	}
+
+	private String describir(FiltroTareaCombinadoRequest filtro) {
+		return "prioridades=" + prioridades(filtro) + ", estados=" + estados(filtro)
+				+ ", soloPorCompletar=" + filtro.getSoloPorCompletar() + ", tiempoMax=" + filtro.getTiempoMax()
+				+ ", idCategoria=" + filtro.getIdCategoria() + ", palabrasClave=" + filtro.getPalabrasClave()
+				+ ", fechaEntregaExacta=" + filtro.getFechaEntregaExacta()
+				+ ", fechaEntregaHasta=" + filtro.getFechaEntregaHasta();
+	}
+
+	private Set<Long> ids(List<Tarea> tareas) {
+		return tareas.stream().map(Tarea::getIdTarea).collect(Collectors.toSet());
+	}
+
+	private Usuario guardarUsuario(String nombre, String email) {
+		Usuario usuario = new Usuario();
+		usuario.setNombre(nombre);
+		usuario.setEmail(email);
+		usuario.setPassword("Test1234");
+		return ur.save(usuario);
+	}
+
+	private Tarea guardarTarea(Usuario usuario, String titulo, String descripcion, Prioridad prioridad, int tiempo,
+			LocalDateTime fechaEntrega, LocalDateTime fechaCompletada, Categoria categoria) {
+		Tarea tarea = new Tarea(titulo, tiempo, prioridad, fechaEntrega, descripcion, categoria, usuario);
+		tarea.setCompletada(fechaCompletada != null);
+		tarea.setFechaCompletada(fechaCompletada);
+		return tr.save(tarea);
+	}
+
+	private void asignarEnGrupo(Usuario creador, Usuario miembro, Tarea tareaGenerada) {
+		Grupo grupo = new Grupo();
+		grupo.setNombre("Grupo filtro");
+		grupo.setCodigoPublico("GRPFILTRO");
+		grupo.setCodigoInvitacion("INVFILTRO");
+		grupo.setCreador(creador);
+		gr.save(grupo);
+
+		AsignacionGrupo asignacion = new AsignacionGrupo();
+		asignacion.setGrupo(grupo);
+		asignacion.setCreadorAsignacion(creador);
+		asignacion.setTitulo(tareaGenerada.getTitulo());
+		asignacion.setPrioridad(tareaGenerada.getPrioridad());
+		asignacion.setTiempo(tareaGenerada.getTiempo());
+		asignacion.setTipoAsignacion(TipoAsignacionGrupo.SELECCION_MANUAL);
+		agr.save(asignacion);
+
+		AsignacionGrupoMiembro asignacionMiembro = new AsignacionGrupoMiembro();
+		asignacionMiembro.setAsignacionGrupo(asignacion);
+		asignacionMiembro.setUsuarioMiembro(miembro);
+		asignacionMiembro.setTareaGenerada(tareaGenerada);
+		agmr.save(asignacionMiembro);
+	}
+}
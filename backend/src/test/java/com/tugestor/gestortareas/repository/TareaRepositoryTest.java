@@ -9,9 +9,13 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
+import com.tugestor.gestortareas.dto.TareaResponse;
 import com.tugestor.gestortareas.model.Categoria;
+import com.tugestor.gestortareas.model.Estado;
 import com.tugestor.gestortareas.model.Prioridad;
 import com.tugestor.gestortareas.model.Tarea;
 import com.tugestor.gestortareas.model.Usuario;
@@ -26,6 +30,8 @@ public class TareaRepositoryTest {
 	private UsuarioRepository ur;
 	@Autowired
 	private CategoriaRepository cr;	
+	@Autowired
+	private TestEntityManager em;
 
 	@Test
 	void findAllByUsuarioEmailOrderByTituloAsc_devuelveTareasOrdenadasPorTitulo() {
@@ -572,4 +578,119 @@ public class TareaRepositoryTest {
 		// Assert
 		assertTrue(resultado.isEmpty());
 	}
+	@Test
+	void findPaginaPorTituloTrasCursor_continuaTrasElUltimoSinRepetirConTitulosIguales() {
+		// Arrange
+		Usuario usuario = new Usuario();
+		usuario.setNombre("Usuario P");
+		usuario.setEmail("usuarioP@example.com");
+		usuario.setPassword("Test1234");
+		ur.save(usuario);
+
+		String[] titulos = {"Beta", "Alfa", "Beta", "Gamma"};
+		for (String titulo : titulos) {
+			Tarea tarea = new Tarea();
+			tarea.setTitulo(titulo);
+			tarea.setTiempo(10);
+			tarea.setPrioridad(Prioridad.MEDIA);
+			tarea.setUsuario(usuario);
+			tr.save(tarea);
+		}
+
+		// Act – primera pagina de dos y continuacion desde la ultima tarea devuelta
+		List<Tarea> primera = tr.findByUsuario_IdUsuarioOrderByTituloAscIdTareaAsc(
+				usuario.getIdUsuario(), PageRequest.of(0, 2));
+		Tarea ultima = primera.get(primera.size() - 1);
+		List<Tarea> segunda = tr.findPaginaPorTituloTrasCursor(
+				usuario.getIdUsuario(), ultima.getTitulo(), ultima.getIdTarea(), PageRequest.of(0, 2));
+
+		// Assert – Alfa, Beta | Beta, Gamma sin duplicar ni saltar la segunda Beta
+		assertEquals(List.of("Alfa", "Beta"), primera.stream().map(Tarea::getTitulo).toList());
+		assertEquals(List.of("Beta", "Gamma"), segunda.stream().map(Tarea::getTitulo).toList());
+		assertNotEquals(ultima.getIdTarea(), segunda.get(0).getIdTarea());
+	}
+	@Test
+	void marcarVencidasHasta_pasaAVencidaLasTareasEnCursoYaCumplidas() {
+		// Arrange – tarea en curso al guardarse, con entrega dentro de una hora
+		Usuario usuario = new Usuario();
+		usuario.setNombre("Usuario E");
+		usuario.setEmail("usuarioE@example.com");
+		usuario.setPassword("Test1234");
+		ur.save(usuario);
+
+		Tarea tarea = new Tarea();
+		tarea.setTitulo("Entrega cercana");
+		tarea.setTiempo(10);
+		tarea.setPrioridad(Prioridad.MEDIA);
+		tarea.setFechaEntrega(LocalDateTime.now().plusHours(1));
+		tarea.setUsuario(usuario);
+		tr.save(tarea);
+		assertEquals(Estado.EN_CURSO, tarea.getEstadoPersistido());
+
+		// Antes del barrido la consulta de vencidas ya la detecta por fechaEntrega
+		LocalDateTime despuesDeEntrega = LocalDateTime.now().plusHours(2);
+		assertEquals(1, tr.findVencidasPorUsuarioEmail(usuario.getEmail(), despuesDeEntrega).size());
+
+		// Act – barrido con el corte pasada la fecha de entrega
+		int actualizadas = tr.marcarVencidasHasta(despuesDeEntrega);
+		em.clear();
+
+		// Assert
+		assertEquals(1, actualizadas);
+		assertEquals(Estado.VENCIDA, tr.findById(tarea.getIdTarea()).orElseThrow().getEstadoPersistido());
+		assertEquals(1, tr.findVencidasPorUsuarioEmail(usuario.getEmail(), despuesDeEntrega).size());
+		assertTrue(tr.findEnCursoPorUsuarioEmail(usuario.getEmail(), despuesDeEntrega).isEmpty());
+	}
+	@Test
+	void findResponsesByUsuarioEmailOrderByPrioridad_proyectaCamposYOrdenaDeMayorAMenor() {
+		// Arrange – una tarea con categoria completada por otro usuario y otra sin categoria
+		Usuario usuario = new Usuario();
+		usuario.setNombre("Usuario P");
+		usuario.setEmail("usuarioP@example.com");
+		usuario.setPassword("Test1234");
+		ur.save(usuario);
+
+		Usuario companero = new Usuario();
+		companero.setNombre("Usuario Q");
+		companero.setEmail("usuarioQ@example.com");
+		companero.setPassword("Test1234");
+		ur.save(companero);
+
+		Categoria categoria = new Categoria("Estudio", "#00FF00", "icono", false);
+		categoria.setUsuario(usuario);
+		cr.save(categoria);
+
+		Tarea baja = new Tarea();
+		baja.setTitulo("Tarea baja");
+		baja.setTiempo(10);
+		baja.setPrioridad(Prioridad.BAJA);
+		baja.setFechaEntrega(LocalDateTime.now().plusDays(1));
+		baja.setCategoria(categoria);
+		baja.setCompletada(true);
+		baja.setFechaCompletada(LocalDateTime.now());
+		baja.setUsuarioQueCompleta(companero);
+		baja.setUsuario(usuario);
+		tr.save(baja);
+
+		Tarea imprescindible = new Tarea();
+		imprescindible.setTitulo("Tarea imprescindible");
+		imprescindible.setTiempo(10);
+		imprescindible.setPrioridad(Prioridad.IMPRESCINDIBLE);
+		imprescindible.setUsuario(usuario);
+		tr.save(imprescindible);
+		em.clear();
+
+		// Act
+		List<TareaResponse> resultado = tr.findResponsesByUsuarioEmailOrderByPrioridad(usuario.getEmail());
+
+		// Assert – la proyeccion trae los datos de las relaciones sin cargar entidades
+		assertEquals(2, resultado.size());
+		assertEquals("Tarea imprescindible", resultado.get(0).getTitulo());
+		assertNull(resultado.get(0).getCategoriaNombre());
+		assertEquals(Estado.SIN_FECHA.name(), resultado.get(0).getEstado());
+		assertEquals("Estudio", resultado.get(1).getCategoriaNombre());
+		assertEquals(companero.getEmail(), resultado.get(1).getEmailUsuarioQueCompleta());
+		assertEquals(Estado.COMPLETADA.name(), resultado.get(1).getEstado());
+		assertEquals(usuario.getIdUsuario(), resultado.get(1).getIdUsuario());
+	}
 }
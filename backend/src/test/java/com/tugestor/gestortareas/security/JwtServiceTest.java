@@ -0,0 +1,120 @@
+package com.tugestor.gestortareas.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.tugestor.gestortareas.model.Usuario;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+
+class JwtServiceTest {
+	private static final String SECRETO = "CLAVESECRETApruebas123";
+
+	private final JwtService jwtService = new JwtService(SECRETO, 900_000, 604_800_000, 16);
+	private final UserDetails ana = usuario("ana@ejemplo.com");
+
+	@Test
+	void validateToken_accessToken_devuelveClaimsYReutilizaLaVerificacion() {
+		// Arrange
+		String token = jwtService.generateAccessToken(ana);
+
+		// Act
+		ValidatedToken primera = jwtService.validateToken(token);
+		ValidatedToken segunda = jwtService.validateToken(token);
+
+		// Assert
+		assertEquals("ana@ejemplo.com", primera.getUsername());
+		assertTrue(primera.isAccessToken());
+		assertFalse(primera.isRefreshToken());
+		assertSame(primera, segunda);
+		assertTrue(jwtService.isAccessTokenValid(token, ana));
+		assertFalse(jwtService.isAccessTokenValid(token, usuario("luis@ejemplo.com")));
+	}
+
+	@Test
+	void validateToken_refreshToken_noEsAccessToken() {
+		// Arrange
+		String token = jwtService.generateRefreshToken(ana);
+
+		// Act & Assert
+		assertTrue(jwtService.validateToken(token).isRefreshToken());
+		assertFalse(jwtService.isAccessTokenValid(token, ana));
+		assertTrue(jwtService.isRefreshTokenValid(token, ana));
+	}
+
+	@Test
+	void validateToken_firmaDeOtraClave_lanzaExcepcion() {
+		// Arrange
+		String ajeno = new JwtService("OTRACLAVEdistinta456", 900_000, 604_800_000, 16).generateAccessToken(ana);
+
+		// Act & Assert
+		assertThrows(JwtException.class, () -> jwtService.validateToken(ajeno));
+	}
+
+	@Test
+	void validateToken_tokenExpirado_lanzaExcepcion() {
+		// Arrange
+		JwtService caducado = new JwtService(SECRETO, -60_000, 604_800_000, 16);
+		String token = caducado.generateAccessToken(ana);
+
+		// Act & Assert
+		assertThrows(ExpiredJwtException.class, () -> jwtService.validateToken(token));
+	}
+
+	@Test
+	void generateAccessToken_usuarioDetalles_firmaIdYVersion() {
+		// Arrange
+		UsuarioDetalles detalles = new UsuarioDetalles(entidad(7L, "ana@ejemplo.com", 2));
+
+		// Act
+		ValidatedToken validado = jwtService.validateToken(jwtService.generateAccessToken(detalles));
+
+		// Assert
+		assertEquals(7L, validado.getIdUsuario());
+		assertEquals(2, validado.getVersionToken());
+		assertTrue(jwtService.perteneceA(validado, detalles));
+	}
+
+	@Test
+	void perteneceA_versionSubida_rechazaLosTokensAnteriores() {
+		// Arrange
+		String token = jwtService.generateAccessToken(new UsuarioDetalles(entidad(7L, "ana@ejemplo.com", 0)));
+		UsuarioDetalles trasCerrarSesiones = new UsuarioDetalles(entidad(7L, "ana@ejemplo.com", 1));
+
+		// Act & Assert
+		assertFalse(jwtService.isAccessTokenValid(token, trasCerrarSesiones));
+	}
+
+	@Test
+	void perteneceA_tokenSinClaimsDeVersion_valeComoVersionCero() {
+		// Arrange: token emitido con un UserDetails generico, como los anteriores a la version de token
+		String token = jwtService.generateAccessToken(ana);
+		ValidatedToken validado = jwtService.validateToken(token);
+
+		// Act & Assert
+		assertNull(validado.getIdUsuario());
+		assertTrue(jwtService.perteneceA(validado, new UsuarioDetalles(entidad(7L, "ana@ejemplo.com", 0))));
+		assertFalse(jwtService.perteneceA(validado, new UsuarioDetalles(entidad(7L, "ana@ejemplo.com", 1))));
+	}
+
+	private static Usuario entidad(Long id, String email, int versionToken) {
+		Usuario usuario = new Usuario(id);
+		usuario.setEmail(email);
+		usuario.setPassword("hash");
+		usuario.setVersionToken(versionToken);
+		return usuario;
+	}
+
+	private static UserDetails usuario(String email) {
+		return User.builder().username(email).password("hash").roles("USER").build();
+	}
+}
@@ -0,0 +1,119 @@
+package com.tugestor.gestortareas.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.tugestor.gestortareas.exception.HashSaturadoException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordEncoderAcotadoTest {
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final ExecutorService clientes = Executors.newCachedThreadPool();
+	private PasswordEncoderAcotado encoder;
+
+	@AfterEach
+	void tearDown() {
+		clientes.shutdownNow();
+		if (encoder != null) {
+			encoder.destroy();
+		}
+	}
+
+	@Test
+	void delegating_hashAntiguoSinPrefijo_validaYPideRehash() {
+		// Arrange
+		DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt",
+				Map.of("bcrypt", new BCryptPasswordEncoder(4)));
+		delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(4));
+		encoder = new PasswordEncoderAcotado(delegating, 1, 4, Duration.ofSeconds(5), registry);
+		String hashAntiguo = new BCryptPasswordEncoder(4).encode("Password123");
+
+		// Act
+		String hashNuevo = encoder.encode("Password123");
+
+		// Assert
+		assertTrue(encoder.matches("Password123", hashAntiguo));
+		assertTrue(encoder.upgradeEncoding(hashAntiguo));
+		assertTrue(hashNuevo.startsWith("{bcrypt}"));
+		assertTrue(encoder.matches("Password123", hashNuevo));
+		assertFalse(encoder.upgradeEncoding(hashNuevo));
+	}
+
+	@Test
+	void encode_poolYColaLlenos_lanzaHashSaturadoYCuentaElRechazo() throws Exception {
+		// Arrange: un hilo ocupado y una cola de 1 ya en uso
+		CountDownLatch dentro = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		encoder = new PasswordEncoderAcotado(bloqueante(dentro, liberar), 1, 1, Duration.ofSeconds(5), registry);
+		clientes.submit(() -> encoder.encode("ocupa-el-hilo"));
+		assertTrue(dentro.await(5, TimeUnit.SECONDS));
+		clientes.submit(() -> encoder.encode("ocupa-la-cola"));
+		esperarCola(1);
+
+		// Act & Assert
+		assertThrows(HashSaturadoException.class, () -> encoder.encode("sobra"));
+		assertEquals(1.0, registry.get("seguridad.hash.rechazos").counter().count());
+		liberar.countDown();
+	}
+
+	@Test
+	void matches_esperaAgotada_lanzaHashSaturado() throws Exception {
+		// Arrange
+		CountDownLatch dentro = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		encoder = new PasswordEncoderAcotado(bloqueante(dentro, liberar), 1, 1, Duration.ofMillis(50), registry);
+
+		// Act & Assert
+		assertThrows(HashSaturadoException.class, () -> encoder.matches("Password123", "hash"));
+		liberar.countDown();
+	}
+
+	private void esperarCola(int tamanio) throws InterruptedException {
+		long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (registry.get("executor.queued").tag("name", PasswordEncoderAcotado.NOMBRE_METRICA).gauge()
+				.value() < tamanio && System.nanoTime() < limite) {
+			Thread.sleep(5);
+		}
+	}
+
+	private static PasswordEncoder bloqueante(CountDownLatch dentro, CountDownLatch liberar) {
+		return new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				esperar();
+				return rawPassword.toString();
+			}
+
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				esperar();
+				return true;
+			}
+
+			private void esperar() {
+				dentro.countDown();
+				try {
+					liberar.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+	}
+}
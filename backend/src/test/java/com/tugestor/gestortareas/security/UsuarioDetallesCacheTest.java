@@ -0,0 +1,78 @@
+package com.tugestor.gestortareas.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UsuarioDetallesCacheTest {
+	private SimpleMeterRegistry registry;
+	private UsuarioDetallesCache cache;
+	private AtomicInteger cargas;
+
+	@BeforeEach
+	void setUp() {
+		registry = new SimpleMeterRegistry();
+		cache = new UsuarioDetallesCache(registry, Duration.ofSeconds(30), 100);
+		cargas = new AtomicInteger();
+	}
+
+	@Test
+	void obtener_segundaPeticion_noVuelveACargar() {
+		// Act
+		UserDetails primera = cache.obtener("ana@ejemplo.com", this::cargar);
+		UserDetails segunda = cache.obtener("ana@ejemplo.com", this::cargar);
+
+		// Assert
+		assertSame(primera, segunda);
+		assertEquals(1, cargas.get());
+		assertEquals(0.5, cache.ratioAciertos());
+		assertEquals(0.5, registry.get("cache.ratio.aciertos").tag("cache", UsuarioDetallesCache.NOMBRE_METRICA)
+				.gauge().value());
+	}
+
+	@Test
+	void invalidarUsuario_obligaARecargar() {
+		// Arrange
+		cache.obtener("Ana@Ejemplo.com", this::cargar);
+		cache.obtener("luis@ejemplo.com", this::cargar);
+
+		// Act
+		cache.invalidarUsuario("ana@ejemplo.com");
+		cache.obtener("Ana@Ejemplo.com", this::cargar);
+		cache.obtener("luis@ejemplo.com", this::cargar);
+
+		// Assert
+		assertEquals(3, cargas.get());
+	}
+
+	@Test
+	void obtener_usuarioInexistente_noSeCachea() {
+		// Arrange
+		AtomicInteger intentos = new AtomicInteger();
+
+		// Act & Assert
+		for (int i = 0; i < 2; i++) {
+			assertThrows(UsernameNotFoundException.class, () -> cache.obtener("nadie@ejemplo.com", username -> {
+				intentos.incrementAndGet();
+				throw new UsernameNotFoundException("Usuario no encontrado: " + username);
+			}));
+		}
+		assertEquals(2, intentos.get());
+	}
+
+	private UserDetails cargar(String username) {
+		cargas.incrementAndGet();
+		return User.builder().username(username).password("hash").roles("USER").build();
+	}
+}
@@ -0,0 +1,78 @@
+package com.tugestor.gestortareas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tugestor.gestortareas.repository.BloqueoProgramadoRepository;
+
+/* Dos instancias (dos propietarios) contra la misma tabla. BloqueoCluster confirma sus propias transacciones,
+ * asi que el test va sin la transaccion envolvente de @DataJpaTest y cada caso usa su propio nombre de lease. */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BloqueoClusterTest {
+	private static final LocalDateTime AHORA = LocalDateTime.of(2026, 3, 1, 10, 0);
+	private static final Duration PERIODO = Duration.ofSeconds(60);
+
+	@Autowired
+	private BloqueoProgramadoRepository bpr;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void ejecutar_otroPropietarioNoRepiteLaTareaHastaQuePasaElPeriodo() {
+		// Arrange
+		BloqueoCluster nodoA = nodo(AHORA);
+		BloqueoCluster nodoB = nodo(AHORA.plusSeconds(30));
+		BloqueoCluster nodoBSiguienteCiclo = nodo(AHORA.plusSeconds(61));
+
+		// Act – A termina su ciclo; B llega despues dentro del mismo periodo y luego en el siguiente
+		Optional<String> ejecucionA = nodoA.ejecutar("avisos-periodo", PERIODO, () -> "A");
+		Optional<String> ejecucionB = nodoB.ejecutar("avisos-periodo", PERIODO, () -> "B");
+		Optional<String> ejecucionBSiguiente = nodoBSiguienteCiclo.ejecutar("avisos-periodo", PERIODO, () -> "B");
+
+		// Assert
+		assertEquals(Optional.of("A"), ejecucionA);
+		assertTrue(ejecucionB.isEmpty());
+		assertEquals(Optional.of("B"), ejecucionBSiguiente);
+		assertEquals(AHORA.plusSeconds(61).plus(PERIODO),
+				bpr.findById("avisos-periodo").orElseThrow().getBloqueadoHasta());
+	}
+
+	@Test
+	void ejecutar_siLaTareaFallaSueltaElLeaseEnElActo() {
+		// Arrange
+		BloqueoCluster nodoA = nodo(AHORA);
+		BloqueoCluster nodoB = nodo(AHORA);
+
+		// Act
+		assertThrows(IllegalStateException.class, () -> nodoA.ejecutar("avisos-fallo", PERIODO, () -> {
+			throw new IllegalStateException("fallo en la tarea");
+		}));
+		Optional<String> ejecucionB = nodoB.ejecutar("avisos-fallo", PERIODO, () -> "B");
+
+		// Assert – B la reintenta en el mismo periodo
+		assertEquals(Optional.of("B"), ejecucionB);
+	}
+
+	private BloqueoCluster nodo(LocalDateTime ahora) {
+		ZoneId zona = ZoneId.systemDefault();
+		return new BloqueoCluster(bpr, transactionManager, Clock.fixed(ahora.atZone(zona).toInstant(), zona),
+				Duration.ofMinutes(5));
+	}
+}
@@ -6,6 +6,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.ArgumentMatchers.any;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -14,17 +15,24 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 import com.tugestor.gestortareas.dto.CategoriaRequest;
 import com.tugestor.gestortareas.model.Categoria;
+import com.tugestor.gestortareas.model.Tarea;
+import com.tugestor.gestortareas.model.Usuario;
 import com.tugestor.gestortareas.repository.CategoriaRepository;
 import com.tugestor.gestortareas.repository.TareaRepository;
+import com.tugestor.gestortareas.repository.UsuarioRepository;
+import com.tugestor.gestortareas.security.AuthenticatedUser;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -34,8 +42,17 @@ public class CategoriaServiceImplTest {
 	private CategoriaRepository cr;
 	@Mock
 	private TareaRepository tr;
+	@Mock
+	private UsuarioRepository ur;
+	@Mock
+	private RecomendacionesCache recomendacionesCache;
 	@InjectMocks
 	private CategoriaServiceImpl csimpl;
+
+	@AfterEach
+	void limpiarSeguridad() {
+		SecurityContextHolder.clearContext();
+	}
 	
 	@Test
 	void guardarCategoria_categoriaGuardadaCorrectamente() {
@@ -116,6 +133,34 @@ public class CategoriaServiceImplTest {
 		verify(cr, times(1)).delete(categoria);
 	}
 
+	@Test
+	void eliminarPorId_desvinculaTareasEInvalidaLasRecomendacionesDelUsuario() {
+		// Arrange
+		Long idCategoria = 3L;
+		Usuario usuario = new Usuario(10L);
+		usuario.setEmail("ana@ejemplo.com");
+		Categoria categoria = new Categoria(idCategoria);
+		categoria.setUsuario(usuario);
+		Tarea tarea = new Tarea(7L);
+		tarea.setCategoria(categoria);
+		AuthenticatedUser principal = new AuthenticatedUser(10L, "ana@ejemplo.com");
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList()));
+
+		when(cr.findById(idCategoria)).thenReturn(Optional.of(categoria));
+		when(ur.getReferenceById(10L)).thenReturn(usuario);
+		when(tr.findByCategoria_IdCategoria(idCategoria)).thenReturn(List.of(tarea));
+
+		// Act
+		csimpl.eliminarPorId(idCategoria);
+
+		// Assert
+		assertNull(tarea.getCategoria());
+		verify(tr).save(tarea);
+		verify(recomendacionesCache).invalidarUsuario("ana@ejemplo.com");
+		verify(cr).delete(categoria);
+	}
+
 	@Test
 	void eliminarPorId_lanzaExcepcionSiNoExiste() {
 		// Arrange
@@ -0,0 +1,133 @@
+package com.tugestor.gestortareas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+import com.tugestor.gestortareas.config.WebPushProperties;
+
+class ClientePushTest {
+	private static final Instant INICIO = Instant.parse("2026-03-01T10:00:00Z");
+
+	private final WebPushProperties properties = new WebPushProperties();
+	private final Clock clock = mock(Clock.class);
+	private final List<String> autorizaciones = new CopyOnWriteArrayList<>();
+	private final List<String> codificaciones = new CopyOnWriteArrayList<>();
+	private HttpServer servidor;
+	private String endpoint;
+	private ClientePush cliente;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		// Servicio push de pega en local: guarda las cabeceras y responde 201 como FCM o Mozilla
+		servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		servidor.createContext("/push", intercambio -> {
+			autorizaciones.add(intercambio.getRequestHeaders().getFirst("Authorization"));
+			codificaciones.add(intercambio.getRequestHeaders().getFirst("Content-Encoding"));
+			intercambio.getRequestBody().readAllBytes();
+			intercambio.sendResponseHeaders(201, -1);
+			intercambio.close();
+		});
+		servidor.start();
+		endpoint = "http://localhost:" + servidor.getAddress().getPort() + "/push/";
+
+		KeyPair vapid = generarClaves();
+		properties.setVapidPublicKey(codificar((ECPublicKey) vapid.getPublic()));
+		properties.setVapidPrivateKey(codificar((ECPrivateKey) vapid.getPrivate()));
+		properties.setVapidValidez(Duration.ofHours(12));
+		properties.setVapidRenovacion(Duration.ofHours(1));
+		cliente = new ClientePush(properties, clock);
+	}
+
+	@AfterEach
+	void tearDown() {
+		servidor.stop(0);
+	}
+
+	@Test
+	void enviar_mismaAudiencia_reutilizaElJwtVapidHastaElMargenDeRenovacion() throws Exception {
+		// Arrange: dos envios dentro de la validez y un tercero a 11h30, ya dentro del margen de 1h
+		when(clock.instant()).thenReturn(INICIO, INICIO.plus(Duration.ofHours(10)),
+				INICIO.plus(Duration.ofMinutes(11 * 60 + 30)));
+		String p256dh = codificar((ECPublicKey) generarClaves().getPublic());
+		String auth = Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[16]);
+		assertNull(cliente.preparar());
+
+		// Act
+		int primero = cliente.enviar(endpoint + "a", p256dh, auth, "{\"title\":\"Uno\"}");
+		cliente.enviar(endpoint + "b", p256dh, auth, "{\"title\":\"Dos\"}");
+		cliente.enviar(endpoint + "c", p256dh, auth, "{\"title\":\"Tres\"}");
+
+		// Assert
+		assertEquals(201, primero);
+		assertEquals(List.of("aesgcm", "aesgcm", "aesgcm"), codificaciones);
+		assertTrue(autorizaciones.get(0).startsWith("WebPush "));
+		assertEquals(autorizaciones.get(0), autorizaciones.get(1));
+		assertNotEquals(autorizaciones.get(1), autorizaciones.get(2));
+		String claims = new String(Base64.getUrlDecoder().decode(autorizaciones.get(0).split("\\.")[1]),
+				StandardCharsets.UTF_8);
+		assertTrue(claims.contains("\"aud\":\"http://localhost\""));	// Origen como PushService: sin puerto
+	}
+
+	@Test
+	void preparar_sinClavesVapid_devuelveElMotivo() {
+		// Arrange
+		properties.setVapidPrivateKey(" ");
+
+		// Act
+		String motivo = cliente.preparar();
+
+		// Assert
+		assertEquals("Configuracion Web Push incompleta.", motivo);
+	}
+
+	private static KeyPair generarClaves() throws Exception {
+		KeyPairGenerator generador = KeyPairGenerator.getInstance("EC");
+		generador.initialize(new ECGenParameterSpec("secp256r1"));
+		return generador.generateKeyPair();
+	}
+
+	// Formato de las claves VAPID y p256dh: punto sin comprimir (0x04 || X || Y) en base64url
+	private static String codificar(ECPublicKey clave) {
+		byte[] punto = new byte[65];
+		punto[0] = 0x04;
+		copiar(clave.getW().getAffineX(), punto, 1);
+		copiar(clave.getW().getAffineY(), punto, 33);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(punto);
+	}
+
+	private static String codificar(ECPrivateKey clave) {
+		byte[] d = new byte[32];
+		copiar(clave.getS(), d, 0);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(d);
+	}
+
+	private static void copiar(BigInteger valor, byte[] destino, int desde) {
+		byte[] bytes = valor.toByteArray();
+		int longitud = Math.min(bytes.length, 32);
+		System.arraycopy(bytes, bytes.length - longitud, destino, desde + 32 - longitud, longitud);
+	}
+}
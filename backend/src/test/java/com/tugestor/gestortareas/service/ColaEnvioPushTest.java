@@ -0,0 +1,70 @@
+package com.tugestor.gestortareas.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ColaEnvioPushTest {
+	private final WebPushService webPushService = mock(WebPushService.class);
+	private ColaEnvioPush cola;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		cola.destroy();
+	}
+
+	@Test
+	void avisar_despiertaAlConsumidorSinEsperarAlIntervalo() {
+		// Arrange
+		cola = new ColaEnvioPush(webPushService, 1, 10, Duration.ofHours(1));
+		cola.iniciar();
+
+		// Act
+		cola.avisar();
+
+		// Assert
+		verify(webPushService, timeout(5000)).procesarPendientes(10);
+	}
+
+	@Test
+	void consumir_loteCompleto_sigueReclamandoHastaVaciar() {
+		// Arrange: dos lotes llenos y uno parcial
+		when(webPushService.procesarPendientes(anyInt())).thenReturn(10, 10, 3, 0);
+		cola = new ColaEnvioPush(webPushService, 1, 10, Duration.ofHours(1));
+		cola.iniciar();
+
+		// Act
+		cola.avisar();
+
+		// Assert
+		verify(webPushService, timeout(5000).times(3)).procesarPendientes(10);
+	}
+
+	@Test
+	void consumir_sinAvisos_revisaLaTablaCadaIntervalo() throws InterruptedException {
+		// Arrange: es lo que recoge reintentos y envios que dejo otra instancia
+		CountDownLatch revisiones = new CountDownLatch(2);
+		when(webPushService.procesarPendientes(anyInt())).thenAnswer(invocation -> {
+			revisiones.countDown();
+			return 0;
+		});
+		cola = new ColaEnvioPush(webPushService, 1, 10, Duration.ofMillis(20));
+
+		// Act
+		cola.iniciar();
+
+		// Assert
+		assertTrue(revisiones.await(5, TimeUnit.SECONDS));
+		verify(webPushService, timeout(5000).atLeast(2)).procesarPendientes(10);
+	}
+}
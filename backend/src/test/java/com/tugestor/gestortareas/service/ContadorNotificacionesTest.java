@@ -0,0 +1,104 @@
+package com.tugestor.gestortareas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.tugestor.gestortareas.dto.NotificacionesActivasUsuario;
+import com.tugestor.gestortareas.repository.NotificacionRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ContadorNotificacionesTest {
+	private NotificacionRepository nr;
+	private ContadorNotificaciones contador;
+
+	@BeforeEach
+	void setUp() {
+		nr = mock(NotificacionRepository.class);
+		contador = new ContadorNotificaciones(nr, new SimpleMeterRegistry(), Duration.ofMinutes(30));
+	}
+
+	@Test
+	void contar_siembraUnaVezYLuegoSigueAltasYCierres() {
+		// Arrange
+		when(nr.countByUsuario_IdUsuarioAndCerradaFalse(1L)).thenReturn(3L);
+		contador.contar(1L);
+
+		// Act
+		contador.sumarTrasCommit(new NotificacionCreadaEvent(10L, 1L));
+		contador.sumarTrasCommit(new NotificacionCreadaEvent(11L, 1L));
+		contador.restarTrasCommit(new NotificacionesCerradasEvent(1L, 4));
+
+		// Assert
+		assertEquals(1, contador.contar(1L));
+		verify(nr, times(1)).countByUsuario_IdUsuarioAndCerradaFalse(1L);
+	}
+
+	@Test
+	void sumarTrasCommit_usuarioSinSembrar_noHaceNada() {
+		// Arrange
+		when(nr.countByUsuario_IdUsuarioAndCerradaFalse(2L)).thenReturn(5L);
+
+		// Act
+		contador.sumarTrasCommit(new NotificacionCreadaEvent(10L, 2L));
+
+		// Assert: la siembra ya incluye esa notificacion
+		assertEquals(5, contador.contar(2L));
+	}
+
+	@Test
+	void reconciliar_corrigeLaDesviacionYPoneACeroAQuienNoTieneActivas() {
+		// Arrange
+		when(nr.countByUsuario_IdUsuarioAndCerradaFalse(1L)).thenReturn(3L);
+		when(nr.countByUsuario_IdUsuarioAndCerradaFalse(2L)).thenReturn(1L);
+		contador.contar(1L);
+		contador.contar(2L);
+		when(nr.contarActivasPorUsuarios(anyCollection()))
+				.thenReturn(List.of(new NotificacionesActivasUsuario(1L, 7L)));
+
+		// Act
+		contador.reconciliar();
+
+		// Assert
+		assertEquals(7, contador.contar(1L));
+		assertEquals(0, contador.contar(2L));
+	}
+
+	@Test
+	void reconciliar_usuarioInactivo_saleDeMemoriaYSeVuelveASembrar() throws InterruptedException {
+		// Arrange
+		contador = new ContadorNotificaciones(nr, new SimpleMeterRegistry(), Duration.ofMillis(20));
+		when(nr.countByUsuario_IdUsuarioAndCerradaFalse(1L)).thenReturn(3L);
+		contador.contar(1L);
+		Thread.sleep(60);
+
+		// Act – ni los eventos ni la reconciliacion cuentan como acceso
+		contador.sumarTrasCommit(new NotificacionCreadaEvent(10L, 1L));
+		contador.reconciliar();
+
+		// Assert
+		verify(nr, never()).contarActivasPorUsuarios(anyCollection());
+		assertEquals(3, contador.contar(1L));
+		verify(nr, times(2)).countByUsuario_IdUsuarioAndCerradaFalse(1L);
+	}
+
+	@Test
+	void reconciliar_sinUsuariosEnMemoria_noConsulta() {
+		// Act
+		contador.reconciliar();
+
+		// Assert
+		verify(nr, never()).contarActivasPorUsuarios(anyCollection());
+	}
+}
@@ -0,0 +1,102 @@
+package com.tugestor.gestortareas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import com.tugestor.gestortareas.model.OrdenPaginaTarea;
+import com.tugestor.gestortareas.model.Prioridad;
+import com.tugestor.gestortareas.model.Tarea;
+
+import jakarta.validation.ValidationException;
+
+public class CursorPaginaTareaTest {
+
+	@Test
+	void codificarYDecodificar_conservaIdYValorConDosPuntosEnElTitulo() {
+		// Arrange
+		Tarea tarea = new Tarea(7L);
+		tarea.setTitulo("Reunion: 10:30");
+
+		// Act
+		String token = CursorPaginaTarea.desde(OrdenPaginaTarea.TITULO, tarea).codificar();
+		CursorPaginaTarea cursor = CursorPaginaTarea.decodificar(token, OrdenPaginaTarea.TITULO);
+
+		// Assert
+		assertEquals(7L, cursor.getIdTarea());
+		assertEquals("Reunion: 10:30", cursor.getTitulo());
+	}
+
+	@Test
+	void codificarYDecodificar_fechaEntregaNulaMarcaElTramoSinFecha() {
+		// Arrange
+		Tarea sinFecha = new Tarea(3L);
+		Tarea conFecha = new Tarea(4L);
+		LocalDateTime fecha = LocalDateTime.of(2026, 5, 1, 9, 30);
+		conFecha.setFechaEntrega(fecha);
+
+		// Act
+		CursorPaginaTarea cursorSinFecha = CursorPaginaTarea.decodificar(
+				CursorPaginaTarea.desde(OrdenPaginaTarea.FECHA_ENTREGA, sinFecha).codificar(),
+				OrdenPaginaTarea.FECHA_ENTREGA);
+		CursorPaginaTarea cursorConFecha = CursorPaginaTarea.decodificar(
+				CursorPaginaTarea.desde(OrdenPaginaTarea.FECHA_ENTREGA, conFecha).codificar(),
+				OrdenPaginaTarea.FECHA_ENTREGA);
+
+		// Assert
+		assertNull(cursorSinFecha.getFechaEntrega());
+		assertEquals(fecha, cursorConFecha.getFechaEntrega());
+	}
+
+	@Test
+	void decodificar_sinCursor_devuelveNull() {
+		assertNull(CursorPaginaTarea.decodificar(null, OrdenPaginaTarea.ID));
+		assertNull(CursorPaginaTarea.decodificar("  ", OrdenPaginaTarea.ID));
+	}
+
+	@Test
+	void decodificar_base64Invalido_lanzaValidationException() {
+		assertThrows(ValidationException.class,
+				() -> CursorPaginaTarea.decodificar("no es base64!", OrdenPaginaTarea.ID));
+	}
+
+	@Test
+	void decodificar_cursorDeOtroOrden_lanzaValidationException() {
+		// Arrange
+		Tarea tarea = new Tarea(5L);
+		tarea.setPrioridad(Prioridad.ALTA);
+		String token = CursorPaginaTarea.desde(OrdenPaginaTarea.PRIORIDAD, tarea).codificar();
+
+		// Act + Assert
+		assertThrows(ValidationException.class,
+				() -> CursorPaginaTarea.decodificar(token, OrdenPaginaTarea.TIEMPO));
+	}
+
+	@Test
+	void decodificar_valorQueNoCorrespondeAlOrden_lanzaValidationException() {
+		assertThrows(ValidationException.class,
+				() -> CursorPaginaTarea.decodificar(token("PRIORIDAD:5:URGENTE"), OrdenPaginaTarea.PRIORIDAD));
+		assertThrows(ValidationException.class,
+				() -> CursorPaginaTarea.decodificar(token("TIEMPO:5:diez"), OrdenPaginaTarea.TIEMPO));
+		assertThrows(ValidationException.class,
+				() -> CursorPaginaTarea.decodificar(token("FECHA_ENTREGA:5:manana"), OrdenPaginaTarea.FECHA_ENTREGA));
+	}
+
+	@Test
+	void decodificar_idNoNumericoOPartesQueFaltan_lanzaValidationException() {
+		assertThrows(ValidationException.class,
+				() -> CursorPaginaTarea.decodificar(token("ID:abc:"), OrdenPaginaTarea.ID));
+		assertThrows(ValidationException.class,
+				() -> CursorPaginaTarea.decodificar(token("ID:5"), OrdenPaginaTarea.ID));
+	}
+
+	private static String token(String texto) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,68 @@
+package com.tugestor.gestortareas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.tugestor.gestortareas.model.Usuario;
+import com.tugestor.gestortareas.repository.NotificacionRepository;
+import com.tugestor.gestortareas.repository.UsuarioRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/* Sondeo del latido sin contexto de Spring: los envios van en el propio hilo y el latido no se programa,
+ * cada llamada a sondearYLatir es un latido. */
+class EmisoresNotificacionesTest {
+	private NotificacionRepository nr;
+	private UsuarioRepository ur;
+	private EmisoresNotificaciones emisores;
+
+	@BeforeEach
+	void setUp() {
+		nr = mock(NotificacionRepository.class);
+		ur = mock(UsuarioRepository.class);
+		emisores = new EmisoresNotificaciones(nr, ur, mock(ContadorNotificaciones.class), Runnable::run,
+				new SimpleMeterRegistry(), Duration.ofMinutes(30), Duration.ofSeconds(25));
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		emisores.destroy();
+	}
+
+	@Test
+	void sondearYLatir_conexionSinNotificacionesNoFrenaElDesdeDeLaConsulta() {
+		// Arrange – dos conexiones abiertas con la tabla en el id 10 y otras instancias creando notificaciones
+		// para usuarios que no estan conectados aqui
+		when(ur.findByEmail("ana@ejemplo.com")).thenReturn(Optional.of(new Usuario(1L)));
+		when(ur.findByEmail("luis@ejemplo.com")).thenReturn(Optional.of(new Usuario(2L)));
+		when(nr.findUltimoIdNotificacion()).thenReturn(10L, 10L, 100L, 120L, 130L, 140L);
+		when(nr.findActivasPosterioresPorUsuarios(anyCollection(), anyLong()))
+				.thenReturn(List.of());
+		emisores.suscribir("ana@ejemplo.com", null);
+		emisores.suscribir("luis@ejemplo.com", null);
+
+		// Act
+		for (int latido = 0; latido < 4; latido++) {
+			emisores.sondearYLatir();
+		}
+
+		// Assert – con un latido de retraso, cada sondeo parte de la marca global leida dos sondeos antes
+		ArgumentCaptor<Long> desde = ArgumentCaptor.forClass(Long.class);
+		verify(nr, times(4)).findActivasPosterioresPorUsuarios(anyCollection(), desde.capture());
+		assertEquals(List.of(10L, 10L, 100L, 120L), desde.getAllValues());
+	}
+}
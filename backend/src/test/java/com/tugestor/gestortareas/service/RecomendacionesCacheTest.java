@@ -0,0 +1,89 @@
+package com.tugestor.gestortareas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.tugestor.gestortareas.dto.FiltroTareaCombinadoRequest;
+import com.tugestor.gestortareas.dto.TareaFiltroCombinadoResponse;
+import com.tugestor.gestortareas.model.Prioridad;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RecomendacionesCacheTest {
+	private SimpleMeterRegistry registry;
+	private RecomendacionesCache cache;
+	private AtomicInteger calculos;
+
+	@BeforeEach
+	void setUp() {
+		registry = new SimpleMeterRegistry();
+		cache = new RecomendacionesCache(registry, Duration.ofMinutes(1), 100);
+		calculos = new AtomicInteger();
+	}
+
+	@Test
+	void obtener_mismoUsuarioYFiltroEquivalente_calculaUnaSolaVez() {
+		// Arrange: prioridad legacy y lista de un elemento son el mismo filtro; el email no distingue mayusculas
+		FiltroTareaCombinadoRequest legacy = new FiltroTareaCombinadoRequest();
+		legacy.setPrioridad(Prioridad.ALTA);
+		legacy.setPalabrasClave("  Informe ");
+		FiltroTareaCombinadoRequest lista = new FiltroTareaCombinadoRequest();
+		lista.setPrioridades(List.of(Prioridad.ALTA));
+		lista.setPalabrasClave("informe");
+
+		// Act
+		List<TareaFiltroCombinadoResponse> primera = cache.obtener("ana@ejemplo.com", legacy, 5, this::calcular);
+		List<TareaFiltroCombinadoResponse> segunda = cache.obtener("ANA@ejemplo.com", lista, 5, this::calcular);
+
+		// Assert
+		assertSame(primera, segunda);
+		assertEquals(1, calculos.get());
+		assertEquals(1.0, registry.get("cache.gets").tag("cache", RecomendacionesCache.NOMBRE_METRICA)
+				.tag("result", "hit").functionCounter().count());
+		assertEquals(1.0, registry.get("cache.gets").tag("cache", RecomendacionesCache.NOMBRE_METRICA)
+				.tag("result", "miss").functionCounter().count());
+	}
+
+	@Test
+	void obtener_limiteDistinto_noCompartenEntrada() {
+		// Arrange
+		FiltroTareaCombinadoRequest filtro = new FiltroTareaCombinadoRequest();
+
+		// Act
+		cache.obtener("ana@ejemplo.com", filtro, 5, this::calcular);
+		cache.obtener("ana@ejemplo.com", filtro, 10, this::calcular);
+
+		// Assert
+		assertEquals(2, calculos.get());
+	}
+
+	@Test
+	void invalidarUsuario_soloBorraLasEntradasDeEseUsuario() {
+		// Arrange
+		FiltroTareaCombinadoRequest filtro = new FiltroTareaCombinadoRequest();
+		cache.obtener("ana@ejemplo.com", filtro, 5, this::calcular);
+		cache.obtener("ana@ejemplo.com", filtro, null, this::calcular);
+		cache.obtener("luis@ejemplo.com", filtro, 5, this::calcular);
+
+		// Act
+		cache.invalidarUsuario("Ana@Ejemplo.com");
+
+		// Assert
+		assertEquals(1, cache.tamanioEstimado());
+		cache.obtener("luis@ejemplo.com", filtro, 5, this::calcular);
+		cache.obtener("ana@ejemplo.com", filtro, 5, this::calcular);
+		assertEquals(4, calculos.get());
+	}
+
+	private List<TareaFiltroCombinadoResponse> calcular() {
+		calculos.incrementAndGet();
+		return List.of(new TareaFiltroCombinadoResponse());
+	}
+}
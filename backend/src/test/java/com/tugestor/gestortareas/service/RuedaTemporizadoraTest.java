@@ -0,0 +1,95 @@
+package com.tugestor.gestortareas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class RuedaTemporizadoraTest {
+	private static final long TICK = 1000;
+	private static final long INICIO = 1_000_000 * TICK;
+
+	@Test
+	void avanzar_venceEnSuTickYNoAntes() {
+		// Arrange
+		RuedaTemporizadora<Long> rueda = new RuedaTemporizadora<>(TICK, INICIO);
+		rueda.programar(1L, INICIO + 5 * TICK + 1);
+
+		// Act
+		List<Long> antes = rueda.avanzar(INICIO + 5 * TICK);
+		List<Long> despues = rueda.avanzar(INICIO + 6 * TICK);
+
+		// Assert
+		assertTrue(antes.isEmpty());
+		assertEquals(List.of(1L), despues);
+		assertEquals(0, rueda.tamanio());
+	}
+
+	@Test
+	void avanzar_bajaDeNivelSinAdelantarNiRetrasar() {
+		// Arrange: vencimientos repartidos por los cuatro niveles y por 'lejanos'
+		RuedaTemporizadora<Long> rueda = new RuedaTemporizadora<>(TICK, INICIO);
+		long[] esperas = { 63, 64, 65, 4_095, 4_097, 262_145, 16_777_300, 20_000_000 };
+		for (int i = 0; i < esperas.length; i++) {
+			rueda.programar((long) i, INICIO + esperas[i] * TICK);
+		}
+
+		// Act: avanzo un tick antes de cada vencimiento y luego justo hasta el
+		List<Long> adelantados = new ArrayList<>();
+		List<Long> vencidos = new ArrayList<>();
+		for (int i = 0; i < esperas.length; i++) {
+			adelantados.addAll(rueda.avanzar(INICIO + (esperas[i] - 1) * TICK));
+			vencidos.addAll(rueda.avanzar(INICIO + esperas[i] * TICK));
+		}
+
+		// Assert
+		assertTrue(adelantados.isEmpty());
+		assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L), vencidos);
+	}
+
+	@Test
+	void cancelar_quitaElElemento() {
+		// Arrange
+		RuedaTemporizadora<Long> rueda = new RuedaTemporizadora<>(TICK, INICIO);
+		rueda.programar(1L, INICIO + 10 * TICK);
+
+		// Act
+		boolean cancelado = rueda.cancelar(1L);
+
+		// Assert
+		assertTrue(cancelado);
+		assertFalse(rueda.cancelar(1L));
+		assertTrue(rueda.avanzar(INICIO + 20 * TICK).isEmpty());
+	}
+
+	@Test
+	void programar_reprogramaSinDuplicar() {
+		// Arrange
+		RuedaTemporizadora<Long> rueda = new RuedaTemporizadora<>(TICK, INICIO);
+		rueda.programar(1L, INICIO + 10 * TICK);
+
+		// Act
+		rueda.programar(1L, INICIO + 100 * TICK);
+
+		// Assert
+		assertEquals(1, rueda.tamanio());
+		assertTrue(rueda.avanzar(INICIO + 99 * TICK).isEmpty());
+		assertEquals(List.of(1L), rueda.avanzar(INICIO + 100 * TICK));
+	}
+
+	@Test
+	void programar_enElPasado_venceEnElSiguienteAvance() {
+		// Arrange
+		RuedaTemporizadora<Long> rueda = new RuedaTemporizadora<>(TICK, INICIO);
+
+		// Act
+		rueda.programar(1L, INICIO - 60 * TICK);
+
+		// Assert
+		assertEquals(List.of(1L), rueda.avanzar(INICIO));
+	}
+}
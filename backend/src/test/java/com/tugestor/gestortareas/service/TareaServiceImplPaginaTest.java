@@ -0,0 +1,190 @@
+package com.tugestor.gestortareas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.tugestor.gestortareas.dto.PaginaTareasResponse;
+import com.tugestor.gestortareas.dto.TareaResponse;
+import com.tugestor.gestortareas.model.OrdenPaginaTarea;
+import com.tugestor.gestortareas.model.Prioridad;
+import com.tugestor.gestortareas.model.Tarea;
+import com.tugestor.gestortareas.model.Usuario;
+import com.tugestor.gestortareas.repository.AsignacionGrupoMiembroRepository;
+import com.tugestor.gestortareas.repository.CategoriaRepository;
+import com.tugestor.gestortareas.repository.EstadoFiltroTareaRepository;
+import com.tugestor.gestortareas.repository.GrupoMiembroRepository;
+import com.tugestor.gestortareas.repository.GrupoRepository;
+import com.tugestor.gestortareas.repository.NotificacionRepository;
+import com.tugestor.gestortareas.repository.RecordatorioTareaRepository;
+import com.tugestor.gestortareas.repository.TareaRepository;
+import com.tugestor.gestortareas.repository.UsuarioRepository;
+import com.tugestor.gestortareas.service.scoring.TareaInteligenteRankingService;
+
+/* Recorre GET /api/tarea/pagina de principio a fin contra H2 con varios tamanios de pagina, para que los
+ * cortes caigan dentro de un tramo y justo en el cambio de tramo (de una prioridad a la siguiente, o de
+ * las tareas con fecha a las que no tienen). El resultado concatenado debe ser el orden completo sin
+ * duplicados ni huecos y hayMas solo puede ser false en la ultima pagina. */
+@DataJpaTest
+@ActiveProfiles("test")
+public class TareaServiceImplPaginaTest {
+	private static final String EMAIL = "pagina@ejemplo.com";
+	private static final int[] TAMANIOS = {1, 2, 3, 4, 7, 12, 50};
+
+	@Autowired
+	private TareaRepository tr;
+	@Autowired
+	private CategoriaRepository cr;
+	@Autowired
+	private UsuarioRepository ur;
+	@Autowired
+	private RecordatorioTareaRepository rtr;
+
+	private TareaServiceImpl ts;
+	private Usuario usuario;
+
+	@BeforeEach
+	void setUp() {
+		ts = new TareaServiceImpl(tr, cr, ur, mock(AsignacionGrupoMiembroRepository.class),
+				mock(GrupoRepository.class), mock(GrupoMiembroRepository.class),
+				mock(EstadoFiltroTareaRepository.class), rtr, mock(NotificacionRepository.class),
+				mock(TareaInteligenteRankingService.class), mock(RecomendacionesCache.class));
+		usuario = new Usuario();
+		usuario.setNombre("Usuario pagina");
+		usuario.setEmail(EMAIL);
+		usuario.setPassword("Test1234");
+		ur.save(usuario);
+
+		// Otro usuario con tareas de todas las prioridades que nunca deben aparecer
+		Usuario otro = new Usuario();
+		otro.setNombre("Usuario ajeno");
+		otro.setEmail("ajeno@ejemplo.com");
+		otro.setPassword("Test1234");
+		ur.save(otro);
+		for (Prioridad prioridad : Prioridad.values()) {
+			guardarTarea(otro, prioridad, null);
+		}
+	}
+
+	@Test
+	void obtenerPagina_porPrioridad_recorreTodosLosTramosSinDuplicadosNiHuecos() {
+		// Arrange – ninguna tarea ALTA: el recorrido tiene que saltar un tramo vacio
+		List<Tarea> tareas = new ArrayList<>();
+		Prioridad[] prioridades = {Prioridad.BAJA, Prioridad.IMPRESCINDIBLE, Prioridad.MEDIA,
+				Prioridad.IMPRESCINDIBLE, Prioridad.BAJA, Prioridad.MEDIA, Prioridad.IMPRESCINDIBLE,
+				Prioridad.BAJA, Prioridad.MEDIA, Prioridad.BAJA, Prioridad.IMPRESCINDIBLE, Prioridad.MEDIA};
+		for (Prioridad prioridad : prioridades) {
+			tareas.add(guardarTarea(usuario, prioridad, null));
+		}
+		List<Long> esperado = tareas.stream()
+				.sorted(Comparator.comparing((Tarea t) -> -t.getPrioridad().ordinal())
+						.thenComparing(Tarea::getIdTarea))
+				.map(Tarea::getIdTarea)
+				.toList();
+
+		for (int tamanio : TAMANIOS) {
+			// Act
+			List<Long> recorrido = recorrer(OrdenPaginaTarea.PRIORIDAD, tamanio);
+
+			// Assert
+			assertEquals(esperado, recorrido, "tamanio " + tamanio);
+		}
+	}
+
+	@Test
+	void obtenerPagina_porFechaEntrega_dejaLasTareasSinFechaAlFinal() {
+		// Arrange – fechas repetidas para forzar el desempate por id y tareas sin fecha intercaladas
+		LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+		LocalDateTime[] fechas = {null, base.plusHours(5), base, null, base.plusHours(5), base.plusHours(1),
+				null, base, base.plusHours(9), null, base.plusHours(1), base};
+		List<Tarea> tareas = new ArrayList<>();
+		for (LocalDateTime fecha : fechas) {
+			tareas.add(guardarTarea(usuario, Prioridad.MEDIA, fecha));
+		}
+		List<Long> esperado = tareas.stream()
+				.sorted(Comparator.comparing(Tarea::getFechaEntrega,
+						Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()))
+						.thenComparing(Tarea::getIdTarea))
+				.map(Tarea::getIdTarea)
+				.toList();
+
+		for (int tamanio : TAMANIOS) {
+			// Act
+			List<Long> recorrido = recorrer(OrdenPaginaTarea.FECHA_ENTREGA, tamanio);
+
+			// Assert
+			assertEquals(esperado, recorrido, "tamanio " + tamanio);
+		}
+	}
+
+	@Test
+	void obtenerPagina_porFechaEntrega_soloSinFecha_usaElTramoFinalDesdeElPrincipio() {
+		// Arrange
+		List<Long> esperado = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			esperado.add(guardarTarea(usuario, Prioridad.BAJA, null).getIdTarea());
+		}
+
+		// Act
+		List<Long> recorrido = recorrer(OrdenPaginaTarea.FECHA_ENTREGA, 2);
+
+		// Assert
+		assertEquals(esperado, recorrido);
+	}
+
+	@Test
+	void obtenerPagina_sinTareas_devuelvePaginaVaciaSinCursor() {
+		// Act
+		PaginaTareasResponse pagina = ts.obtenerPagina(OrdenPaginaTarea.PRIORIDAD, null, 5, EMAIL);
+
+		// Assert
+		assertTrue(pagina.getTareas().isEmpty());
+		assertFalse(pagina.isHayMas());
+		assertNull(pagina.getSiguienteCursor());
+	}
+
+	// Pide paginas hasta que hayMas es false y comprueba el contrato de cada una por el camino
+	private List<Long> recorrer(OrdenPaginaTarea orden, int tamanio) {
+		List<Long> ids = new ArrayList<>();
+		String cursor = null;
+		boolean hayMas = true;
+		while (hayMas) {
+			PaginaTareasResponse pagina = ts.obtenerPagina(orden, cursor, tamanio, EMAIL);
+			hayMas = pagina.isHayMas();
+			cursor = pagina.getSiguienteCursor();
+			if (hayMas) {
+				assertEquals(tamanio, pagina.getTareas().size(), "pagina intermedia incompleta");
+				assertNotNull(cursor);
+			} else {
+				assertNull(cursor);
+			}
+			pagina.getTareas().stream().map(TareaResponse::getIdTarea).forEach(ids::add);
+			assertTrue(ids.size() <= 100, "el recorrido no termina");
+		}
+		return ids;
+	}
+
+	private Tarea guardarTarea(Usuario propietario, Prioridad prioridad, LocalDateTime fechaEntrega) {
+		Tarea tarea = new Tarea();
+		tarea.setTitulo("Tarea " + prioridad);
+		tarea.setTiempo(10);
+		tarea.setPrioridad(prioridad);
+		tarea.setFechaEntrega(fechaEntrega);
+		tarea.setUsuario(propietario);
+		return tr.save(tarea);
+	}
+}
@@ -17,12 +17,14 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 
 import com.tugestor.gestortareas.dto.FiltroTareaCombinadoRequest;
@@ -32,14 +34,19 @@ import com.tugestor.gestortareas.dto.TareaResponse;
 import com.tugestor.gestortareas.model.Categoria;
 import com.tugestor.gestortareas.model.Estado;
 import com.tugestor.gestortareas.model.EstadoFiltroTarea;
+import com.tugestor.gestortareas.model.OrdenPaginaTarea;
+import com.tugestor.gestortareas.model.OrigenTareaFiltro;
 import com.tugestor.gestortareas.model.Prioridad;
 import com.tugestor.gestortareas.model.Tarea;
+import com.tugestor.gestortareas.model.TipoRecordatorioTarea;
 import com.tugestor.gestortareas.model.Usuario;
 import com.tugestor.gestortareas.repository.AsignacionGrupoMiembroRepository;
 import com.tugestor.gestortareas.repository.CategoriaRepository;
 import com.tugestor.gestortareas.repository.EstadoFiltroTareaRepository;
 import com.tugestor.gestortareas.repository.GrupoMiembroRepository;
 import com.tugestor.gestortareas.repository.GrupoRepository;
+import com.tugestor.gestortareas.repository.NotificacionRepository;
+import com.tugestor.gestortareas.repository.RecordatorioTareaRepository;
 import com.tugestor.gestortareas.repository.TareaRepository;
 import com.tugestor.gestortareas.repository.UsuarioRepository;
 import com.tugestor.gestortareas.service.scoring.TareaInteligenteRankingService;
@@ -65,7 +72,13 @@ public class TareaServiceImplTest {
 	@Mock
 	private EstadoFiltroTareaRepository eftr;
 	@Mock
+	private RecordatorioTareaRepository rtr;
+	@Mock
+	private NotificacionRepository nr;
+	@Mock
 	private TareaInteligenteRankingService rankingInteligenteService;
+	@Mock
+	private RecomendacionesCache recomendacionesCache;
 	// La clase que estamos probando con los mocks inyectados
 	@InjectMocks
 	private TareaServiceImpl tsimpl;
@@ -373,6 +386,7 @@ public class TareaServiceImplTest {
 
 		// Assert
 		verify(tr, times(1)).delete(tarea);
+		verify(recomendacionesCache).invalidarUsuario(emailUsuario);
 	}
 	@Test
 	void eliminarPorId_lanzaExcepcionSiTareaNoExiste() {
@@ -767,6 +781,30 @@ public class TareaServiceImplTest {
 
 		verify(tr, times(1)).findAllByUsuarioEmailOrderByFechaEntregaAsc(emailUsuario);
 	}
+	
+	@Test
+	void listarTareaResponses_usaLaProyeccionDelOrdenYMarcaRecordatorios() {
+		// Arrange
+		String emailUsuario = "user@ejemplo.com";
+		TareaResponse conRecordatorio = new TareaResponse();
+		conRecordatorio.setIdTarea(1L);
+		TareaResponse sinRecordatorio = new TareaResponse();
+		sinRecordatorio.setIdTarea(2L);
+
+		when(tr.findResponsesByUsuarioEmailOrderByPrioridad(emailUsuario))
+				.thenReturn(List.of(conRecordatorio, sinRecordatorio));
+		when(rtr.findActiveTaskIdsByUsuarioEmailAndTipo(emailUsuario,
+				TipoRecordatorioTarea.RECORDATORIO_INTELIGENTE, List.of(1L, 2L))).thenReturn(List.of(1L));
+
+		// Act
+		List<TareaResponse> resultado = tsimpl.listarTareaResponses(OrdenPaginaTarea.PRIORIDAD, emailUsuario);
+
+		// Assert
+		assertEquals(2, resultado.size());
+		assertTrue(resultado.get(0).isRecordatorioInteligenteActivo());
+		assertFalse(resultado.get(1).isRecordatorioInteligenteActivo());
+		verify(tr, never()).findAllByUsuarioEmailOrderByPrioridadAsc(emailUsuario);
+	}
 
 	@Test
 	void filtrarPorPrioridad_listaConResultados() {
@@ -1069,6 +1107,7 @@ public class TareaServiceImplTest {
 		assertNotNull(respuesta.getFechaCompletada());
 
 		verify(tr, times(1)).save(any(Tarea.class));
+		verify(recomendacionesCache).invalidarUsuario(emailUsuario);
 	}
 	@Test
 	void marcarTareaCompletada_lanzaExcepcionSiTareaNoExiste() {
@@ -1145,7 +1184,7 @@ public class TareaServiceImplTest {
 		tarea.setCompletada(false);
 		tarea.setFechaEntrega(LocalDateTime.now().plusDays(1));
 
-		when(tr.findByUsuarioEmail(emailUsuario)).thenReturn(List.of(tarea));
+		when(tr.findEnCursoPorUsuarioEmail(eq(emailUsuario), any(LocalDateTime.class))).thenReturn(List.of(tarea));
 
 		// Act
 		List<Tarea> resultado = tsimpl.filtrarPorEstado(estado, emailUsuario);
@@ -1155,7 +1194,7 @@ public class TareaServiceImplTest {
 		assertEquals(1, resultado.size());
 		assertEquals(estado, resultado.get(0).getEstado());
 
-		verify(tr, times(1)).findByUsuarioEmail(emailUsuario);
+		verify(tr, times(1)).findEnCursoPorUsuarioEmail(eq(emailUsuario), any(LocalDateTime.class));
 	}
 	@Test
 	void filtrarPorEstado_listaVacia() {
@@ -1163,7 +1202,7 @@ public class TareaServiceImplTest {
 		String emailUsuario = "user@ejemplo.com";
 		Estado estado = Estado.EN_CURSO;
 
-		when(tr.findByUsuarioEmail(emailUsuario)).thenReturn(List.of());
+		when(tr.findEnCursoPorUsuarioEmail(eq(emailUsuario), any(LocalDateTime.class))).thenReturn(List.of());
 
 		// Act
 		List<Tarea> resultado = tsimpl.filtrarPorEstado(estado, emailUsuario);
@@ -1172,9 +1211,24 @@ public class TareaServiceImplTest {
 		assertNotNull(resultado);
 		assertTrue(resultado.isEmpty());
 
-		verify(tr, times(1)).findByUsuarioEmail(emailUsuario);
+		verify(tr, times(1)).findEnCursoPorUsuarioEmail(eq(emailUsuario), any(LocalDateTime.class));
 	}
 
+	@Test
+	void filtrarPorEstado_estadoEstable_consultaLaColumnaPersistida() {
+		// Arrange
+		String emailUsuario = "user@ejemplo.com";
+		Tarea tarea = new Tarea(1L);
+		tarea.setCompletada(true);
+		when(tr.findByUsuarioEmailAndEstadoPersistido(emailUsuario, Estado.COMPLETADA)).thenReturn(List.of(tarea));
+
+		// Act
+		List<Tarea> resultado = tsimpl.filtrarPorEstado(Estado.COMPLETADA, emailUsuario);
+
+		// Assert
+		assertEquals(1, resultado.size());
+		verify(tr, never()).findByUsuarioEmail(emailUsuario);
+	}
 	@Test
 	void obtenerTareasHoy_listaConResultados() {
 		// Arrange
@@ -1219,72 +1273,83 @@ public class TareaServiceImplTest {
 		.findByUsuarioEmailAndFechaEntregaBetween(eq(emailUsuario), eq(inicioHoy), eq(inicioManiana));
 	}
 
+	// El filtrado en si se comprueba contra BBDD en TareaFiltroCombinadoSpecificationsTest
 	@Test
-	void filtrarCombinado_prioridadLegacy_filtraPorPrioridadUnica() {
+	void filtrarCombinado_origenTodas_consultaTareasPersonalesYAsignacionesEnBBDD() {
 		String emailUsuario = "filtro@ejemplo.com";
 		FiltroTareaCombinadoRequest filtro = new FiltroTareaCombinadoRequest();
-		filtro.setPrioridad(Prioridad.ALTA);
-		prepararFiltroCombinado(emailUsuario, tareasFiltroCombinado());
+		filtro.setPrioridades(List.of(Prioridad.ALTA, Prioridad.IMPRESCINDIBLE));
+		prepararFiltroCombinado(emailUsuario, List.of(
+				tareaFiltroCombinado(3L, Prioridad.ALTA, LocalDateTime.now().plusDays(1))));
 
 		List<TareaFiltroCombinadoResponse> resultado = tsimpl.filtrarCombinado(filtro, emailUsuario);
 
 		assertEquals(1, resultado.size());
-		assertEquals(Prioridad.ALTA, resultado.get(0).getPrioridad());
+		verify(tr, times(1)).findAll(any(Specification.class));
+		verify(agmr, times(1)).findAll(any(Specification.class));
+		verify(tr, never()).findByUsuarioEmail(emailUsuario);
 	}
 
 	@Test
-	void filtrarCombinado_prioridades_filtraPorVariasPrioridades() {
+	void filtrarCombinado_origenGrupo_noConsultaTareasPersonales() {
 		String emailUsuario = "filtro@ejemplo.com";
 		FiltroTareaCombinadoRequest filtro = new FiltroTareaCombinadoRequest();
-		filtro.setPrioridades(List.of(Prioridad.ALTA, Prioridad.IMPRESCINDIBLE));
-		prepararFiltroCombinado(emailUsuario, tareasFiltroCombinado());
+		filtro.setOrigen(OrigenTareaFiltro.GRUPO);
+		Usuario usuario = new Usuario(1L);
+		usuario.setEmail(emailUsuario);
+		when(ur.findByEmail(emailUsuario)).thenReturn(Optional.of(usuario));
+		when(agmr.findAll(any(Specification.class))).thenReturn(List.of());
 
 		List<TareaFiltroCombinadoResponse> resultado = tsimpl.filtrarCombinado(filtro, emailUsuario);
 
-		assertEquals(2, resultado.size());
-		assertTrue(resultado.stream()
-				.allMatch(tarea -> List.of(Prioridad.ALTA, Prioridad.IMPRESCINDIBLE)
-						.contains(tarea.getPrioridad())));
+		assertTrue(resultado.isEmpty());
+		verify(tr, never()).findAll(any(Specification.class));
 	}
 
 	@Test
-	void filtrarCombinado_estadoLegacy_filtraPorEstadoUnico() {
+	void obtenerTareasRecomendadas_conLimite_usaElRankingTopK() {
 		String emailUsuario = "filtro@ejemplo.com";
-		FiltroTareaCombinadoRequest filtro = new FiltroTareaCombinadoRequest();
-		filtro.setEstado(Estado.EN_CURSO);
-		prepararFiltroCombinado(emailUsuario, tareasFiltroCombinado());
+		Usuario usuario = new Usuario(1L);
+		usuario.setEmail(emailUsuario);
+		when(ur.findByEmail(emailUsuario)).thenReturn(Optional.of(usuario));
+		when(tr.findAll(any(Specification.class))).thenReturn(List.of());
+		when(agmr.findAll(any(Specification.class))).thenReturn(List.of());
+		when(rankingInteligenteService.mejoresPorScore(any(), eq(3))).thenReturn(List.of());
+		calcularSinCache(emailUsuario, 3);
 
-		List<TareaFiltroCombinadoResponse> resultado = tsimpl.filtrarCombinado(filtro, emailUsuario);
+		List<TareaFiltroCombinadoResponse> resultado = tsimpl.obtenerTareasRecomendadas(null, 3, emailUsuario);
 
-		assertEquals(1, resultado.size());
-		assertEquals("EN_CURSO", resultado.get(0).getEstado());
+		assertTrue(resultado.isEmpty());
+		verify(rankingInteligenteService, never()).ordenarPorScoreDesc(any());
 	}
 
 	@Test
-	void filtrarCombinado_estados_filtraPorVariosEstados() {
+	void obtenerTareasRecomendadas_enCache_noConsultaRepositorios() {
+		// Arrange
 		String emailUsuario = "filtro@ejemplo.com";
-		FiltroTareaCombinadoRequest filtro = new FiltroTareaCombinadoRequest();
-		filtro.setEstados(List.of(Estado.EN_CURSO, Estado.VENCIDA, Estado.SIN_FECHA));
-		prepararFiltroCombinado(emailUsuario, tareasFiltroCombinado());
+		List<TareaFiltroCombinadoResponse> cacheadas = List.of(new TareaFiltroCombinadoResponse());
+		when(recomendacionesCache.obtener(eq(emailUsuario), any(FiltroTareaCombinadoRequest.class), eq(5), any()))
+				.thenReturn(cacheadas);
 
-		List<TareaFiltroCombinadoResponse> resultado = tsimpl.filtrarCombinado(filtro, emailUsuario);
+		// Act
+		List<TareaFiltroCombinadoResponse> resultado = tsimpl.obtenerTareasRecomendadas(null, 5, emailUsuario);
 
-		assertEquals(3, resultado.size());
-		assertTrue(resultado.stream()
-				.allMatch(tarea -> List.of("EN_CURSO", "VENCIDA", "SIN_FECHA").contains(tarea.getEstado())));
+		// Assert
+		assertEquals(cacheadas, resultado);
+		verify(tr, never()).findAll(any(Specification.class));
+		verify(agmr, never()).findAll(any(Specification.class));
 	}
 
-	@Test
-	void filtrarCombinado_listasVacias_noFiltranPorPrioridadNiEstado() {
-		String emailUsuario = "filtro@ejemplo.com";
-		FiltroTareaCombinadoRequest filtro = new FiltroTareaCombinadoRequest();
-		filtro.setPrioridades(List.of());
-		filtro.setEstados(List.of());
-		prepararFiltroCombinado(emailUsuario, tareasFiltroCombinado());
-
-		List<TareaFiltroCombinadoResponse> resultado = tsimpl.filtrarCombinado(filtro, emailUsuario);
+	@SuppressWarnings("unchecked")
+	private void calcularSinCache(String emailUsuario, Integer limite) {
+		when(recomendacionesCache.obtener(eq(emailUsuario), any(FiltroTareaCombinadoRequest.class), eq(limite), any()))
+				.thenAnswer(invocation -> ((Supplier<List<TareaFiltroCombinadoResponse>>) invocation.getArgument(3)).get());
+	}
 
-		assertEquals(4, resultado.size());
+	@Test
+	void obtenerTareasRecomendadas_limiteNoPositivo_lanzaExcepcion() {
+		assertThrows(ValidationException.class,
+				() -> tsimpl.obtenerTareasRecomendadas(null, 0, "filtro@ejemplo.com"));
 	}
 
 	@Test
@@ -1327,8 +1392,8 @@ public class TareaServiceImplTest {
 		Usuario usuario = new Usuario(1L);
 		usuario.setEmail(emailUsuario);
 		when(ur.findByEmail(emailUsuario)).thenReturn(Optional.of(usuario));
-		when(agmr.findTareasAsignadasGrupoUsuario(emailUsuario)).thenReturn(List.of());
-		when(tr.findByUsuarioEmail(emailUsuario)).thenReturn(tareas);
+		when(agmr.findAll(any(Specification.class))).thenReturn(List.of());
+		when(tr.findAll(any(Specification.class))).thenReturn(tareas);
 	}
 
 	private Usuario prepararUsuarioFiltroGuardado(String emailUsuario) {
@@ -1338,15 +1403,6 @@ public class TareaServiceImplTest {
 		return usuario;
 	}
 
-	private List<Tarea> tareasFiltroCombinado() {
-		return List.of(
-				tareaFiltroCombinado(1L, Prioridad.BAJA, null),
-				tareaFiltroCombinado(2L, Prioridad.MEDIA, LocalDateTime.now().minusDays(1)),
-				tareaFiltroCombinado(3L, Prioridad.ALTA, LocalDateTime.now().plusDays(1)),
-				tareaFiltroCombinadoCompletada(4L, Prioridad.IMPRESCINDIBLE,
-						LocalDateTime.now().plusDays(2)));
-	}
-
 	private Tarea tareaFiltroCombinado(Long id, Prioridad prioridad, LocalDateTime fechaEntrega) {
 		Tarea tarea = new Tarea(id);
 		tarea.setTitulo("Tarea " + id);
@@ -1358,12 +1414,4 @@ public class TareaServiceImplTest {
 		tarea.setCompletada(false);
 		return tarea;
 	}
-
-	private Tarea tareaFiltroCombinadoCompletada(Long id, Prioridad prioridad,
-			LocalDateTime fechaEntrega) {
-		Tarea tarea = tareaFiltroCombinado(id, prioridad, fechaEntrega);
-		tarea.setCompletada(true);
-		tarea.setFechaCompletada(LocalDateTime.now());
-		return tarea;
-	}
 }
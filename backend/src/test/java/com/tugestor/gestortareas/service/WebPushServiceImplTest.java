@@ -0,0 +1,191 @@
+package com.tugestor.gestortareas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tugestor.gestortareas.config.WebPushProperties;
+import com.tugestor.gestortareas.model.EnvioPush;
+import com.tugestor.gestortareas.model.EstadoEnvioPush;
+import com.tugestor.gestortareas.model.EstadoPushNotificacion;
+import com.tugestor.gestortareas.model.Notificacion;
+import com.tugestor.gestortareas.model.PushSubscripcion;
+import com.tugestor.gestortareas.model.Usuario;
+import com.tugestor.gestortareas.repository.EnvioPushRepository;
+import com.tugestor.gestortareas.repository.NotificacionRepository;
+import com.tugestor.gestortareas.repository.PushSubscripcionRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class WebPushServiceImplTest {
+	private static final Clock RELOJ = Clock.fixed(Instant.parse("2026-03-01T10:00:00Z"), ZoneId.of("UTC"));
+	private static final LocalDateTime AHORA = LocalDateTime.now(RELOJ);
+
+	private final WebPushProperties properties = new WebPushProperties();
+	private final PushSubscripcionRepository psr = mock(PushSubscripcionRepository.class);
+	private final NotificacionRepository nr = mock(NotificacionRepository.class);
+	private final EnvioPushRepository epr = mock(EnvioPushRepository.class);
+	private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private WebPushServiceImpl servicio;
+
+	@BeforeEach
+	void setUp() {
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		servicio = new WebPushServiceImpl(properties, new ClientePush(properties, RELOJ), psr, nr, epr,
+				new ObjectMapper(), transactionManager, Runnable::run, RELOJ, registry);
+	}
+
+	@Test
+	void registrarEnvios_webPushDeshabilitado_quedaNoAplicaSinEnvios() {
+		// Arrange
+		properties.setEnabled(false);
+		Notificacion notificacion = new Notificacion();
+
+		// Act
+		servicio.registrarEnvios(notificacion);
+
+		// Assert
+		assertEquals(EstadoPushNotificacion.NO_APLICA, notificacion.getPushEstado());
+		verify(epr, never()).saveAll(anyList());
+	}
+
+	@Test
+	void registrarEnvios_conSubscripciones_escribeUnEnvioPorSubscripcion() {
+		// Arrange
+		properties.setEnabled(true);
+		Usuario usuario = new Usuario(1L);
+		Notificacion notificacion = mock(Notificacion.class);
+		when(notificacion.getUsuario()).thenReturn(usuario);
+		when(notificacion.getIdNotificacion()).thenReturn(5L);
+		List<PushSubscripcion> subscripciones = List.of(subscripcion(20L), subscripcion(21L));
+		when(psr.findByUsuarioAndActivaTrue(usuario)).thenReturn(subscripciones);
+
+		// Act
+		servicio.registrarEnvios(notificacion);
+
+		// Assert
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<EnvioPush>> envios = ArgumentCaptor.forClass(List.class);
+		verify(epr).saveAll(envios.capture());
+		assertEquals(2, envios.getValue().size());
+		assertEquals(5L, envios.getValue().get(0).getIdNotificacion());
+		assertEquals(AHORA, envios.getValue().get(1).getProximoIntento());
+		verify(notificacion).setPushEstado(EstadoPushNotificacion.PENDIENTE);
+	}
+
+	@Test
+	void procesarPendientes_webPushDeshabilitado_noReclamaNada() {
+		// Arrange
+		properties.setEnabled(false);
+
+		// Act
+		int procesados = servicio.procesarPendientes(10);
+
+		// Assert
+		assertEquals(0, procesados);
+		verify(epr, never()).reclamarPendientes(any(), anyInt());
+	}
+
+	@Test
+	void procesarPendientes_errorTransitorio_programaReintentoConEspera() {
+		// Arrange: sin claves VAPID el envio falla pero es reintentable
+		properties.setEnabled(true);
+		properties.setMaxIntentos(3);
+		EnvioPush fila = reclamarUna(1);
+
+		// Act
+		int procesados = servicio.procesarPendientes(10);
+
+		// Assert
+		assertEquals(1, procesados);
+		verify(epr).bloquearHasta(List.of(100L), AHORA.plus(properties.getBloqueoEnvio()));
+		assertEquals(EstadoEnvioPush.PENDIENTE, fila.getEstado());
+		assertTrue(fila.getProximoIntento().isAfter(AHORA));
+		assertEquals("Configuracion Web Push incompleta.", fila.getUltimoError());
+		assertEquals(1.0, registry.get(WebPushServiceImpl.NOMBRE_METRICA + ".reintentos").counter().count());
+		verify(nr, never()).marcarFallidasSinEnviosVivos(anyCollection(), any(), any());
+	}
+
+	@Test
+	void procesarPendientes_intentosAgotados_descartaYMarcaLaNotificacion() {
+		// Arrange
+		properties.setEnabled(true);
+		properties.setMaxIntentos(3);
+		EnvioPush fila = reclamarUna(3);
+
+		// Act
+		servicio.procesarPendientes(10);
+
+		// Assert
+		assertEquals(EstadoEnvioPush.DESCARTADO, fila.getEstado());
+		verify(nr).marcarFallidasSinEnviosVivos(eq(List.of(5L)), eq(AHORA), eq("Configuracion Web Push incompleta."));
+		assertEquals(1.0, registry.get(WebPushServiceImpl.NOMBRE_METRICA + ".descartados").counter().count());
+	}
+
+	@Test
+	void calcularEspera_creceExponencialmenteHastaElMaximo() {
+		// Arrange
+		Duration base = Duration.ofSeconds(30);
+		Duration maximo = Duration.ofHours(1);
+
+		// Act & Assert: con azar 0 sale la mitad fija y con azar 1 el valor completo
+		assertEquals(Duration.ofSeconds(15), WebPushServiceImpl.calcularEspera(1, base, maximo, 0));
+		assertEquals(Duration.ofSeconds(30), WebPushServiceImpl.calcularEspera(1, base, maximo, 1));
+		assertEquals(Duration.ofSeconds(120), WebPushServiceImpl.calcularEspera(3, base, maximo, 1));
+		assertEquals(maximo, WebPushServiceImpl.calcularEspera(40, base, maximo, 1));
+	}
+
+	// El repositorio devuelve la fila con 'intentosTrasReclamo' ya sumado, como tras bloquearHasta
+	private EnvioPush reclamarUna(int intentosTrasReclamo) {
+		EnvioPush reclamada = mock(EnvioPush.class);
+		when(reclamada.getIdEnvioPush()).thenReturn(100L);
+		when(reclamada.getIdNotificacion()).thenReturn(5L);
+		when(reclamada.getIdPushSubscripcion()).thenReturn(20L);
+		when(epr.reclamarPendientes(AHORA, 10)).thenReturn(List.of(reclamada));
+
+		Notificacion notificacion = mock(Notificacion.class);
+		when(notificacion.getIdNotificacion()).thenReturn(5L);
+		when(nr.findAllById(Set.of(5L))).thenReturn(List.of(notificacion));
+		List<PushSubscripcion> subscripciones = List.of(subscripcion(20L));
+		when(psr.findAllById(Set.of(20L))).thenReturn(subscripciones);
+
+		EnvioPush fila = new EnvioPush(5L, 20L, AHORA);
+		fila.setIntentos(intentosTrasReclamo);
+		EnvioPush espia = spy(fila);
+		when(espia.getIdEnvioPush()).thenReturn(100L);
+		when(epr.findAllById(Set.of(100L))).thenReturn(List.of(espia));
+		return espia;
+	}
+
+	private static PushSubscripcion subscripcion(Long id) {
+		PushSubscripcion subscripcion = mock(PushSubscripcion.class);
+		when(subscripcion.getIdPushSubscripcion()).thenReturn(id);
+		when(subscripcion.isActiva()).thenReturn(true);
+		return subscripcion;
+	}
+}
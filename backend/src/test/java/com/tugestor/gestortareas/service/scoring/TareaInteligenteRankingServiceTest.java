@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -19,7 +20,9 @@ import com.tugestor.gestortareas.model.Tarea;
 class TareaInteligenteRankingServiceTest {
 	private final LocalDateTime ahora = LocalDateTime.of(2026, 5, 21, 10, 0);
 	private final TareaInteligenteRankingService rankingService =
-			new TareaInteligenteRankingService(clockFijo());
+			new TareaInteligenteRankingService(clockFijo(), Integer.MAX_VALUE);
+	private final TareaInteligenteRankingService rankingParalelo =
+			new TareaInteligenteRankingService(clockFijo(), 0);
 
 	@Test
 	void tareaGrupoEntregadaOValidadaQuedaFueraDeCandidatas() {
@@ -57,6 +60,61 @@ class TareaInteligenteRankingServiceTest {
 		assertEquals(urgente.getIdTarea(), resultado.get(0).getTarea().getIdTarea());
 	}
 
+	@Test
+	void ordenarPorScoreDescCoincideConElComparadorDeReferencia() {
+		List<TareaScoringContext> contextos = mezclaConEmpates();
+		List<TareaScoringContext> esperado = contextos.stream()
+				.filter(rankingService::esCandidata)
+				.sorted(rankingService.comparadorInteligente())
+				.toList();
+
+		List<TareaScoringContext> resultado = rankingService.ordenarPorScoreDesc(contextos);
+
+		assertEquals(esperado, resultado);
+	}
+
+	@Test
+	void mejoresPorScoreDevuelveElPrincipioDelRankingCompleto() {
+		List<TareaScoringContext> contextos = mezclaConEmpates();
+		List<TareaScoringContext> completo = rankingService.ordenarPorScoreDesc(contextos);
+
+		assertEquals(completo.subList(0, 5), rankingService.mejoresPorScore(contextos, 5));
+		assertEquals(completo, rankingService.mejoresPorScore(contextos, completo.size() + 10));
+		assertTrue(rankingService.mejoresPorScore(contextos, 0).isEmpty());
+	}
+
+	@Test
+	void rankingParaleloDaElMismoOrdenQueElSecuencial() {
+		List<TareaScoringContext> contextos = new ArrayList<>();
+		for (int repeticion = 0; repeticion < 50; repeticion++) {
+			contextos.addAll(mezclaConEmpates());
+		}
+
+		List<TareaScoringContext> secuencial = rankingService.ordenarPorScoreDesc(contextos);
+
+		assertEquals(secuencial, rankingParalelo.ordenarPorScoreDesc(contextos));
+		assertEquals(secuencial.subList(0, 20), rankingParalelo.mejoresPorScore(contextos, 20));
+	}
+
+	// Tareas con fecha, sin fecha, vencidas y duplicadas por id y por score para forzar los desempates
+	private List<TareaScoringContext> mezclaConEmpates() {
+		Prioridad[] prioridades = Prioridad.values();
+		List<TareaScoringContext> contextos = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			LocalDateTime fechaEntrega = switch (i % 4) {
+			case 0 -> null;
+			case 1 -> ahora.plusHours(i % 7);
+			case 2 -> ahora.minusHours(i % 5 + 1);
+			default -> ahora.plusDays(i % 3 + 1);
+			};
+			Tarea tarea = tarea((long) (i % 30), prioridades[i % prioridades.length], 15 * (i % 3 + 1), fechaEntrega);
+			contextos.add(i % 6 == 0
+					? contextoGrupo(tarea, EstadoRevisionAsignacion.REABIERTA)
+					: TareaScoringContext.personal(tarea));
+		}
+		return contextos;
+	}
+
 	private TareaScoringContext contextoGrupo(Tarea tarea, EstadoRevisionAsignacion estadoRevision) {
 		AsignacionGrupoMiembro asignacion = new AsignacionGrupoMiembro();
 		asignacion.setTareaGenerada(tarea);
@@ -0,0 +1,110 @@
+package com.tugestor.gestortareas.service.scoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.tugestor.gestortareas.model.AsignacionGrupoMiembro;
+import com.tugestor.gestortareas.model.Categoria;
+import com.tugestor.gestortareas.model.EstadoRevisionAsignacion;
+import com.tugestor.gestortareas.model.Prioridad;
+import com.tugestor.gestortareas.model.Tarea;
+
+/* Test de propiedad con generador semillado: para cualquier contexto el scorer optimizado debe dar
+ * exactamente los mismos bits que TareaInteligenteScorer. Los casos cubren los limites de cada tramo,
+ * fechas con nanos por debajo del milisegundo y categorias que cambian de nombre con el mismo id. */
+class TareaInteligenteScorerOptimizadoTest {
+	private static final int CASOS = 100_000;
+	private static final long[] HORAS_LIMITE = { 0, 1, 3, 4, 6, 12, 18, 24, 30, 36, 48, 72, 96, 192 };
+	private static final int[] MINUTOS_LIMITE = { -5, 0, 1, 2, 5, 10, 15, 30, 60, 120, 240, 241, 242, 10_000 };
+	private static final String[] NOMBRES_CATEGORIA = {
+			"Trabajo/Estudios", "  trabajo/estudios ", "Doméstico", "DOMESTICO", "Ocio/Personal",
+			"Gimnasio", "", null };
+
+	private final TareaInteligenteScorer referencia = new TareaInteligenteScorer();
+	private final TareaInteligenteScorerOptimizado optimizado = new TareaInteligenteScorerOptimizado();
+
+	@Test
+	void scoreCoincideBitABitConElScorerDeReferencia() {
+		SplittableRandom random = new SplittableRandom(20260521L);
+		for (int caso = 0; caso < CASOS; caso++) {
+			LocalDateTime ahora = LocalDateTime.of(2020 + random.nextInt(10), 1 + random.nextInt(12),
+					1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60),
+					nanos(random));
+			TareaScoringContext context = contexto(random, ahora);
+
+			double esperado = referencia.calcularScore(context, ahora);
+			double obtenido = optimizado.calcularScore(context, ahora);
+
+			assertEquals(Double.doubleToRawLongBits(esperado), Double.doubleToRawLongBits(obtenido),
+					"Caso " + caso + ": esperado " + esperado + " y se obtuvo " + obtenido);
+		}
+	}
+
+	@Test
+	void contextosNulosPuntuanCero() {
+		LocalDateTime ahora = LocalDateTime.of(2026, 5, 21, 10, 0);
+
+		assertEquals(0.0, optimizado.calcularScore(null, ahora));
+		assertEquals(0.0, optimizado.calcularScore(TareaScoringContext.personal(null), ahora));
+		assertEquals(0.0, optimizado.calcularScore(TareaScoringContext.personal(new Tarea(1L)), null));
+	}
+
+	private TareaScoringContext contexto(SplittableRandom random, LocalDateTime ahora) {
+		Tarea tarea = new Tarea((long) random.nextInt(1_000));
+		tarea.setPrioridad(random.nextInt(10) == 0 ? null : Prioridad.values()[random.nextInt(4)]);
+		tarea.setTiempo(random.nextBoolean()
+				? MINUTOS_LIMITE[random.nextInt(MINUTOS_LIMITE.length)]
+				: random.nextInt(-10, 400));
+		tarea.setFechaEntrega(random.nextInt(7) == 0 ? null : ahora.plusNanos(desplazamientoEntrega(random)));
+		tarea.setFechaAgregado(random.nextInt(10) == 0
+				? null
+				: ahora.minusNanos(random.nextLong(-2L * 3_600_000_000_000L, 120L * 24 * 3_600_000_000_000L)));
+		tarea.setCategoria(categoria(random));
+
+		if (random.nextBoolean()) {
+			return TareaScoringContext.personal(tarea);
+		}
+		EstadoRevisionAsignacion[] estados = EstadoRevisionAsignacion.values();
+		AsignacionGrupoMiembro asignacion = new AsignacionGrupoMiembro();
+		asignacion.setTareaGenerada(tarea);
+		asignacion.setEstadoRevision(random.nextInt(3) == 0
+				? EstadoRevisionAsignacion.REABIERTA
+				: estados[random.nextInt(estados.length)]);
+		return TareaScoringContext.grupo(asignacion);
+	}
+
+	// Limites de tramo exactos o desplazados por debajo del milisegundo, o un punto cualquiera de +-90 dias
+	private long desplazamientoEntrega(SplittableRandom random) {
+		long hora = 3_600_000_000_000L;
+		if (random.nextBoolean()) {
+			long limite = HORAS_LIMITE[random.nextInt(HORAS_LIMITE.length)] * hora;
+			long signo = random.nextBoolean() ? 1 : -1;
+			return signo * limite + random.nextLong(-1_500_000, 1_500_000);
+		}
+		return random.nextLong(-90L * 24 * hora, 90L * 24 * hora);
+	}
+
+	private Categoria categoria(SplittableRandom random) {
+		int tipo = random.nextInt(6);
+		if (tipo == 0) {
+			return null;
+		}
+		// Pocos ids y varios nombres por id: obliga a invalidar el peso cacheado al renombrar
+		Categoria categoria = new Categoria(tipo == 1 ? null : (long) random.nextInt(5));
+		categoria.setNombre(NOMBRES_CATEGORIA[random.nextInt(NOMBRES_CATEGORIA.length)]);
+		categoria.setProtegida(random.nextInt(4) != 0);
+		return categoria;
+	}
+
+	private int nanos(SplittableRandom random) {
+		return switch (random.nextInt(3)) {
+		case 0 -> 0;
+		case 1 -> random.nextInt(1_000) * 1_000_000;
+		default -> random.nextInt(1_000_000_000);
+		};
+	}
+}